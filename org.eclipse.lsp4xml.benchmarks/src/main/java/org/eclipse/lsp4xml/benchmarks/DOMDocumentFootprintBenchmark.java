@@ -0,0 +1,117 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4xml.commons.TextDocument;
+import org.eclipse.lsp4xml.dom.DOMAttr;
+import org.eclipse.lsp4xml.dom.DOMCharacterData;
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMNode;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Heap retained by the DOM document of the corpus.
+ *
+ * <p>
+ * The text document is created before the measure, so the counters report
+ * only the heap of the DOM nodes: 'parsedKB' after the parse and 'visitedKB'
+ * after the names and values of all nodes and attributes have been read (the
+ * values are read lazily from the text).
+ * </p>
+ *
+ * <p>
+ * The counters are summed over the measurement iterations, so only one
+ * iteration is measured. Use it with the 'large' corpus and the time measure
+ * ignored:
+ * <code>DOMDocumentFootprintBenchmark -p size=large</code>
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 1, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "-XX:+UseParallelGC" })
+public class DOMDocumentFootprintBenchmark {
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		/**
+		 * Heap (in KB) retained by the parsed DOM document.
+		 */
+		public long parsedKB;
+
+		/**
+		 * Heap (in KB) retained by the DOM document once all values have been read.
+		 */
+		public long visitedKB;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			parsedKB = 0;
+			visitedKB = 0;
+		}
+	}
+
+	@Benchmark
+	public DOMDocument footprint(XMLCorpus corpus, Footprint footprint) {
+		TextDocument document = corpus.createTextDocument();
+		long before = usedHeap();
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+		footprint.parsedKB = (usedHeap() - before) / 1024;
+		visit(xmlDocument);
+		footprint.visitedKB = (usedHeap() - before) / 1024;
+		return xmlDocument;
+	}
+
+	private static void visit(DOMNode node) {
+		if (node.hasAttributes()) {
+			for (DOMAttr attr : node.getAttributeNodes()) {
+				attr.getName();
+				attr.getValue();
+				attr.getOriginalValue();
+			}
+		}
+		if (node.isCharacterData()) {
+			((DOMCharacterData) node).getData();
+		}
+		for (DOMNode child : node.getChildren()) {
+			visit(child);
+		}
+	}
+
+	private static long usedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
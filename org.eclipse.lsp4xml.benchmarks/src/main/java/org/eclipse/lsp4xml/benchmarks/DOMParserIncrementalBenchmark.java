@@ -0,0 +1,102 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.commons.ChangedRegion;
+import org.eclipse.lsp4xml.commons.TextDocument;
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of
+ * {@link DOMParser#reparse(DOMDocument, TextDocument, ChangedRegion, boolean, org.eclipse.lsp4j.jsonrpc.CancelChecker)}
+ * when a char is typed and removed in the middle of the corpus, compared with
+ * a full parse of the updated text.
+ *
+ * @author Angelo ZERR
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DOMParserIncrementalBenchmark {
+
+	@State(Scope.Thread)
+	public static class IncrementalDOMDocument {
+
+		TextDocument document;
+
+		DOMDocument xmlDocument;
+
+		List<TextDocumentContentChangeEvent> insert;
+
+		ChangedRegion inserted;
+
+		List<TextDocumentContentChangeEvent> delete;
+
+		ChangedRegion deleted;
+
+		@Setup
+		public void setup(XMLCorpus corpus) throws BadLocationException {
+			document = corpus.createTextDocument();
+			document.setIncremental(true);
+			xmlDocument = DOMParser.getInstance().parse(document, null);
+			// type and remove a char in the 'title' text of the dataset in the middle of
+			// the document
+			String text = corpus.getText();
+			int offset = text.indexOf("Proper", text.length() / 2);
+			Position position = document.positionAt(offset);
+			Position next = new Position(position.getLine(), position.getCharacter() + 1);
+			insert = Collections.singletonList(new TextDocumentContentChangeEvent(new Range(position, position), 0, "a"));
+			inserted = ChangedRegion.union(null, offset, 0, "a");
+			delete = Collections.singletonList(new TextDocumentContentChangeEvent(new Range(position, next), 1, ""));
+			deleted = ChangedRegion.union(null, offset, 1, "");
+		}
+	}
+
+	@Benchmark
+	public DOMDocument reparse(IncrementalDOMDocument state) {
+		DOMParser parser = DOMParser.getInstance();
+		state.document.update(state.insert);
+		DOMDocument xmlDocument = parser.reparse(state.xmlDocument, state.document, state.inserted, true, null);
+		state.document.update(state.delete);
+		state.xmlDocument = parser.reparse(xmlDocument, state.document, state.deleted, true, null);
+		return state.xmlDocument;
+	}
+
+	@Benchmark
+	public DOMDocument parse(IncrementalDOMDocument state) {
+		DOMParser parser = DOMParser.getInstance();
+		state.document.update(state.insert);
+		parser.parse(state.document, null);
+		state.document.update(state.delete);
+		return parser.parse(state.document, null);
+	}
+}
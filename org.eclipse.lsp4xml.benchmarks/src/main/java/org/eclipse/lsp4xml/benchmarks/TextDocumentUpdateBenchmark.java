@@ -0,0 +1,79 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.commons.TextDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link TextDocument#update(List)} with incremental changes.
+ * 
+ * @author Angelo ZERR
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextDocumentUpdateBenchmark {
+
+	@State(Scope.Thread)
+	public static class IncrementalDocument {
+
+		TextDocument document;
+
+		List<TextDocumentContentChangeEvent> insert;
+
+		List<TextDocumentContentChangeEvent> delete;
+
+		@Setup
+		public void setup(XMLCorpus corpus) throws BadLocationException {
+			document = corpus.createTextDocument();
+			document.setIncremental(true);
+			// type and remove a char in the middle of the document
+			Position position = document.positionAt(corpus.getText().length() / 2);
+			Position next = new Position(position.getLine(), position.getCharacter() + 1);
+			insert = Collections.singletonList(new TextDocumentContentChangeEvent(new Range(position, position), 0, "a"));
+			delete = Collections.singletonList(new TextDocumentContentChangeEvent(new Range(position, next), 1, ""));
+		}
+	}
+
+	@Benchmark
+	public TextDocument update(IncrementalDocument state) {
+		state.document.update(state.insert);
+		state.document.update(state.delete);
+		return state.document;
+	}
+
+	@Benchmark
+	public String updateAndGetText(IncrementalDocument state) {
+		state.document.update(state.insert);
+		state.document.update(state.delete);
+		return state.document.getText();
+	}
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.settings.SharedSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link org.eclipse.lsp4xml.services.XMLCompletions} with
+ * completion items coming from the XML Schema.
+ * 
+ * @author Angelo ZERR
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLCompletionsBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class CompletionPosition {
+
+		Position position;
+
+		SharedSettings settings;
+
+		@Setup
+		public void setup(XMLCorpus corpus, XMLLanguageServiceState state) throws BadLocationException {
+			// completion of elements in the middle of the corpus, after '<' of '<title'
+			int offset = corpus.getText().indexOf("<title", corpus.getText().length() / 2) + 1;
+			position = state.xmlDocument.positionAt(offset);
+			settings = new SharedSettings();
+		}
+	}
+
+	@Benchmark
+	public CompletionList doComplete(XMLLanguageServiceState state, CompletionPosition completion) {
+		return state.languageService.doComplete(state.xmlDocument, completion.position, completion.settings);
+	}
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.lsp4xml.commons.TextDocument;
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Synthetic XML corpus used by the benchmarks.
+ * 
+ * <p>
+ * The corpus is a list of 'dataset' elements (with attributes, text, comment
+ * and entity reference) bound to a generated XML Schema. It is written in a
+ * temporary folder to have a file URI, so that the XML Schema can be resolved
+ * without network access.
+ * </p>
+ * 
+ * @author Angelo ZERR
+ *
+ */
+@State(Scope.Benchmark)
+public class XMLCorpus {
+
+	/**
+	 * The corpus size : 'small' (~3KB), 'medium' (~300KB) or 'large' (~15MB).
+	 */
+	@Param({ "small", "medium", "large" })
+	public String size;
+
+	private Path folder;
+
+	private String text;
+
+	private String uri;
+
+	@Setup
+	public void setup() throws IOException {
+		folder = Files.createTempDirectory("lsp4xml-benchmarks");
+		Files.write(folder.resolve("corpus.xsd"), SCHEMA.getBytes(StandardCharsets.UTF_8));
+		Path file = folder.resolve("corpus.xml");
+		text = generate(getNbDatasets(size));
+		Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+		uri = file.toUri().toString();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(folder.resolve("corpus.xml"));
+		Files.deleteIfExists(folder.resolve("corpus.xsd"));
+		Files.deleteIfExists(folder);
+	}
+
+	/**
+	 * Returns the XML content of the corpus.
+	 * 
+	 * @return the XML content of the corpus.
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the file URI of the corpus.
+	 * 
+	 * @return the file URI of the corpus.
+	 */
+	public String getUri() {
+		return uri;
+	}
+
+	/**
+	 * Returns a new text document for the corpus.
+	 * 
+	 * @return a new text document for the corpus.
+	 */
+	public TextDocument createTextDocument() {
+		return new TextDocument(text, uri);
+	}
+
+	/**
+	 * Returns a new DOM document for the corpus.
+	 * 
+	 * @return a new DOM document for the corpus.
+	 */
+	public DOMDocument createDOMDocument() {
+		return DOMParser.getInstance().parse(createTextDocument(), null);
+	}
+
+	private static int getNbDatasets(String size) {
+		switch (size) {
+		case "small":
+			return 10;
+		case "medium":
+			return 1000;
+		case "large":
+			return 50000;
+		default:
+			throw new IllegalArgumentException("Unknown corpus size '" + size + "'.");
+		}
+	}
+
+	/**
+	 * Returns a XML content with the given number of 'dataset' elements.
+	 * 
+	 * @param nbDatasets the number of 'dataset' elements.
+	 * @return a XML content with the given number of 'dataset' elements.
+	 */
+	public static String generate(int nbDatasets) {
+		StringBuilder xml = new StringBuilder(nbDatasets * 320);
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append(
+				"<datasets xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:noNamespaceSchemaLocation=\"corpus.xsd\">\n");
+		for (int i = 0; i < nbDatasets; i++) {
+			xml.append("  <dataset subject=\"astronomy\" id=\"ds").append(i).append("\">\n");
+			xml.append("    <title>Proper Motions of Stars ").append(i).append("</title>\n");
+			xml.append("    <altname type=\"ADC\">").append(i).append("</altname>\n");
+			xml.append("    <!-- comment -->\n");
+			xml.append(
+					"    <para>Lorem ipsum dolor sit amet &amp; consectetur adipiscing elit sed do eiusmod</para>\n");
+			xml.append("  </dataset>\n");
+		}
+		xml.append("</datasets>");
+		return xml.toString();
+	}
+
+	private static final String SCHEMA = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + //
+			"<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" elementFormDefault=\"qualified\">\n" + //
+			"  <xs:element name=\"datasets\">\n" + //
+			"    <xs:complexType>\n" + //
+			"      <xs:sequence>\n" + //
+			"        <xs:element name=\"dataset\" minOccurs=\"0\" maxOccurs=\"unbounded\">\n" + //
+			"          <xs:complexType>\n" + //
+			"            <xs:sequence>\n" + //
+			"              <xs:element name=\"title\" type=\"xs:string\" />\n" + //
+			"              <xs:element name=\"altname\" minOccurs=\"0\">\n" + //
+			"                <xs:complexType>\n" + //
+			"                  <xs:simpleContent>\n" + //
+			"                    <xs:extension base=\"xs:string\">\n" + //
+			"                      <xs:attribute name=\"type\" type=\"xs:string\" />\n" + //
+			"                    </xs:extension>\n" + //
+			"                  </xs:simpleContent>\n" + //
+			"                </xs:complexType>\n" + //
+			"              </xs:element>\n" + //
+			"              <xs:element name=\"para\" type=\"xs:string\" minOccurs=\"0\" maxOccurs=\"unbounded\" />\n" + //
+			"            </xs:sequence>\n" + //
+			"            <xs:attribute name=\"subject\" type=\"xs:string\" />\n" + //
+			"            <xs:attribute name=\"id\" type=\"xs:ID\" use=\"required\" />\n" + //
+			"          </xs:complexType>\n" + //
+			"        </xs:element>\n" + //
+			"      </xs:sequence>\n" + //
+			"    </xs:complexType>\n" + //
+			"  </xs:element>\n" + //
+			"</xs:schema>";
+}
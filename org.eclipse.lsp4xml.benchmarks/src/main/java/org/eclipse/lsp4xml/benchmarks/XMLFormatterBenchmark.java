@@ -0,0 +1,61 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.TextEdit;
+import org.eclipse.lsp4xml.services.XMLLanguageService;
+import org.eclipse.lsp4xml.settings.XMLFormattingOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link org.eclipse.lsp4xml.services.XMLFormatter} on the whole
+ * corpus.
+ * 
+ * @author Angelo ZERR
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLFormatterBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Formatter {
+
+		XMLLanguageService languageService;
+
+		XMLFormattingOptions options;
+
+		@Setup
+		public void setup() {
+			languageService = new XMLLanguageService();
+			options = new XMLFormattingOptions(4, true);
+		}
+	}
+
+	@Benchmark
+	public List<? extends TextEdit> format(XMLCorpus corpus, Formatter formatter) {
+		return formatter.languageService.format(corpus.createTextDocument(), null, formatter.options);
+	}
+}
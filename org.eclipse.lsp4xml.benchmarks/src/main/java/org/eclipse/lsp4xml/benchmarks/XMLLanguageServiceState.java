@@ -0,0 +1,71 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.benchmarks;
+
+import java.util.function.Predicate;
+
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.eclipse.lsp4xml.extensions.contentmodel.settings.ContentModelSettings;
+import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLValidationSettings;
+import org.eclipse.lsp4xml.services.XMLLanguageService;
+import org.eclipse.lsp4xml.services.extensions.save.AbstractSaveContext;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * XML language service initialized with the DOM document of the corpus.
+ * 
+ * @author Angelo ZERR
+ *
+ */
+@State(Scope.Benchmark)
+public class XMLLanguageServiceState {
+
+	private static class SettingsSaveContext extends AbstractSaveContext {
+
+		public SettingsSaveContext(Object settings) {
+			super(settings);
+		}
+
+		@Override
+		public DOMDocument getDocument(String uri) {
+			return null;
+		}
+
+		@Override
+		public void collectDocumentToValidate(Predicate<DOMDocument> validateDocumentPredicate) {
+
+		}
+
+	}
+
+	XMLLanguageService languageService;
+
+	DOMDocument xmlDocument;
+
+	XMLValidationSettings validationSettings;
+
+	@Setup
+	public void setup(XMLCorpus corpus) {
+		languageService = new XMLLanguageService();
+		xmlDocument = DOMParser.getInstance().parse(corpus.createTextDocument(),
+				languageService.getResolverExtensionManager());
+		languageService.setDocumentProvider((uri) -> xmlDocument);
+
+		ContentModelSettings settings = new ContentModelSettings();
+		settings.setUseCache(false);
+		validationSettings = new XMLValidationSettings();
+		settings.setValidation(validationSettings);
+		languageService.doSave(new SettingsSaveContext(settings));
+		languageService.initializeIfNeeded();
+	}
+}
@@ -19,6 +19,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
 import java.util.logging.Logger;
 
 import org.eclipse.lsp4j.InitializeParams;
@@ -34,6 +35,8 @@ import org.eclipse.lsp4j.services.WorkspaceService;
 import org.eclipse.lsp4xml.client.ExtendedClientCapabilities;
 import org.eclipse.lsp4xml.commons.ModelTextDocument;
 import org.eclipse.lsp4xml.commons.ParentProcessWatcher.ProcessLanguageServer;
+import org.eclipse.lsp4xml.commons.metrics.RequestMetrics;
+import org.eclipse.lsp4xml.commons.metrics.RequestMetricsReport;
 import org.eclipse.lsp4xml.customservice.AutoCloseTagResponse;
 import org.eclipse.lsp4xml.customservice.XMLCustomService;
 import org.eclipse.lsp4xml.dom.DOMDocument;
@@ -51,6 +54,7 @@ import org.eclipse.lsp4xml.settings.SharedSettings;
 import org.eclipse.lsp4xml.settings.XMLCodeLensSettings;
 import org.eclipse.lsp4xml.settings.XMLFormattingOptions;
 import org.eclipse.lsp4xml.settings.XMLGeneralClientSettings;
+import org.eclipse.lsp4xml.settings.XMLLargeFileSettings;
 import org.eclipse.lsp4xml.settings.XMLSymbolSettings;
 import org.eclipse.lsp4xml.settings.capabilities.InitializationOptionsExtendedClientCapabilities;
 import org.eclipse.lsp4xml.settings.capabilities.ServerCapabilitiesInitializer;
@@ -73,6 +77,7 @@ public class XMLLanguageServer
 	private final ScheduledExecutorService delayer;
 	private Integer parentProcessId;
 	public XMLCapabilityManager capabilityManager;
+	private IntConsumer exitHandler = System::exit;
 
 	public XMLLanguageServer() {
 		xmlLanguageService = new XMLLanguageService();
@@ -89,6 +94,7 @@ public class XMLLanguageServer
 
 		// Update XML language service extensions with InitializeParams
 		xmlLanguageService.initializeParams(params);
+		xmlWorkspaceService.initializeParams(params);
 
 		ExtendedClientCapabilities extendedClientCapabilities = InitializationOptionsExtendedClientCapabilities
 				.getExtendedClientCapabilities(params);
@@ -115,6 +121,7 @@ public class XMLLanguageServer
 	@Override
 	public void initialized(InitializedParams params) {
 		capabilityManager.initializeCapabilities();
+		xmlWorkspaceService.initialized();
 	}
 
 	/**
@@ -157,10 +164,22 @@ public class XMLLanguageServer
 				xmlTextDocumentService.updateCodeLensSettings(newCodeLens);
 			}
 
+			XMLLargeFileSettings newLargeFile = xmlClientSettings.getLargeFile();
+			if (newLargeFile != null) {
+				xmlTextDocumentService.getSharedSettings().getLargeFileSettings().merge(newLargeFile);
+			}
+
 			ServerSettings serverSettings = xmlClientSettings.getServer();
 			if (serverSettings != null) {
 				String workDir = serverSettings.getNormalizedWorkDir();
 				FilesUtils.setCachePathSetting(workDir);
+				// resolved URIs of the deployed XML Schemas (ex : XSL) depend on the work
+				// directory
+				xmlLanguageService.getResolverExtensionManager().clearCache();
+				Boolean metrics = serverSettings.getMetrics();
+				if (metrics != null) {
+					RequestMetrics.getInstance().setEnabled(metrics);
+				}
 			}
 		}
 		ContentModelSettings cmSettings = ContentModelSettings
@@ -186,8 +205,30 @@ public class XMLLanguageServer
 
 	@Override
 	public void exit(int exitCode) {
+		dispose();
+		exitHandler.accept(exitCode);
+	}
+
+	/**
+	 * Release the resources of the server (threads, workspace symbols index, etc).
+	 * It's called when the server exits and when the connection of a session is
+	 * closed without exit (see {@link XMLServerSocketLauncher}).
+	 */
+	public void dispose() {
 		delayer.shutdown();
-		System.exit(exitCode);
+		xmlTextDocumentService.shutdown();
+		xmlWorkspaceService.shutdown();
+	}
+
+	/**
+	 * Set the handler called with the exit code when the server exits. By default
+	 * the process is exited, a server which hosts several sessions (see
+	 * {@link XMLServerSocketLauncher}) closes only the connection of the session.
+	 * 
+	 * @param exitHandler the exit handler.
+	 */
+	public void setExitHandler(IntConsumer exitHandler) {
+		this.exitHandler = exitHandler;
 	}
 
 	@Override
@@ -228,16 +269,23 @@ public class XMLLanguageServer
 
 	@Override
 	public CompletableFuture<AutoCloseTagResponse> closeTag(TextDocumentPositionParams params) {
-		return xmlTextDocumentService.computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			return getXMLLanguageService().doAutoClose(xmlDocument, params.getPosition(), cancelChecker);
-		});
+		return xmlTextDocumentService.computeDOMAsync("xml/closeTag", params.getTextDocument(),
+				params.getPosition(), (cancelChecker, xmlDocument) -> {
+					return getXMLLanguageService().doAutoClose(xmlDocument, params.getPosition(), cancelChecker);
+				});
 	}
 
 	@Override
 	public CompletableFuture<Position> matchingTagPosition(TextDocumentPositionParams params) {
-		return xmlTextDocumentService.computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			return getXMLLanguageService().getMatchingTagPosition(xmlDocument, params.getPosition(), cancelChecker);
-		});
+		return xmlTextDocumentService.computeDOMAsync("xml/matchingTagPosition", params.getTextDocument(),
+				params.getPosition(), (cancelChecker, xmlDocument) -> {
+					return getXMLLanguageService().getMatchingTagPosition(xmlDocument, params.getPosition(), cancelChecker);
+				});
+	}
+
+	@Override
+	public CompletableFuture<RequestMetricsReport> metrics() {
+		return CompletableFuture.completedFuture(RequestMetrics.getInstance().getReport());
 	}
 
 	@Override
@@ -14,7 +14,6 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Authenticator;
 import java.net.PasswordAuthentication;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.function.Function;
 
@@ -23,6 +22,7 @@ import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
 import org.eclipse.lsp4j.launch.LSPLauncher;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4xml.commons.ParentProcessWatcher;
+import org.eclipse.lsp4xml.commons.ServerExecutors;
 
 public class XMLServerLauncher {
 
@@ -64,7 +64,7 @@ public class XMLServerLauncher {
 			wrapper = new ParentProcessWatcher(server);
 		}
 		Launcher<LanguageClient> launcher = LSPLauncher.createServerLauncher(server, in, out,
-				Executors.newCachedThreadPool(), wrapper);
+				ServerExecutors.getInstance().createLauncherExecutor(), wrapper);
 		server.setClient(launcher.getRemoteProxy());
 		return launcher.startListening();
 	}
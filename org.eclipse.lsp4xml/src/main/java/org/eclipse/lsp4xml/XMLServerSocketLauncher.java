@@ -9,6 +9,7 @@
  */
 package org.eclipse.lsp4xml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
@@ -17,15 +18,42 @@ import java.nio.channels.AsynchronousSocketChannel;
 import java.nio.channels.Channels;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.eclipse.lsp4j.jsonrpc.Launcher;
 import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.MessageProducer;
+import org.eclipse.lsp4j.jsonrpc.json.ConcurrentMessageProcessor;
 import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4xml.extensions.contentmodel.model.ContentModelCaches;
 
+/**
+ * Launcher of the XML language server which accepts several clients on a
+ * socket.
+ * 
+ * <p>
+ * Each connection is a session with its own {@link XMLLanguageServer}
+ * (documents, settings, catalogs, file associations), but the compiled
+ * grammars, the content model documents and the downloaded remote resources
+ * are shared by all sessions (see {@link ContentModelCaches}). Sessions are
+ * served by one shared executor which is bounded by the max number of
+ * sessions. The resources of a session are released when its connection is
+ * closed, even if the client has not sent the exit notification.
+ * </p>
+ */
 public class XMLServerSocketLauncher {
 
+	private static final Logger LOGGER = Logger.getLogger(XMLServerSocketLauncher.class.getName());
+
 	private static final int DEFAULT_PORT = 5_008;
+
+	private static final int DEFAULT_MAX_SESSIONS = 64;
 	
 	/**
 	 * Calls {@link #launch(String[])}
@@ -39,24 +67,84 @@ public class XMLServerSocketLauncher {
 	 * RPC protocol defined by the LSP.
 	 * 
 	 * @param args standard launch arguments. may contain <code>--port</code> argument to change the default port 5008
+	 *             and <code>--max-sessions</code> argument to change the default max number of sessions 64
 	 */
 	public void launch(String[] args) throws Exception {
 		AsynchronousServerSocketChannel _open = AsynchronousServerSocketChannel.open();
 		int _port = getPort(args);
 		InetSocketAddress _inetSocketAddress = new InetSocketAddress("0.0.0.0", _port);
 		final AsynchronousServerSocketChannel serverSocket = _open.bind(_inetSocketAddress);
+		final ContentModelCaches caches = new ContentModelCaches(true);
+		final ExecutorService executorService = createExecutorService(getMaxSessions(args));
 		while (true) {
 			final AsynchronousSocketChannel socketChannel = serverSocket.accept().get();
 			final InputStream in = Channels.newInputStream(socketChannel);
 			final OutputStream out = Channels.newOutputStream(socketChannel);
-			final ExecutorService executorService = Executors.newCachedThreadPool();
 			XMLLanguageServer languageServer = new XMLLanguageServer();
-			final Launcher<LanguageClient> launcher = Launcher.createIoLauncher(languageServer, LanguageClient.class,
-					in, out, executorService, (MessageConsumer it) -> {
-						return it;
-					});
+			// share the grammars between sessions, they must be registered before the
+			// extensions are started
+			languageServer.getXMLLanguageService().registerComponent(caches);
+			// the exit of a session closes the connection and not the process
+			languageServer.setExitHandler(exitCode -> close(socketChannel));
+			final Launcher<LanguageClient> launcher = new Launcher.Builder<LanguageClient>() {
+
+				@Override
+				protected ConcurrentMessageProcessor createMessageProcessor(MessageProducer reader,
+						MessageConsumer messageConsumer, LanguageClient remoteProxy) {
+					return new ConcurrentMessageProcessor(reader, messageConsumer) {
+
+						@Override
+						protected void processingEnded() {
+							super.processingEnded();
+							// the connection is closed (or the session has exited)
+							closeSession(languageServer, socketChannel);
+						}
+					};
+				}
+			}.setLocalService(languageServer) //
+					.setRemoteInterface(LanguageClient.class) //
+					.setInput(in) //
+					.setOutput(out) //
+					.setExecutorService(executorService) //
+					.create();
 			languageServer.setClient(launcher.getRemoteProxy());
-			launcher.startListening();
+			try {
+				launcher.startListening();
+			} catch (RejectedExecutionException e) {
+				LOGGER.log(Level.WARNING, "Max number of sessions is reached, connection is closed", e);
+				closeSession(languageServer, socketChannel);
+			}
+		}
+	}
+
+	private static void closeSession(XMLLanguageServer languageServer, AsynchronousSocketChannel socketChannel) {
+		languageServer.dispose();
+		close(socketChannel);
+	}
+
+	/**
+	 * Returns the executor shared by the sessions. The JSON RPC launcher of a
+	 * session uses one thread to listen the connection, so the number of threads is
+	 * bounded by the max number of sessions; the requests are computed in the
+	 * common fork join pool.
+	 * 
+	 * @param maxSessions the max number of sessions.
+	 * @return the executor shared by the sessions.
+	 */
+	protected ExecutorService createExecutorService(int maxSessions) {
+		AtomicInteger threadCount = new AtomicInteger();
+		return new ThreadPoolExecutor(0, maxSessions, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "lsp4xml-session-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private static void close(AsynchronousSocketChannel socketChannel) {
+		try {
+			socketChannel.close();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Error while closing the connection", e);
 		}
 	}
 
@@ -70,4 +158,13 @@ public class XMLServerSocketLauncher {
 		}
 		return DEFAULT_PORT;
 	}
+
+	protected int getMaxSessions(final String... args) {
+		for (int i = 0; (i < (args.length - 1)); i++) {
+			if (Objects.equals(args[i], "--max-sessions")) {
+				return Integer.parseInt(args[(i + 1)]);
+			}
+		}
+		return DEFAULT_MAX_SESSIONS;
+	}
 }
@@ -10,19 +10,18 @@
  */
 package org.eclipse.lsp4xml;
 
-import static org.eclipse.lsp4j.jsonrpc.CompletableFutures.computeAsync;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -52,6 +51,7 @@ import org.eclipse.lsp4j.FoldingRangeRequestParams;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.LocationLink;
+import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.PublishDiagnosticsParams;
 import org.eclipse.lsp4j.ReferenceParams;
 import org.eclipse.lsp4j.RenameParams;
@@ -62,22 +62,31 @@ import org.eclipse.lsp4j.TextDocumentPositionParams;
 import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.TextDocumentService;
 import org.eclipse.lsp4xml.client.ExtendedClientCapabilities;
+import org.eclipse.lsp4xml.commons.BadLocationException;
 import org.eclipse.lsp4xml.commons.ModelTextDocument;
 import org.eclipse.lsp4xml.commons.ModelTextDocuments;
+import org.eclipse.lsp4xml.commons.ServerExecutors;
 import org.eclipse.lsp4xml.commons.TextDocument;
 import org.eclipse.lsp4xml.commons.TextDocuments;
+import org.eclipse.lsp4xml.commons.ValidationScheduler;
+import org.eclipse.lsp4xml.commons.ValidationScheduler.Priority;
+import org.eclipse.lsp4xml.commons.metrics.RequestMetrics;
+import org.eclipse.lsp4xml.commons.metrics.RequestMetrics.Request;
 import org.eclipse.lsp4xml.dom.DOMDocument;
 import org.eclipse.lsp4xml.dom.DOMParser;
 import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLValidationSettings;
 import org.eclipse.lsp4xml.services.XMLLanguageService;
+import org.eclipse.lsp4xml.services.XMLStreamingValidator;
 import org.eclipse.lsp4xml.services.extensions.save.AbstractSaveContext;
 import org.eclipse.lsp4xml.settings.SharedSettings;
 import org.eclipse.lsp4xml.settings.XMLCodeLensSettings;
 import org.eclipse.lsp4xml.settings.XMLCompletionSettings;
 import org.eclipse.lsp4xml.settings.XMLFormattingOptions;
+import org.eclipse.lsp4xml.settings.XMLLargeFileSettings;
 import org.eclipse.lsp4xml.settings.XMLSymbolSettings;
 import org.eclipse.lsp4xml.utils.XMLPositionUtility;
 
@@ -129,7 +138,15 @@ public class XMLTextDocumentService implements TextDocumentService {
 		}
 	}
 
-	final ScheduledExecutorService delayer = Executors.newScheduledThreadPool(2);
+	/**
+	 * Delay in milliseconds before revalidating the documents after a save.
+	 */
+	private static final int REVALIDATION_DELAY = 500;
+
+	private final ValidationScheduler validationScheduler;
+
+	// Last diagnostics published for each opened document.
+	private final Map<String, List<Diagnostic>> publishedDiagnostics;
 	private boolean codeActionLiteralSupport;
 	private boolean hierarchicalDocumentSymbolSupport;
 	private boolean definitionLinkSupport;
@@ -139,9 +156,22 @@ public class XMLTextDocumentService implements TextDocumentService {
 		this.xmlLanguageServer = xmlLanguageServer;
 		DOMParser parser = DOMParser.getInstance();
 		this.documents = new ModelTextDocuments<DOMDocument>((document, cancelChecker) -> {
+			if (isLargeFile(document)) {
+				// only the head of a large file is parsed, the requests parse the window
+				// around their position
+				return parser.parseWindow(document, 0, 0, getXMLLanguageService().getResolverExtensionManager(),
+						cancelChecker);
+			}
 			return parser.parse(document, getXMLLanguageService().getResolverExtensionManager(), true, cancelChecker);
+		}, (xmlDocument, document, changed, cancelChecker) -> {
+			if (isLargeFile(document)) {
+				return null;
+			}
+			return parser.reparse(xmlDocument, document, changed, true, cancelChecker);
 		});
 		this.sharedSettings = new SharedSettings();
+		this.validationScheduler = new ValidationScheduler();
+		this.publishedDiagnostics = new ConcurrentHashMap<>();
 	}
 
 	public void updateClientCapabilities(ClientCapabilities capabilities,
@@ -171,19 +201,21 @@ public class XMLTextDocumentService implements TextDocumentService {
 
 	@Override
 	public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion(CompletionParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			CompletionList list = getXMLLanguageService().doComplete(xmlDocument, params.getPosition(), sharedSettings,
-					cancelChecker);
-			return Either.forRight(list);
-		});
+		return computeDOMAsync("textDocument/completion", params.getTextDocument(), params.getPosition(),
+				(cancelChecker, xmlDocument) -> {
+					CompletionList list = getXMLLanguageService().doComplete(xmlDocument, params.getPosition(),
+							sharedSettings, cancelChecker);
+					return Either.forRight(list);
+				});
 	}
 
 	@Override
 	public CompletableFuture<Hover> hover(TextDocumentPositionParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			return getXMLLanguageService().doHover(xmlDocument, params.getPosition(), sharedSettings.getHoverSettings(),
-					cancelChecker);
-		});
+		return computeDOMAsync("textDocument/hover", params.getTextDocument(), params.getPosition(),
+				(cancelChecker, xmlDocument) -> {
+					return getXMLLanguageService().doHover(xmlDocument, params.getPosition(),
+							sharedSettings.getHoverSettings(), cancelChecker);
+				});
 	}
 
 	private XMLFormattingOptions getFormattingSettings(String uri) {
@@ -194,9 +226,15 @@ public class XMLTextDocumentService implements TextDocumentService {
 
 	@Override
 	public CompletableFuture<List<? extends DocumentHighlight>> documentHighlight(TextDocumentPositionParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			return getXMLLanguageService().findDocumentHighlights(xmlDocument, params.getPosition(), cancelChecker);
-		});
+		if (isLargeFile(getDocument(params.getTextDocument().getUri()))) {
+			// the end tag of an element can be outside of the parsed window
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		return computeDOMAsync("textDocument/documentHighlight", params.getTextDocument(), params.getPosition(),
+				(cancelChecker, xmlDocument) -> {
+					return getXMLLanguageService().findDocumentHighlights(xmlDocument, params.getPosition(),
+							cancelChecker);
+				});
 	}
 
 	@Override
@@ -206,11 +244,11 @@ public class XMLTextDocumentService implements TextDocumentService {
 		TextDocument document = getDocument(params.getTextDocument().getUri());
 
 		if (!sharedSettings.getSymbolSettings().isEnabled()
-				|| sharedSettings.getSymbolSettings().isExcluded(document.getUri())) {
+				|| sharedSettings.getSymbolSettings().isExcluded(document.getUri()) || isLargeFile(document)) {
 			return CompletableFuture.completedFuture(Collections.emptyList());
 		}
 
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
+		return computeDOMAsync("textDocument/documentSymbol", params.getTextDocument(), (cancelChecker, xmlDocument) -> {
 			if (hierarchicalDocumentSymbolSupport) {
 				return getXMLLanguageService().findDocumentSymbols(xmlDocument, cancelChecker) //
 						.stream() //
@@ -232,8 +270,11 @@ public class XMLTextDocumentService implements TextDocumentService {
 
 	@Override
 	public CompletableFuture<List<? extends TextEdit>> formatting(DocumentFormattingParams params) {
-		return computeAsync((cancelChecker) -> {
-			String uri = params.getTextDocument().getUri();
+		String uri = params.getTextDocument().getUri();
+		if (isLargeFile(getDocument(uri))) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		return computeAsync("textDocument/formatting", uri, (cancelChecker) -> {
 			TextDocument document = getDocument(uri);
 			return getXMLLanguageService().format(document, null,
 					XMLFormattingOptions.create(params.getOptions(), getFormattingSettings(uri)));
@@ -242,8 +283,11 @@ public class XMLTextDocumentService implements TextDocumentService {
 
 	@Override
 	public CompletableFuture<List<? extends TextEdit>> rangeFormatting(DocumentRangeFormattingParams params) {
-		return computeAsync((cancelChecker) -> {
-			String uri = params.getTextDocument().getUri();
+		String uri = params.getTextDocument().getUri();
+		if (isLargeFile(getDocument(uri))) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		return computeAsync("textDocument/rangeFormatting", uri, (cancelChecker) -> {
 			TextDocument document = getDocument(uri);
 			return getXMLLanguageService().format(document, params.getRange(),
 					XMLFormattingOptions.create(params.getOptions(), getFormattingSettings(uri)));
@@ -252,15 +296,20 @@ public class XMLTextDocumentService implements TextDocumentService {
 
 	@Override
 	public CompletableFuture<WorkspaceEdit> rename(RenameParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			return getXMLLanguageService().doRename(xmlDocument, params.getPosition(), params.getNewName());
-		});
+		if (isLargeFile(getDocument(params.getTextDocument().getUri()))) {
+			// the edits would be computed only in the parsed window
+			return CompletableFuture.completedFuture(new WorkspaceEdit(Collections.emptyMap()));
+		}
+		return computeDOMAsync("textDocument/rename", params.getTextDocument(), params.getPosition(),
+				(cancelChecker, xmlDocument) -> {
+					return getXMLLanguageService().doRename(xmlDocument, params.getPosition(), params.getNewName());
+				});
 	}
 
 	@Override
 	public void didOpen(DidOpenTextDocumentParams params) {
 		TextDocument document = documents.onDidOpenTextDocument(params);
-		triggerValidationFor(document);
+		triggerValidationFor(document, 0);
 	}
 
 	/**
@@ -269,7 +318,7 @@ public class XMLTextDocumentService implements TextDocumentService {
 	@Override
 	public void didChange(DidChangeTextDocumentParams params) {
 		TextDocument document = documents.onDidChangeTextDocument(params);
-		triggerValidationFor(document);
+		triggerValidationFor(document, sharedSettings.getValidationSettings().getDebounce());
 	}
 
 	@Override
@@ -277,13 +326,18 @@ public class XMLTextDocumentService implements TextDocumentService {
 		documents.onDidCloseTextDocument(params);
 		TextDocumentIdentifier document = params.getTextDocument();
 		String uri = document.getUri();
+		validationScheduler.cancel(uri);
+		publishedDiagnostics.remove(uri);
 		xmlLanguageServer.getLanguageClient()
 				.publishDiagnostics(new PublishDiagnosticsParams(uri, new ArrayList<Diagnostic>()));
 	}
 
 	@Override
 	public CompletableFuture<List<FoldingRange>> foldingRange(FoldingRangeRequestParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
+		if (isLargeFile(getDocument(params.getTextDocument().getUri()))) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		return computeDOMAsync("textDocument/foldingRange", params.getTextDocument(), (cancelChecker, xmlDocument) -> {
 			return getXMLLanguageService().getFoldingRanges(xmlDocument, sharedSettings.getFoldingSettings(),
 					cancelChecker);
 		});
@@ -291,7 +345,10 @@ public class XMLTextDocumentService implements TextDocumentService {
 
 	@Override
 	public CompletableFuture<List<DocumentLink>> documentLink(DocumentLinkParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
+		if (isLargeFile(getDocument(params.getTextDocument().getUri()))) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		return computeDOMAsync("textDocument/documentLink", params.getTextDocument(), (cancelChecker, xmlDocument) -> {
 			return getXMLLanguageService().findDocumentLinks(xmlDocument);
 		});
 	}
@@ -299,51 +356,61 @@ public class XMLTextDocumentService implements TextDocumentService {
 	@Override
 	public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> definition(
 			TextDocumentPositionParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			if (definitionLinkSupport) {
-				return Either.forRight(
-						getXMLLanguageService().findDefinition(xmlDocument, params.getPosition(), cancelChecker));
-			}
-			List<? extends Location> locations = getXMLLanguageService()
-					.findDefinition(xmlDocument, params.getPosition(), cancelChecker) //
-					.stream() //
-					.map(locationLink -> XMLPositionUtility.toLocation(locationLink)) //
-					.collect(Collectors.toList());
-			return Either.forLeft(locations);
-		});
+		return computeDOMAsync("textDocument/definition", params.getTextDocument(), params.getPosition(),
+				(cancelChecker, xmlDocument) -> {
+					if (definitionLinkSupport) {
+						return Either.forRight(
+								getXMLLanguageService().findDefinition(xmlDocument, params.getPosition(),
+									cancelChecker));
+					}
+					List<? extends Location> locations = getXMLLanguageService()
+							.findDefinition(xmlDocument, params.getPosition(), cancelChecker) //
+							.stream() //
+							.map(locationLink -> XMLPositionUtility.toLocation(locationLink)) //
+							.collect(Collectors.toList());
+					return Either.forLeft(locations);
+				});
 	}
 
 	@Override
 	public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> typeDefinition(
 			TextDocumentPositionParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			if (typeDefinitionLinkSupport) {
-				return Either.forRight(
-						getXMLLanguageService().findTypeDefinition(xmlDocument, params.getPosition(), cancelChecker));
-			}
-			List<? extends Location> locations = getXMLLanguageService()
-					.findTypeDefinition(xmlDocument, params.getPosition(), cancelChecker) //
-					.stream() //
-					.map(locationLink -> XMLPositionUtility.toLocation(locationLink)) //
-					.collect(Collectors.toList());
-			return Either.forLeft(locations);
-		});
+		return computeDOMAsync("textDocument/typeDefinition", params.getTextDocument(), params.getPosition(),
+				(cancelChecker, xmlDocument) -> {
+					if (typeDefinitionLinkSupport) {
+						return Either.forRight(
+								getXMLLanguageService().findTypeDefinition(xmlDocument, params.getPosition(),
+									cancelChecker));
+					}
+					List<? extends Location> locations = getXMLLanguageService()
+							.findTypeDefinition(xmlDocument, params.getPosition(), cancelChecker) //
+							.stream() //
+							.map(locationLink -> XMLPositionUtility.toLocation(locationLink)) //
+							.collect(Collectors.toList());
+					return Either.forLeft(locations);
+				});
 	}
 
 	@Override
 	public CompletableFuture<List<? extends Location>> references(ReferenceParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			return getXMLLanguageService().findReferences(xmlDocument, params.getPosition(), params.getContext(),
-					cancelChecker);
-		});
+		if (isLargeFile(getDocument(params.getTextDocument().getUri()))) {
+			// the references would be searched only in the parsed window
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		return computeDOMAsync("textDocument/references", params.getTextDocument(), params.getPosition(),
+				(cancelChecker, xmlDocument) -> {
+					return getXMLLanguageService().findReferences(xmlDocument, params.getPosition(),
+							params.getContext(), cancelChecker);
+				});
 	}
 
 	@Override
 	public CompletableFuture<List<? extends CodeLens>> codeLens(CodeLensParams params) {
-		if (!sharedSettings.getCodeLensSettings().isEnabled()) {
+		if (!sharedSettings.getCodeLensSettings().isEnabled()
+				|| isLargeFile(getDocument(params.getTextDocument().getUri()))) {
 			return CompletableFuture.completedFuture(Collections.emptyList());
 		}
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
+		return computeDOMAsync("textDocument/codeLens", params.getTextDocument(), (cancelChecker, xmlDocument) -> {
 			return getXMLLanguageService().getCodeLens(xmlDocument, sharedSettings.getCodeLensSettings(),
 					cancelChecker);
 		});
@@ -351,30 +418,34 @@ public class XMLTextDocumentService implements TextDocumentService {
 
 	@Override
 	public CompletableFuture<List<Either<Command, CodeAction>>> codeAction(CodeActionParams params) {
-		return computeDOMAsync(params.getTextDocument(), (cancelChecker, xmlDocument) -> {
-			String uri = params.getTextDocument().getUri();
-			return getXMLLanguageService()
-					.doCodeActions(params.getContext(), params.getRange(), xmlDocument, getFormattingSettings(uri)) //
-					.stream() //
-					.map(ca -> {
-						if (codeActionLiteralSupport) {
-							Either<Command, CodeAction> e = Either.forRight(ca);
-							return e;
-						} else {
-							List<Object> arguments = Arrays.asList(uri, xmlDocument.getTextDocument().getVersion(),
-									ca.getEdit().getDocumentChanges().get(0).getLeft().getEdits());
-							Command command = new Command(ca.getTitle(), "_xml.applyCodeAction", arguments);
-							Either<Command, CodeAction> e = Either.forLeft(command);
-							return e;
-						}
-					}) //
-					.collect(Collectors.toList());
-		});
+		return computeDOMAsync("textDocument/codeAction", params.getTextDocument(), params.getRange().getStart(),
+				(cancelChecker, xmlDocument) -> {
+					String uri = params.getTextDocument().getUri();
+					return getXMLLanguageService()
+							.doCodeActions(params.getContext(), params.getRange(), xmlDocument,
+									getFormattingSettings(uri)) //
+							.stream() //
+							.map(ca -> {
+								if (codeActionLiteralSupport) {
+									Either<Command, CodeAction> e = Either.forRight(ca);
+									return e;
+								} else {
+									List<Object> arguments = Arrays.asList(uri,
+											xmlDocument.getTextDocument().getVersion(),
+											ca.getEdit().getDocumentChanges().get(0).getLeft().getEdits());
+									Command command = new Command(ca.getTitle(), "_xml.applyCodeAction", arguments);
+									Either<Command, CodeAction> e = Either.forLeft(command);
+									return e;
+								}
+							}) //
+							.collect(Collectors.toList());
+				});
 	}
 
 	@Override
 	public void didSave(DidSaveTextDocumentParams params) {
-		computeAsync((monitor) -> {
+		((XMLWorkspaceService) xmlLanguageServer.getWorkspaceService()).fileSaved(params.getTextDocument().getUri());
+		CompletableFutures.computeAsync(ServerExecutors.getInstance().getRequestExecutor(), (monitor) -> {
 			// A document was saved, collect documents to revalidate
 			SaveContext context = new SaveContext(params.getTextDocument().getUri());
 			doSave(context);
@@ -392,6 +463,13 @@ public class XMLTextDocumentService implements TextDocumentService {
 		doSave(context);
 	}
 
+	/**
+	 * Shutdown the validation of the opened documents.
+	 */
+	void shutdown() {
+		validationScheduler.shutdown();
+	}
+
 	void doSave(String uri) {
 		SaveContext context = new SaveContext(uri);
 		doSave(context);
@@ -408,34 +486,71 @@ public class XMLTextDocumentService implements TextDocumentService {
 	}
 
 	private void triggerValidationFor(Collection<ModelTextDocument<DOMDocument>> documents) {
-		if (!documents.isEmpty()) {
-			xmlLanguageServer.schedule(() -> {
-				documents.forEach(document -> {
-					try {
-						validate(document.getModel().getNow(null));
-					} catch (CancellationException e) {
-						// Ignore the error and continue to validate other documents
-					}
-				});
-			}, 500, TimeUnit.MILLISECONDS);
-		}
+		documents.forEach(document -> {
+			validationScheduler.schedule(document.getUri(), () -> validate(document.getModel().join()),
+					Priority.LOW, REVALIDATION_DELAY);
+		});
 	}
 
-	@SuppressWarnings("unchecked")
 	private void triggerValidationFor(TextDocument document) {
-		((ModelTextDocument<DOMDocument>) document).getModel().thenAcceptAsync(xmlDocument -> {
-			validate(xmlDocument);
-		});
+		triggerValidationFor(document, 0);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void triggerValidationFor(TextDocument document, int delay) {
+		ModelTextDocument<DOMDocument> modelDocument = (ModelTextDocument<DOMDocument>) document;
+		validationScheduler.schedule(document.getUri(), () -> validate(modelDocument.getModel().join()),
+				Priority.HIGH, delay);
 	}
 
 	private void validate(DOMDocument xmlDocument) throws CancellationException {
 		CancelChecker cancelChecker = xmlDocument.getCancelChecker();
 		cancelChecker.checkCanceled();
-		getXMLLanguageService().publishDiagnostics(xmlDocument,
-				params -> xmlLanguageServer.getLanguageClient().publishDiagnostics(params),
+		Request request = RequestMetrics.getInstance().begin("validation", xmlDocument.getDocumentURI());
+		if (request == null) {
+			doValidate(xmlDocument, cancelChecker);
+			return;
+		}
+		Throwable error = null;
+		try {
+			request.wrap((CancelChecker c) -> {
+				doValidate(xmlDocument, c);
+				return null;
+			}).apply(cancelChecker);
+		} catch (RuntimeException e) {
+			error = e;
+			throw e;
+		} finally {
+			request.end(null, error);
+		}
+	}
+
+	private void doValidate(DOMDocument xmlDocument, CancelChecker cancelChecker) {
+		TextDocument document = xmlDocument.getTextDocument();
+		if (isLargeFile(document)) {
+			// validate only the syntax of a large file, without DOM document
+			publishDiagnostics(new PublishDiagnosticsParams(document.getUri(), XMLStreamingValidator
+					.doDiagnostics(document, sharedSettings.getValidationSettings(), cancelChecker)));
+			return;
+		}
+		getXMLLanguageService().publishDiagnostics(xmlDocument, params -> publishDiagnostics(params),
 				(doc) -> triggerValidationFor(doc), sharedSettings.getValidationSettings(), cancelChecker);
 	}
 
+	/**
+	 * Publish the given diagnostics to the client if they are not the same as the
+	 * last diagnostics published for the document.
+	 * 
+	 * @param params the diagnostics to publish.
+	 */
+	private void publishDiagnostics(PublishDiagnosticsParams params) {
+		List<Diagnostic> previous = publishedDiagnostics.put(params.getUri(), params.getDiagnostics());
+		if (params.getDiagnostics().equals(previous)) {
+			return;
+		}
+		xmlLanguageServer.getLanguageClient().publishDiagnostics(params);
+	}
+
 	private XMLLanguageService getXMLLanguageService() {
 		return xmlLanguageServer.getXMLLanguageService();
 	}
@@ -492,6 +607,18 @@ public class XMLTextDocumentService implements TextDocumentService {
 		return documents.get(uri);
 	}
 
+	/**
+	 * Returns true if the given document is a large file (see
+	 * {@link XMLLargeFileSettings}) and false otherwise.
+	 * 
+	 * @param document the text document.
+	 * @return true if the given document is a large file.
+	 */
+	public boolean isLargeFile(TextDocument document) {
+		return document != null
+				&& sharedSettings.getLargeFileSettings().isLargeFile(document.getTextSequence().length());
+	}
+
 	public boolean documentIsOpen(String uri) {
 		ModelTextDocument<DOMDocument> document = getDocument(uri);
 		return document != null;
@@ -511,13 +638,78 @@ public class XMLTextDocumentService implements TextDocumentService {
 	 */
 	public <R> CompletableFuture<R> computeDOMAsync(TextDocumentIdentifier documentIdentifier,
 			BiFunction<CancelChecker, DOMDocument, R> code) {
-		return computeModelAsync(getDocument(documentIdentifier.getUri()).getModel(), code);
+		return computeDOMAsync(null, documentIdentifier, code);
+	}
+
+	/**
+	 * Compute the DOM Document for a given uri in a future and then apply the given
+	 * function. The metrics of the request are recorded with the given request
+	 * name (see {@link RequestMetrics}).
+	 * 
+	 * @param <R>
+	 * @param requestName        the request name (ex : 'textDocument/completion')
+	 *                           and null if the metrics must not be recorded.
+	 * @param documentIdentifier the document indetifier.
+	 * @param code               a bi function that accepts a {@link CancelChecker}
+	 *                           and parsed {@link DOMDocument} and returns the to
+	 *                           be computed value
+	 * @return the DOM Document for a given uri in a future and then apply the given
+	 *         function.
+	 */
+	public <R> CompletableFuture<R> computeDOMAsync(String requestName, TextDocumentIdentifier documentIdentifier,
+			BiFunction<CancelChecker, DOMDocument, R> code) {
+		String uri = documentIdentifier.getUri();
+		Request request = requestName != null ? RequestMetrics.getInstance().begin(requestName, uri) : null;
+		if (request == null) {
+			return computeModelAsync(getDocument(uri).getModel(), code);
+		}
+		CompletableFuture<R> result = computeModelAsync(getDocument(uri).getModel(), request.wrap(code));
+		result.whenComplete(request::end);
+		return result;
+	}
+
+	/**
+	 * Compute the DOM Document for a given uri in a future and then apply the given
+	 * function which is computed at the given position. For a large file (see
+	 * {@link XMLLargeFileSettings}), only the window of the document around the
+	 * position is parsed.
+	 * 
+	 * @param <R>
+	 * @param requestName        the request name (ex : 'textDocument/completion')
+	 *                           and null if the metrics must not be recorded.
+	 * @param documentIdentifier the document indetifier.
+	 * @param position           the position of the request.
+	 * @param code               a bi function that accepts a {@link CancelChecker}
+	 *                           and parsed {@link DOMDocument} and returns the to
+	 *                           be computed value
+	 * @return the DOM Document for a given uri in a future and then apply the given
+	 *         function.
+	 */
+	public <R> CompletableFuture<R> computeDOMAsync(String requestName, TextDocumentIdentifier documentIdentifier,
+			Position position, BiFunction<CancelChecker, DOMDocument, R> code) {
+		ModelTextDocument<DOMDocument> document = getDocument(documentIdentifier.getUri());
+		if (!isLargeFile(document)) {
+			return computeDOMAsync(requestName, documentIdentifier, code);
+		}
+		return computeAsync(requestName, document.getUri(), cancelChecker -> {
+			int offset = 0;
+			try {
+				offset = document.offsetAt(position);
+			} catch (BadLocationException e) {
+				// parse the window at the start of the document
+			}
+			DOMDocument xmlDocument = DOMParser.getInstance().parseWindow(document, offset,
+					sharedSettings.getLargeFileSettings().getWindowSize(),
+					getXMLLanguageService().getResolverExtensionManager(), cancelChecker);
+			return code.apply(cancelChecker, xmlDocument);
+		});
 	}
 
 	private static <R, M> CompletableFuture<R> computeModelAsync(CompletableFuture<M> loadModel,
 			BiFunction<CancelChecker, M, R> code) {
 		CompletableFuture<CancelChecker> start = new CompletableFuture<>();
-		CompletableFuture<R> result = start.thenCombineAsync(loadModel, code);
+		CompletableFuture<R> result = start.thenCombineAsync(loadModel, code,
+				ServerExecutors.getInstance().getRequestExecutor());
 		CancelChecker cancelIndicator = () -> {
 			if (result.isCancelled())
 				throw new CancellationException();
@@ -525,4 +717,16 @@ public class XMLTextDocumentService implements TextDocumentService {
 		start.complete(cancelIndicator);
 		return result;
 	}
+
+	private static <R> CompletableFuture<R> computeAsync(String requestName, String uri,
+			Function<CancelChecker, R> code) {
+		Executor executor = ServerExecutors.getInstance().getRequestExecutor();
+		Request request = RequestMetrics.getInstance().begin(requestName, uri);
+		if (request == null) {
+			return CompletableFutures.computeAsync(executor, code);
+		}
+		CompletableFuture<R> result = CompletableFutures.computeAsync(executor, request.wrap(code));
+		result.whenComplete(request::end);
+		return result;
+	}
 }
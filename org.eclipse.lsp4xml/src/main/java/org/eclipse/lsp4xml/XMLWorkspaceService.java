@@ -10,16 +10,24 @@
  */
 package org.eclipse.lsp4xml;
 
+import static org.eclipse.lsp4j.jsonrpc.CompletableFutures.computeAsync;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.lsp4j.DidChangeConfigurationParams;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
+import org.eclipse.lsp4j.FileChangeType;
 import org.eclipse.lsp4j.FileEvent;
+import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.WorkspaceFolder;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
 import org.eclipse.lsp4j.services.WorkspaceService;
 import org.eclipse.lsp4xml.XMLTextDocumentService;
+import org.eclipse.lsp4xml.commons.ServerExecutors;
+import org.eclipse.lsp4xml.services.XMLWorkspaceSymbolIndex;
 /**
  * XML workspace service.
  *
@@ -28,13 +36,60 @@ public class XMLWorkspaceService implements WorkspaceService {
 
 	private final XMLLanguageServer xmlLanguageServer;
 
+	private final XMLWorkspaceSymbolIndex symbolIndex;
+
+	private final List<String> rootURIs;
+
 	public XMLWorkspaceService(XMLLanguageServer xmlLanguageServer) {
 		this.xmlLanguageServer = xmlLanguageServer;
+		this.symbolIndex = new XMLWorkspaceSymbolIndex();
+		this.rootURIs = new ArrayList<>();
+	}
+
+	/**
+	 * Initialize the workspace root URIs with the given params.
+	 * 
+	 * @param params the initialize params.
+	 */
+	public void initializeParams(InitializeParams params) {
+		rootURIs.clear();
+		List<WorkspaceFolder> workspaceFolders = params.getWorkspaceFolders();
+		if (workspaceFolders != null && !workspaceFolders.isEmpty()) {
+			for (WorkspaceFolder workspaceFolder : workspaceFolders) {
+				rootURIs.add(workspaceFolder.getUri());
+			}
+		} else if (params.getRootUri() != null) {
+			rootURIs.add(params.getRootUri());
+		}
+	}
+
+	/**
+	 * Start to index in background the symbols of the workspace.
+	 */
+	public void initialized() {
+		symbolIndex.indexWorkspace(rootURIs);
 	}
 
 	@Override
 	public CompletableFuture<List<? extends SymbolInformation>> symbol(WorkspaceSymbolParams params) {
-		return null;
+		return computeAsync(ServerExecutors.getInstance().getRequestExecutor(), cancelChecker -> {
+			return symbolIndex.search(params.getQuery(), XMLWorkspaceSymbolIndex.DEFAULT_MAX_RESULTS,
+					cancelChecker);
+		});
+	}
+
+	/**
+	 * Update the workspace symbols of the file of the given URI which has been
+	 * saved.
+	 * 
+	 * @param uri the saved file URI.
+	 */
+	void fileSaved(String uri) {
+		symbolIndex.fileChanged(uri);
+	}
+
+	void shutdown() {
+		symbolIndex.shutdown();
 	}
 
 	@Override
@@ -48,6 +103,11 @@ public class XMLWorkspaceService implements WorkspaceService {
 		XMLTextDocumentService xmlTextDocumentService = (XMLTextDocumentService) xmlLanguageServer.getTextDocumentService();
 		List<FileEvent> changes = params.getChanges();
 		for (FileEvent change: changes) {
+			if (change.getType() == FileChangeType.Deleted) {
+				symbolIndex.fileDeleted(change.getUri());
+			} else {
+				symbolIndex.fileChanged(change.getUri());
+			}
 			if (!xmlTextDocumentService.documentIsOpen(change.getUri())) {
 				xmlTextDocumentService.doSave(change.getUri());
 			}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+/**
+ * The smallest region which encloses all changes applied to a text since a
+ * given state of the text.
+ *
+ * <p>
+ * The region starts at the same offset in the old and the new text, and ends
+ * at {@link #getOldEnd()} in the old text and at {@link #getNewEnd()} in the
+ * new text.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class ChangedRegion {
+
+	private final int start;
+
+	private final int oldEnd;
+
+	private final int newEnd;
+
+	public ChangedRegion(int start, int oldEnd, int newEnd) {
+		this.start = start;
+		this.oldEnd = oldEnd;
+		this.newEnd = newEnd;
+	}
+
+	/**
+	 * Returns the start offset of the region.
+	 *
+	 * @return the start offset of the region.
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the end offset of the region in the old text.
+	 *
+	 * @return the end offset of the region in the old text.
+	 */
+	public int getOldEnd() {
+		return oldEnd;
+	}
+
+	/**
+	 * Returns the end offset of the region in the new text.
+	 *
+	 * @return the end offset of the region in the new text.
+	 */
+	public int getNewEnd() {
+		return newEnd;
+	}
+
+	/**
+	 * Returns the difference between the new and the old text length.
+	 *
+	 * @return the difference between the new and the old text length.
+	 */
+	public int getDelta() {
+		return newEnd - oldEnd;
+	}
+
+	/**
+	 * Returns the region which encloses the given region and the given
+	 * replacement which is applied on the new text.
+	 *
+	 * @param changed the changed region (could be null if there is no changes).
+	 * @param offset  the offset of the replacement in the new text.
+	 * @param length  the replaced length.
+	 * @param text    the inserted text.
+	 * @return the region which encloses the given region and the given
+	 *         replacement.
+	 */
+	public static ChangedRegion union(ChangedRegion changed, int offset, int length, String text) {
+		return union(changed, offset, length, text != null ? text.length() : 0);
+	}
+
+	/**
+	 * Returns the region which encloses the given region and the given region
+	 * which was changed after it.
+	 *
+	 * @param changed the changed region (could be null if there is no changes).
+	 * @param next    the region changed after the first region (could be null if
+	 *                there is no changes).
+	 * @return the region which encloses the two regions.
+	 */
+	public static ChangedRegion union(ChangedRegion changed, ChangedRegion next) {
+		if (next == null) {
+			return changed;
+		}
+		return union(changed, next.start, next.oldEnd - next.start, next.newEnd - next.start);
+	}
+
+	private static ChangedRegion union(ChangedRegion changed, int offset, int length, int textLength) {
+		if (changed == null) {
+			return new ChangedRegion(offset, offset + length, offset + textLength);
+		}
+		int start = Math.min(changed.start, offset);
+		int replacedEnd = offset + length;
+		// the end of the replaced text, in the old text
+		int oldEnd = replacedEnd > changed.newEnd ? changed.oldEnd + (replacedEnd - changed.newEnd) : changed.oldEnd;
+		// the end of the region, in the new text
+		int newEnd = Math.max(changed.newEnd, replacedEnd) + (textLength - length);
+		return new ChangedRegion(start, oldEnd, newEnd);
+	}
+
+	@Override
+	public String toString() {
+		return "[" + start + ", " + oldEnd + " -> " + newEnd + "]";
+	}
+}
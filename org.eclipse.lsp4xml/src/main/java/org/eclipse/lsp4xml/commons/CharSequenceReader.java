@@ -0,0 +1,119 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * {@link Reader} which reads the characters of a {@link CharSequence} (ex :
+ * the text of a {@link TextDocument} or a {@link Rope}) without copying it.
+ *
+ * <p>
+ * It is used to give the text of a document to Xerces as a character stream
+ * instead of encoding the whole text in an UTF-8 byte array.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class CharSequenceReader extends Reader {
+
+	private final CharSequence text;
+
+	private final int end;
+
+	private int position;
+
+	private int mark;
+
+	public CharSequenceReader(CharSequence text) {
+		this(text, 0, text.length());
+	}
+
+	public CharSequenceReader(CharSequence text, int start, int end) {
+		if (start < 0 || end > text.length() || start > end) {
+			throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + text.length());
+		}
+		this.text = text;
+		this.end = end;
+		this.position = start;
+		this.mark = start;
+	}
+
+	@Override
+	public int read() {
+		if (position >= end) {
+			return -1;
+		}
+		return text.charAt(position++);
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) {
+		if (off < 0 || len < 0 || off + len > cbuf.length) {
+			throw new IndexOutOfBoundsException("off=" + off + ", len=" + len + ", length=" + cbuf.length);
+		}
+		if (len == 0) {
+			return 0;
+		}
+		if (position >= end) {
+			return -1;
+		}
+		int count = Math.min(len, end - position);
+		if (text instanceof String) {
+			((String) text).getChars(position, position + count, cbuf, off);
+		} else if (text instanceof Rope) {
+			((Rope) text).getChars(position, position + count, cbuf, off);
+		} else {
+			for (int i = 0; i < count; i++) {
+				cbuf[off + i] = text.charAt(position + i);
+			}
+		}
+		position += count;
+		return count;
+	}
+
+	@Override
+	public long skip(long n) {
+		if (n <= 0) {
+			return 0;
+		}
+		int count = (int) Math.min(n, end - position);
+		position += count;
+		return count;
+	}
+
+	@Override
+	public boolean ready() {
+		return true;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+
+	@Override
+	public void mark(int readAheadLimit) {
+		mark = position;
+	}
+
+	@Override
+	public void reset() throws IOException {
+		position = mark;
+	}
+
+	@Override
+	public void close() {
+		// Do nothing
+	}
+
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+/**
+ * {@link CharSequence} view of a region (start/end offsets) of a text (ex :
+ * the text of a DOM document) which doesn't copy the characters.
+ *
+ * <p>
+ * The characters are copied only when {@link #toString()} is called, so a DOM
+ * node can give its content (ex : the data of a text node) without keeping a
+ * copy of the document text.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class CharSequenceView implements CharSequence {
+
+	private final CharSequence text;
+
+	private final int start;
+
+	private final int end;
+
+	public CharSequenceView(CharSequence text, int start, int end) {
+		if (start < 0 || end > text.length() || start > end) {
+			throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + text.length());
+		}
+		this.text = text;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	public int length() {
+		return end - start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length()) {
+			throw new IndexOutOfBoundsException("index=" + index + ", length=" + length());
+		}
+		return text.charAt(start + index);
+	}
+
+	@Override
+	public CharSequenceView subSequence(int start, int end) {
+		if (start < 0 || end > length() || start > end) {
+			throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + length());
+		}
+		return new CharSequenceView(text, this.start + start, this.start + end);
+	}
+
+	/**
+	 * Returns the view without the leading and trailing whitespaces.
+	 *
+	 * @return the view without the leading and trailing whitespaces.
+	 */
+	public CharSequenceView trim() {
+		int from = start;
+		int to = end;
+		while (from < to && Character.isWhitespace(text.charAt(from))) {
+			from++;
+		}
+		while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+			to--;
+		}
+		return from == start && to == end ? this : new CharSequenceView(text, from, to);
+	}
+
+	/**
+	 * Returns true if the view is empty or contains only whitespaces and false
+	 * otherwise.
+	 *
+	 * @return true if the view is empty or contains only whitespaces.
+	 */
+	public boolean isWhitespace() {
+		return isWhitespace(text, start, end);
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the given string in the view
+	 * and -1 otherwise.
+	 *
+	 * @param str the string to search.
+	 * @return the index of the first occurrence of the given string in the view
+	 *         and -1 otherwise.
+	 */
+	public int indexOf(CharSequence str) {
+		int index = indexOf(text, str, start, end);
+		return index != -1 ? index - start : -1;
+	}
+
+	/**
+	 * Returns true if the view has the same characters than the given string and
+	 * false otherwise.
+	 *
+	 * @param str the string to compare.
+	 * @return true if the view has the same characters than the given string.
+	 */
+	public boolean contentEquals(CharSequence str) {
+		return str != null && str.length() == length() && regionMatches(text, start, str);
+	}
+
+	@Override
+	public String toString() {
+		return text.subSequence(start, end).toString();
+	}
+
+	/**
+	 * Returns true if the characters of the given text between the start and end
+	 * offsets are whitespaces and false otherwise.
+	 *
+	 * @param text  the text.
+	 * @param start the start offset.
+	 * @param end   the end offset.
+	 * @return true if the characters between the start and end offsets are
+	 *         whitespaces.
+	 */
+	public static boolean isWhitespace(CharSequence text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!Character.isWhitespace(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the offset of the first occurrence of the given string in the text
+	 * between the start and end offsets and -1 otherwise.
+	 *
+	 * @param text  the text.
+	 * @param str   the string to search.
+	 * @param start the start offset.
+	 * @param end   the end offset.
+	 * @return the offset of the first occurrence of the given string and -1
+	 *         otherwise.
+	 */
+	public static int indexOf(CharSequence text, CharSequence str, int start, int end) {
+		int last = end - str.length();
+		for (int i = start; i <= last; i++) {
+			if (regionMatches(text, i, str)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns true if the text contains the given string at the given offset and
+	 * false otherwise.
+	 *
+	 * @param text   the text.
+	 * @param offset the offset.
+	 * @param str    the string to compare.
+	 * @return true if the text contains the given string at the given offset.
+	 */
+	public static boolean regionMatches(CharSequence text, int offset, CharSequence str) {
+		if (offset < 0 || offset + str.length() > text.length()) {
+			return false;
+		}
+		for (int i = 0; i < str.length(); i++) {
+			if (text.charAt(offset + i) != str.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,319 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.util.Arrays;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * Immutable index of the line start offsets of a text.
+ *
+ * <p>
+ * The index is computed once for a given text (ex : the text of a DOM
+ * document) and can be shared between threads. Conversion between offset and
+ * {@link Position} is a binary search in the line start offsets and gives the
+ * same result as {@link ListLineTracker} (lines are delimited by "\r\n", "\n"
+ * or "\r").
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class LineIndex {
+
+	// number of characters which are copied at once from a rope
+	private static final int ROPE_CHUNK_LENGTH = 8 * 1024;
+
+	private final CharSequence text;
+
+	private final int[] lineStarts;
+
+	private final int lineCount;
+
+	private LineIndex(CharSequence text, int[] lineStarts, int lineCount) {
+		this.text = text;
+		this.lineStarts = lineStarts;
+		this.lineCount = lineCount;
+	}
+
+	/**
+	 * Returns the line index of the given text.
+	 *
+	 * @param text the text.
+	 * @return the line index of the given text.
+	 */
+	public static LineIndex of(CharSequence text) {
+		int[] lineStarts = new int[16];
+		int lineCount = 1;
+		int length = text.length();
+		// a rope is read by chunks, since its charAt walks the tree of pieces
+		Rope rope = text instanceof Rope ? (Rope) text : null;
+		char[] chunk = rope != null ? new char[Math.min(length, ROPE_CHUNK_LENGTH)] : null;
+		int chunkStart = 0;
+		int chunkEnd = 0;
+		for (int i = 0; i < length; i++) {
+			char c;
+			if (rope != null) {
+				if (i == chunkEnd) {
+					chunkStart = i;
+					chunkEnd = Math.min(length, i + chunk.length);
+					rope.getChars(chunkStart, chunkEnd, chunk, 0);
+				}
+				c = chunk[i - chunkStart];
+			} else {
+				c = text.charAt(i);
+			}
+			if (c == '\n' || (c == '\r' && (i + 1 == length || text.charAt(i + 1) != '\n'))) {
+				if (lineCount == lineStarts.length) {
+					lineStarts = Arrays.copyOf(lineStarts, lineCount + (lineCount >> 1));
+				}
+				lineStarts[lineCount++] = i + 1;
+			}
+		}
+		return new LineIndex(text, lineStarts, lineCount);
+	}
+
+	/**
+	 * Returns the line index of the given new text which is the text of this
+	 * index updated in the given changed region. Only the lines of the changed
+	 * region are computed, the other line start offsets are copied (and shifted).
+	 *
+	 * @param newText the new text.
+	 * @param changed the region which was changed in the text of this index.
+	 * @return the line index of the given new text.
+	 */
+	public LineIndex update(CharSequence newText, ChangedRegion changed) {
+		int start = changed.getStart();
+		int oldEnd = changed.getOldEnd();
+		int newEnd = changed.getNewEnd();
+		int delta = changed.getDelta();
+		int newLength = newText.length();
+		// line starts before the changed region are kept, a line start at the
+		// changed region start is computed again, since it depends on the changed
+		// character which follows a '\r'.
+		int before = findLineStartIndex(start);
+		// line starts after the changed region are shifted, a line start at the old
+		// end is computed again since it depends on the last changed character.
+		int after = findLineStartIndex(oldEnd + 1);
+		int from = Math.max(start, 1);
+		int to = Math.min(newEnd, newLength);
+		int changedLines = 0;
+		for (int p = from; p <= to; p++) {
+			if (isLineStart(newText, p, newLength)) {
+				changedLines++;
+			}
+		}
+		int[] lineStarts = new int[before + changedLines + (this.lineCount - after)];
+		System.arraycopy(this.lineStarts, 0, lineStarts, 0, before);
+		int lineCount = before;
+		for (int p = from; p <= to; p++) {
+			if (isLineStart(newText, p, newLength)) {
+				lineStarts[lineCount++] = p;
+			}
+		}
+		for (int i = after; i < this.lineCount; i++) {
+			lineStarts[lineCount++] = this.lineStarts[i] + delta;
+		}
+		return new LineIndex(newText, lineStarts, lineCount);
+	}
+
+	private static boolean isLineStart(CharSequence text, int offset, int length) {
+		char c = text.charAt(offset - 1);
+		return c == '\n' || (c == '\r' && (offset == length || text.charAt(offset) != '\n'));
+	}
+
+	/**
+	 * Returns the index of the first line start offset (except the line 0) which
+	 * is greater than or equal to the given offset.
+	 */
+	private int findLineStartIndex(int offset) {
+		int low = 1;
+		int high = lineCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (lineStarts[mid] < offset) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the text of this index.
+	 *
+	 * @return the text of this index.
+	 */
+	public CharSequence getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the number of line start offsets (a text which ends with a line
+	 * delimiter ends with an empty line).
+	 *
+	 * @return the number of line start offsets.
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * Returns the start offset of the given line.
+	 *
+	 * @param line the line number.
+	 * @return the start offset of the given line.
+	 */
+	public int getLineStart(int line) {
+		return lineStarts[line];
+	}
+
+	/**
+	 * Returns the line number of the given offset.
+	 *
+	 * @param offset the offset.
+	 * @return the line number of the given offset.
+	 * @throws BadLocationException if the offset is out of the text.
+	 */
+	public int getLineNumberOfOffset(int offset) throws BadLocationException {
+		checkOffset(offset);
+		return findLine(offset, 0, lineCount - 1);
+	}
+
+	private void checkOffset(int offset) throws BadLocationException {
+		if (offset < 0) {
+			throw new BadLocationException("Negative offset : " + offset); //$NON-NLS-1$
+		} else if (offset > text.length()) {
+			throw new BadLocationException("Offset > length: " + offset + " > " + text.length()); //$NON-NLS-1$//$NON-NLS-2$
+		}
+	}
+
+	private int findLine(int offset, int low, int high) {
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (lineStarts[mid] <= offset) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the end offset of the given line without its line delimiter.
+	 *
+	 * @param line the line number.
+	 * @return the end offset of the given line without its line delimiter.
+	 */
+	public int getLineEnd(int line) {
+		if (line < lineCount - 1) {
+			int lineEnd = lineStarts[line + 1] - 1;
+			if (lineEnd > lineStarts[line] && text.charAt(lineEnd) == '\n' && text.charAt(lineEnd - 1) == '\r') {
+				lineEnd--;
+			}
+			return lineEnd;
+		}
+		return text.length();
+	}
+
+	/**
+	 * Returns the line delimiter of the given line and null if the line is the
+	 * last line.
+	 *
+	 * @param line the line number.
+	 * @return the line delimiter of the given line and null if the line is the
+	 *         last line.
+	 */
+	public String getLineDelimiter(int line) {
+		if (line < lineCount - 1) {
+			return text.subSequence(getLineEnd(line), lineStarts[line + 1]).toString();
+		}
+		return null;
+	}
+
+	public Position positionAt(int offset) throws BadLocationException {
+		int line = getLineNumberOfOffset(offset);
+		return new Position(line, offset - lineStarts[line]);
+	}
+
+	/**
+	 * Returns the positions of the given offsets. The offsets are converted in one
+	 * pass, the line of an offset is searched from the line of the previous offset
+	 * when the offsets are sorted (ex : diagnostics, symbols, ranges).
+	 *
+	 * @param offsets the offsets.
+	 * @return the positions of the given offsets.
+	 * @throws BadLocationException if an offset is out of the text.
+	 */
+	public Position[] positionsAt(int... offsets) throws BadLocationException {
+		Position[] positions = new Position[offsets.length];
+		int line = 0;
+		for (int i = 0; i < offsets.length; i++) {
+			int offset = offsets[i];
+			checkOffset(offset);
+			if (offset < lineStarts[line]) {
+				line = findLine(offset, 0, line - 1);
+			} else if (line + 1 < lineCount && offset >= lineStarts[line + 1]) {
+				if (line + 2 < lineCount && offset >= lineStarts[line + 2]) {
+					line = findLine(offset, line + 2, lineCount - 1);
+				} else {
+					// the offset is in the next line
+					line++;
+				}
+			}
+			positions[i] = new Position(line, offset - lineStarts[line]);
+		}
+		return positions;
+	}
+
+	/**
+	 * Returns the range of the given offsets.
+	 *
+	 * @param startOffset the start offset.
+	 * @param endOffset   the end offset.
+	 * @return the range of the given offsets.
+	 * @throws BadLocationException if an offset is out of the text.
+	 */
+	public Range rangeAt(int startOffset, int endOffset) throws BadLocationException {
+		Position[] positions = positionsAt(startOffset, endOffset);
+		return new Range(positions[0], positions[1]);
+	}
+
+	public int offsetAt(Position position) throws BadLocationException {
+		int line = position.getLine();
+		int lastLine = lineCount - 1;
+		// a text which doesn't end with a line delimiter can be ended with the next
+		// line (like ListLineTracker)
+		boolean endLine = line == lineCount && lineStarts[lastLine] < text.length();
+		if (line < 0 || (line > lastLine && !endLine)) {
+			throw new BadLocationException("The line value, {" + line + "}, is out of bounds.");
+		}
+		int lineOffset;
+		int lineEnd;
+		if (endLine) {
+			lineOffset = text.length();
+			lineEnd = lineOffset;
+		} else {
+			lineOffset = lineStarts[line];
+			lineEnd = getLineEnd(line);
+		}
+		int character = position.getCharacter();
+		int offset = lineOffset + character;
+		if (offset > lineEnd) {
+			throw new BadLocationException(
+					"The character value, {" + character + "} of the line" + line + "}, is out of bounds.");
+		}
+		return offset;
+	}
+}
@@ -9,14 +9,20 @@
 *******************************************************************************/
 package org.eclipse.lsp4xml.commons;
 
+import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.eclipse.lsp4j.TextDocumentItem;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
+import org.eclipse.lsp4xml.commons.metrics.RequestMetrics;
+import org.eclipse.lsp4xml.commons.metrics.RequestMetrics.Request;
 
 /**
  * A {@link TextDocument} which is associate to a model loaded in async.
@@ -29,18 +35,64 @@ public class ModelTextDocument<T> extends TextDocument {
 
 	private static final Logger LOGGER = Logger.getLogger(ModelTextDocument.class.getName());
 
+	/**
+	 * Function which updates a model incrementally.
+	 *
+	 * @param <T> the model type (ex : DOM Document)
+	 */
+	@FunctionalInterface
+	public interface Reparse<T> {
+
+		/**
+		 * Returns a new model built from the given model, which was parsed before the
+		 * given changes, or returns null if the model must be fully parsed. The given
+		 * model must not be modified since it can be used by other requests.
+		 * 
+		 * @param model         the model parsed before the changes.
+		 * @param document      the text document.
+		 * @param changed       the region which was changed since the model was
+		 *                      parsed.
+		 * @param cancelChecker the cancel checker.
+		 * @return the new model or null if the model must be fully parsed.
+		 */
+		T reparse(T model, TextDocument document, ChangedRegion changed, CancelChecker cancelChecker);
+	}
+
 	private final BiFunction<TextDocument, CancelChecker, T> parse;
 
+	private final Reparse<T> reparse;
+
 	private CompletableFuture<T> model;
 
+	// The last parsed model from which a new model can be built incrementally, the
+	// region of the text changed since it was parsed and a stamp which is increased
+	// each time a parse process takes the parsed model.
+	private T parsedModel;
+
+	private ChangedRegion changed;
+
+	private int parsedModelStamp;
+
 	public ModelTextDocument(TextDocumentItem document, BiFunction<TextDocument, CancelChecker, T> parse) {
+		this(document, parse, null);
+	}
+
+	public ModelTextDocument(TextDocumentItem document, BiFunction<TextDocument, CancelChecker, T> parse,
+			Reparse<T> reparse) {
 		super(document);
 		this.parse = parse;
+		this.reparse = reparse;
 	}
 
 	public ModelTextDocument(String text, String uri, BiFunction<TextDocument, CancelChecker, T> parse) {
+		this(text, uri, parse, null);
+	}
+
+	public ModelTextDocument(String text, String uri, BiFunction<TextDocument, CancelChecker, T> parse,
+			Reparse<T> reparse) {
 		super(text, uri);
 		this.parse = parse;
+		this.reparse = reparse;
 	}
 
 	/**
@@ -52,7 +104,7 @@ public class ModelTextDocument<T> extends TextDocument {
 	public CompletableFuture<T> getModel() {
 		if (model == null) {
 			int version = super.getVersion();
-			model = CompletableFutures.computeAsync((requestCancelChecker) -> {
+			Function<CancelChecker, T> loadModel = (requestCancelChecker) -> {
 				long start = System.currentTimeMillis();
 				try {
 					LOGGER.fine("Start parsing of model with version '" + version);
@@ -61,7 +113,7 @@ public class ModelTextDocument<T> extends TextDocument {
 					MultiCancelChecker cancelChecker = new MultiCancelChecker(requestCancelChecker,
 							new TextDocumentVersionChecker(this, version));
 					// parse the model
-					return parse.apply(this, cancelChecker);
+					return parseModel(cancelChecker);
 				} catch (CancellationException e) {
 					LOGGER.fine("Stop parsing parsing of model with version '" + version + "' in "
 							+ (System.currentTimeMillis() - start) + "ms");
@@ -70,18 +122,98 @@ public class ModelTextDocument<T> extends TextDocument {
 					LOGGER.fine("End parse of model with version '" + version + "' in "
 							+ (System.currentTimeMillis() - start) + "ms");
 				}
-			});
+			};
+			// parse is done with the bounded CPU executor
+			Executor executor = ServerExecutors.getInstance().getCPUExecutor();
+			Request request = RequestMetrics.getInstance().begin("parse", getUri());
+			if (request == null) {
+				model = CompletableFutures.computeAsync(executor, loadModel);
+			} else {
+				model = CompletableFutures.computeAsync(executor, request.wrap(loadModel));
+				model.whenComplete(request::end);
+			}
 		}
 		return model;
 	}
 
+	/**
+	 * Parse the model incrementally when it's possible, or fully otherwise.
+	 * 
+	 * @param cancelChecker the cancel checker.
+	 * @return the parsed model.
+	 */
+	private T parseModel(CancelChecker cancelChecker) {
+		T previous = null;
+		ChangedRegion previousChanged = null;
+		int stamp;
+		synchronized (this) {
+			if (reparse != null) {
+				// Take the last parsed model, only one parse process builds a new model from it.
+				previous = parsedModel;
+				previousChanged = changed;
+				parsedModel = null;
+				changed = null;
+			}
+			stamp = ++parsedModelStamp;
+		}
+		T result = null;
+		try {
+			if (previous != null) {
+				result = previousChanged == null ? previous
+						: reparse.reparse(previous, this, previousChanged, cancelChecker);
+			}
+			if (result == null) {
+				result = parse.apply(this, cancelChecker);
+			}
+		} catch (CancellationException e) {
+			synchronized (this) {
+				if (stamp == parsedModelStamp && previous != null) {
+					// No model was built from the previous model, keep it for the next parse.
+					parsedModel = previous;
+					changed = ChangedRegion.union(previousChanged, changed);
+				}
+			}
+			throw e;
+		}
+		synchronized (this) {
+			if (reparse != null && stamp == parsedModelStamp && changed == null) {
+				// The text didn't change while parsing, a new model can be built from this
+				// model with the next parse.
+				parsedModel = result;
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public void setText(String text) {
-		super.setText(text);
+		synchronized (this) {
+			super.setText(text);
+			// the whole text changed, the model must be fully parsed
+			parsedModel = null;
+			changed = null;
+			parsedModelStamp++;
+		}
+		// text changed, cancel the completable future which load the model
+		cancelModel();
+	}
+
+	@Override
+	public void update(List<TextDocumentContentChangeEvent> changes) {
+		synchronized (this) {
+			super.update(changes);
+		}
 		// text changed, cancel the completable future which load the model
 		cancelModel();
 	}
 
+	@Override
+	protected void textReplaced(int offset, int length, String text) {
+		synchronized (this) {
+			changed = ChangedRegion.union(changed, offset, length, text);
+		}
+	}
+
 	@Override
 	public void setVersion(int version) {
 		super.setVersion(version);
@@ -13,6 +13,7 @@ import java.util.function.BiFunction;
 
 import org.eclipse.lsp4j.TextDocumentItem;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4xml.commons.ModelTextDocument.Reparse;
 
 /**
  * The cache of {@link TextDocument} linked to a model.
@@ -25,13 +26,20 @@ public class ModelTextDocuments<T> extends TextDocuments<ModelTextDocument<T>> {
 
 	private final BiFunction<TextDocument, CancelChecker, T> parse;
 
+	private final Reparse<T> reparse;
+
 	public ModelTextDocuments(BiFunction<TextDocument, CancelChecker, T> parse) {
+		this(parse, null);
+	}
+
+	public ModelTextDocuments(BiFunction<TextDocument, CancelChecker, T> parse, Reparse<T> reparse) {
 		this.parse = parse;
+		this.reparse = reparse;
 	}
 
 	@Override
 	public ModelTextDocument<T> createDocument(TextDocumentItem document) {
-		ModelTextDocument<T> doc = new ModelTextDocument<T>(document, parse);
+		ModelTextDocument<T> doc = new ModelTextDocument<T>(document, parse, reparse);
 		doc.setIncremental(isIncremental());
 		return doc;
 	}
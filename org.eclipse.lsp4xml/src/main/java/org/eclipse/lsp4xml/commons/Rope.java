@@ -0,0 +1,336 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable rope used to store the text content of a {@link TextDocument}
+ * which is updated incrementally.
+ *
+ * <p>
+ * A rope is a balanced binary tree whose leaves are pieces (offset, length) of
+ * an original {@link String}. Replacing a range of text shares all untouched
+ * pieces with the previous rope, so an edit costs <i>O(log n)</i> in time and
+ * allocation instead of copying the whole text.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public final class Rope implements CharSequence {
+
+	/**
+	 * Adjacent pieces whose total length is lower than this value are merged in
+	 * one piece (ex : when user types characters one by one).
+	 */
+	private static final int MERGE_LENGTH = 256;
+
+	/**
+	 * Max depth of the tree before the rope is rebalanced.
+	 */
+	private static final int MAX_DEPTH = 48;
+
+	private static abstract class Node {
+
+		final int length;
+
+		final int depth;
+
+		Node(int length, int depth) {
+			this.length = length;
+			this.depth = depth;
+		}
+	}
+
+	private static final class Piece extends Node {
+
+		final String source;
+
+		final int start;
+
+		Piece(String source, int start, int length) {
+			super(length, 0);
+			this.source = source;
+			this.start = start;
+		}
+
+		@Override
+		public String toString() {
+			return source.substring(start, start + length);
+		}
+	}
+
+	private static final class Concat extends Node {
+
+		final Node left;
+
+		final Node right;
+
+		Concat(Node left, Node right) {
+			super(left.length + right.length, Math.max(left.depth, right.depth) + 1);
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	private static final Piece EMPTY_PIECE = new Piece("", 0, 0);
+
+	public static final Rope EMPTY = new Rope(EMPTY_PIECE);
+
+	private final Node root;
+
+	private Rope(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Returns a rope for the given text. The text is not copied.
+	 *
+	 * @param text the text
+	 * @return a rope for the given text.
+	 */
+	public static Rope of(String text) {
+		if (text == null || text.isEmpty()) {
+			return EMPTY;
+		}
+		return new Rope(new Piece(text, 0, text.length()));
+	}
+
+	/**
+	 * Returns a new rope where the text between <code>start</code> and
+	 * <code>end</code> is replaced with the given text.
+	 *
+	 * @param start the start offset (inclusive)
+	 * @param end   the end offset (exclusive)
+	 * @param text  the text to insert.
+	 * @return a new rope where the text between <code>start</code> and
+	 *         <code>end</code> is replaced with the given text.
+	 */
+	public Rope replace(int start, int end, String text) {
+		if (start < 0 || end > length() || start > end) {
+			throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + length());
+		}
+		Node before = sub(root, 0, start);
+		Node after = sub(root, end, root.length);
+		Node inserted = text == null || text.isEmpty() ? EMPTY_PIECE : new Piece(text, 0, text.length());
+		Node result = concat(concat(before, inserted), after);
+		if (result.depth > MAX_DEPTH) {
+			result = rebalance(result);
+		}
+		return result == root ? this : new Rope(result);
+	}
+
+	/**
+	 * Returns the depth of the tree.
+	 *
+	 * @return the depth of the tree.
+	 */
+	public int depth() {
+		return root.depth;
+	}
+
+	@Override
+	public int length() {
+		return root.length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= root.length) {
+			throw new IndexOutOfBoundsException("index=" + index + ", length=" + root.length);
+		}
+		Node node = root;
+		while (node instanceof Concat) {
+			Concat concat = (Concat) node;
+			if (index < concat.left.length) {
+				node = concat.left;
+			} else {
+				index -= concat.left.length;
+				node = concat.right;
+			}
+		}
+		Piece piece = (Piece) node;
+		return piece.source.charAt(piece.start + index);
+	}
+
+	@Override
+	public Rope subSequence(int start, int end) {
+		if (start < 0 || end > length() || start > end) {
+			throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + length());
+		}
+		Node node = sub(root, start, end);
+		return node == root ? this : new Rope(node);
+	}
+
+	/**
+	 * Copies the characters between <code>start</code> and <code>end</code> into
+	 * the given array like {@link String#getChars(int, int, char[], int)}.
+	 *
+	 * @param start    the start offset (inclusive)
+	 * @param end      the end offset (exclusive)
+	 * @param dst      the destination array.
+	 * @param dstBegin the start offset in the destination array.
+	 */
+	public void getChars(int start, int end, char[] dst, int dstBegin) {
+		if (start < 0 || end > length() || start > end) {
+			throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + length());
+		}
+		getChars(root, start, end, dst, dstBegin);
+	}
+
+	/**
+	 * Append the content of the rope to the given buffer.
+	 *
+	 * @param buffer the buffer.
+	 */
+	public void appendTo(StringBuilder buffer) {
+		appendTo(root, buffer);
+	}
+
+	/**
+	 * Returns the materialized text of the rope. Each call creates a new
+	 * {@link String}, the caller is responsible for caching it.
+	 */
+	@Override
+	public String toString() {
+		if (root instanceof Piece) {
+			Piece piece = (Piece) root;
+			return piece.start == 0 && piece.length == piece.source.length() ? piece.source : piece.toString();
+		}
+		StringBuilder buffer = new StringBuilder(root.length);
+		appendTo(root, buffer);
+		return buffer.toString();
+	}
+
+	private static void appendTo(Node node, StringBuilder buffer) {
+		while (node instanceof Concat) {
+			Concat concat = (Concat) node;
+			appendTo(concat.left, buffer);
+			node = concat.right;
+		}
+		Piece piece = (Piece) node;
+		buffer.append(piece.source, piece.start, piece.start + piece.length);
+	}
+
+	private static void getChars(Node node, int start, int end, char[] dst, int dstBegin) {
+		while (node instanceof Concat) {
+			Concat concat = (Concat) node;
+			int leftLength = concat.left.length;
+			if (end <= leftLength) {
+				node = concat.left;
+			} else {
+				if (start < leftLength) {
+					getChars(concat.left, start, leftLength, dst, dstBegin);
+					dstBegin += leftLength - start;
+					start = leftLength;
+				}
+				node = concat.right;
+				start -= leftLength;
+				end -= leftLength;
+			}
+		}
+		Piece piece = (Piece) node;
+		piece.source.getChars(piece.start + start, piece.start + end, dst, dstBegin);
+	}
+
+	private static Node sub(Node node, int start, int end) {
+		if (start == 0 && end == node.length) {
+			return node;
+		}
+		if (start == end) {
+			return EMPTY_PIECE;
+		}
+		if (node instanceof Piece) {
+			Piece piece = (Piece) node;
+			return new Piece(piece.source, piece.start + start, end - start);
+		}
+		Concat concat = (Concat) node;
+		int leftLength = concat.left.length;
+		if (end <= leftLength) {
+			return sub(concat.left, start, end);
+		}
+		if (start >= leftLength) {
+			return sub(concat.right, start - leftLength, end - leftLength);
+		}
+		return concat(sub(concat.left, start, leftLength), sub(concat.right, 0, end - leftLength));
+	}
+
+	private static Node concat(Node left, Node right) {
+		if (left.length == 0) {
+			return right;
+		}
+		if (right.length == 0) {
+			return left;
+		}
+		if (right instanceof Piece && right.length < MERGE_LENGTH) {
+			if (left instanceof Piece && left.length + right.length <= MERGE_LENGTH) {
+				return merge((Piece) left, (Piece) right);
+			}
+			if (left instanceof Concat) {
+				Concat concat = (Concat) left;
+				if (concat.right instanceof Piece && concat.right.length + right.length <= MERGE_LENGTH) {
+					return new Concat(concat.left, merge((Piece) concat.right, (Piece) right));
+				}
+			}
+		}
+		if (left instanceof Piece && left.length < MERGE_LENGTH && right instanceof Concat) {
+			Concat concat = (Concat) right;
+			if (concat.left instanceof Piece && left.length + concat.left.length <= MERGE_LENGTH) {
+				return new Concat(merge((Piece) left, (Piece) concat.left), concat.right);
+			}
+		}
+		return new Concat(left, right);
+	}
+
+	private static Piece merge(Piece left, Piece right) {
+		StringBuilder text = new StringBuilder(left.length + right.length);
+		text.append(left.source, left.start, left.start + left.length);
+		text.append(right.source, right.start, right.start + right.length);
+		return new Piece(text.toString(), 0, text.length());
+	}
+
+	private static Node rebalance(Node node) {
+		List<Piece> pieces = new ArrayList<>();
+		collectPieces(node, pieces);
+		return build(pieces, 0, pieces.size());
+	}
+
+	private static void collectPieces(Node node, List<Piece> pieces) {
+		while (node instanceof Concat) {
+			Concat concat = (Concat) node;
+			collectPieces(concat.left, pieces);
+			node = concat.right;
+		}
+		Piece piece = (Piece) node;
+		if (piece.length == 0) {
+			return;
+		}
+		int last = pieces.size() - 1;
+		if (last >= 0 && pieces.get(last).length + piece.length <= MERGE_LENGTH) {
+			pieces.set(last, merge(pieces.get(last), piece));
+		} else {
+			pieces.add(piece);
+		}
+	}
+
+	private static Node build(List<Piece> pieces, int from, int to) {
+		int count = to - from;
+		if (count == 0) {
+			return EMPTY_PIECE;
+		}
+		if (count == 1) {
+			return pieces.get(from);
+		}
+		int middle = from + count / 2;
+		return new Concat(build(pieces, from, middle), build(pieces, middle, to));
+	}
+}
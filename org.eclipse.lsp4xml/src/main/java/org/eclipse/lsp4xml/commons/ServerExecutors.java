@@ -0,0 +1,172 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executors of the language server.
+ *
+ * <ul>
+ * <li>the CPU executor parses the documents with a bounded pool of threads
+ * (the number of processors by default).</li>
+ * <li>the request executor computes the requests (completion, hover,
+ * formatting, etc) which can block while loading a grammar. It's the CPU
+ * executor, or a thread per request with virtual threads.</li>
+ * <li>the I/O executor downloads the remote resources (XML Schema, DTD), so a
+ * slow download never takes a thread of the CPU executor.</li>
+ * </ul>
+ *
+ * <p>
+ * The execution model is configured with system properties:
+ * </p>
+ * <ul>
+ * <li>"lsp4xml.executor" : "platform" (default) or "virtual" to compute the
+ * requests and the downloads with virtual threads when the JVM supports them
+ * (Java 21 or later).</li>
+ * <li>"lsp4xml.cpuThreads" : the number of threads of the CPU executor.</li>
+ * </ul>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class ServerExecutors {
+
+	private static final Logger LOGGER = Logger.getLogger(ServerExecutors.class.getName());
+
+	public static final String EXECUTOR_PROPERTY = "lsp4xml.executor";
+
+	public static final String CPU_THREADS_PROPERTY = "lsp4xml.cpuThreads";
+
+	public static final String VIRTUAL_MODE = "virtual";
+
+	/**
+	 * Holder of the executors of the process, created on the first access.
+	 */
+	private static class InstanceHolder {
+
+		private static final ServerExecutors INSTANCE = new ServerExecutors(System.getProperty(EXECUTOR_PROPERTY),
+				Integer.getInteger(CPU_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+	}
+
+	private final ExecutorService cpuExecutor;
+
+	private final ExecutorService requestExecutor;
+
+	private final ExecutorService ioExecutor;
+
+	private final boolean virtualThreads;
+
+	/**
+	 * Create the executors.
+	 *
+	 * @param mode       the execution mode ("platform" or "virtual").
+	 * @param cpuThreads the number of threads of the CPU executor.
+	 */
+	public ServerExecutors(String mode, int cpuThreads) {
+		ThreadPoolExecutor cpuExecutor = new ThreadPoolExecutor(cpuThreads, cpuThreads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), createThreadFactory("lsp4xml-cpu"));
+		cpuExecutor.allowCoreThreadTimeOut(true);
+		this.cpuExecutor = cpuExecutor;
+		ExecutorService virtualExecutor = VIRTUAL_MODE.equals(mode) ? createVirtualThreadExecutor() : null;
+		this.virtualThreads = virtualExecutor != null;
+		this.requestExecutor = virtualThreads ? virtualExecutor : cpuExecutor;
+		this.ioExecutor = virtualThreads ? virtualExecutor
+				: Executors.newCachedThreadPool(createThreadFactory("lsp4xml-io"));
+	}
+
+	/**
+	 * Returns the executors of the process configured with the system properties.
+	 *
+	 * @return the executors of the process.
+	 */
+	public static ServerExecutors getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Returns the bounded executor used to parse the documents.
+	 *
+	 * @return the bounded executor used to parse the documents.
+	 */
+	public ExecutorService getCPUExecutor() {
+		return cpuExecutor;
+	}
+
+	/**
+	 * Returns the executor used to compute the requests.
+	 *
+	 * @return the executor used to compute the requests.
+	 */
+	public ExecutorService getRequestExecutor() {
+		return requestExecutor;
+	}
+
+	/**
+	 * Returns the executor used for blocking I/O (ex : download of a remote XML
+	 * Schema).
+	 *
+	 * @return the executor used for blocking I/O.
+	 */
+	public ExecutorService getIOExecutor() {
+		return ioExecutor;
+	}
+
+	/**
+	 * Returns the executor given to the JSON-RPC launcher to read the messages.
+	 *
+	 * @return the executor given to the JSON-RPC launcher.
+	 */
+	public ExecutorService createLauncherExecutor() {
+		return virtualThreads ? createVirtualThreadExecutor() : Executors.newCachedThreadPool();
+	}
+
+	/**
+	 * Returns true if requests and I/O are executed with virtual threads and false
+	 * otherwise.
+	 *
+	 * @return true if requests and I/O are executed with virtual threads.
+	 */
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	private static ThreadFactory createThreadFactory(String name) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Returns the executor which creates a virtual thread per task and null if the
+	 * JVM doesn't support virtual threads (the server is compiled with Java 8, so
+	 * the executor is created with reflection).
+	 */
+	private static ExecutorService createVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Virtual threads are not supported by the JVM "
+					+ System.getProperty("java.version") + ", platform threads are used.");
+			return null;
+		}
+	}
+}
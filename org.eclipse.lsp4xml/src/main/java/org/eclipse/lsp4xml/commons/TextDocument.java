@@ -31,12 +31,19 @@ public class TextDocument extends TextDocumentItem {
 
 	private final Object lock = new Object();
 
-	private static String DEFAULT_DELIMTER = System.lineSeparator();
+	public static final String DEFAULT_DELIMITER = System.lineSeparator();
 
 	private ILineTracker lineTracker;
 
 	private boolean incremental;
 
+	/**
+	 * The rope which stores the text content updated incrementally and not yet
+	 * materialized with {@link #getText()}, or null if the text content is up to
+	 * date.
+	 */
+	private volatile Rope buffer;
+
 	public TextDocument(TextDocumentItem document) {
 		this(document.getText(), document.getUri());
 		super.setVersion(document.getVersion());
@@ -59,6 +66,68 @@ public class TextDocument extends TextDocumentItem {
 		return incremental;
 	}
 
+	/**
+	 * Returns the text content of the document. When the document was updated
+	 * incrementally, the text is materialized lazily from the rope the first time
+	 * this method is called after the update.
+	 * 
+	 * @return the text content of the document.
+	 */
+	@Override
+	public String getText() {
+		if (buffer == null) {
+			return super.getText();
+		}
+		synchronized (lock) {
+			Rope buffer = this.buffer;
+			if (buffer != null) {
+				super.setText(buffer.toString());
+				this.buffer = null;
+			}
+			return super.getText();
+		}
+	}
+
+	/**
+	 * Returns the given text, which was returned by {@link #getTextSequence()},
+	 * as a String. When the given text is the current text of the document, it is
+	 * materialized in the document like {@link #getText()}.
+	 * 
+	 * @param text the text returned by {@link #getTextSequence()}.
+	 * @return the given text as a String.
+	 */
+	public String getText(CharSequence text) {
+		if (text instanceof String) {
+			return (String) text;
+		}
+		synchronized (lock) {
+			if (text == buffer) {
+				return getText();
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Returns the text content of the document without materializing the pending
+	 * incremental changes.
+	 * 
+	 * @return the text content of the document without materializing the pending
+	 *         incremental changes.
+	 */
+	public CharSequence getTextSequence() {
+		Rope buffer = this.buffer;
+		return buffer != null ? buffer : super.getText();
+	}
+
+	@Override
+	public void setText(String text) {
+		synchronized (lock) {
+			buffer = null;
+			super.setText(text);
+		}
+	}
+
 	public Position positionAt(int position) throws BadLocationException {
 		ILineTracker lineTracker = getLineTracker();
 		return lineTracker.getPositionAt(position);
@@ -72,8 +141,8 @@ public class TextDocument extends TextDocumentItem {
 	public String lineText(int lineNumber) throws BadLocationException {
 		ILineTracker lineTracker = getLineTracker();
 		Line line = lineTracker.getLineInformation(lineNumber);
-		String text = super.getText();
-		return text.substring(line.offset, line.offset + line.length);
+		CharSequence text = getTextSequence();
+		return text.subSequence(line.offset, line.offset + line.length).toString();
 	}
 
 	public String lineDelimiter(int lineNumber) throws BadLocationException {
@@ -85,7 +154,7 @@ public class TextDocument extends TextDocumentItem {
 			}
 		}
 		if (lineDelimiter == null) {
-			lineDelimiter = DEFAULT_DELIMTER;
+			lineDelimiter = DEFAULT_DELIMITER;
 		}
 		return lineDelimiter;
 	}
@@ -95,28 +164,40 @@ public class TextDocument extends TextDocumentItem {
 			Position pos = positionAt(textOffset);
 			ILineTracker lineTracker = getLineTracker();
 			Line line = lineTracker.getLineInformation(pos.getLine());
-			String text = super.getText();
-			String lineText = text.substring(line.offset, textOffset);
-			int position = lineText.length();
-			Matcher m = wordDefinition.matcher(lineText);
-			int currentPosition = 0;
-			while (currentPosition != position) {
-				if (m.find()) {
-					currentPosition = m.end();
-					if (currentPosition == position) {
-						return new Range(new Position(pos.getLine(), m.start()), pos);
-					}
-				} else {
-					currentPosition++;
-				}
-				m.region(currentPosition, position);
-			}
-			return new Range(pos, pos);
+			CharSequence text = getTextSequence();
+			String lineText = text.subSequence(line.offset, textOffset).toString();
+			return getWordRangeAt(lineText, pos, wordDefinition);
 		} catch (BadLocationException e) {
 			return null;
 		}
 	}
 
+	/**
+	 * Returns the range of the word which ends at the given position.
+	 * 
+	 * @param lineText       the text of the line before the given position.
+	 * @param pos            the position.
+	 * @param wordDefinition the word pattern.
+	 * @return the range of the word which ends at the given position.
+	 */
+	public static Range getWordRangeAt(String lineText, Position pos, Pattern wordDefinition) {
+		int position = lineText.length();
+		Matcher m = wordDefinition.matcher(lineText);
+		int currentPosition = 0;
+		while (currentPosition != position) {
+			if (m.find()) {
+				currentPosition = m.end();
+				if (currentPosition == position) {
+					return new Range(new Position(pos.getLine(), m.start()), pos);
+				}
+			} else {
+				currentPosition++;
+			}
+			m.region(currentPosition, position);
+		}
+		return new Range(pos, pos);
+	}
+
 	private ILineTracker getLineTracker() {
 		if (lineTracker == null) {
 			lineTracker = createLineTracker();
@@ -129,10 +210,21 @@ public class TextDocument extends TextDocumentItem {
 			return lineTracker;
 		}
 		ILineTracker lineTracker = isIncremental() ? new TreeLineTracker(new ListLineTracker()) : new ListLineTracker();
-		lineTracker.set(super.getText());
+		lineTracker.set(getText());
 		return lineTracker;
 	}
 
+	/**
+	 * Called when a range of the text is replaced during an incremental update.
+	 * 
+	 * @param offset the offset of the replaced text.
+	 * @param length the length of the replaced text.
+	 * @param text   the inserted text.
+	 */
+	protected void textReplaced(int offset, int length, String text) {
+		// Do nothing
+	}
+
 	/**
 	 * Update text of the document by using the changes and according the
 	 * incremental support.
@@ -148,10 +240,10 @@ public class TextDocument extends TextDocumentItem {
 			try {
 				long start = System.currentTimeMillis();
 				synchronized (lock) {
-					// Initialize buffer and line tracker from the current text document
-					StringBuilder buffer = new StringBuilder(getText());
+					// Initialize the rope from the current text document (the text is not copied)
+					Rope buffer = this.buffer != null ? this.buffer : Rope.of(super.getText());
 
-					// Loop for each changes and update the buffer
+					// Loop for each changes and update the rope
 					for (int i = 0; i < changes.size(); i++) {
 
 						TextDocumentContentChangeEvent changeEvent = changes.get(i);
@@ -167,11 +259,12 @@ public class TextDocument extends TextDocumentItem {
 						}
 						String text = changeEvent.getText();
 						int startOffset = offsetAt(range.getStart());
-						buffer.replace(startOffset, startOffset + length, text);
+						buffer = buffer.replace(startOffset, startOffset + length, text);
 						lineTracker.replace(startOffset, length, text);
+						textReplaced(startOffset, length, text);
 					}
-					// Update the new text content from the updated buffer
-					setText(buffer.toString());
+					// The new text content will be materialized by the next call of getText()
+					this.buffer = buffer;
 				}
 				LOGGER.fine("Text document content updated in " + (System.currentTimeMillis() - start) + "ms");
 			} catch (BadLocationException e) {
@@ -0,0 +1,207 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scheduler which validates documents with a bounded pool of workers.
+ * 
+ * <ul>
+ * <li>a validation can be delayed to debounce the validation requests of a
+ * document (ex : when user types).</li>
+ * <li>a document has at most one pending validation (delayed or queued): a new
+ * request replaces the pending validation.</li>
+ * <li>queued validations are processed by priority: validation of edited
+ * documents is done before the revalidation of documents after a save.</li>
+ * </ul>
+ * 
+ * @author Angelo ZERR
+ *
+ */
+public class ValidationScheduler {
+
+	private static final Logger LOGGER = Logger.getLogger(ValidationScheduler.class.getName());
+
+	/**
+	 * Validation priority.
+	 */
+	public enum Priority {
+
+		/**
+		 * Validation of a document which is opened or edited.
+		 */
+		HIGH,
+
+		/**
+		 * Revalidation of a document (ex : after the save of a grammar, settings
+		 * changed).
+		 */
+		LOW;
+	}
+
+	private class ValidationTask implements Runnable, Comparable<ValidationTask> {
+
+		private final String uri;
+
+		private final Runnable validation;
+
+		private final Priority priority;
+
+		private final long sequence;
+
+		private ScheduledFuture<?> delayed;
+
+		private boolean canceled;
+
+		public ValidationTask(String uri, Runnable validation, Priority priority) {
+			this.uri = uri;
+			this.validation = validation;
+			this.priority = priority;
+			this.sequence = sequences.incrementAndGet();
+		}
+
+		@Override
+		public void run() {
+			synchronized (ValidationScheduler.this) {
+				if (canceled) {
+					return;
+				}
+				// the validation starts, a new request for the document will be scheduled
+				pendingTasks.remove(uri, this);
+			}
+			try {
+				validation.run();
+			} catch (CancellationException e) {
+				// The document has changed, a new validation is scheduled.
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.SEVERE, "Validation of '" + uri + "' failed", e);
+			}
+		}
+
+		void cancel() {
+			canceled = true;
+			if (delayed != null) {
+				delayed.cancel(false);
+			}
+			workers.remove(this);
+		}
+
+		@Override
+		public int compareTo(ValidationTask other) {
+			int result = priority.compareTo(other.priority);
+			return result != 0 ? result : Long.compare(sequence, other.sequence);
+		}
+	}
+
+	private final Map<String, ValidationTask> pendingTasks;
+
+	private final AtomicLong sequences;
+
+	private final ScheduledExecutorService delayer;
+
+	private final ThreadPoolExecutor workers;
+
+	public ValidationScheduler() {
+		this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+	}
+
+	public ValidationScheduler(int maxWorkers) {
+		this.pendingTasks = new HashMap<>();
+		this.sequences = new AtomicLong();
+		ScheduledThreadPoolExecutor delayer = new ScheduledThreadPoolExecutor(1,
+				createThreadFactory("lsp4xml-validation-delayer"));
+		delayer.setRemoveOnCancelPolicy(true);
+		this.delayer = delayer;
+		this.workers = new ThreadPoolExecutor(maxWorkers, maxWorkers, 60L, TimeUnit.SECONDS,
+				new PriorityBlockingQueue<>(), createThreadFactory("lsp4xml-validation"));
+		this.workers.allowCoreThreadTimeOut(true);
+	}
+
+	private static ThreadFactory createThreadFactory(String name) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Schedule the validation of the document of the given uri.
+	 * 
+	 * <p>
+	 * If a validation of the document is pending, it's replaced by the given
+	 * validation, except if the pending validation has an higher priority: in this
+	 * case the given validation is ignored because the pending validation will
+	 * validate the last version of the document.
+	 * </p>
+	 * 
+	 * @param uri        the document uri.
+	 * @param validation the validation to execute.
+	 * @param priority   the validation priority.
+	 * @param delay      the delay in milliseconds before queuing the validation.
+	 */
+	public synchronized void schedule(String uri, Runnable validation, Priority priority, long delay) {
+		ValidationTask pendingTask = pendingTasks.get(uri);
+		if (pendingTask != null) {
+			if (pendingTask.priority.compareTo(priority) < 0) {
+				return;
+			}
+			pendingTask.cancel();
+		}
+		ValidationTask task = new ValidationTask(uri, validation, priority);
+		pendingTasks.put(uri, task);
+		if (delay > 0) {
+			task.delayed = delayer.schedule(() -> workers.execute(task), delay, TimeUnit.MILLISECONDS);
+		} else {
+			workers.execute(task);
+		}
+	}
+
+	/**
+	 * Cancel the pending validation of the document of the given uri.
+	 * 
+	 * @param uri the document uri.
+	 */
+	public synchronized void cancel(String uri) {
+		ValidationTask pendingTask = pendingTasks.remove(uri);
+		if (pendingTask != null) {
+			pendingTask.cancel();
+		}
+	}
+
+	/**
+	 * Returns the number of pending (delayed or queued) validations.
+	 * 
+	 * @return the number of pending (delayed or queued) validations.
+	 */
+	public synchronized int getPendingCount() {
+		return pendingTasks.size();
+	}
+
+	public void shutdown() {
+		delayer.shutdownNow();
+		workers.shutdownNow();
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss and eviction counters of a cache (ex : the grammar pool). The
+ * counters of the caches created with
+ * {@link RequestMetrics#getCacheStatistics(String)} are added to the metrics
+ * report, they are recorded even if the request metrics are disabled.
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class CacheStatistics {
+
+	private final LongAdder hitCount;
+
+	private final LongAdder missCount;
+
+	private final LongAdder evictionCount;
+
+	public CacheStatistics() {
+		this.hitCount = new LongAdder();
+		this.missCount = new LongAdder();
+		this.evictionCount = new LongAdder();
+	}
+
+	public void recordHit() {
+		hitCount.increment();
+	}
+
+	public void recordMiss() {
+		missCount.increment();
+	}
+
+	public void recordEviction() {
+		evictionCount.increment();
+	}
+
+	/**
+	 * Returns the number of retrieves which have returned a cached value.
+	 *
+	 * @return the number of retrieves which have returned a cached value.
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * Returns the number of retrieves which have returned nothing.
+	 *
+	 * @return the number of retrieves which have returned nothing.
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * Returns the number of values evicted because the cache was full.
+	 *
+	 * @return the number of values evicted because the cache was full.
+	 */
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	void reset() {
+		hitCount.reset();
+		missCount.reset();
+		evictionCount.reset();
+	}
+
+	RequestMetricsReport.Cache toReport(String name) {
+		RequestMetricsReport.Cache cache = new RequestMetricsReport.Cache();
+		cache.setName(name);
+		cache.setHitCount(getHitCount());
+		cache.setMissCount(getMissCount());
+		cache.setEvictionCount(getEvictionCount());
+		return cache;
+	}
+}
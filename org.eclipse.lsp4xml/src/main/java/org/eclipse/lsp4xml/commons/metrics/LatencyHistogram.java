@@ -0,0 +1,134 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of durations.
+ *
+ * <p>
+ * Durations are recorded in microseconds in log-linear buckets: each power of
+ * two is divided in 4 buckets, so a percentile is known with a precision of
+ * 25%, whatever the duration is. Recording a duration is an increment of an
+ * atomic counter.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+class LatencyHistogram {
+
+	private static final int SUB_BUCKETS_BITS = 2;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKETS_BITS;
+
+	// 2^40 microseconds is more than 12 days
+	private static final int BUCKETS = 40 * SUB_BUCKETS;
+
+	private final AtomicLongArray counts;
+
+	private final AtomicLong max;
+
+	LatencyHistogram() {
+		this.counts = new AtomicLongArray(BUCKETS);
+		this.max = new AtomicLong();
+	}
+
+	/**
+	 * Record the given duration.
+	 *
+	 * @param nanos the duration in nanoseconds.
+	 */
+	void record(long nanos) {
+		long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+		counts.incrementAndGet(getBucket(micros));
+		long current;
+		while (micros > (current = max.get()) && !max.compareAndSet(current, micros)) {
+			// retry
+		}
+	}
+
+	static int getBucket(long micros) {
+		if (micros < SUB_BUCKETS) {
+			return (int) micros;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		int subBucket = (int) (micros >>> (exponent - SUB_BUCKETS_BITS)) & (SUB_BUCKETS - 1);
+		int bucket = (exponent - SUB_BUCKETS_BITS + 1) * SUB_BUCKETS + subBucket;
+		return Math.min(bucket, BUCKETS - 1);
+	}
+
+	/**
+	 * Returns the lowest duration in microseconds of the given bucket.
+	 */
+	static long getLowerBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKETS_BITS - 1;
+		long subBucket = bucket % SUB_BUCKETS;
+		return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKETS_BITS);
+	}
+
+	/**
+	 * Returns the count of recorded durations.
+	 *
+	 * @return the count of recorded durations.
+	 */
+	long getCount() {
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			count += counts.get(i);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the duration in milliseconds below which the given percentage of
+	 * recorded durations fall (the upper bound of the bucket).
+	 *
+	 * @param percentile the percentage (ex : 99).
+	 * @return the duration in milliseconds.
+	 */
+	double getPercentile(double percentile) {
+		long[] snapshot = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			count += snapshot[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(count * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				long upperBound = i + 1 < BUCKETS ? getLowerBound(i + 1) : getLowerBound(i);
+				// the max is more accurate than the upper bound of the last bucket
+				return Math.min(upperBound, max.get()) / 1000.0;
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Returns the max recorded duration in milliseconds.
+	 *
+	 * @return the max recorded duration in milliseconds.
+	 */
+	double getMax() {
+		return max.get() / 1000.0;
+	}
+}
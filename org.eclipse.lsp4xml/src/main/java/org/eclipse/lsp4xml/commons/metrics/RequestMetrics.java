@@ -0,0 +1,310 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.eclipse.lsp4xml.commons.metrics.RequestMetricsReport.SlowRequest;
+
+/**
+ * Metrics of the requests of the language server (latency histograms,
+ * cancellations, queue wait time and allocated bytes per request) and
+ * statistics of the caches (see {@link CacheStatistics}).
+ *
+ * <p>
+ * Metrics are disabled by default, they can be enabled with the system
+ * property "lsp4xml.metrics", with the 'xml.server.metrics' setting or with
+ * JMX. When they are disabled, {@link #begin(String, String)} returns null and
+ * the request is computed as usual. Metrics are available with the
+ * 'xml/metrics' request and with JMX (see {@link RequestMetricsMXBean}).
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class RequestMetrics implements RequestMetricsMXBean {
+
+	private static final Logger LOGGER = Logger.getLogger(RequestMetrics.class.getName());
+
+	public static final String ENABLED_PROPERTY = "lsp4xml.metrics";
+
+	public static final String OBJECT_NAME = "org.eclipse.lsp4xml:type=RequestMetrics";
+
+	private static final int MAX_SLOW_REQUESTS = 20;
+
+	// the HotSpot extension of the thread MX bean is used reflectively, so that the
+	// bundle doesn't import the com.sun.management package
+	private static final String HOTSPOT_THREAD_MX_BEAN = "com.sun.management.ThreadMXBean";
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	private static final Method GET_THREAD_ALLOCATED_BYTES = getThreadAllocatedBytesMethod();
+
+	/**
+	 * Holder of the metrics of the process, created on the first access.
+	 */
+	private static class InstanceHolder {
+
+		private static final RequestMetrics INSTANCE = createInstance();
+	}
+
+	/**
+	 * A request which is being computed.
+	 */
+	public static class Request {
+
+		private final RequestMetrics metrics;
+
+		private final String name;
+
+		private final String uri;
+
+		private final long timestamp;
+
+		private final long submitTime;
+
+		private volatile long queueWait;
+
+		private volatile long allocatedBytes;
+
+		private Request(RequestMetrics metrics, String name, String uri) {
+			this.metrics = metrics;
+			this.name = name;
+			this.uri = uri;
+			this.timestamp = System.currentTimeMillis();
+			this.submitTime = System.nanoTime();
+			this.queueWait = -1;
+			this.allocatedBytes = -1;
+		}
+
+		/**
+		 * Returns the given code which records the queue wait time and the allocated
+		 * bytes of this request.
+		 *
+		 * @param code the code which computes the request.
+		 * @return the given code which records the queue wait time and the allocated
+		 *         bytes of this request.
+		 */
+		public <T, U, R> BiFunction<T, U, R> wrap(BiFunction<T, U, R> code) {
+			return (t, u) -> {
+				started();
+				long allocatedBefore = getAllocatedBytes();
+				try {
+					return code.apply(t, u);
+				} finally {
+					if (allocatedBefore >= 0) {
+						allocatedBytes = getAllocatedBytes() - allocatedBefore;
+					}
+				}
+			};
+		}
+
+		/**
+		 * Returns the given code which records the queue wait time and the allocated
+		 * bytes of this request.
+		 *
+		 * @param code the code which computes the request.
+		 * @return the given code which records the queue wait time and the allocated
+		 *         bytes of this request.
+		 */
+		public <T, R> Function<T, R> wrap(Function<T, R> code) {
+			BiFunction<T, Void, R> wrapped = wrap((t, u) -> code.apply(t));
+			return t -> wrapped.apply(t, null);
+		}
+
+		private void started() {
+			queueWait = System.nanoTime() - submitTime;
+		}
+
+		/**
+		 * Record the end of this request. This method can be used with
+		 * {@link java.util.concurrent.CompletableFuture#whenComplete}.
+		 *
+		 * @param result the result of the request (not used).
+		 * @param error  the error of the request and null otherwise.
+		 */
+		public void end(Object result, Throwable error) {
+			long duration = System.nanoTime() - submitTime;
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+					: error;
+			boolean cancelled = cause instanceof CancellationException;
+			metrics.record(this, duration, cancelled, cause != null && !cancelled);
+		}
+	}
+
+	private final Map<String, RequestStatistics> statistics;
+
+	private final Map<String, CacheStatistics> caches;
+
+	// min-heap of the slowest requests
+	private final PriorityQueue<SlowRequest> slowestRequests;
+
+	private volatile double slowestRequestsThreshold;
+
+	private volatile boolean enabled;
+
+	public RequestMetrics(boolean enabled) {
+		this.statistics = new ConcurrentHashMap<>();
+		this.caches = new ConcurrentHashMap<>();
+		this.slowestRequests = new PriorityQueue<>(Comparator.comparingDouble(SlowRequest::getDuration));
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns the metrics of the process which are registered in the platform
+	 * MBean server.
+	 *
+	 * @return the metrics of the process.
+	 */
+	public static RequestMetrics getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	private static RequestMetrics createInstance() {
+		RequestMetrics instance = new RequestMetrics(Boolean.getBoolean(ENABLED_PROPERTY));
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+		} catch (JMException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Error while registering request metrics in JMX", e);
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the request which records the metrics of the given request name and
+	 * null if metrics are disabled.
+	 *
+	 * @param name the request name (ex : 'textDocument/completion').
+	 * @param uri  the document URI of the request and null otherwise.
+	 * @return the request which records the metrics and null if metrics are
+	 *         disabled.
+	 */
+	public Request begin(String name, String uri) {
+		if (!enabled) {
+			return null;
+		}
+		return new Request(this, name, uri);
+	}
+
+	/**
+	 * Returns the statistics of the cache with the given name which are added to
+	 * the report.
+	 *
+	 * @param name the cache name (ex : 'grammarPool').
+	 * @return the statistics of the cache with the given name.
+	 */
+	public CacheStatistics getCacheStatistics(String name) {
+		return caches.computeIfAbsent(name, key -> new CacheStatistics());
+	}
+
+	private void record(Request request, long duration, boolean cancelled, boolean failed) {
+		statistics.computeIfAbsent(request.name, RequestStatistics::new).record(request.uri, duration,
+				request.queueWait, request.allocatedBytes, cancelled, failed);
+		double millis = duration / 1_000_000.0;
+		if (!cancelled && millis > slowestRequestsThreshold) {
+			SlowRequest slowRequest = new SlowRequest();
+			slowRequest.setName(request.name);
+			slowRequest.setUri(request.uri);
+			slowRequest.setDuration(millis);
+			slowRequest.setTimestamp(request.timestamp);
+			synchronized (slowestRequests) {
+				slowestRequests.add(slowRequest);
+				if (slowestRequests.size() > MAX_SLOW_REQUESTS) {
+					slowestRequests.poll();
+					slowestRequestsThreshold = slowestRequests.peek().getDuration();
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public RequestMetricsReport getReport() {
+		RequestMetricsReport report = new RequestMetricsReport();
+		report.setEnabled(enabled);
+		report.setEndpoints(statistics.values().stream() //
+				.map(RequestStatistics::toReport) //
+				.sorted(Comparator.comparing(RequestMetricsReport.Endpoint::getName)) //
+				.collect(Collectors.toList()));
+		List<SlowRequest> slowest;
+		synchronized (slowestRequests) {
+			slowest = new ArrayList<>(slowestRequests);
+		}
+		slowest.sort(Comparator.comparingDouble(SlowRequest::getDuration).reversed());
+		report.setSlowestRequests(slowest);
+		report.setCaches(caches.entrySet().stream() //
+				.map(entry -> entry.getValue().toReport(entry.getKey())) //
+				.sorted(Comparator.comparing(RequestMetricsReport.Cache::getName)) //
+				.collect(Collectors.toList()));
+		return report;
+	}
+
+	@Override
+	public void reset() {
+		statistics.clear();
+		caches.values().forEach(CacheStatistics::reset);
+		synchronized (slowestRequests) {
+			slowestRequests.clear();
+			slowestRequestsThreshold = 0;
+		}
+	}
+
+	private static long getAllocatedBytes() {
+		if (GET_THREAD_ALLOCATED_BYTES == null) {
+			return -1;
+		}
+		try {
+			return (Long) GET_THREAD_ALLOCATED_BYTES.invoke(THREAD_MX_BEAN, Thread.currentThread().getId());
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return -1;
+		}
+	}
+
+	private static Method getThreadAllocatedBytesMethod() {
+		try {
+			Class<?> beanClass = Class.forName(HOTSPOT_THREAD_MX_BEAN);
+			if (beanClass.isInstance(THREAD_MX_BEAN)
+					&& (Boolean) beanClass.getMethod("isThreadAllocatedMemorySupported").invoke(THREAD_MX_BEAN)
+					&& (Boolean) beanClass.getMethod("isThreadAllocatedMemoryEnabled").invoke(THREAD_MX_BEAN)) {
+				return beanClass.getMethod("getThreadAllocatedBytes", long.class);
+			}
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			// The JVM doesn't provide allocated bytes per thread
+		}
+		return null;
+	}
+}
@@ -0,0 +1,28 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons.metrics;
+
+/**
+ * JMX interface of the {@link RequestMetrics} registered with the name
+ * {@link RequestMetrics#OBJECT_NAME}.
+ *
+ * @author Angelo ZERR
+ *
+ */
+public interface RequestMetricsMXBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	RequestMetricsReport getReport();
+
+	void reset();
+}
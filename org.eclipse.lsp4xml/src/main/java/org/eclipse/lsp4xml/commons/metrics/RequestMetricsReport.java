@@ -0,0 +1,332 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report of the request metrics returned by the 'xml/metrics' request and by
+ * the JMX {@link RequestMetricsMXBean}. Durations are in milliseconds.
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class RequestMetricsReport {
+
+	/**
+	 * Metrics of a request (ex : 'textDocument/completion', 'parse',
+	 * 'validation').
+	 */
+	public static class Endpoint {
+
+		private String name;
+
+		private long count;
+
+		private long cancelled;
+
+		private long failed;
+
+		private double p50;
+
+		private double p90;
+
+		private double p99;
+
+		private double max;
+
+		private double queueWaitP50;
+
+		private double queueWaitP99;
+
+		private long allocatedBytesPerRequest;
+
+		private String slowestUri;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Returns the count of completed requests (cancelled requests are not
+		 * included).
+		 *
+		 * @return the count of completed requests.
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		public void setCount(long count) {
+			this.count = count;
+		}
+
+		public long getCancelled() {
+			return cancelled;
+		}
+
+		public void setCancelled(long cancelled) {
+			this.cancelled = cancelled;
+		}
+
+		public long getFailed() {
+			return failed;
+		}
+
+		public void setFailed(long failed) {
+			this.failed = failed;
+		}
+
+		public double getP50() {
+			return p50;
+		}
+
+		public void setP50(double p50) {
+			this.p50 = p50;
+		}
+
+		public double getP90() {
+			return p90;
+		}
+
+		public void setP90(double p90) {
+			this.p90 = p90;
+		}
+
+		public double getP99() {
+			return p99;
+		}
+
+		public void setP99(double p99) {
+			this.p99 = p99;
+		}
+
+		public double getMax() {
+			return max;
+		}
+
+		public void setMax(double max) {
+			this.max = max;
+		}
+
+		/**
+		 * Returns the median time between the receipt of the request and the start
+		 * of its computation (waiting for a thread and for the parse of the model).
+		 *
+		 * @return the median queue wait time.
+		 */
+		public double getQueueWaitP50() {
+			return queueWaitP50;
+		}
+
+		public void setQueueWaitP50(double queueWaitP50) {
+			this.queueWaitP50 = queueWaitP50;
+		}
+
+		public double getQueueWaitP99() {
+			return queueWaitP99;
+		}
+
+		public void setQueueWaitP99(double queueWaitP99) {
+			this.queueWaitP99 = queueWaitP99;
+		}
+
+		/**
+		 * Returns the mean of bytes allocated by the thread which computes the
+		 * request and -1 if the JVM doesn't support the measure.
+		 *
+		 * @return the mean of bytes allocated per request.
+		 */
+		public long getAllocatedBytesPerRequest() {
+			return allocatedBytesPerRequest;
+		}
+
+		public void setAllocatedBytesPerRequest(long allocatedBytesPerRequest) {
+			this.allocatedBytesPerRequest = allocatedBytesPerRequest;
+		}
+
+		/**
+		 * Returns the document URI of the slowest request.
+		 *
+		 * @return the document URI of the slowest request.
+		 */
+		public String getSlowestUri() {
+			return slowestUri;
+		}
+
+		public void setSlowestUri(String slowestUri) {
+			this.slowestUri = slowestUri;
+		}
+	}
+
+	/**
+	 * One of the slowest requests.
+	 */
+	public static class SlowRequest {
+
+		private String name;
+
+		private String uri;
+
+		private double duration;
+
+		private long timestamp;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getUri() {
+			return uri;
+		}
+
+		public void setUri(String uri) {
+			this.uri = uri;
+		}
+
+		public double getDuration() {
+			return duration;
+		}
+
+		public void setDuration(double duration) {
+			this.duration = duration;
+		}
+
+		/**
+		 * Returns the time when the request was received in milliseconds since the
+		 * epoch.
+		 *
+		 * @return the time when the request was received.
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		public void setTimestamp(long timestamp) {
+			this.timestamp = timestamp;
+		}
+	}
+
+	/**
+	 * Statistics of a cache (ex : 'grammarPool').
+	 */
+	public static class Cache {
+
+		private String name;
+
+		private long hitCount;
+
+		private long missCount;
+
+		private long evictionCount;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public void setHitCount(long hitCount) {
+			this.hitCount = hitCount;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		public void setMissCount(long missCount) {
+			this.missCount = missCount;
+		}
+
+		public long getEvictionCount() {
+			return evictionCount;
+		}
+
+		public void setEvictionCount(long evictionCount) {
+			this.evictionCount = evictionCount;
+		}
+	}
+
+	private boolean enabled;
+
+	private List<Endpoint> endpoints;
+
+	private List<SlowRequest> slowestRequests;
+
+	private List<Cache> caches;
+
+	public RequestMetricsReport() {
+		this.endpoints = new ArrayList<>();
+		this.slowestRequests = new ArrayList<>();
+		this.caches = new ArrayList<>();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns the metrics of the requests sorted by name.
+	 *
+	 * @return the metrics of the requests sorted by name.
+	 */
+	public List<Endpoint> getEndpoints() {
+		return endpoints;
+	}
+
+	public void setEndpoints(List<Endpoint> endpoints) {
+		this.endpoints = endpoints;
+	}
+
+	/**
+	 * Returns the slowest requests, the slowest first.
+	 *
+	 * @return the slowest requests, the slowest first.
+	 */
+	public List<SlowRequest> getSlowestRequests() {
+		return slowestRequests;
+	}
+
+	public void setSlowestRequests(List<SlowRequest> slowestRequests) {
+		this.slowestRequests = slowestRequests;
+	}
+
+	/**
+	 * Returns the statistics of the caches sorted by name.
+	 *
+	 * @return the statistics of the caches sorted by name.
+	 */
+	public List<Cache> getCaches() {
+		return caches;
+	}
+
+	public void setCaches(List<Cache> caches) {
+		this.caches = caches;
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.lsp4xml.commons.metrics.RequestMetricsReport.Endpoint;
+
+/**
+ * Statistics of a request (ex : 'textDocument/completion').
+ *
+ * @author Angelo ZERR
+ *
+ */
+class RequestStatistics {
+
+	private final String name;
+
+	private final LatencyHistogram latencies;
+
+	private final LatencyHistogram queueWaits;
+
+	private final LongAdder cancelled;
+
+	private final LongAdder failed;
+
+	private final LongAdder allocatedBytes;
+
+	private final LongAdder allocationCount;
+
+	private volatile long slowestDuration;
+
+	private volatile String slowestUri;
+
+	RequestStatistics(String name) {
+		this.name = name;
+		this.latencies = new LatencyHistogram();
+		this.queueWaits = new LatencyHistogram();
+		this.cancelled = new LongAdder();
+		this.failed = new LongAdder();
+		this.allocatedBytes = new LongAdder();
+		this.allocationCount = new LongAdder();
+	}
+
+	/**
+	 * Record a request.
+	 *
+	 * @param uri            the document URI of the request and null otherwise.
+	 * @param duration       the duration of the request in nanoseconds.
+	 * @param queueWait      the queue wait time in nanoseconds and -1 if the
+	 *                       request was not started.
+	 * @param allocatedBytes the allocated bytes and -1 if it's not measured.
+	 * @param cancelled      true if the request was cancelled.
+	 * @param failed         true if the request failed.
+	 */
+	void record(String uri, long duration, long queueWait, long allocatedBytes, boolean cancelled, boolean failed) {
+		if (queueWait >= 0) {
+			queueWaits.record(queueWait);
+		}
+		if (cancelled) {
+			// a cancelled request is stopped as soon as possible, its duration is not
+			// recorded
+			this.cancelled.increment();
+			return;
+		}
+		if (failed) {
+			this.failed.increment();
+		}
+		latencies.record(duration);
+		if (allocatedBytes >= 0) {
+			this.allocatedBytes.add(allocatedBytes);
+			this.allocationCount.increment();
+		}
+		if (duration > slowestDuration) {
+			synchronized (this) {
+				if (duration > slowestDuration) {
+					slowestDuration = duration;
+					slowestUri = uri;
+				}
+			}
+		}
+	}
+
+	Endpoint toReport() {
+		Endpoint endpoint = new Endpoint();
+		endpoint.setName(name);
+		endpoint.setCount(latencies.getCount());
+		endpoint.setCancelled(cancelled.sum());
+		endpoint.setFailed(failed.sum());
+		endpoint.setP50(latencies.getPercentile(50));
+		endpoint.setP90(latencies.getPercentile(90));
+		endpoint.setP99(latencies.getPercentile(99));
+		endpoint.setMax(latencies.getMax());
+		endpoint.setQueueWaitP50(queueWaits.getPercentile(50));
+		endpoint.setQueueWaitP99(queueWaits.getPercentile(99));
+		long count = allocationCount.sum();
+		endpoint.setAllocatedBytesPerRequest(count > 0 ? allocatedBytes.sum() / count : -1);
+		endpoint.setSlowestUri(slowestUri);
+		return endpoint;
+	}
+}
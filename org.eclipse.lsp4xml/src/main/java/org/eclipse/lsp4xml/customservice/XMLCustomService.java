@@ -16,6 +16,7 @@ import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.TextDocumentPositionParams;
 import org.eclipse.lsp4j.jsonrpc.services.JsonRequest;
 import org.eclipse.lsp4j.jsonrpc.services.JsonSegment;
+import org.eclipse.lsp4xml.commons.metrics.RequestMetricsReport;
 
 /**
  * XML custom services.
@@ -29,6 +30,15 @@ public interface XMLCustomService {
 
 	@JsonRequest
 	CompletableFuture<Position> matchingTagPosition(TextDocumentPositionParams params);
+
+	/**
+	 * Returns the metrics of the requests (latency, cancellations, queue wait time,
+	 * allocated bytes) recorded when metrics are enabled.
+	 * 
+	 * @return the metrics of the requests.
+	 */
+	@JsonRequest
+	CompletableFuture<RequestMetricsReport> metrics();
 }
 
 
@@ -12,6 +12,8 @@ package org.eclipse.lsp4xml.dom;
 
 import java.util.List;
 
+import org.eclipse.lsp4xml.commons.CharSequenceView;
+import org.eclipse.lsp4xml.utils.StringUtils;
 import org.w3c.dom.DOMException;
 import org.w3c.dom.TypeInfo;
 
@@ -23,14 +25,19 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 
 	private final String name;
 
-	private final DOMNode nodeAttrName;
+	// offsets of the name and the value, the nodes of the name and the value are
+	// created on demand
+	int nameStart;
+	int nameEnd;
+	int valueStart = -1;
+	int valueEnd = -1;
 
-	private DOMNode nodeAttrValue;
-
-	private String quotelessValue;// Value without quotes
+	private String quotelessValue;// Value without quotes, computed on demand
 
 	private String originalValue;// Exact value from document
 
+	boolean valueInText; // the exact value is read from the document text
+
 	private final DOMNode ownerElement;
 
 	private boolean hasDelimiter; // has '='
@@ -71,7 +78,8 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 	public DOMAttr(String name, int start, int end, DOMNode ownerElement) {
 		super(-1, -1);
 		this.name = name;
-		this.nodeAttrName = start != -1 ? new AttrNameOrValue(start, end) : null;
+		this.nameStart = start;
+		this.nameEnd = end;
 		this.ownerElement = ownerElement;
 	}
 
@@ -139,6 +147,9 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 	 */
 	@Override
 	public String getValue() {
+		if (quotelessValue == null && (originalValue != null || valueInText)) {
+			quotelessValue = convertToQuotelessValue(getOriginalValue());
+		}
 		return quotelessValue;
 	}
 
@@ -183,7 +194,7 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 	}
 
 	public DOMNode getNodeAttrName() {
-		return nodeAttrName;
+		return nameStart != -1 ? new AttrNameOrValue(nameStart, nameEnd) : null;
 	}
 
 	public void setDelimiter(boolean hasDelimiter) {
@@ -202,13 +213,37 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 	 * @return attribute value with quotations if it had them.
 	 */
 	public String getOriginalValue() {
+		if (valueInText) {
+			return getOwnerDocument().getTextSequence().subSequence(valueStart, valueEnd).toString();
+		}
+		return originalValue;
+	}
+
+	private CharSequence getOriginalValueSequence() {
+		if (valueInText) {
+			return new CharSequenceView(getOwnerDocument().getTextSequence(), valueStart, valueEnd);
+		}
 		return originalValue;
 	}
 
 	public void setValue(String value, int start, int end) {
 		this.originalValue = value;
-		this.quotelessValue = convertToQuotelessValue(value);
-		this.nodeAttrValue = start != -1 ? new AttrNameOrValue(start, end) : null;
+		this.valueInText = false;
+		this.quotelessValue = null;
+		this.valueStart = start;
+		this.valueEnd = start != -1 ? end : -1;
+	}
+
+	/**
+	 * Set the offsets of the value which is read from the document text when it's
+	 * used.
+	 * 
+	 * @param start the start offset of the value.
+	 * @param end   the end offset of the value.
+	 */
+	void setValue(int start, int end) {
+		setValue(null, start, end);
+		this.valueInText = true;
 	}
 
 	/**
@@ -256,15 +291,16 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 	}
 
 	public DOMNode getNodeAttrValue() {
-		return nodeAttrValue;
+		return valueStart != -1 ? new AttrNameOrValue(valueStart, valueEnd) : null;
 	}
 
 	public void setNodeAttrValue(DOMNode nodeAttrValue) {
-		this.nodeAttrValue = nodeAttrValue;
+		this.valueStart = nodeAttrValue != null ? nodeAttrValue.getStart() : -1;
+		this.valueEnd = nodeAttrValue != null ? nodeAttrValue.getEnd() : -1;
 	}
 
 	public boolean valueContainsOffset(int offset) {
-		return nodeAttrValue != null && offset >= nodeAttrValue.getStart() && offset < nodeAttrValue.getEnd();
+		return valueStart != -1 && offset >= valueStart && offset < valueEnd;
 	}
 
 	/**
@@ -304,6 +340,29 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 		return name.substring(XMLNS_NO_DEFAULT_ATTR.length(), name.length());
 	}
 
+	/**
+	 * Returns true if the value without quotes is equal to the given value and
+	 * false otherwise. The value is compared without copying the original value.
+	 * 
+	 * @param value the value to compare.
+	 * @return true if the value without quotes is equal to the given value.
+	 */
+	public boolean isValueEquals(String value) {
+		if (quotelessValue != null) {
+			return quotelessValue.equals(value);
+		}
+		CharSequence originalValue = getOriginalValueSequence();
+		if (originalValue == null || value == null) {
+			return false;
+		}
+		int start = originalValue.length() > 0 && StringUtils.isQuote(originalValue.charAt(0)) ? 1 : 0;
+		int end = originalValue.length();
+		if (end > start && StringUtils.isQuote(originalValue.charAt(end - 1))) {
+			end--;
+		}
+		return end - start == value.length() && CharSequenceView.regionMatches(originalValue, start, value);
+	}
+
 	/**
 	 * Returns the prefix if the given URI matches this attributes value.
 	 * 
@@ -314,7 +373,7 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 	 */
 	public String getPrefixIfMatchesURI(String uri) {
 		if (isXmlns()) {
-			if (quotelessValue != null && quotelessValue.equals(uri)) {
+			if (isValueEquals(uri)) {
 				if (isDefaultXmlns()) {
 					// xmlns="http://"
 					return null;
@@ -364,12 +423,12 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 
 	@Override
 	public int getStart() {
-		return nodeAttrName.start;
+		return nameStart;
 	}
 
 	@Override
 	public int getEnd() {
-		return nodeAttrValue != null ? nodeAttrValue.end : nodeAttrName.end;
+		return valueStart != -1 ? valueEnd : nameEnd;
 	}
 
 	@Override
@@ -377,7 +436,8 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((name == null) ? 0 : name.hashCode());
-		result = prime * result + ((quotelessValue == null) ? 0 : quotelessValue.hashCode());
+		String value = getValue();
+		result = prime * result + ((value == null) ? 0 : value.hashCode());
 		return result;
 	}
 
@@ -395,10 +455,11 @@ public class DOMAttr extends DOMNode implements org.w3c.dom.Attr {
 				return false;
 		} else if (!name.equals(other.name))
 			return false;
-		if (quotelessValue == null) {
-			if (other.quotelessValue != null)
+		String value = getValue();
+		if (value == null) {
+			if (other.getValue() != null)
 				return false;
-		} else if (!quotelessValue.equals(other.quotelessValue))
+		} else if (!value.equals(other.getValue()))
 			return false;
 		return true;
 	}
@@ -15,19 +15,21 @@ import static java.lang.System.lineSeparator;
 import java.util.List;
 
 import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.commons.CharSequenceView;
 import org.eclipse.lsp4xml.utils.StringUtils;
 import org.w3c.dom.DOMException;
 
 /**
  * A CharacterData node.
+ * 
+ * <p>
+ * The data is not stored in the node, it's read from the document text with
+ * the start/end content offsets.
+ * </p>
  *
  */
 public abstract class DOMCharacterData extends DOMNode implements org.w3c.dom.CharacterData {
 
-	private String data;
-
-	private String normalizedData;
-
 	private boolean isWhitespace;
 
 	private String delimiter;
@@ -37,7 +39,7 @@ public abstract class DOMCharacterData extends DOMNode implements org.w3c.dom.Ch
 	}
 
 	public boolean hasMultiLine() {
-		return getData().contains(getDelimiter());
+		return getDataSequence().indexOf(getDelimiter()) != -1;
 	}
 
 	public String getDelimiter() {
@@ -45,7 +47,7 @@ public abstract class DOMCharacterData extends DOMNode implements org.w3c.dom.Ch
 			return delimiter;
 		}
 		try {
-			delimiter = getOwnerDocument().getTextDocument().lineDelimiter(0);
+			delimiter = getOwnerDocument().lineDelimiter(0);
 			return delimiter;
 		} catch (BadLocationException e) {
 			delimiter = lineSeparator();
@@ -64,16 +66,14 @@ public abstract class DOMCharacterData extends DOMNode implements org.w3c.dom.Ch
 	 * @return true if newline character ocurrs before non-whitespace character
 	 */
 	public boolean endsWithNewLine() {
-		if(hasData()) {
-			for (int i = data.length() - 1; i >= 0; i--) {
-				char c = data.charAt(i);
-				if (!Character.isWhitespace(c)) {
-					return false;
-				}
-				if (c == '\n') {
-					return true;
-				}
-	
+		CharSequence data = getDataSequence();
+		for (int i = data.length() - 1; i >= 0; i--) {
+			char c = data.charAt(i);
+			if (!Character.isWhitespace(c)) {
+				return false;
+			}
+			if (c == '\n') {
+				return true;
 			}
 		}
 		return false;
@@ -88,30 +88,25 @@ public abstract class DOMCharacterData extends DOMNode implements org.w3c.dom.Ch
 	 * @return true if newline character ocurrs before non-whitespace character
 	 */
 	public boolean startsWithNewLine() {
-		if(hasData()) {
-			for (int i = 0; i < data.length(); i++) {
-				char c = data.charAt(i);
-				if (!Character.isWhitespace(c)) {
-					return false;
-				}
-				if (c == '\n' || c == '\r') {
-					return true;
-				}
-	
+		CharSequence data = getDataSequence();
+		for (int i = 0; i < data.length(); i++) {
+			char c = data.charAt(i);
+			if (!Character.isWhitespace(c)) {
+				return false;
+			}
+			if (c == '\n' || c == '\r') {
+				return true;
 			}
 		}
 		return false;
 	}
 
 	public String getNormalizedData() {
-		if (normalizedData == null) {
-			normalizedData = StringUtils.normalizeSpace(getData());
-		}
-		return normalizedData;
+		return StringUtils.normalizeSpace(getData());
 	}
 
 	public boolean hasData() {
-		return !getData().isEmpty();
+		return getDataSequence().length() > 0;
 	}
 
 	/**
@@ -137,10 +132,17 @@ public abstract class DOMCharacterData extends DOMNode implements org.w3c.dom.Ch
 	 */
 	@Override
 	public String getData() {
-		if (data == null) {
-			data = getOwnerDocument().getText().substring(getStartContent(), getEndContent());
-		}
-		return data;
+		return getDataSequence().toString();
+	}
+
+	/**
+	 * Returns the data as a view of the document text which doesn't copy the
+	 * characters.
+	 * 
+	 * @return the data as a view of the document text.
+	 */
+	public CharSequenceView getDataSequence() {
+		return new CharSequenceView(getOwnerDocument().getTextSequence(), getStartContent(), getEndContent());
 	}
 
 	/*
@@ -195,7 +197,7 @@ public abstract class DOMCharacterData extends DOMNode implements org.w3c.dom.Ch
 	 */
 	@Override
 	public int getLength() {
-		return getData().length();
+		return getDataSequence().length();
 	}
 
 	/*
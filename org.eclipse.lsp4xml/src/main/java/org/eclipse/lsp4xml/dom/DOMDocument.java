@@ -16,14 +16,20 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.commons.LineIndex;
 import org.eclipse.lsp4xml.commons.TextDocument;
 import org.eclipse.lsp4xml.dom.parser.Constants;
+import org.eclipse.lsp4xml.dom.parser.Scanner;
+import org.eclipse.lsp4xml.dom.parser.TokenArray;
+import org.eclipse.lsp4xml.dom.parser.XMLScanner;
 import org.eclipse.lsp4xml.uriresolver.URIResolverExtensionManager;
 import org.eclipse.lsp4xml.utils.DOMUtils;
 import org.eclipse.lsp4xml.utils.StringUtils;
@@ -50,17 +56,41 @@ public class DOMDocument extends DOMNode implements Document {
 	private final URIResolverExtensionManager resolverExtensionManager;
 
 	private final TextDocument textDocument;
+	private volatile CharSequence text;
 	private boolean hasNamespaces;
 	private Map<String, String> externalSchemaLocation;
 	private String schemaInstancePrefix;
 	private String schemaPrefix;
 	private boolean hasExternalGrammar;
 	private CancelChecker cancelChecker;
+	private final Map<Class<?>, Object> models;
+	private volatile LineIndex lineIndex;
+	// estimated number of chars of the previous DOM documents which can be kept by
+	// the shared nodes (see DOMParser#reparse)
+	long sharedLength;
 
 	public DOMDocument(TextDocument textDocument, URIResolverExtensionManager resolverExtensionManager) {
-		super(0, textDocument.getText().length());
+		this(textDocument, textDocument.getText(), resolverExtensionManager);
+	}
+
+	/**
+	 * Create a DOM document which reads the values of its nodes from the given
+	 * text.
+	 * 
+	 * @param textDocument             the text document.
+	 * @param text                     the immutable text (String or Rope) of the
+	 *                                 text document which is parsed. The text
+	 *                                 document can be updated after the parse, so
+	 *                                 the nodes never read its current text.
+	 * @param resolverExtensionManager the resolver extension manager.
+	 */
+	public DOMDocument(TextDocument textDocument, CharSequence text,
+			URIResolverExtensionManager resolverExtensionManager) {
+		super(0, text.length());
 		this.textDocument = textDocument;
+		this.text = text;
 		this.resolverExtensionManager = resolverExtensionManager;
+		this.models = new ConcurrentHashMap<>();
 		resetGrammar();
 	}
 
@@ -78,22 +108,86 @@ public class DOMDocument extends DOMNode implements Document {
 
 	public Position positionAt(int offset) throws BadLocationException {
 		checkCanceled();
-		return textDocument.positionAt(offset);
+		return getLineIndex().positionAt(offset);
+	}
+
+	/**
+	 * Returns the positions of the given offsets computed in one pass (see
+	 * {@link LineIndex#positionsAt(int...)}).
+	 * 
+	 * @param offsets the offsets.
+	 * @return the positions of the given offsets.
+	 * @throws BadLocationException if an offset is out of the text.
+	 */
+	public Position[] positionsAt(int... offsets) throws BadLocationException {
+		checkCanceled();
+		return getLineIndex().positionsAt(offsets);
+	}
+
+	/**
+	 * Returns the range of the given offsets (see
+	 * {@link LineIndex#rangeAt(int, int)}).
+	 * 
+	 * @param startOffset the start offset.
+	 * @param endOffset   the end offset.
+	 * @return the range of the given offsets.
+	 * @throws BadLocationException if an offset is out of the text.
+	 */
+	public Range rangeAt(int startOffset, int endOffset) throws BadLocationException {
+		checkCanceled();
+		return getLineIndex().rangeAt(startOffset, endOffset);
 	}
 
 	public int offsetAt(Position position) throws BadLocationException {
 		checkCanceled();
-		return textDocument.offsetAt(position);
+		return getLineIndex().offsetAt(position);
+	}
+
+	/**
+	 * Returns the line index of the text of the DOM document. The index is
+	 * computed by the parser and updated by the incremental parser.
+	 * 
+	 * @return the line index of the text of the DOM document.
+	 */
+	public LineIndex getLineIndex() {
+		LineIndex lineIndex = this.lineIndex;
+		if (lineIndex == null) {
+			lineIndex = LineIndex.of(getTextSequence());
+			this.lineIndex = lineIndex;
+		}
+		return lineIndex;
+	}
+
+	void setLineIndex(LineIndex lineIndex) {
+		this.lineIndex = lineIndex;
 	}
 
 	public String lineText(int lineNumber) throws BadLocationException {
 		checkCanceled();
-		return textDocument.lineText(lineNumber);
+		LineIndex lineIndex = getLineIndex();
+		checkLine(lineIndex, lineNumber);
+		if (lineNumber == lineIndex.getLineCount()) {
+			return "";
+		}
+		return getTextSequence()
+				.subSequence(lineIndex.getLineStart(lineNumber), lineIndex.getLineEnd(lineNumber)).toString();
 	}
 
 	public String lineDelimiter(int lineNumber) throws BadLocationException {
 		checkCanceled();
-		return textDocument.lineDelimiter(lineNumber);
+		LineIndex lineIndex = getLineIndex();
+		checkLine(lineIndex, lineNumber);
+		String lineDelimiter = lineIndex.getLineDelimiter(lineNumber);
+		if (lineDelimiter == null) {
+			lineDelimiter = lineIndex.getLineDelimiter(0);
+		}
+		return lineDelimiter != null ? lineDelimiter : TextDocument.DEFAULT_DELIMITER;
+	}
+
+	private static void checkLine(LineIndex lineIndex, int lineNumber) throws BadLocationException {
+		if (lineNumber < 0 || lineNumber > lineIndex.getLineCount()) {
+			throw new BadLocationException("The line value, {" + lineNumber + "}, is out of bounds.");
+		}
 	}
 
 	public LineIndentInfo getLineIndentInfo(int lineNumber) throws BadLocationException {
@@ -113,7 +207,14 @@ public class DOMDocument extends DOMNode implements Document {
 	 */
 	public Range getElementNameRangeAt(int textOffset) {
 		checkCanceled();
-		return textDocument.getWordRangeAt(textOffset, Constants.ELEMENT_NAME_REGEX);
+		try {
+			Position pos = positionAt(textOffset);
+			int lineStart = getLineIndex().getLineStart(pos.getLine());
+			String lineText = getTextSequence().subSequence(lineStart, textOffset).toString();
+			return TextDocument.getWordRangeAt(lineText, pos, Constants.ELEMENT_NAME_REGEX);
+		} catch (BadLocationException e) {
+			return null;
+		}
 	}
 
 	@Override
@@ -123,12 +224,30 @@ public class DOMDocument extends DOMNode implements Document {
 	}
 
 	/**
-	 * Returns the text content of the XML document.
+	 * Returns the text content of the XML document which was parsed.
 	 * 
-	 * @return the text content of the XML document.
+	 * @return the text content of the XML document which was parsed.
 	 */
 	public String getText() {
-		return textDocument.getText();
+		CharSequence text = this.text;
+		if (text instanceof String) {
+			return (String) text;
+		}
+		// the text is immutable, it is materialized only once
+		String materialized = textDocument.getText(text);
+		this.text = materialized;
+		return materialized;
+	}
+
+	/**
+	 * Returns the text content of the XML document which was parsed without
+	 * materializing it.
+	 * 
+	 * @return the text content of the XML document which was parsed without
+	 *         materializing it.
+	 */
+	public CharSequence getTextSequence() {
+		return text;
 	}
 
 	public TextDocument getTextDocument() {
@@ -769,6 +888,60 @@ public class DOMDocument extends DOMNode implements Document {
 		this.referencedSchemaInitialized = false;
 	}
 
+	/**
+	 * Returns the model of the given class computed from the DOM document (ex :
+	 * an index of references). The model is computed once with the given factory
+	 * and cached until the DOM document is updated.
+	 * 
+	 * @param modelClass the model class.
+	 * @param factory    the factory which computes the model.
+	 * @return the model of the given class computed from the DOM document.
+	 */
+	public <T> T getModel(Class<T> modelClass, Function<DOMDocument, T> factory) {
+		Object model = models.get(modelClass);
+		if (model == null) {
+			model = factory.apply(this);
+			models.put(modelClass, model);
+		}
+		return modelClass.cast(model);
+	}
+
+	/**
+	 * Reset the models computed from the DOM document.
+	 */
+	void resetModels() {
+		models.clear();
+	}
+
+	/**
+	 * Returns the tokens of the XML text. The tokens recorded by the parser are
+	 * returned when they are available, otherwise the text is scanned once and the
+	 * tokens are cached until the DOM document is updated.
+	 * 
+	 * @return the tokens of the XML text.
+	 */
+	public TokenArray getTokens() {
+		return getModel(TokenArray.class, document -> TokenArray.scan(document.getText()));
+	}
+
+	void setTokens(TokenArray tokens) {
+		models.put(TokenArray.class, tokens);
+	}
+
+	/**
+	 * Returns a scanner of the XML text which starts at the given offset of a
+	 * content. The recorded tokens are replayed when they are available and a new
+	 * {@link XMLScanner} is created otherwise.
+	 * 
+	 * @param offset the start offset (ex : the start offset of an element).
+	 * @return a scanner of the XML text which starts at the given offset.
+	 */
+	public Scanner createScanner(int offset) {
+		TokenArray tokens = (TokenArray) models.get(TokenArray.class);
+		Scanner scanner = tokens != null ? tokens.createScanner(getText(), offset) : null;
+		return scanner != null ? scanner : XMLScanner.createScanner(getTextSequence(), offset);
+	}
+
 	public URIResolverExtensionManager getResolverExtensionManager() {
 		return resolverExtensionManager;
 	}
@@ -809,7 +982,7 @@ public class DOMDocument extends DOMNode implements Document {
 	}
 
 	public Range getTrimmedRange(int start, int end) {
-		String text = getText();
+		CharSequence text = getTextSequence();
 		char c = text.charAt(start);
 		while (Character.isWhitespace(c)) {
 			start++;
@@ -27,8 +27,6 @@ public class DOMDocumentType extends DTDDeclNode implements org.w3c.dom.Document
 	DTDDeclParameter systemId;
 	DTDDeclParameter internalSubset;
 
-	private String content; // |<!DOCTYPE ... >|
-
 	public DOMDocumentType(int start, int end) {
 		super(start, end);
 	}
@@ -38,11 +36,18 @@ public class DOMDocumentType extends DTDDeclNode implements org.w3c.dom.Document
 		return this;
 	}
 
+	/**
+	 * Returns the content of the document type |<!DOCTYPE ... >|.
+	 * 
+	 * <p>
+	 * The content (which includes the internal subset) is not stored, use
+	 * {@link #getSubstring(int, int)} to get a part of the content.
+	 * </p>
+	 * 
+	 * @return the content of the document type.
+	 */
 	public String getContent() {
-		if (content == null) {
-			content = getOwnerDocument().getText().substring(getStart(), getEnd());
-		}
-		return content;
+		return getSubstring(getStart(), getEnd());
 	}
 
 	/**
@@ -189,15 +194,24 @@ public class DOMDocumentType extends DTDDeclNode implements org.w3c.dom.Document
 		systemId = addNewParameter(start, end);
 	}
 
+	@Override
+	void copyParameters(DTDDeclNode node, int from, int delta) {
+		super.copyParameters(node, from, delta);
+		DOMDocumentType doctype = (DOMDocumentType) node;
+		kind = copyParameter(node, doctype.kind, from, delta);
+		publicId = copyParameter(node, doctype.publicId, from, delta);
+		systemId = copyParameter(node, doctype.systemId, from, delta);
+		internalSubset = copyParameter(node, doctype.internalSubset, from, delta);
+	}
+
 	/**
 	 * Returns a substring of the whole document.
 	 *
-	 * 
-	 * Since offset values are relative to 'this.start' we need to subtract
-	 * getStart() to make them relative to 'content'
+	 * The substring is read from the document text without copying the whole
+	 * content of the document type.
 	 */
 	public String getSubstring(int start, int end) {
-		return getContent().substring(start - getStart(), end - getStart());
+		return getOwnerDocument().getTextSequence().subSequence(start, end).toString();
 	}
 
 }
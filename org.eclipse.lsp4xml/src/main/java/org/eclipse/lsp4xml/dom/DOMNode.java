@@ -63,11 +63,21 @@ public abstract class DOMNode implements Node, DOMRange {
 	private XMLNamedNodeMap<DOMAttr> attributeNodes;
 	private XMLNodeList<DOMNode> children;
 
-	final int start; // |<root> </root>
+	int start; // |<root> </root>
 	int end; // <root> </root>|
 
 	DOMNode parent;
 
+	// the offsets of the shared nodes are all shifted except the offsets which are
+	// not set (0 or NULL_VALUE)
+	private static final int SHARED_FROM = 1;
+
+	// node of a previous DOM document whose children and attributes are copied in
+	// this node (with their offsets shifted with the delta) when they are accessed
+	// for the first time (see DOMParser#reparse)
+	private volatile DOMNode sharedNode;
+	private int sharedDelta;
+
 	private static final NodeList EMPTY_CHILDREN = new NodeList() {
 
 		@Override
@@ -81,10 +91,20 @@ public abstract class DOMNode implements Node, DOMRange {
 		}
 	};
 
+	/**
+	 * Initial capacity of the children and attributes lists, most of the nodes of
+	 * a document have few children and attributes.
+	 */
+	private static final int INITIAL_CAPACITY = 2;
+
 	static class XMLNodeList<T extends DOMNode> extends ArrayList<T> implements NodeList {
 
 		private static final long serialVersionUID = 1L;
 
+		public XMLNodeList() {
+			super(INITIAL_CAPACITY);
+		}
+
 		@Override
 		public int getLength() {
 			return super.size();
@@ -101,6 +121,10 @@ public abstract class DOMNode implements Node, DOMRange {
 
 		private static final long serialVersionUID = 1L;
 
+		public XMLNamedNodeMap() {
+			super(INITIAL_CAPACITY);
+		}
+
 		@Override
 		public int getLength() {
 			return super.size();
@@ -189,6 +213,7 @@ public abstract class DOMNode implements Node, DOMRange {
 		result.append(getNodeName());
 		result.append(", closed: ");
 		result.append(closed);
+		materialize();
 		if (children != null && children.size() > 0) {
 			result.append(", \n");
 			for (int i = 0; i < indent + 1; i++) {
@@ -398,6 +423,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	 */
 	@Override
 	public boolean hasAttributes() {
+		materialize();
 		return attributeNodes != null && attributeNodes.size() != 0;
 	}
 
@@ -411,6 +437,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	}
 
 	public void setAttributeNode(DOMAttr attr) {
+		materialize();
 		if (attributeNodes == null) {
 			attributeNodes = new XMLNamedNodeMap<DOMAttr>();
 		}
@@ -418,6 +445,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	}
 
 	public List<DOMAttr> getAttributeNodes() {
+		materialize();
 		return attributeNodes;
 	}
 
@@ -448,6 +476,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	 * @return the node children.
 	 */
 	public List<DOMNode> getChildren() {
+		materialize();
 		if (children == null) {
 			return Collections.emptyList();
 		}
@@ -460,6 +489,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	 * @param child the node child to add.
 	 */
 	public void addChild(DOMNode child) {
+		materialize();
 		child.parent = this;
 		if (children == null) {
 			children = new XMLNodeList<DOMNode>();
@@ -477,6 +507,177 @@ public abstract class DOMNode implements Node, DOMRange {
 		return getChildren().get(index);
 	}
 
+	/**
+	 * Returns a copy of the given node which shares its children and attributes:
+	 * they are copied with their offsets shifted with the given delta when they
+	 * are accessed for the first time. The given node is never modified, it can
+	 * belong to a DOM document which is still used.
+	 * 
+	 * @param node  the node to share.
+	 * @param delta the delta of the offsets of the node and its descendants.
+	 * @return the copy of the given node and null if it cannot be copied.
+	 */
+	static DOMNode share(DOMNode node, int delta) {
+		DOMNode copy = copyNode(node, SHARED_FROM, delta);
+		if (copy == null) {
+			return null;
+		}
+		DOMNode sharedNode = node.sharedNode;
+		if (sharedNode != null) {
+			// the node was not accessed, its shared node is shared again to avoid a chain of
+			// copies
+			copy.sharedDelta = node.sharedDelta + delta;
+			copy.sharedNode = sharedNode;
+		} else if (node.children != null || node.attributeNodes != null) {
+			copy.sharedDelta = delta;
+			copy.sharedNode = node;
+		}
+		return copy;
+	}
+
+	/**
+	 * Copy the children and the attributes of the shared node in this node.
+	 */
+	private void materialize() {
+		if (sharedNode == null) {
+			return;
+		}
+		synchronized (this) {
+			DOMNode node = sharedNode;
+			if (node == null) {
+				return;
+			}
+			int delta = sharedDelta;
+			if (node.attributeNodes != null) {
+				XMLNamedNodeMap<DOMAttr> attributes = new XMLNamedNodeMap<DOMAttr>();
+				for (DOMAttr attr : node.attributeNodes) {
+					attributes.add(copyAttr(attr, this, SHARED_FROM, delta));
+				}
+				attributeNodes = attributes;
+			}
+			if (node.children != null) {
+				XMLNodeList<DOMNode> nodes = new XMLNodeList<DOMNode>();
+				for (DOMNode child : node.children) {
+					DOMNode childCopy = share(child, delta);
+					childCopy.parent = this;
+					nodes.add(childCopy);
+				}
+				children = nodes;
+			}
+			// publish the copied children and attributes
+			sharedNode = null;
+		}
+	}
+
+	/**
+	 * Returns a copy of the given node (without its attributes and children) with
+	 * the offsets after the given offset shifted with the given delta and null if
+	 * the node cannot be copied.
+	 */
+	static DOMNode copyNode(DOMNode node, int from, int delta) {
+		int start = shift(node.start, from, delta);
+		int end = shift(node.end, from, delta);
+		DOMNode copy = null;
+		switch (node.getNodeType()) {
+		case Node.ELEMENT_NODE: {
+			DOMElement element = (DOMElement) node;
+			DOMElement elementCopy = new DOMElement(start, end);
+			elementCopy.tag = element.tag;
+			elementCopy.selfClosed = element.selfClosed;
+			elementCopy.startTagOpenOffset = shift(element.startTagOpenOffset, from, delta);
+			elementCopy.startTagCloseOffset = shift(element.startTagCloseOffset, from, delta);
+			elementCopy.endTagOpenOffset = shift(element.endTagOpenOffset, from, delta);
+			elementCopy.endTagCloseOffset = shift(element.endTagCloseOffset, from, delta);
+			copy = elementCopy;
+			break;
+		}
+		case Node.TEXT_NODE: {
+			DOMText textCopy = new DOMText(start, end);
+			textCopy.setWhitespace(((DOMText) node).isWhitespace());
+			copy = textCopy;
+			break;
+		}
+		case Node.COMMENT_NODE: {
+			DOMComment comment = (DOMComment) node;
+			DOMComment commentCopy = new DOMComment(start, end);
+			commentCopy.commentSameLineEndTag = comment.commentSameLineEndTag;
+			commentCopy.startContent = shift(comment.startContent, from, delta);
+			commentCopy.endContent = shift(comment.endContent, from, delta);
+			copy = commentCopy;
+			break;
+		}
+		case Node.CDATA_SECTION_NODE: {
+			DOMCDATASection cdata = (DOMCDATASection) node;
+			DOMCDATASection cdataCopy = new DOMCDATASection(start, end);
+			cdataCopy.startContent = shift(cdata.startContent, from, delta);
+			cdataCopy.endContent = shift(cdata.endContent, from, delta);
+			copy = cdataCopy;
+			break;
+		}
+		case Node.PROCESSING_INSTRUCTION_NODE: {
+			DOMProcessingInstruction processingInstruction = (DOMProcessingInstruction) node;
+			DOMProcessingInstruction processingInstructionCopy = new DOMProcessingInstruction(start, end);
+			processingInstructionCopy.startTagClose = processingInstruction.startTagClose;
+			processingInstructionCopy.target = processingInstruction.target;
+			processingInstructionCopy.prolog = processingInstruction.prolog;
+			processingInstructionCopy.processingInstruction = processingInstruction.processingInstruction;
+			processingInstructionCopy.startContent = shift(processingInstruction.startContent, from, delta);
+			processingInstructionCopy.endContent = shift(processingInstruction.endContent, from, delta);
+			processingInstructionCopy.endTagOpenOffset = shift(processingInstruction.endTagOpenOffset, from,
+					delta);
+			copy = processingInstructionCopy;
+			break;
+		}
+		case Node.DOCUMENT_TYPE_NODE:
+			copy = new DOMDocumentType(start, end);
+			break;
+		case DTD_ELEMENT_DECL_NODE:
+			copy = new DTDElementDecl(start, end);
+			break;
+		case DTD_ATT_LIST_NODE:
+			copy = new DTDAttlistDecl(start, end);
+			break;
+		case Node.ENTITY_NODE:
+			copy = new DTDEntityDecl(start, end);
+			break;
+		case DTD_NOTATION_DECL:
+			copy = new DTDNotationDecl(start, end);
+			break;
+		case DTD_DECL_NODE:
+			copy = new DTDDeclNode(start, end);
+			break;
+		default:
+			return null;
+		}
+		if (copy instanceof DTDDeclNode) {
+			((DTDDeclNode) copy).copyParameters((DTDDeclNode) node, from, delta);
+		}
+		copy.closed = node.closed;
+		return copy;
+	}
+
+	/**
+	 * Returns a copy of the given attribute for the given owner element with the
+	 * offsets after the given offset shifted with the given delta.
+	 */
+	static DOMAttr copyAttr(DOMAttr attr, DOMNode ownerElement, int from, int delta) {
+		DOMAttr copy = new DOMAttr(attr.getName(), shift(attr.nameStart, from, delta),
+				shift(attr.nameEnd, from, delta), ownerElement);
+		int valueStart = shift(attr.valueStart, from, delta);
+		int valueEnd = shift(attr.valueEnd, from, delta);
+		if (attr.valueInText) {
+			copy.setValue(valueStart, valueEnd);
+		} else {
+			copy.setValue(attr.getOriginalValue(), valueStart, valueEnd);
+		}
+		copy.setDelimiter(attr.hasDelimiter());
+		return copy;
+	}
+
+	static int shift(int offset, int from, int delta) {
+		return offset >= from ? offset + delta : offset;
+	}
+
 	public boolean isClosed() {
 		return closed;
 	}
@@ -598,6 +799,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	 */
 	@Override
 	public DOMNode getFirstChild() {
+		materialize();
 		return this.children != null && children.size() > 0 ? this.children.get(0) : null;
 	}
 
@@ -608,6 +810,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	 */
 	@Override
 	public DOMNode getLastChild() {
+		materialize();
 		return this.children != null && this.children.size() > 0 ? this.children.get(this.children.size() - 1) : null;
 	}
 
@@ -618,6 +821,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	 */
 	@Override
 	public NamedNodeMap getAttributes() {
+		materialize();
 		return attributeNodes;
 	}
 
@@ -628,6 +832,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	 */
 	@Override
 	public NodeList getChildNodes() {
+		materialize();
 		return children != null ? children : EMPTY_CHILDREN;
 	}
 
@@ -758,6 +963,7 @@ public abstract class DOMNode implements Node, DOMRange {
 	 */
 	@Override
 	public boolean hasChildNodes() {
+		materialize();
 		return children != null && !children.isEmpty();
 	}
 
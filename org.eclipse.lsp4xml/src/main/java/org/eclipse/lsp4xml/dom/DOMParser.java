@@ -10,18 +10,21 @@
  */
 package org.eclipse.lsp4xml.dom;
 
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
-import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.commons.ChangedRegion;
+import org.eclipse.lsp4xml.commons.CharSequenceView;
+import org.eclipse.lsp4xml.commons.LineIndex;
 import org.eclipse.lsp4xml.commons.TextDocument;
 import org.eclipse.lsp4xml.dom.parser.Scanner;
+import org.eclipse.lsp4xml.dom.parser.ScannerState;
+import org.eclipse.lsp4xml.dom.parser.TokenArray;
 import org.eclipse.lsp4xml.dom.parser.TokenType;
 import org.eclipse.lsp4xml.dom.parser.XMLScanner;
 import org.eclipse.lsp4xml.uriresolver.URIResolverExtensionManager;
 import org.eclipse.lsp4xml.utils.DOMUtils;
-import org.eclipse.lsp4xml.utils.StringUtils;
 
 /**
  * Tolerant XML parser.
@@ -29,10 +32,22 @@ import org.eclipse.lsp4xml.utils.StringUtils;
  */
 public class DOMParser {
 
-	private static final Logger LOGGER = Logger.getLogger(DOMParser.class.getName());
-
 	private static final DOMParser INSTANCE = new DOMParser();
 
+	// max length of the text which is scanned to find the start tag of the
+	// document element when only a window of the document is parsed
+	private static final int MAX_HEAD_LENGTH = 1024 * 1024;
+
+	// max length of the text for which the tokens are recorded while parsing,
+	// above it the recorded tokens would use too much memory and the text is
+	// scanned again when needed (see DOMDocument#createScanner)
+	private static final int MAX_RECORDED_TOKENS_TEXT_LENGTH = 1024 * 1024;
+
+	// max size (as a number of texts) of the previous DOM documents which can be
+	// kept by the nodes shared by an incremental parse, a shared node keeps its
+	// previous DOM document until its children are copied (see DOMParser#reparse)
+	private static final int MAX_SHARED_TEXTS = 4;
+
 	public static DOMParser getInstance() {
 		return INSTANCE;
 	}
@@ -59,10 +74,17 @@ public class DOMParser {
 
 	public DOMDocument parse(TextDocument document, URIResolverExtensionManager resolverExtensionManager, boolean ignoreWhitespaceContent, CancelChecker monitor) {
 		boolean isDTD = DOMUtils.isDTD(document.getUri());
-		boolean inDTDInternalSubset = false;
 		String text = document.getText();
 		Scanner scanner = XMLScanner.createScanner(text, 0, isDTD);
-		DOMDocument xmlDocument = new DOMDocument(document, resolverExtensionManager);
+		TokenArray tokens = null;
+		if (!isDTD && text.length() <= MAX_RECORDED_TOKENS_TEXT_LENGTH) {
+			// record the tokens to avoid scanning the text again (folding, hover,
+			// completion, etc)
+			tokens = new TokenArray(text.length() / 8);
+			((XMLScanner) scanner).setTokens(tokens);
+		}
+		DOMDocument xmlDocument = new DOMDocument(document, text, resolverExtensionManager);
+		xmlDocument.setLineIndex(LineIndex.of(text));
 		xmlDocument.setCancelChecker(monitor);
 		
 		DOMNode curr = isDTD ? new DOMDocumentType(0, text.length()) : xmlDocument;
@@ -73,14 +95,383 @@ public class DOMParser {
 			// nothing should affect it's closed status
 			curr.closed = true; 
 		}
-		DOMNode lastClosed = curr;
+		curr = parse(text, scanner, xmlDocument, curr, curr, null, ignoreWhitespaceContent, monitor,
+				Integer.MAX_VALUE, null);
+		while (curr.parent != null ) {
+			curr.end = text.length();
+			curr = curr.parent;
+		}
+		if (tokens != null) {
+			tokens.trim();
+			xmlDocument.setTokens(tokens);
+		}
+		return xmlDocument;
+	}
+
+	/**
+	 * Returns a new DOM document for the given document built from the given DOM
+	 * document, which was parsed from the text of the given document before the
+	 * given changes, by parsing only the smallest closed element which encloses
+	 * the changed region.
+	 * 
+	 * <p>
+	 * The children of the enclosing element are parsed again and its ancestors are
+	 * copied in the new DOM document with their offsets shifted. The other nodes
+	 * are shared with the given DOM document: they are not scanned again and their
+	 * descendants are copied with their offsets shifted only when they are
+	 * accessed, so an edit costs the size of the enclosing element and of the
+	 * children of its ancestors. The given DOM document is never modified, since it
+	 * can be used by requests which are still running. Null is returned when the
+	 * incremental parse is not possible (ex: the changes update the structure of
+	 * the ancestors elements). In this case a full parse must be done.
+	 * </p>
+	 * 
+	 * @param xmlDocument             the DOM document parsed before the changes.
+	 * @param document                the text document.
+	 * @param changed                 the region which was changed since the DOM
+	 *                                document was parsed.
+	 * @param ignoreWhitespaceContent true if whitespace content must be ignored.
+	 * @param monitor                 the cancel checker.
+	 * @return the new DOM document and null if the DOM document must be fully
+	 *         parsed.
+	 */
+	public DOMDocument reparse(DOMDocument xmlDocument, TextDocument document, ChangedRegion changed,
+			boolean ignoreWhitespaceContent, CancelChecker monitor) {
+		if (xmlDocument == null || changed == null || xmlDocument.getTextDocument() != document
+				|| xmlDocument.isDTD()) {
+			return null;
+		}
+		// Search the smallest closed element which contains the changed region in
+		// its content
+		DOMElement element = findEnclosingElement(xmlDocument, changed);
+		if (element == null) {
+			return null;
+		}
+		int delta = changed.getDelta();
+		// the text is not materialized, only the element is scanned
+		CharSequence text = document.getTextSequence();
+		if (element.end + delta > text.length()) {
+			return null;
+		}
+		DOMDocument newDocument = new DOMDocument(document, text, xmlDocument.getResolverExtensionManager());
+
+		// Parse the element from its start tag. The fragment node hosts the new
+		// element and stops the parse as soon as the new element is closed.
+		Scanner scanner = XMLScanner.createScanner(text, element.start, ScannerState.WithinContent);
+		DOMNode fragment = new DOMElement(element.start, element.end + delta);
+		DOMNode lastClosed = getLastClosedBefore(element);
+		if (parse(text, scanner, newDocument, fragment, lastClosed != null ? lastClosed : fragment,
+				fragment, ignoreWhitespaceContent, monitor, Integer.MAX_VALUE, null) == null) {
+			return null;
+		}
+		DOMElement newElement = (DOMElement) fragment.getFirstChild();
+		if (!newElement.isClosed() || !element.isSameTag(newElement.getTagName())
+				|| newElement.end != element.end + delta
+				|| newElement.endTagCloseOffset != element.endTagCloseOffset + delta) {
+			// the changes update the structure of the ancestors elements
+			return null;
+		}
+
+		// Copy the ancestors of the element and share the other nodes, the offsets of
+		// the nodes which follow the new element are shifted.
+		List<DOMNode> ancestors = new ArrayList<>();
+		for (DOMNode node = element.parent; node != xmlDocument; node = node.parent) {
+			ancestors.add(node);
+		}
+		if (!copyChildren(xmlDocument, newDocument, ancestors, ancestors.size() - 1, element, newElement, delta,
+				monitor)) {
+			return null;
+		}
+		newDocument.start = DOMNode.shift(xmlDocument.start, element.end, delta);
+		newDocument.end = DOMNode.shift(xmlDocument.end, element.end, delta);
+		newDocument.closed = xmlDocument.closed;
+		// the given DOM document can be kept by the shared nodes with its line index
+		// and its text when it was materialized (a rope shares its pieces with the
+		// next texts)
+		long sharedLength = xmlDocument.sharedLength + 2L * xmlDocument.getLineIndex().getLineCount();
+		if (xmlDocument.getTextSequence() instanceof String) {
+			sharedLength += xmlDocument.getTextSequence().length();
+		}
+		if (sharedLength > (long) MAX_SHARED_TEXTS * text.length()) {
+			// the shared nodes would keep too many previous DOM documents, they are all
+			// copied (the cost of the copy is shared by the previous incremental parses)
+			copySharedNodes(newDocument, monitor);
+			sharedLength = 0;
+		}
+		newDocument.sharedLength = sharedLength;
+
+		// update only the line start offsets of the changed region
+		LineIndex lineIndex = xmlDocument.getLineIndex();
+		if (lineIndex.getText().length() + delta == text.length()) {
+			lineIndex = lineIndex.update(text, changed);
+		} else {
+			lineIndex = LineIndex.of(text);
+		}
+		newDocument.setLineIndex(lineIndex);
+		newDocument.setCancelChecker(monitor);
+		return newDocument;
+	}
+
+	/**
+	 * Copy the children of the given node in the given copy node: the next
+	 * ancestor of the given element is copied, the element is replaced with the
+	 * new element and the other children are shared (see
+	 * {@link DOMNode#share(DOMNode, int)}), the offsets of the nodes which follow
+	 * the element are shifted with the given delta.
+	 * 
+	 * @return true if the children was copied and false otherwise.
+	 */
+	private static boolean copyChildren(DOMNode node, DOMNode copy, List<DOMNode> ancestors, int index,
+			DOMElement element, DOMElement newElement, int delta, CancelChecker monitor) {
+		if (monitor != null) {
+			monitor.checkCanceled();
+		}
+		DOMNode next = index >= 0 ? ancestors.get(index) : element;
+		int from = element.end;
+		for (DOMNode child : node.getChildren()) {
+			if (child == element) {
+				copy.addChild(newElement);
+			} else if (child == next) {
+				DOMNode childCopy = DOMNode.copyNode(child, from, delta);
+				if (childCopy == null) {
+					return false;
+				}
+				copy.addChild(childCopy);
+				if (child.hasAttributes()) {
+					for (DOMAttr attr : child.getAttributeNodes()) {
+						childCopy.setAttributeNode(DOMNode.copyAttr(attr, childCopy, from, delta));
+					}
+				}
+				if (!copyChildren(child, childCopy, ancestors, index - 1, element, newElement, delta, monitor)) {
+					return false;
+				}
+			} else {
+				// the nodes before the element are not shifted
+				DOMNode childCopy = DOMNode.share(child, child.start >= from ? delta : 0);
+				if (childCopy == null) {
+					return false;
+				}
+				copy.addChild(childCopy);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copy the shared descendants of the given node.
+	 */
+	private static void copySharedNodes(DOMNode node, CancelChecker monitor) {
+		if (monitor != null) {
+			monitor.checkCanceled();
+		}
+		for (DOMNode child : node.getChildren()) {
+			copySharedNodes(child, monitor);
+		}
+	}
+
+	/**
+	 * Parse only a window of the given document around the given offset (used for
+	 * large documents).
+	 * 
+	 * <p>
+	 * The head of the document (prolog, DOCTYPE and the start tag of the document
+	 * element which declares the grammars) is parsed, and the nodes of the window
+	 * are added to the document element. The window starts at a tag, end tags of
+	 * elements which start before the window are ignored and the elements which
+	 * are not closed in the window end at the end of the document. The DOM
+	 * document is not complete, it must be used only for the requests at the
+	 * given offset (completion, hover, etc).
+	 * </p>
+	 * 
+	 * @param document                 the text document.
+	 * @param offset                   the offset of the window.
+	 * @param windowSize               the number of characters of the window.
+	 * @param resolverExtensionManager the resolver extension manager.
+	 * @param monitor                  the cancel checker.
+	 * @return the DOM document with the nodes of the window.
+	 */
+	public DOMDocument parseWindow(TextDocument document, int offset, int windowSize,
+			URIResolverExtensionManager resolverExtensionManager, CancelChecker monitor) {
+		// the text is not materialized, only the head and the window are scanned
+		CharSequence text = document.getTextSequence();
+		DOMDocument xmlDocument = new DOMDocument(document, text, resolverExtensionManager);
+		xmlDocument.setCancelChecker(monitor);
+		DOMNode curr = xmlDocument;
+		int headEnd = getHeadEnd(text, Math.min(text.length(), MAX_HEAD_LENGTH), monitor);
+		if (headEnd > 0) {
+			Scanner scanner = XMLScanner.createScanner(text, 0);
+			curr = parse(text, scanner, xmlDocument, curr, curr, null, true, monitor, headEnd, null);
+		}
+		int start = Math.max(headEnd, offset - windowSize / 2);
+		if (start > headEnd) {
+			// start the window at a tag
+			start = Math.max(headEnd, lastIndexOf(text, '<', start));
+		}
+		int end = Math.min(text.length(), Math.max(start, offset) + windowSize / 2);
+		if (start < end) {
+			Scanner scanner = XMLScanner.createScanner(text, start, ScannerState.WithinContent);
+			curr = parse(text, scanner, xmlDocument, curr, curr, null, true, monitor, end, curr);
+		}
+		while (curr.parent != null) {
+			curr.end = text.length();
+			curr = curr.parent;
+		}
+		return xmlDocument;
+	}
+
+	/**
+	 * Returns the offset after the start tag of the document element and 0 if it
+	 * is not found before the given max offset.
+	 */
+	private static int getHeadEnd(CharSequence text, int maxOffset, CancelChecker monitor) {
+		Scanner scanner = XMLScanner.createScanner(text, 0);
+		boolean startTag = false;
+		TokenType token = scanner.scan();
+		while (token != TokenType.EOS && scanner.getTokenOffset() < maxOffset) {
+			if (monitor != null) {
+				monitor.checkCanceled();
+			}
+			switch (token) {
+			case StartTag:
+				startTag = true;
+				break;
+			case StartTagClose:
+			case StartTagSelfClose:
+				if (startTag) {
+					return scanner.getTokenEnd();
+				}
+				break;
+			default:
+			}
+			token = scanner.scan();
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns true if the given node or one of its ancestors until the given host
+	 * node is an element with the given tag.
+	 */
+	private static boolean isOpened(DOMNode node, DOMNode host, String tag) {
+		while (node != null) {
+			if (node.isElement() && ((DOMElement) node).isSameTag(tag)) {
+				return true;
+			}
+			if (node == host) {
+				return false;
+			}
+			node = node.parent;
+		}
+		return false;
+	}
+
+	private static DOMElement findEnclosingElement(DOMDocument xmlDocument, ChangedRegion changed) {
+		DOMNode node = xmlDocument.findNodeAt(changed.getStart());
+		while (node != null && node != xmlDocument) {
+			if (node.isDoctype() || node instanceof DTDDeclNode) {
+				return null;
+			}
+			if (node.isElement()) {
+				DOMElement element = (DOMElement) node;
+				if (element.isClosed() && !element.isSelfClosed() && element.getTagName() != null
+						&& element.start == element.startTagOpenOffset
+						&& element.startTagCloseOffset != DOMNode.NULL_VALUE && element.endTagOpenOffset != DOMNode.NULL_VALUE
+						&& element.endTagCloseOffset != DOMNode.NULL_VALUE
+						&& changed.getStart() > element.startTagCloseOffset
+						&& changed.getOldEnd() <= element.endTagOpenOffset) {
+					return element;
+				}
+			}
+			node = node.parent;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the last element closed before the given node like the parser
+	 * tracks it and null otherwise.
+	 */
+	private static DOMNode getLastClosedBefore(DOMNode node) {
+		DOMNode parent = node.parent;
+		while (parent != null) {
+			List<DOMNode> children = parent.getChildren();
+			for (int i = indexOf(children, node) - 1; i >= 0; i--) {
+				DOMNode previous = children.get(i);
+				if (previous.isElement() && previous.isClosed()) {
+					return previous;
+				}
+			}
+			node = parent;
+			parent = node.parent;
+		}
+		return null;
+	}
+
+	private static int indexOf(List<DOMNode> children, DOMNode node) {
+		for (int i = children.size() - 1; i >= 0; i--) {
+			if (children.get(i) == node) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int lastIndexOf(CharSequence text, char c, int from) {
+		for (int i = Math.min(from, text.length() - 1); i >= 0; i--) {
+			if (text.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns true if the given text has a line delimiter between the start and end
+	 * offsets and false otherwise.
+	 */
+	private static boolean hasLineDelimiter(CharSequence text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parse the tokens of the given scanner and build the DOM nodes from the given
+	 * current node.
+	 * 
+	 * @param text                    the text to parse.
+	 * @param scanner                 the scanner.
+	 * @param xmlDocument             the DOM document.
+	 * @param curr                    the current node.
+	 * @param lastClosed              the last closed node.
+	 * @param fragment                the node which hosts the parsed fragment in
+	 *                                incremental mode and null otherwise.
+	 * @param ignoreWhitespaceContent true if whitespace content must be ignored.
+	 * @param monitor                 the cancel checker.
+	 * @param endOffset               the offset where the parse stops.
+	 * @param window                  the node which hosts the parsed window when
+	 *                                only a window of the document is parsed and
+	 *                                null otherwise.
+	 * @return the current node at the end of the parse and null if the parsed
+	 *         fragment doesn't match the structure of the document.
+	 */
+	private DOMNode parse(CharSequence text, Scanner scanner, DOMDocument xmlDocument, DOMNode curr,
+			DOMNode lastClosed, DOMNode fragment, boolean ignoreWhitespaceContent, CancelChecker monitor,
+			int endOffset, DOMNode window) {
+		boolean inDTDInternalSubset = false;
 		DOMAttr attr = null;
 		int endTagOpenOffset = -1;
 		String pendingAttribute = null;
 		DOMNode tempWhitespaceContent = null;
 		boolean isInitialDeclaration = true; // A declaration can have multiple internal declarations
+		NameTable names = new NameTable();
+		boolean ignoreEndTag = false;
 		TokenType token = scanner.scan();
-		while (token != TokenType.EOS) {
+		while (token != TokenType.EOS && scanner.getTokenOffset() < endOffset) {
 			if (monitor != null) {
 				monitor.checkCanceled();
 			}
@@ -112,7 +503,7 @@ public class DOMParser {
 
 			case StartTag: {
 				DOMElement element = (DOMElement) curr;
-				element.tag = scanner.getTokenText();
+				element.tag = names.get(text, scanner.getTokenOffset(), scanner.getTokenEnd());
 				curr.end = scanner.getTokenEnd();
 				break;
 			}
@@ -152,7 +543,12 @@ public class DOMParser {
 
 			case EndTag:
 				// end tag (ex: </root>)
-				String closeTag = scanner.getTokenText();
+				String closeTag = names.get(text, scanner.getTokenOffset(), scanner.getTokenEnd());
+				if (window != null && !isOpened(curr, window, closeTag)) {
+					// the end tag closes an element which starts before the parsed window.
+					ignoreEndTag = true;
+					break;
+				}
 				DOMNode current = curr;
 
 				/**
@@ -162,6 +558,10 @@ public class DOMParser {
 					curr.end = endTagOpenOffset;
 					curr = curr.parent;
 				}
+				if (curr == fragment) {
+					// the end tag closes an element which is outside the parsed fragment.
+					return null;
+				}
 				if (curr != xmlDocument) {
 					curr.closed = true;
 					if (curr.isElement()) {
@@ -192,6 +592,10 @@ public class DOMParser {
 				break;
 
 			case EndTagClose:
+				if (ignoreEndTag) {
+					ignoreEndTag = false;
+					break;
+				}
 				if (curr.parent != null) {
 					curr.end = scanner.getTokenEnd();
 					lastClosed = curr;
@@ -207,9 +611,8 @@ public class DOMParser {
 				break;
 
 			case AttributeName: {
-				pendingAttribute = scanner.getTokenText();
-				attr = new DOMAttr(pendingAttribute, scanner.getTokenOffset(),
-						scanner.getTokenOffset() + pendingAttribute.length(), curr);
+				pendingAttribute = names.get(text, scanner.getTokenOffset(), scanner.getTokenEnd());
+				attr = new DOMAttr(pendingAttribute, scanner.getTokenOffset(), scanner.getTokenEnd(), curr);
 				curr.setAttributeNode(attr);
 				curr.end = scanner.getTokenEnd();
 				break;
@@ -225,9 +628,9 @@ public class DOMParser {
 			}
 
 			case AttributeValue: {
-				String value = scanner.getTokenText();
 				if (curr.hasAttributes() && attr != null) {
-					attr.setValue(value, scanner.getTokenOffset(), scanner.getTokenOffset() + value.length());
+					// the value is read from the document text when it's used
+					attr.setValue(scanner.getTokenOffset(), scanner.getTokenEnd());
 				}
 				pendingAttribute = null;
 				attr = null;
@@ -267,14 +670,14 @@ public class DOMParser {
 
 			case PIName: {
 				DOMProcessingInstruction processingInstruction = ((DOMProcessingInstruction) curr);
-				processingInstruction.target = scanner.getTokenText();
+				processingInstruction.target = names.get(text, scanner.getTokenOffset(), scanner.getTokenEnd());
 				processingInstruction.processingInstruction = true;
 				break;
 			}
 
 			case PrologName: {
 				DOMProcessingInstruction processingInstruction = ((DOMProcessingInstruction) curr);
-				processingInstruction.target = scanner.getTokenText();
+				processingInstruction.target = names.get(text, scanner.getTokenOffset(), scanner.getTokenEnd());
 				processingInstruction.prolog = true;
 				break;
 			}
@@ -308,14 +711,8 @@ public class DOMParser {
 				DOMComment comment = xmlDocument.createComment(scanner.getTokenOffset(), text.length());
 				curr.addChild(comment);
 				curr = comment;
-				try {
-					int endLine = document.positionAt(lastClosed.end).getLine();
-					int startLine = document.positionAt(curr.start).getLine();
-					if (endLine == startLine && lastClosed.end <= curr.start) {
-						comment.commentSameLineEndTag = true;
-					}
-				} catch (BadLocationException e) {
-					LOGGER.log(Level.SEVERE, "XMLParser StartCommentTag bad offset in document", e);
+				if (lastClosed.end <= curr.start && !hasLineDelimiter(text, lastClosed.end, curr.start)) {
+					comment.commentSameLineEndTag = true;
 				}
 				break;
 			}
@@ -335,8 +732,6 @@ public class DOMParser {
 			}
 
 			case Content: {
-				// FIXME: don't use getTokenText (substring) to know if the content is only
-				// spaces or line feed (scanner should know that). 
 				boolean currIsDeclNode = curr instanceof DTDDeclNode;
 				if (currIsDeclNode) {
 					curr.end = scanner.getTokenOffset() - 1;
@@ -349,8 +744,7 @@ public class DOMParser {
 				DOMText textNode = xmlDocument.createText(start, end);
 				textNode.closed = true;
 
-				String content = scanner.getTokenText();
-				if(StringUtils.isWhitespace(content)) {
+				if (CharSequenceView.isWhitespace(text, start, end)) {
 					if(ignoreWhitespaceContent) {
 						if(curr.hasChildNodes()) {
 							break;
@@ -376,6 +770,10 @@ public class DOMParser {
 			// DTD
 
 			case DTDStartDoctypeTag: {
+				if (fragment != null) {
+					// DTD structure is not supported in incremental mode
+					return null;
+				}
 				DOMDocumentType doctype = xmlDocument.createDocumentType(scanner.getTokenOffset(), text.length());
 				curr.addChild(doctype);
 				doctype.parent = curr;
@@ -644,13 +1042,13 @@ public class DOMParser {
 
 			default:
 			}
+			if (curr == fragment && fragment.hasChildNodes()) {
+				// the root element of the parsed fragment is closed
+				return curr;
+			}
 			token = scanner.scan();
 		}
-		while (curr.parent != null ) {
-			curr.end = text.length();
-			curr = curr.parent;
-		}
-		return xmlDocument;
+		return fragment != null ? null : curr;
 	}
 
 	private static boolean isEmptyElement(String tag) {
@@ -10,6 +10,7 @@
  */
 package org.eclipse.lsp4xml.dom;
 
+import org.eclipse.lsp4xml.commons.CharSequenceView;
 import org.w3c.dom.DOMException;
 
 /**
@@ -87,14 +88,14 @@ public class DOMProcessingInstruction extends DOMCharacterData implements org.w3
 		return target;
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Returns the data without the leading and trailing whitespaces.
 	 * 
 	 * @see org.w3c.dom.ProcessingInstruction#getData()
 	 */
 	@Override
-	public String getData() {
-		return super.getData().trim();
+	public CharSequenceView getDataSequence() {
+		return super.getDataSequence().trim();
 	}
 
 	/*
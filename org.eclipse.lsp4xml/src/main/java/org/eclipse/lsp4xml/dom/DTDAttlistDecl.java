@@ -114,6 +114,25 @@ public class DTDAttlistDecl extends DTDDeclNode {
 		return internalChildren;
 	}
 
+	@Override
+	void copyParameters(DTDDeclNode node, int from, int delta) {
+		super.copyParameters(node, from, delta);
+		DTDAttlistDecl attlist = (DTDAttlistDecl) node;
+		attributeName = copyParameter(node, attlist.attributeName, from, delta);
+		attributeType = copyParameter(node, attlist.attributeType, from, delta);
+		attributeValue = copyParameter(node, attlist.attributeValue, from, delta);
+		if (attlist.internalChildren != null) {
+			for (DTDAttlistDecl internalChild : attlist.internalChildren) {
+				DTDAttlistDecl copy = new DTDAttlistDecl(shift(internalChild.start, from, delta),
+						shift(internalChild.end, from, delta));
+				copy.copyParameters(internalChild, from, delta);
+				copy.closed = internalChild.closed;
+				addAdditionalAttDecl(copy);
+				copy.parent = this;
+			}
+		}
+	}
+
 	/**
 	 * Returns true if this node's parent is the Doctype node.
 	 * 
@@ -114,6 +114,47 @@ public class DTDDeclNode extends DOMNode {
 		}
 	}
 
+	/**
+	 * Copy the parameters of the given node in this node with the offsets after
+	 * the given offset shifted with the given delta (see
+	 * {@link DOMNode#copyNode(DOMNode, int, int)}).
+	 * 
+	 * @param node  the node to copy.
+	 * @param from  the offset from which the offsets are shifted.
+	 * @param delta the delta.
+	 */
+	void copyParameters(DTDDeclNode node, int from, int delta) {
+		if (node.parameters != null) {
+			parameters = new ArrayList<DTDDeclParameter>(node.parameters.size());
+			for (DTDDeclParameter parameter : node.parameters) {
+				parameters.add(new DTDDeclParameter(this, shift(parameter.start, from, delta),
+						shift(parameter.end, from, delta)));
+			}
+		}
+		name = copyParameter(node, node.name, from, delta);
+		declType = copyParameter(node, node.declType, from, delta);
+		unrecognized = copyParameter(node, node.unrecognized, from, delta);
+	}
+
+	/**
+	 * Returns the copy of the given parameter of the given node: the copy of the
+	 * parameter at the same index when the parameter was added with
+	 * {@link #addNewParameter(int, int)} and a new copy otherwise.
+	 */
+	DTDDeclParameter copyParameter(DTDDeclNode node, DTDDeclParameter parameter, int from, int delta) {
+		if (parameter == null) {
+			return null;
+		}
+		if (node.parameters != null) {
+			for (int i = 0; i < node.parameters.size(); i++) {
+				if (node.parameters.get(i) == parameter) {
+					return parameters.get(i);
+				}
+			}
+		}
+		return new DTDDeclParameter(this, shift(parameter.start, from, delta), shift(parameter.end, from, delta));
+	}
+
 	public List<DTDDeclParameter> getParameters() {
 		if (parameters == null) {
 			parameters = new ArrayList<DTDDeclParameter>();
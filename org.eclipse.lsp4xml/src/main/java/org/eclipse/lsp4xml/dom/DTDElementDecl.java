@@ -11,6 +11,7 @@
 package org.eclipse.lsp4xml.dom;
 
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * DTD Element Declaration <!ELEMENT
@@ -56,6 +57,14 @@ public class DTDElementDecl extends DTDDeclNode {
 		content = addNewParameter(start, end);
 	}
 
+	@Override
+	void copyParameters(DTDDeclNode node, int from, int delta) {
+		super.copyParameters(node, from, delta);
+		DTDElementDecl element = (DTDElementDecl) node;
+		category = copyParameter(node, element.category, from, delta);
+		content = copyParameter(node, element.content, from, delta);
+	}
+
 	@Override
 	public short getNodeType() {
 		return DOMNode.DTD_ELEMENT_DECL_NODE;
@@ -95,7 +104,7 @@ public class DTDElementDecl extends DTDDeclNode {
 		// We are after the <!ELEMENT name, search the parameter
 		int start = getNameParameter().getEnd();
 		int end = getEnd();
-		String text = getOwnerDocument().getText();
+		CharSequence text = getOwnerDocument().getTextSequence();
 		// Find the start word offset from the left of the offset (ex : (head|ing) will
 		// return offset of 'h'
 		int paramStart = findStartWord(text, start, offset);
@@ -121,6 +130,21 @@ public class DTDElementDecl extends DTDDeclNode {
 	 * @param collector the collector to collect parameters.
 	 */
 	public void collectParameters(DTDDeclParameter target, BiConsumer<DTDDeclParameter, DTDDeclParameter> collector) {
+		CharSequence text = getOwnerDocument().getTextSequence();
+		String searchWord = target.getParameter();
+		collectParameters(parameter -> {
+			if (isMatchName(searchWord, text, parameter.getStart(), parameter.getEnd())) {
+				collector.accept(parameter, target);
+			}
+		});
+	}
+
+	/**
+	 * Collect all parameters declared after the element name.
+	 * 
+	 * @param collector the collector to collect parameters.
+	 */
+	public void collectParameters(Consumer<DTDDeclParameter> collector) {
 		DTDDeclParameter name = getNameParameter();
 		if (name == null) {
 			return;
@@ -128,7 +152,7 @@ public class DTDElementDecl extends DTDDeclNode {
 		int start = name.getEnd();
 		int end = getEnd();
 
-		String text = getOwnerDocument().getText();
+		CharSequence text = getOwnerDocument().getTextSequence();
 		text.length();
 		int wordStart = -1;
 		int wordEnd = -1;
@@ -152,10 +176,7 @@ public class DTDElementDecl extends DTDDeclNode {
 			}
 			if (wordStart != -1 && wordEnd != -1) {
 				// a word was found
-				boolean check = isMatchName(target.getParameter(), text, wordStart, wordEnd);
-				if (check) {
-					collector.accept(new DTDDeclParameter(this, wordStart, wordEnd), target);
-				}
+				collector.accept(new DTDDeclParameter(this, wordStart, wordEnd));
 				wordStart = -1;
 				wordEnd = -1;
 			}
@@ -172,7 +193,7 @@ public class DTDElementDecl extends DTDDeclNode {
 	 * @return the start word offset from the <code>from</code> offset to the
 	 *         <code>to</code> offse and -1 if no word.
 	 */
-	private static int findStartWord(String text, int from, int to) {
+	private static int findStartWord(CharSequence text, int from, int to) {
 		int wordStart = -1;
 		int length = to - from;
 		for (int i = 0; i < length; i++) {
@@ -195,7 +216,7 @@ public class DTDElementDecl extends DTDDeclNode {
 	 * @return the end word offset from the <code>from</code> offset to the
 	 *         <code>to</code> offse and -1 if no word.
 	 */
-	private static int findEndWord(String text, int from, int to) {
+	private static int findEndWord(CharSequence text, int from, int to) {
 		int wordEnd = -1;
 		int length = to - from;
 		for (int i = 0; i < length; i++) {
@@ -232,7 +253,7 @@ public class DTDElementDecl extends DTDDeclNode {
 	 *         <code>wordStart</code> offset and ends at <code>wordEnd</code>
 	 *         matches the given <code>searchName</code>
 	 */
-	private static boolean isMatchName(String searchWord, String text, int wordStart, int wordEnd) {
+	private static boolean isMatchName(String searchWord, CharSequence text, int wordStart, int wordEnd) {
 		int length = wordEnd - wordStart;
 		if (searchWord.length() != length) {
 			return false;
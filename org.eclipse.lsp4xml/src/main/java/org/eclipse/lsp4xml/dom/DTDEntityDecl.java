@@ -56,6 +56,17 @@ public class DTDEntityDecl extends DTDDeclNode implements Entity {
 		setDeclType(start + 2, start + 8);
 	}
 
+	@Override
+	void copyParameters(DTDDeclNode node, int from, int delta) {
+		super.copyParameters(node, from, delta);
+		DTDEntityDecl entity = (DTDEntityDecl) node;
+		percent = copyParameter(node, entity.percent, from, delta);
+		value = copyParameter(node, entity.value, from, delta);
+		kind = copyParameter(node, entity.kind, from, delta);
+		publicId = copyParameter(node, entity.publicId, from, delta);
+		systemId = copyParameter(node, entity.systemId, from, delta);
+	}
+
 	public String getPercent() {
 		return percent != null ? percent.getParameter() : null;
 	}
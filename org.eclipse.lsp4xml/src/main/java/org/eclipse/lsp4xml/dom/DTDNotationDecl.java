@@ -40,6 +40,15 @@ public class DTDNotationDecl extends DTDDeclNode {
 		setDeclType(start + 2, start + 10);
 	}
 
+	@Override
+	void copyParameters(DTDDeclNode node, int from, int delta) {
+		super.copyParameters(node, from, delta);
+		DTDNotationDecl notation = (DTDNotationDecl) node;
+		kind = copyParameter(node, notation.kind, from, delta);
+		publicId = copyParameter(node, notation.publicId, from, delta);
+		systemId = copyParameter(node, notation.systemId, from, delta);
+	}
+
 	void setKind(int start, int end) {
 		kind = addNewParameter(start, end);
 	}
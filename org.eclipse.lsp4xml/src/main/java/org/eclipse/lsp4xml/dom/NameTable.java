@@ -0,0 +1,94 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.dom;
+
+import org.eclipse.lsp4xml.commons.CharSequenceView;
+
+/**
+ * Table of the names (element, attribute, processing instruction target) of a
+ * parsed document.
+ *
+ * <p>
+ * A name is read from the document text with its start/end offsets and the
+ * same {@link String} instance is returned for all the occurrences of the
+ * name, so a large document keeps one copy of each distinct name instead of a
+ * copy per node. The table is an open addressing hash table (parallel arrays
+ * of hashes and names) which is used only while parsing.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+class NameTable {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private int[] hashes;
+
+	private String[] names;
+
+	private int size;
+
+	NameTable() {
+		this.hashes = new int[INITIAL_CAPACITY];
+		this.names = new String[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Returns the name of the given text between the start and end offsets.
+	 *
+	 * @param text  the document text.
+	 * @param start the start offset of the name.
+	 * @param end   the end offset of the name.
+	 * @return the name of the given text between the start and end offsets.
+	 */
+	String get(CharSequence text, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + text.charAt(i);
+		}
+		int length = end - start;
+		int mask = names.length - 1;
+		int index = hash & mask;
+		String name;
+		while ((name = names[index]) != null) {
+			if (hashes[index] == hash && name.length() == length
+					&& CharSequenceView.regionMatches(text, start, name)) {
+				return name;
+			}
+			index = (index + 1) & mask;
+		}
+		name = text.subSequence(start, end).toString();
+		hashes[index] = hash;
+		names[index] = name;
+		if (++size * 2 > names.length) {
+			grow();
+		}
+		return name;
+	}
+
+	private void grow() {
+		int[] oldHashes = hashes;
+		String[] oldNames = names;
+		hashes = new int[oldNames.length * 2];
+		names = new String[oldNames.length * 2];
+		int mask = names.length - 1;
+		for (int i = 0; i < oldNames.length; i++) {
+			if (oldNames[i] != null) {
+				int index = oldHashes[i] & mask;
+				while (names[index] != null) {
+					index = (index + 1) & mask;
+				}
+				hashes[index] = oldHashes[i];
+				names[index] = oldNames[i];
+			}
+		}
+	}
+}
@@ -10,6 +10,7 @@
  */
 package org.eclipse.lsp4xml.dom;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.StringTokenizer;
@@ -42,6 +43,15 @@ public class SchemaLocation {
 		return schemaLocationValuePairs.get(namespaceURI);
 	}
 
+	/**
+	 * Returns the location hints of all the declared namespaces.
+	 * 
+	 * @return the location hints of all the declared namespaces.
+	 */
+	public Collection<String> getLocationHints() {
+		return schemaLocationValuePairs.values();
+	}
+
 	public DOMAttr getAttr() {
 		return attr;
 	}
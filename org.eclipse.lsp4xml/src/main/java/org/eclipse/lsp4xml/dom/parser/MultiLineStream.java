@@ -22,26 +22,32 @@ import static org.eclipse.lsp4xml.dom.parser.Constants._WSP;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Predicate;
+import java.util.function.IntPredicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Multi line stream.
+ * 
+ * <p>
+ * Characters are tested with primitive {@link IntPredicate} and searched with
+ * {@link String#indexOf(int, int)} to avoid boxing and allocation while
+ * scanning.
+ * </p>
  *
  */
 public class MultiLineStream {
 
-	private static final Predicate<Integer> WHITESPACE_PREDICATE = ch -> {
+	private static final IntPredicate WHITESPACE_PREDICATE = ch -> {
 		return ch == _WSP || ch == _TAB || ch == _NWL || ch == _LFD || ch == _CAR;
 	};
 
-	private final String source;
+	private final CharSequence source;
 	private final int len;
 	private int position;
 	private final Map<Pattern, Matcher> regexpCache;
 
-	public MultiLineStream(String source, int position) {
+	public MultiLineStream(CharSequence source, int position) {
 		this.source = source;
 		this.len = source.length();
 		this.position = position;
@@ -52,7 +58,7 @@ public class MultiLineStream {
 		return this.len <= this.position;
 	}
 
-	public String getSource() {
+	public CharSequence getSource() {
 		return this.source;
 	}
 
@@ -96,7 +102,7 @@ public class MultiLineStream {
 		if (pos >= len) {
 			return -1;
 		}
-		return this.source.codePointAt(pos);
+		return codePointAt(pos);
 	}
 
 	/**
@@ -108,7 +114,40 @@ public class MultiLineStream {
 		if (offset >= len || offset < 0) {
 			return -1;
 		}
-		return this.source.codePointAt(offset);
+		return codePointAt(offset);
+	}
+
+	/**
+	 * Returns the code point at the given offset, without the cost of
+	 * {@link String#codePointAt(int)} when the char is not a high surrogate.
+	 * 
+	 * @param offset the offset.
+	 * @return the code point at the given offset.
+	 */
+	private int codePointAt(int offset) {
+		char c = this.source.charAt(offset);
+		return Character.isHighSurrogate(c) ? Character.codePointAt(this.source, offset) : c;
+	}
+
+	/**
+	 * Returns the offset of the given char from the given offset and -1 if it is
+	 * not found.
+	 * 
+	 * @param ch   the char.
+	 * @param from the offset where the search starts.
+	 * @return the offset of the given char from the given offset and -1 if it is
+	 *         not found.
+	 */
+	private int indexOf(int ch, int from) {
+		if (this.source instanceof String) {
+			return ((String) this.source).indexOf(ch, from);
+		}
+		for (int i = from; i < this.len; i++) {
+			if (this.source.charAt(i) == ch) {
+				return i;
+			}
+		}
+		return -1;
 	}
 
 	public boolean advanceIfChar(int ch) {
@@ -179,13 +218,16 @@ public class MultiLineStream {
 	 * @return boolean: was the char found
 	 */
 	public boolean advanceUntilChar(int ch) {
-		while (this.position < this.len) {
-			if (peekChar() == ch) {
-				return true;
-			}
-			this.advance(1);
+		if (this.position >= this.len) {
+			return false;
 		}
-		return false;
+		int index = indexOf(ch, this.position);
+		if (index == -1) {
+			this.goToEnd();
+			return false;
+		}
+		this.position = index;
+		return true;
 	}
 
 	/**
@@ -209,7 +251,8 @@ public class MultiLineStream {
 	 */
 	public boolean advanceUntilCharOrNewTag(int ch) {
 		while (this.position < this.len) {
-			if (peekChar() == ch || peekChar() == _LAN) {
+			int c = peekChar();
+			if (c == ch || c == _LAN) {
 				return true;
 			}
 			this.advance(1);
@@ -253,7 +296,13 @@ public class MultiLineStream {
 
 	public boolean advanceUntilChars(int... ch) {
 		while (this.position + ch.length <= this.len) {
-			int i = 0;
+			// jump to the next occurrence of the first char
+			int index = indexOf(ch[0], this.position);
+			if (index == -1 || index + ch.length > this.len) {
+				break;
+			}
+			this.position = index;
+			int i = 1;
 			for (; i < ch.length && peekChar(i) == ch[i]; i++) {
 			}
 			if (i == ch.length) {
@@ -290,16 +339,24 @@ public class MultiLineStream {
 	 * Advances until it reaches a whitespace character
 	 */
 	public boolean skipWhitespace() {
-		int n = this.advanceWhileChar(WHITESPACE_PREDICATE);
-		return n > 0;
+		int posNow = this.position;
+		int pos = posNow;
+		// whitespaces are not surrogates, the char can be tested directly
+		while (pos < this.len && WHITESPACE_PREDICATE.test(this.source.charAt(pos))) {
+			pos++;
+		}
+		this.position = pos;
+		return pos > posNow;
 	}
 
-	public int advanceWhileChar(Predicate<Integer> condition) {
+	public int advanceWhileChar(IntPredicate condition) {
 		int posNow = this.position;
-		while (this.position < this.len && condition.test(peekChar())) {
-			this.position++;
+		int pos = posNow;
+		while (pos < this.len && condition.test(codePointAt(pos))) {
+			pos++;
 		}
-		return this.position - posNow;
+		this.position = pos;
+		return pos - posNow;
 	}
 
 	/**
@@ -0,0 +1,248 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.dom.parser;
+
+import java.util.Arrays;
+
+/**
+ * Compact array of the tokens of a XML text recorded by the {@link XMLScanner}.
+ * 
+ * <p>
+ * Tokens are stored in parallel arrays (type, offset, length and the scanner
+ * state after the token) to avoid scanning the whole text again with a new
+ * scanner (ex : folding, hover, highlighting and completion), the tokens can be
+ * replayed with {@link #createScanner(String, int)}.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class TokenArray {
+
+	private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+	private static final ScannerState[] SCANNER_STATES = ScannerState.values();
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private byte[] types;
+
+	private byte[] states;
+
+	private int[] offsets;
+
+	private int[] lengths;
+
+	private int size;
+
+	TokenArray() {
+		this(INITIAL_CAPACITY);
+	}
+
+	public TokenArray(int capacity) {
+		capacity = Math.max(capacity, INITIAL_CAPACITY);
+		this.types = new byte[capacity];
+		this.states = new byte[capacity];
+		this.offsets = new int[capacity];
+		this.lengths = new int[capacity];
+	}
+
+	/**
+	 * Scan the whole given text and returns the tokens.
+	 * 
+	 * @param text the XML text.
+	 * @return the tokens of the given text.
+	 */
+	public static TokenArray scan(String text) {
+		XMLScanner scanner = new XMLScanner(text, 0, ScannerState.WithinContent, false);
+		TokenArray tokens = new TokenArray(text.length() / 8);
+		scanner.setTokens(tokens);
+		while (scanner.scan() != TokenType.EOS) {
+			// tokens are recorded by the scanner
+		}
+		tokens.trim();
+		return tokens;
+	}
+
+	void add(TokenType type, int offset, int length, ScannerState state) {
+		if (size == types.length) {
+			int capacity = size + (size >> 1);
+			types = Arrays.copyOf(types, capacity);
+			states = Arrays.copyOf(states, capacity);
+			offsets = Arrays.copyOf(offsets, capacity);
+			lengths = Arrays.copyOf(lengths, capacity);
+		}
+		types[size] = (byte) type.ordinal();
+		states[size] = (byte) state.ordinal();
+		offsets[size] = offset;
+		lengths[size] = length;
+		size++;
+	}
+
+	public void trim() {
+		if (size < types.length) {
+			types = Arrays.copyOf(types, size);
+			states = Arrays.copyOf(states, size);
+			offsets = Arrays.copyOf(offsets, size);
+			lengths = Arrays.copyOf(lengths, size);
+		}
+	}
+
+	/**
+	 * Returns the number of tokens (the last token is {@link TokenType#EOS}).
+	 * 
+	 * @return the number of tokens.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public TokenType getTokenType(int index) {
+		return TOKEN_TYPES[types[index]];
+	}
+
+	public int getTokenOffset(int index) {
+		return offsets[index];
+	}
+
+	public int getTokenLength(int index) {
+		return lengths[index];
+	}
+
+	public int getTokenEnd(int index) {
+		return offsets[index] + lengths[index];
+	}
+
+	/**
+	 * Returns the scanner state after the token of the given index.
+	 * 
+	 * @param index the token index.
+	 * @return the scanner state after the token of the given index.
+	 */
+	public ScannerState getScannerState(int index) {
+		return SCANNER_STATES[states[index]];
+	}
+
+	/**
+	 * Returns the index of the last token which starts before or at the given
+	 * offset and -1 if there is no such token.
+	 * 
+	 * @param offset the offset.
+	 * @return the index of the last token which starts before or at the given
+	 *         offset and -1 if there is no such token.
+	 */
+	public int findTokenAt(int offset) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midOffset = offsets[mid];
+			if (midOffset < offset) {
+				low = mid + 1;
+			} else if (midOffset > offset) {
+				high = mid - 1;
+			} else {
+				// empty tokens can share the offset of the next token, returns the first one
+				while (mid > 0 && offsets[mid - 1] == offset) {
+					mid--;
+				}
+				return mid;
+			}
+		}
+		return high;
+	}
+
+	/**
+	 * Returns a scanner which replays the tokens from the given offset and null if
+	 * a new {@link XMLScanner} started at the given offset in the
+	 * {@link ScannerState#WithinContent} state could return other tokens (the
+	 * offset is not the start of a token scanned in this state).
+	 * 
+	 * @param text   the text which was scanned.
+	 * @param offset the offset where the scan starts.
+	 * @return a scanner which replays the tokens from the given offset and null if
+	 *         the tokens cannot be replayed.
+	 */
+	public Scanner createScanner(String text, int offset) {
+		int index = findTokenAt(offset);
+		if (index < 0 || offsets[index] != offset) {
+			return null;
+		}
+		if (index > 0 && getScannerState(index - 1) != ScannerState.WithinContent) {
+			return null;
+		}
+		return new TokenArrayScanner(this, text, index);
+	}
+
+	/**
+	 * Scanner which replays the tokens of a {@link TokenArray}.
+	 */
+	private static class TokenArrayScanner implements Scanner {
+
+		private final TokenArray tokens;
+
+		private final String text;
+
+		private int index;
+
+		private boolean started;
+
+		TokenArrayScanner(TokenArray tokens, String text, int index) {
+			this.tokens = tokens;
+			this.text = text;
+			this.index = index;
+		}
+
+		@Override
+		public TokenType scan() {
+			if (!started) {
+				started = true;
+			} else if (index < tokens.size - 1) {
+				index++;
+			}
+			return getTokenType();
+		}
+
+		@Override
+		public TokenType getTokenType() {
+			return tokens.getTokenType(index);
+		}
+
+		@Override
+		public int getTokenOffset() {
+			return tokens.getTokenOffset(index);
+		}
+
+		@Override
+		public int getTokenLength() {
+			return tokens.getTokenLength(index);
+		}
+
+		@Override
+		public int getTokenEnd() {
+			return tokens.getTokenEnd(index);
+		}
+
+		@Override
+		public String getTokenText() {
+			return text.substring(getTokenOffset(), getTokenEnd());
+		}
+
+		@Override
+		public String getTokenError() {
+			return null;
+		}
+
+		@Override
+		public ScannerState getScannerState() {
+			return tokens.getScannerState(index);
+		}
+	}
+}
@@ -52,7 +52,7 @@ import static org.eclipse.lsp4xml.dom.parser.Constants._UDS;
 import static org.eclipse.lsp4xml.dom.parser.Constants._WSP;
 import static org.eclipse.lsp4xml.dom.parser.Constants._YVL;
 
-import java.util.function.Predicate;
+import java.util.function.IntPredicate;
 
 import org.eclipse.lsp4xml.dom.DOMDocumentType.DocumentTypeKind;;
 
@@ -62,23 +62,52 @@ import org.eclipse.lsp4xml.dom.DOMDocumentType.DocumentTypeKind;;
  */
 public class XMLScanner implements Scanner {
 
-	private static final Predicate<Integer> START_ELEMENT_NAME_PREDICATE = ch -> {
+	private static final IntPredicate START_ELEMENT_NAME_PREDICATE = asciiTable(ch -> {
 		// ^[_:\w]
 		return ch == _UDS || ch == _DDT || Character.isLetter(ch);
-	};
+	});
 
-	private static final Predicate<Integer> ELEMENT_NAME_PREDICATE = ch -> {
+	private static final IntPredicate ELEMENT_NAME_PREDICATE = asciiTable(ch -> {
 		// [_:\w-.\d]*
 		return ch == _UDS /* '_' */ || ch == _DDT /* ':' */ || ch == _DOT /* '.' */ || ch == _MIN /* '-' */
 				|| Character.isLetterOrDigit(ch);
-	};
+	});
 
-	private static final Predicate<Integer> ATTRIBUTE_NAME_PREDICATE = ch -> {
+	private static final IntPredicate ATTRIBUTE_NAME_PREDICATE = asciiTable(ch -> {
 		// ^[^\s\?\"'<>\/=\x00-\x0F\x7F\x80-\x9F]*
 		return !Character.isWhitespace(ch) && ch != _QMA && ch != _DQO && ch != _SIQ && ch != _LAN && ch != _RAN
 				&& ch != _FSL && ch != _EQS && !(ch >= 0x00 && ch <= 0x0F) && ch != 0x7F && !(ch >= 0x80 && ch <= 0x9F);
-	};
-	
+	});
+
+	// Chars sequences, declared once to avoid allocating varargs arrays while scanning.
+
+	private static final int[] START_COMMENT = { _EXL, _MIN, _MIN }; // !--
+
+	private static final int[] END_COMMENT = { _MIN, _MIN, _RAN }; // -->
+
+	private static final int[] START_CDATA = { _EXL, _OSB, _CVL, _DVL, _AVL, _TVL, _AVL, _OSB }; // ![CDATA[
+
+	private static final int[] END_CDATA = { _CSB, _CSB, _RAN }; // ]]>
+
+	private static final int[] START_DOCTYPE = { _EXL, _DVL, _OVL, _CVL, _TVL, _YVL, _PVL, _EVL }; // !DOCTYPE
+
+	private static final int[] END_PI = { _QMA, _RAN }; // ?>
+
+	/**
+	 * Returns a predicate which tests the ASCII chars with a lookup table computed
+	 * with the given predicate and the other chars with the given predicate.
+	 * 
+	 * @param predicate the predicate.
+	 * @return a predicate which tests the ASCII chars with a lookup table.
+	 */
+	private static IntPredicate asciiTable(IntPredicate predicate) {
+		boolean[] table = new boolean[128];
+		for (int ch = 0; ch < table.length; ch++) {
+			table[ch] = predicate.test(ch);
+		}
+		return ch -> ch >= 0 && ch < 128 ? table[ch] : predicate.test(ch);
+	}
+
 	MultiLineStream stream;
 	ScannerState state;
 	int tokenOffset;
@@ -103,8 +132,9 @@ public class XMLScanner implements Scanner {
 	 */
 	boolean isInitialAttlistDeclCompleted = false; 
 	private int nbBraceOpened;
+	private TokenArray tokens;
 
-	public XMLScanner(String input, int initialOffset, ScannerState initialState, boolean isDTDFile) {
+	public XMLScanner(CharSequence input, int initialOffset, ScannerState initialState, boolean isDTDFile) {
 		stream = new MultiLineStream(input, initialOffset);
 		state = initialState;
 		tokenOffset = 0;
@@ -191,11 +221,24 @@ public class XMLScanner implements Scanner {
 			log("Scanner.scan has not advanced at offset " + offset + ", state before: " + oldState + " after: "
 					+ state);
 			stream.advance(1);
-			return finishToken(offset, TokenType.Unknown);
+			token = finishToken(offset, TokenType.Unknown);
+		}
+		if (tokens != null) {
+			tokens.add(token, tokenOffset, stream.pos() - tokenOffset, state);
 		}
 		return token;
 	}
 
+	/**
+	 * Set the token array which records the scanned tokens.
+	 * 
+	 * @param tokens the token array which records the scanned tokens and null
+	 *               otherwise.
+	 */
+	public void setTokens(TokenArray tokens) {
+		this.tokens = tokens;
+	}
+
 	private void log(String message) {
 		System.err.println(message);
 	}
@@ -209,15 +252,15 @@ public class XMLScanner implements Scanner {
 
 		switch (state) {
 		case WithinComment:
-			if (stream.advanceIfChars(_MIN, _MIN, _RAN)) { // -->
+			if (stream.advanceIfChars(END_COMMENT)) { // -->
 				state = !isInsideDTDContent ? ScannerState.WithinContent : ScannerState.DTDWithinContent;
 				return finishToken(offset, TokenType.EndCommentTag);
 			}
-			stream.advanceUntilChars(_MIN, _MIN, _RAN); // -->
+			stream.advanceUntilChars(END_COMMENT); // -->
 			return finishToken(offset, TokenType.Comment);
 
 		case PrologOrPI:
-			if (stream.advanceIfChars(_QMA, _RAN)) { // ?>
+			if (stream.advanceIfChars(END_PI)) { // ?>
 				state = getWithinContentState();
 				return finishToken(offset, TokenType.PIEnd);
 			}
@@ -236,7 +279,7 @@ public class XMLScanner implements Scanner {
 					return finishToken(offset, TokenType.PIName);
 				}
 			}
-			stream.advanceUntilCharsOrNewTag(_QMA, _RAN); // ?>
+			stream.advanceUntilCharsOrNewTag(END_PI); // ?>
 			if (stream.peekChar() == _LAN) {
 				state = ScannerState.WithinContent; // TODO: check if EOF causes issues
 			}
@@ -247,11 +290,11 @@ public class XMLScanner implements Scanner {
 				return finishToken(offset, TokenType.Whitespace);
 			}
 
-			if (stream.advanceIfChars(_QMA, _RAN)) {
+			if (stream.advanceIfChars(END_PI)) {
 				state = getWithinContentState();
 				return finishToken(offset, TokenType.PIEnd);
 			}
-			if (stream.advanceUntilCharsOrNewTag(_QMA, _RAN)) { // ?>
+			if (stream.advanceUntilCharsOrNewTag(END_PI)) { // ?>
 				if (stream.peekChar() == _LAN) {
 					state = getWithinContentState();
 				}
@@ -264,16 +307,16 @@ public class XMLScanner implements Scanner {
 		case WithinContent:
 			if (stream.advanceIfChar(_LAN)) { // <
 				if (!stream.eos() && stream.peekChar() == _EXL) { // !
-					if (stream.advanceIfChars(_EXL, _MIN, _MIN)) { // !--
+					if (stream.advanceIfChars(START_COMMENT)) { // !--
 						state = ScannerState.WithinComment;
 						return finishToken(offset, TokenType.StartCommentTag);
 					}
-					if (stream.advanceIfChars(_EXL, _OSB, _CVL, _DVL, _AVL, _TVL, _AVL, _OSB)) { // ![CDATA[
+					if (stream.advanceIfChars(START_CDATA)) { // ![CDATA[
 						state = ScannerState.WithinCDATA;
 						return finishToken(offset, TokenType.CDATATagOpen);
 					}
 
-					if (stream.advanceIfChars(_EXL, _DVL, _OVL, _CVL, _TVL, _YVL, _PVL, _EVL)) { // !DOCTYPE
+					if (stream.advanceIfChars(START_DOCTYPE)) { // !DOCTYPE
 						isDeclCompleted = false;
 						state = ScannerState.DTDWithinDoctype;
 						return finishToken(offset, TokenType.DTDStartDoctypeTag);
@@ -294,11 +337,11 @@ public class XMLScanner implements Scanner {
 			return finishToken(offset, TokenType.Content);
 
 		case WithinCDATA:
-			if (stream.advanceIfChars(_CSB, _CSB, _RAN)) { // ]]>
+			if (stream.advanceIfChars(END_CDATA)) { // ]]>
 				state = ScannerState.WithinContent;
 				return finishToken(offset, TokenType.CDATATagClose);
 			}
-			stream.advanceUntilChars(_CSB, _CSB, _RAN); // ]]>
+			stream.advanceUntilChars(END_CDATA); // ]]>
 			return finishToken(offset, TokenType.CDATAContent);
 
 		case AfterOpeningEndTag:
@@ -355,7 +398,7 @@ public class XMLScanner implements Scanner {
 			if (stream.skipWhitespace()) {
 				return finishToken(offset, TokenType.Whitespace);
 			}
-			if (stream.advanceIfChars(_QMA, _RAN)) { // ?>
+			if (stream.advanceIfChars(END_PI)) { // ?>
 				state = getWithinContentState();
 				return finishToken(offset, TokenType.PrologEnd);
 			}
@@ -542,7 +585,7 @@ public class XMLScanner implements Scanner {
 					} else if (stream.advanceIfChars(_EXL, _NVL, _OVL, _TVL, _AVL, _TVL, _IVL, _OVL, _NVL)) { // !NOTATION
 						state = ScannerState.DTDWithinNotation;
 						return finishToken(offset, TokenType.DTDStartNotation);
-					} else if (stream.advanceIfChars(_EXL, _MIN, _MIN)) { // !-- (for comment)
+					} else if (stream.advanceIfChars(START_COMMENT)) { // !-- (for comment)
 						state = ScannerState.WithinComment;
 						return finishToken(offset, TokenType.StartCommentTag);
 					}
@@ -1005,7 +1048,7 @@ public class XMLScanner implements Scanner {
 
 	@Override
 	public String getTokenText() {
-		return stream.getSource().substring(tokenOffset, stream.pos());
+		return stream.getSource().subSequence(tokenOffset, stream.pos()).toString();
 	}
 
 	@Override
@@ -1019,31 +1062,31 @@ public class XMLScanner implements Scanner {
 	}
 
 	public String getTokenTextFromOffset(int offset) {
-		return stream.getSource().substring(offset, stream.pos());
+		return stream.getSource().subSequence(offset, stream.pos()).toString();
 	}
 
-	public static Scanner createScanner(String input) {
+	public static Scanner createScanner(CharSequence input) {
 		return createScanner(input, false);
 	}
 
-	public static Scanner createScanner(String input, boolean isDTD) {
+	public static Scanner createScanner(CharSequence input, boolean isDTD) {
 		return createScanner(input, 0, isDTD);
 	}
 
-	public static Scanner createScanner(String input, int initialOffset) {
+	public static Scanner createScanner(CharSequence input, int initialOffset) {
 		return createScanner(input, initialOffset, false);
 	}
 
-	public static Scanner createScanner(String input, int initialOffset, boolean isDTDFile) {
+	public static Scanner createScanner(CharSequence input, int initialOffset, boolean isDTDFile) {
 		return createScanner(input, initialOffset,
 				isDTDFile ? ScannerState.DTDWithinContent : ScannerState.WithinContent, isDTDFile);
 	}
 
-	public static Scanner createScanner(String input, int initialOffset, ScannerState initialState) {
+	public static Scanner createScanner(CharSequence input, int initialOffset, ScannerState initialState) {
 		return new XMLScanner(input, initialOffset, initialState, false);
 	}
 
-	public static Scanner createScanner(String input, int initialOffset, ScannerState initialState, boolean isDTDFile) {
+	public static Scanner createScanner(CharSequence input, int initialOffset, ScannerState initialState, boolean isDTDFile) {
 		return new XMLScanner(input, initialOffset, initialState, isDTDFile);
 	}
 
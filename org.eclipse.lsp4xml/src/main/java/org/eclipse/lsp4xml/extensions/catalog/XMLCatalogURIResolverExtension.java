@@ -50,6 +50,12 @@ public class XMLCatalogURIResolverExtension implements URIResolverExtension {
 		return CATALOG_SYSTEM;
 	}
 
+	@Override
+	public boolean isCacheable(String baseLocation, String publicId, String systemId) {
+		// the catalog namespace is resolved only if the document has no grammar
+		return !CATALOG_NAMESPACE_URI.equals(publicId);
+	}
+
 	@Override
 	public XMLInputSource resolveEntity(XMLResourceIdentifier resourceIdentifier) throws XNIException, IOException {
 		if (hasDTDorXMLSchema(resourceIdentifier.getBaseSystemId())) {
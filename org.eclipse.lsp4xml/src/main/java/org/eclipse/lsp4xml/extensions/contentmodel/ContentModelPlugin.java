@@ -2,7 +2,9 @@ package org.eclipse.lsp4xml.extensions.contentmodel;
 
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.extensions.contentmodel.model.ContentModelCaches;
 import org.eclipse.lsp4xml.extensions.contentmodel.model.ContentModelManager;
+import org.eclipse.lsp4xml.extensions.contentmodel.model.FilesWatcher;
 import org.eclipse.lsp4xml.extensions.contentmodel.participants.ContentModelCodeActionParticipant;
 import org.eclipse.lsp4xml.extensions.contentmodel.participants.ContentModelCompletionParticipant;
 import org.eclipse.lsp4xml.extensions.contentmodel.participants.ContentModelDocumentLinkParticipant;
@@ -60,17 +62,31 @@ public class ContentModelPlugin implements IXMLExtension {
 		if (context.getType() == ISaveContext.SaveContextType.DOCUMENT) {
 			// The save is done for a given XML file
 			String documentURI = context.getUri();
+			// the saved file (ex : a XML Schema) is changed for the grammar caches, even if
+			// the file watcher has not received the change yet.
+			FilesWatcher.getInstance().fileChanged(documentURI);
 			DOMDocument document = context.getDocument(documentURI);
-			if (document != null && DOMUtils.isCatalog(document)) {
+			boolean catalog = document != null && DOMUtils.isCatalog(document);
+			if (catalog) {
 				// the XML document which has changed is a XML catalog.
 				// 1) refresh catalogs
 				contentModelManager.refreshCatalogs();
 			}
-			// 2) Validate all opened XML files except the catalog which have changed
+			// When the grammars used by the opened documents are not tracked (no grammar
+			// pool), any document can depend on the saved file.
+			boolean validateAll = catalog || !contentModelManager.isGrammarDependenciesTracked();
+			// 2) Validate the opened XML files which depend on the saved file (XML Schema,
+			// DTD) or all opened XML files except the catalog which have changed
 			context.collectDocumentToValidate(d -> {
+				if (documentURI.equals(d.getDocumentURI())) {
+					return false;
+				}
 				DOMDocument xml = context.getDocument(d.getDocumentURI());
-				xml.resetGrammar();
-				return !documentURI.equals(d.getDocumentURI());
+				if (validateAll || contentModelManager.dependsOnGrammar(xml, documentURI)) {
+					xml.resetGrammar();
+					return true;
+				}
+				return false;
 			});
 		} else {
 			// Settings
@@ -121,13 +137,25 @@ public class ContentModelPlugin implements IXMLExtension {
 		if (useCache != null) {
 			contentModelManager.setUseCache(useCache);
 		}
+		// Update the max number of grammars, only if it is set in the settings.
+		Integer grammarPoolSize = settings.getGrammarPoolSize();
+		if (grammarPoolSize != null && grammarPoolSize > 0) {
+			contentModelManager.setGrammarPoolSize(grammarPoolSize);
+		}
+		// Update persistent cache, only if it is set in the settings.
+		Boolean persistentCache = settings.isPersistentCache();
+		if (persistentCache != null) {
+			contentModelManager.setPersistentCache(persistentCache);
+		}
 	}
 
 	@Override
 	public void start(InitializeParams params, XMLExtensionsRegistry registry) {
 		diagnosticsParticipant = new ContentModelDiagnosticsParticipant(registry);
 		URIResolverExtensionManager resolverManager = registry.getComponent(URIResolverExtensionManager.class);
-		contentModelManager = new ContentModelManager(resolverManager);
+		ContentModelCaches caches = registry.getComponent(ContentModelCaches.class);
+		contentModelManager = caches != null ? new ContentModelManager(resolverManager, caches)
+				: new ContentModelManager(resolverManager);
 		registry.registerComponent(contentModelManager);
 		if (params != null) {
 			contentModelManager.setRootURI(params.getRootUri());
@@ -10,7 +10,9 @@
  */
 package org.eclipse.lsp4xml.extensions.contentmodel.model;
 
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
 
 import org.eclipse.lsp4j.LocationLink;
 import org.eclipse.lsp4xml.dom.DOMElement;
@@ -70,4 +72,14 @@ public interface CMDocument {
 	 * @return true if the content model document is dirty and false otherwise.
 	 */
 	boolean isDirty();
+
+	/**
+	 * Returns the files (root and included / imported) of the grammar which are
+	 * tracked to know if the content model document is dirty.
+	 * 
+	 * @return the files (root and included / imported) of the grammar.
+	 */
+	default Collection<Path> getGrammarFiles() {
+		return Collections.emptyList();
+	}
 }
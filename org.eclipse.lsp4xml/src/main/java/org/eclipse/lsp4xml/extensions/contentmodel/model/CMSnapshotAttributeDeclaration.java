@@ -0,0 +1,79 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.model;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Attribute declaration loaded from a content model snapshot.
+ * 
+ * @author Angelo ZERR
+ *
+ */
+class CMSnapshotAttributeDeclaration implements CMAttributeDeclaration {
+
+	private final String name;
+
+	private final String defaultValue;
+
+	private final boolean required;
+
+	private final String documentation;
+
+	private final Collection<String> enumerationValues;
+
+	private final Map<String, String> valueDocumentations;
+
+	CMSnapshotAttributeDeclaration(String name, String defaultValue, boolean required, String documentation,
+			Collection<String> enumerationValues, Map<String, String> valueDocumentations) {
+		this.name = name;
+		this.defaultValue = defaultValue;
+		this.required = required;
+		this.documentation = documentation;
+		this.enumerationValues = enumerationValues;
+		this.valueDocumentations = valueDocumentations;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+
+	@Override
+	public Collection<String> getEnumerationValues() {
+		return enumerationValues;
+	}
+
+	@Override
+	public String getDocumentation() {
+		return documentation;
+	}
+
+	@Override
+	public String getValueDocumentation(String value) {
+		return valueDocumentations.get(value);
+	}
+
+	@Override
+	public boolean isRequired() {
+		return required;
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+}
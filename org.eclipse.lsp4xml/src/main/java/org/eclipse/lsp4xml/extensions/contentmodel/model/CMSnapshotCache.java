@@ -0,0 +1,431 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.lsp4xml.utils.FilesUtils;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Cache which stores on the disk a snapshot of the element / attribute
+ * declarations of the content model documents (XML Schema, DTD).
+ * 
+ * <p>
+ * A snapshot is stored in the "snapshots" folder of the lsp4xml work directory
+ * and contains the content hash of each file (root and included / imported) of
+ * the grammar. A snapshot is loaded only if the format version and all the
+ * content hashes match, so an unchanged grammar can be used after a restart
+ * without compiling it with Xerces.
+ * </p>
+ * 
+ * @author Angelo ZERR
+ *
+ */
+public class CMSnapshotCache {
+
+	private static final Logger LOGGER = Logger.getLogger(CMSnapshotCache.class.getName());
+
+	private static final String SNAPSHOTS_PATH = "snapshots";
+
+	private static final String SNAPSHOT_EXTENSION = ".cms";
+
+	private static final int MAGIC = 0x4C535058;
+
+	/**
+	 * Version of the snapshot format, it must be increased when the format
+	 * changes.
+	 */
+	static final int FORMAT_VERSION = 1;
+
+	private static final int NULL_STRING = -1;
+
+	private static final int NEW_STRING = -2;
+
+	private final ExecutorService executor;
+
+	public CMSnapshotCache() {
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "lsp4xml-cm-snapshot");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Returns the content model document loaded from the snapshot of the given
+	 * grammar key and null if there is no snapshot or if the grammar files have
+	 * changed since the snapshot was saved.
+	 * 
+	 * <p>
+	 * When the snapshot is loaded, the grammar is compiled in background with the
+	 * given compiler.
+	 * </p>
+	 * 
+	 * @param key      the grammar key (the resolved URI or the cached file path).
+	 * @param compiler the compiler of the grammar.
+	 * @return the content model document loaded from the snapshot and null
+	 *         otherwise.
+	 */
+	public CMSnapshotDocument load(String key, Supplier<CMDocument> compiler) {
+		Path snapshotFile = getSnapshotFile(key);
+		if (snapshotFile == null || !Files.exists(snapshotFile)) {
+			return null;
+		}
+		CMSnapshotDocument document = null;
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+			document = read(key, in);
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Load content model snapshot '" + snapshotFile + "' failed", e);
+			delete(snapshotFile);
+		}
+		if (document != null) {
+			document.setCompiledDocument(CompletableFuture.supplyAsync(compiler, executor));
+		}
+		return document;
+	}
+
+	/**
+	 * Save in background the snapshot of the given compiled grammar.
+	 * 
+	 * <p>
+	 * Collecting the documentation of all declarations is expensive, so the
+	 * declarations are collected in background while the document is used by the
+	 * language features.
+	 * </p>
+	 * 
+	 * @param key      the grammar key (the resolved URI or the cached file path).
+	 * @param document the compiled grammar.
+	 */
+	public void save(String key, CMDocument document) {
+		if (document == null || document instanceof CMSnapshotDocument) {
+			return;
+		}
+		Path snapshotFile = getSnapshotFile(key);
+		if (snapshotFile == null) {
+			return;
+		}
+		executor.execute(() -> {
+			try {
+				Collection<Path> files = document.getGrammarFiles();
+				if (files.isEmpty()) {
+					return;
+				}
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				try (DataOutputStream out = new DataOutputStream(content)) {
+					writeDeclarations(document, new StringTableOutput(out));
+				}
+				Files.createDirectories(snapshotFile.getParent());
+				Path tempFile = Files.createTempFile(snapshotFile.getParent(), "snapshot", ".tmp");
+				try (DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+					out.writeInt(MAGIC);
+					out.writeInt(FORMAT_VERSION);
+					out.writeUTF(key);
+					out.writeInt(files.size());
+					for (Path file : files) {
+						out.writeUTF(file.toString());
+						out.writeUTF(getContentHash(file));
+					}
+					content.writeTo(out);
+				}
+				Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException | RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Save content model snapshot '" + snapshotFile + "' failed", e);
+			}
+		});
+	}
+
+	/**
+	 * Returns a future which is completed when the pending snapshots are saved.
+	 * 
+	 * @return a future which is completed when the pending snapshots are saved.
+	 */
+	CompletableFuture<Void> flush() {
+		return CompletableFuture.runAsync(() -> {
+		}, executor);
+	}
+
+	private static Path getSnapshotFile(String key) {
+		try {
+			String name = Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+			return FilesUtils.getDeployedPath(Paths.get(SNAPSHOTS_PATH, name + SNAPSHOT_EXTENSION));
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Get content model snapshot file of '" + key + "' failed", e);
+			return null;
+		}
+	}
+
+	private static String getContentHash(Path file) throws IOException {
+		return com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.sha256()).toString();
+	}
+
+	private static void delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Delete content model snapshot '" + file + "' failed", e);
+		}
+	}
+
+	// ------------------ Write
+
+	private static void writeDeclarations(CMDocument document, StringTableOutput out) throws IOException {
+		// Collect all element declarations which are reachable from the root elements
+		Map<CMElementDeclaration, Integer> ids = new IdentityHashMap<>();
+		List<CMElementDeclaration> declarations = new ArrayList<>();
+		Deque<CMElementDeclaration> toVisit = new ArrayDeque<>(document.getElements());
+		while (!toVisit.isEmpty()) {
+			CMElementDeclaration declaration = toVisit.poll();
+			if (!ids.containsKey(declaration)) {
+				ids.put(declaration, declarations.size());
+				declarations.add(declaration);
+				toVisit.addAll(declaration.getElements());
+			}
+		}
+		// Namespaces
+		Set<String> namespaces = new HashSet<>();
+		for (CMElementDeclaration declaration : declarations) {
+			String namespace = declaration.getNamespace();
+			if (namespace != null && document.hasNamespace(namespace)) {
+				namespaces.add(namespace);
+			}
+		}
+		out.writeStrings(namespaces);
+		// Element declarations
+		out.writeInt(declarations.size());
+		for (CMElementDeclaration declaration : declarations) {
+			out.writeString(declaration.getName());
+			out.writeString(declaration.getNamespace());
+			out.writeString(declaration.getDocumentURI());
+			out.writeString(declaration.getDocumentation());
+			out.writeBoolean(declaration.isEmpty());
+			out.writeStrings(declaration.getEnumerationValues());
+			Collection<CMAttributeDeclaration> attributes = declaration.getAttributes();
+			out.writeInt(attributes.size());
+			for (CMAttributeDeclaration attribute : attributes) {
+				out.writeString(attribute.getName());
+				out.writeString(attribute.getDefaultValue());
+				out.writeBoolean(attribute.isRequired());
+				out.writeString(attribute.getDocumentation());
+				Collection<String> values = attribute.getEnumerationValues();
+				out.writeStrings(values);
+				for (String value : values) {
+					out.writeString(attribute.getValueDocumentation(value));
+				}
+			}
+			writeIds(declaration.getElements(), ids, out);
+		}
+		// Root elements
+		writeIds(document.getElements(), ids, out);
+	}
+
+	private static void writeIds(Collection<CMElementDeclaration> declarations,
+			Map<CMElementDeclaration, Integer> ids, StringTableOutput out) throws IOException {
+		out.writeInt(declarations.size());
+		for (CMElementDeclaration declaration : declarations) {
+			out.writeInt(ids.get(declaration));
+		}
+	}
+
+	// ------------------ Read
+
+	private static CMSnapshotDocument read(String key, DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+			return null;
+		}
+		// Check that the grammar files have not changed
+		int fileCount = in.readInt();
+		List<Path> files = new ArrayList<>(fileCount);
+		for (int i = 0; i < fileCount; i++) {
+			Path file = Paths.get(in.readUTF());
+			String hash = in.readUTF();
+			if (!Files.exists(file) || !hash.equals(getContentHash(file))) {
+				return null;
+			}
+			files.add(file);
+		}
+		StringTableInput input = new StringTableInput(in);
+		Set<String> namespaces = new HashSet<>(input.readStrings());
+		// Element declarations
+		int count = in.readInt();
+		CMSnapshotElementDeclaration[] declarations = new CMSnapshotElementDeclaration[count];
+		List<Collection<CMAttributeDeclaration>> attributes = new ArrayList<>(count);
+		int[][] children = new int[count][];
+		for (int i = 0; i < count; i++) {
+			declarations[i] = new CMSnapshotElementDeclaration(input.readString(), input.readString(),
+					input.readString(), input.readString(), in.readBoolean(), input.readStrings());
+			int attributeCount = in.readInt();
+			List<CMAttributeDeclaration> elementAttributes = new ArrayList<>(attributeCount);
+			for (int j = 0; j < attributeCount; j++) {
+				String name = input.readString();
+				String defaultValue = input.readString();
+				boolean required = in.readBoolean();
+				String documentation = input.readString();
+				List<String> values = input.readStrings();
+				Map<String, String> valueDocumentations = new HashMap<>();
+				for (String value : values) {
+					String valueDocumentation = input.readString();
+					if (valueDocumentation != null) {
+						valueDocumentations.put(value, valueDocumentation);
+					}
+				}
+				elementAttributes.add(new CMSnapshotAttributeDeclaration(name, defaultValue, required,
+						documentation, values, valueDocumentations));
+			}
+			declarations[i].setAttributes(elementAttributes);
+			children[i] = readIds(in);
+		}
+		for (int i = 0; i < count; i++) {
+			declarations[i].setElements(toDeclarations(children[i], declarations));
+		}
+		// Root elements
+		Collection<CMElementDeclaration> elements = toDeclarations(readIds(in), declarations);
+		return new CMSnapshotDocument(key, namespaces, elements, files);
+	}
+
+	private static int[] readIds(DataInputStream in) throws IOException {
+		int[] ids = new int[in.readInt()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = in.readInt();
+		}
+		return ids;
+	}
+
+	private static Collection<CMElementDeclaration> toDeclarations(int[] ids,
+			CMSnapshotElementDeclaration[] declarations) {
+		if (ids.length == 0) {
+			return Collections.emptyList();
+		}
+		List<CMElementDeclaration> elements = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			elements.add(declarations[id]);
+		}
+		return elements;
+	}
+
+	/**
+	 * Output which writes each string only once, the next occurrences are written
+	 * with the index of the string.
+	 */
+	private static class StringTableOutput {
+
+		private final DataOutputStream out;
+
+		private final Map<String, Integer> strings;
+
+		StringTableOutput(DataOutputStream out) {
+			this.out = out;
+			this.strings = new LinkedHashMap<>();
+		}
+
+		void writeString(String value) throws IOException {
+			if (value == null) {
+				out.writeInt(NULL_STRING);
+				return;
+			}
+			Integer index = strings.get(value);
+			if (index != null) {
+				out.writeInt(index);
+				return;
+			}
+			strings.put(value, strings.size());
+			out.writeInt(NEW_STRING);
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		void writeStrings(Collection<String> values) throws IOException {
+			out.writeInt(values.size());
+			for (String value : values) {
+				writeString(value);
+			}
+		}
+
+		void writeInt(int value) throws IOException {
+			out.writeInt(value);
+		}
+
+		void writeBoolean(boolean value) throws IOException {
+			out.writeBoolean(value);
+		}
+	}
+
+	private static class StringTableInput {
+
+		private final DataInputStream in;
+
+		private final List<String> strings;
+
+		StringTableInput(DataInputStream in) {
+			this.in = in;
+			this.strings = new ArrayList<>();
+		}
+
+		String readString() throws IOException {
+			int index = in.readInt();
+			if (index == NULL_STRING) {
+				return null;
+			}
+			if (index != NEW_STRING) {
+				return strings.get(index);
+			}
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			String value = new String(bytes, StandardCharsets.UTF_8);
+			strings.add(value);
+			return value;
+		}
+
+		List<String> readStrings() throws IOException {
+			int count = in.readInt();
+			if (count == 0) {
+				return Collections.emptyList();
+			}
+			List<String> values = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				values.add(readString());
+			}
+			return values;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.model;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.lsp4j.LocationLink;
+import org.eclipse.lsp4xml.dom.DOMElement;
+import org.eclipse.lsp4xml.dom.DOMNode;
+
+/**
+ * Content model document loaded from a snapshot stored on the disk by the
+ * {@link CMSnapshotCache}.
+ * 
+ * <p>
+ * The snapshot gives the element / attribute declarations without compiling
+ * the grammar with Xerces. The grammar is compiled in background and
+ * {@link #getCompiledDocument()} returns it when it's done.
+ * </p>
+ * 
+ * @author Angelo ZERR
+ *
+ */
+public class CMSnapshotDocument implements CMDocument {
+
+	private final String uri;
+
+	private final Set<String> namespaces;
+
+	private final Collection<CMElementDeclaration> elements;
+
+	private final Collection<Path> files;
+
+	private final FilesChangedTracker tracker;
+
+	private CompletableFuture<CMDocument> compiledDocument;
+
+	CMSnapshotDocument(String uri, Set<String> namespaces, Collection<CMElementDeclaration> elements,
+			Collection<Path> files) {
+		this.uri = uri;
+		this.namespaces = namespaces;
+		this.elements = elements;
+		this.files = files;
+		this.tracker = new FilesChangedTracker();
+		for (Path file : files) {
+			tracker.addFileURI(file.toUri().toString());
+		}
+	}
+
+	void setCompiledDocument(CompletableFuture<CMDocument> compiledDocument) {
+		this.compiledDocument = compiledDocument;
+	}
+
+	/**
+	 * Returns the content model document compiled with Xerces and null if it's not
+	 * available yet.
+	 * 
+	 * @return the content model document compiled with Xerces and null if it's not
+	 *         available yet.
+	 */
+	public CMDocument getCompiledDocument() {
+		if (compiledDocument == null || !compiledDocument.isDone()) {
+			return null;
+		}
+		return compiledDocument.exceptionally(e -> null).join();
+	}
+
+	@Override
+	public boolean hasNamespace(String namespaceURI) {
+		return namespaceURI != null && namespaces.contains(namespaceURI);
+	}
+
+	@Override
+	public Collection<CMElementDeclaration> getElements() {
+		return elements;
+	}
+
+	@Override
+	public CMElementDeclaration findCMElement(DOMElement element, String namespace) {
+		List<DOMElement> paths = new ArrayList<>();
+		while (element != null && (namespace == null || namespace.equals(element.getNamespaceURI()))) {
+			paths.add(0, element);
+			element = element.getParentNode() instanceof DOMElement ? (DOMElement) element.getParentNode() : null;
+		}
+		CMElementDeclaration declaration = null;
+		for (int i = 0; i < paths.size(); i++) {
+			DOMElement elt = paths.get(i);
+			if (i == 0) {
+				declaration = findElementDeclaration(elt.getLocalName());
+			} else {
+				declaration = declaration.findCMElement(elt.getLocalName(), namespace);
+			}
+			if (declaration == null) {
+				break;
+			}
+		}
+		return declaration;
+	}
+
+	private CMElementDeclaration findElementDeclaration(String tag) {
+		for (CMElementDeclaration cmElement : elements) {
+			if (cmElement.getName().equals(tag)) {
+				return cmElement;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String getURI() {
+		return uri;
+	}
+
+	@Override
+	public LocationLink findTypeLocation(DOMNode node) {
+		// The snapshot doesn't store the location of the types, wait for the compiled
+		// grammar.
+		CMDocument document = compiledDocument != null ? compiledDocument.exceptionally(e -> null).join() : null;
+		return document != null ? document.findTypeLocation(node) : null;
+	}
+
+	@Override
+	public boolean isDirty() {
+		return tracker.isDirty();
+	}
+
+	@Override
+	public Collection<Path> getGrammarFiles() {
+		return files;
+	}
+}
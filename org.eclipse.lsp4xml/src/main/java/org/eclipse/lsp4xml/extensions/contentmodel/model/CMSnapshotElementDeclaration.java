@@ -0,0 +1,136 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.model;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.eclipse.lsp4xml.dom.DOMElement;
+
+/**
+ * Element declaration loaded from a content model snapshot.
+ * 
+ * <p>
+ * A snapshot doesn't store the content model (sequence, choice, etc) of the
+ * element, so {@link #getPossibleElements(DOMElement, int)} returns all the
+ * declared children elements.
+ * </p>
+ * 
+ * @author Angelo ZERR
+ *
+ */
+class CMSnapshotElementDeclaration implements CMElementDeclaration {
+
+	private final String name;
+
+	private final String namespace;
+
+	private final String documentURI;
+
+	private final String documentation;
+
+	private final boolean empty;
+
+	private final Collection<String> enumerationValues;
+
+	private Collection<CMAttributeDeclaration> attributes;
+
+	private Collection<CMElementDeclaration> elements;
+
+	CMSnapshotElementDeclaration(String name, String namespace, String documentURI, String documentation,
+			boolean empty, Collection<String> enumerationValues) {
+		this.name = name;
+		this.namespace = namespace;
+		this.documentURI = documentURI;
+		this.documentation = documentation;
+		this.empty = empty;
+		this.enumerationValues = enumerationValues;
+		this.attributes = Collections.emptyList();
+		this.elements = Collections.emptyList();
+	}
+
+	void setAttributes(Collection<CMAttributeDeclaration> attributes) {
+		this.attributes = attributes;
+	}
+
+	void setElements(Collection<CMElementDeclaration> elements) {
+		this.elements = elements;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getNamespace() {
+		return namespace;
+	}
+
+	@Override
+	public Collection<CMAttributeDeclaration> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public Collection<CMElementDeclaration> getElements() {
+		return elements;
+	}
+
+	@Override
+	public Collection<CMElementDeclaration> getPossibleElements(DOMElement parentElement, int offset) {
+		return elements;
+	}
+
+	@Override
+	public CMElementDeclaration findCMElement(String tag, String namespace) {
+		for (CMElementDeclaration cmElement : elements) {
+			if (cmElement.getName().equals(tag)) {
+				return cmElement;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public CMAttributeDeclaration findCMAttribute(String attributeName) {
+		for (CMAttributeDeclaration cmAttribute : attributes) {
+			if (cmAttribute.getName().equals(attributeName)) {
+				return cmAttribute;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String getDocumentation() {
+		return documentation;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return empty;
+	}
+
+	@Override
+	public Collection<String> getEnumerationValues() {
+		return enumerationValues;
+	}
+
+	@Override
+	public String getDocumentURI() {
+		return documentURI;
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+}
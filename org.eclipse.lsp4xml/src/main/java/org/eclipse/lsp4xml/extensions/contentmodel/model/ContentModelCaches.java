@@ -0,0 +1,163 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.lsp4xml.commons.metrics.RequestMetrics;
+import org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics.LSPXMLGrammarPool;
+import org.eclipse.lsp4xml.uriresolver.CacheResourcesManager;
+
+/**
+ * Caches used by the {@link ContentModelManager}: the compiled grammars (XML
+ * Schema, DTD) of the grammar pool, the content model documents, the
+ * snapshots of the persistent cache and the downloaded remote resources.
+ *
+ * <p>
+ * Each content model manager creates its own caches by default. When several
+ * language server sessions are hosted by the same process (see
+ * {@link org.eclipse.lsp4xml.XMLServerSocketLauncher}), the caches can be
+ * shared between the sessions by registering a shared instance as component of
+ * the extensions registry before the extensions are started. The imported /
+ * included grammars of a grammar are resolved with the XML catalogs of the
+ * session which compiles it, so the shared grammar pool and content model
+ * documents are kept by catalog configuration: only the sessions which use the
+ * same XML catalogs share them.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class ContentModelCaches {
+
+	/**
+	 * Name of the statistics of the grammar pools in the metrics report.
+	 */
+	public static final String GRAMMAR_POOL_STATISTICS = "grammarPool";
+
+	/**
+	 * Grammar pool and content model documents compiled with a catalog
+	 * configuration.
+	 */
+	private static class GrammarCaches {
+
+		private final Map<String, CMDocument> cmDocumentCache = Collections.synchronizedMap(new HashMap<>());
+
+		private final LSPXMLGrammarPool grammarPool = new LSPXMLGrammarPool(LSPXMLGrammarPool.DEFAULT_MAX_GRAMMARS,
+				RequestMetrics.getInstance().getCacheStatistics(GRAMMAR_POOL_STATISTICS));
+	}
+
+	private final GrammarCaches defaultCaches;
+
+	private final Map<List<String>, GrammarCaches> catalogCaches;
+
+	private final CMSnapshotCache snapshotCache;
+
+	private final CacheResourcesManager cacheResourcesManager;
+
+	private final boolean shared;
+
+	/**
+	 * Create caches used by one content model manager.
+	 */
+	public ContentModelCaches() {
+		this(false);
+	}
+
+	/**
+	 * Create caches.
+	 *
+	 * @param shared true if the caches are shared between several language server
+	 *               sessions and false otherwise.
+	 */
+	public ContentModelCaches(boolean shared) {
+		this.defaultCaches = new GrammarCaches();
+		this.catalogCaches = new ConcurrentHashMap<>();
+		this.snapshotCache = new CMSnapshotCache();
+		this.cacheResourcesManager = new CacheResourcesManager();
+		this.cacheResourcesManager.setUseCache(true);
+		this.shared = shared;
+	}
+
+	/**
+	 * Returns the content model documents by resolved URI compiled without XML
+	 * catalog.
+	 *
+	 * @return the content model documents by resolved URI compiled without XML
+	 *         catalog.
+	 */
+	public Map<String, CMDocument> getCMDocumentCache() {
+		return defaultCaches.cmDocumentCache;
+	}
+
+	/**
+	 * Returns the content model documents by resolved URI compiled with the given
+	 * XML catalogs.
+	 *
+	 * @param catalogs the expanded paths of the XML catalogs and null if there is
+	 *                 no catalog.
+	 * @return the content model documents by resolved URI compiled with the given
+	 *         XML catalogs.
+	 */
+	public Map<String, CMDocument> getCMDocumentCache(String[] catalogs) {
+		return getGrammarCaches(catalogs).cmDocumentCache;
+	}
+
+	public LSPXMLGrammarPool getGrammarPool() {
+		return defaultCaches.grammarPool;
+	}
+
+	/**
+	 * Returns the grammar pool of the grammars compiled with the given XML
+	 * catalogs.
+	 *
+	 * @param catalogs the expanded paths of the XML catalogs and null if there is
+	 *                 no catalog.
+	 * @return the grammar pool of the grammars compiled with the given XML
+	 *         catalogs.
+	 */
+	public LSPXMLGrammarPool getGrammarPool(String[] catalogs) {
+		return getGrammarCaches(catalogs).grammarPool;
+	}
+
+	private GrammarCaches getGrammarCaches(String[] catalogs) {
+		if (!shared || catalogs == null || catalogs.length == 0) {
+			// caches which are not shared are used by one session, they are not kept by
+			// catalog configuration
+			return defaultCaches;
+		}
+		return catalogCaches.computeIfAbsent(Arrays.asList(catalogs), key -> new GrammarCaches());
+	}
+
+	public CMSnapshotCache getSnapshotCache() {
+		return snapshotCache;
+	}
+
+	public CacheResourcesManager getCacheResourcesManager() {
+		return cacheResourcesManager;
+	}
+
+	/**
+	 * Returns true if the caches are shared between several language server
+	 * sessions and false otherwise. A session cannot clear or resize shared
+	 * caches.
+	 *
+	 * @return true if the caches are shared between several language server
+	 *         sessions and false otherwise.
+	 */
+	public boolean isShared() {
+		return shared;
+	}
+}
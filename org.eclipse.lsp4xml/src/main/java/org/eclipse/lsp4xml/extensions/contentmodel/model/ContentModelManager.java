@@ -10,12 +10,17 @@
  */
 package org.eclipse.lsp4xml.extensions.contentmodel.model;
 
+import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
 import org.eclipse.lsp4xml.dom.DOMDocument;
@@ -37,7 +42,9 @@ import org.eclipse.lsp4xml.utils.URIUtils;
  */
 public class ContentModelManager {
 
-	private final Map<String, CMDocument> cmDocumentCache;
+	private final ContentModelCaches caches;
+
+	private volatile Map<String, CMDocument> cmDocumentCache;
 
 	private final URIResolverExtensionManager resolverManager;
 	private final List<ContentModelProvider> modelProviders;
@@ -45,21 +52,40 @@ public class ContentModelManager {
 	private final XMLCacheResolverExtension cacheResolverExtension;
 	private final XMLCatalogResolverExtension catalogResolverExtension;
 	private final XMLFileAssociationResolverExtension fileAssociationResolver;
-	private final XMLGrammarPool grammarPool;
+	private volatile LSPXMLGrammarPool grammarPool;
+	private final CMSnapshotCache snapshotCache;
+	private final boolean sharedCaches;
 
 	private ContentModelSettings settings;
 
+	private boolean persistentCache;
+
 	public ContentModelManager(URIResolverExtensionManager resolverManager) {
+		this(resolverManager, new ContentModelCaches());
+	}
+
+	/**
+	 * Create the content model manager which uses the given caches (which can be
+	 * shared between several language server sessions).
+	 * 
+	 * @param resolverManager the URI resolver manager.
+	 * @param caches          the caches (grammar pool, content model documents,
+	 *                        etc).
+	 */
+	public ContentModelManager(URIResolverExtensionManager resolverManager, ContentModelCaches caches) {
 		this.resolverManager = resolverManager;
+		this.caches = caches;
 		modelProviders = new ArrayList<>();
-		cmDocumentCache = Collections.synchronizedMap(new HashMap<>());
+		cmDocumentCache = caches.getCMDocumentCache();
 		fileAssociationResolver = new XMLFileAssociationResolverExtension();
 		resolverManager.registerResolver(fileAssociationResolver);
 		catalogResolverExtension = new XMLCatalogResolverExtension();
 		resolverManager.registerResolver(catalogResolverExtension);
-		cacheResolverExtension = new XMLCacheResolverExtension();
+		cacheResolverExtension = new XMLCacheResolverExtension(caches.getCacheResourcesManager());
 		resolverManager.registerResolver(cacheResolverExtension);
-		grammarPool = new LSPXMLGrammarPool();
+		grammarPool = caches.getGrammarPool();
+		snapshotCache = caches.getSnapshotCache();
+		sharedCaches = caches.isShared();
 		// Use cache by default
 		setUseCache(true);
 	}
@@ -103,6 +129,15 @@ public class ContentModelManager {
 	 * Returns true if the given document is linked to the given grammar URI (XML
 	 * Schema, DTD) and false otherwise.
 	 * 
+	 * <p>
+	 * The grammar URI can be a grammar declared by the document (ex : any location
+	 * hint of xsi:schemaLocation) or a file included / imported by a declared
+	 * grammar. The included / imported files are known only when the declared
+	 * grammar is loaded in the grammar pool or in the content model cache, so the
+	 * document is considered to depend on the grammar URI when a declared grammar
+	 * is not loaded (not compiled yet, compiled with errors or evicted).
+	 * </p>
+	 * 
 	 * @param document the DOM document
 	 * @param grammarURI  the grammar URI
 	 * @return true if the given document is linked to the given grammar URI (XML
@@ -113,10 +148,79 @@ public class ContentModelManager {
 			return false;
 		}
 		ContentModelProvider modelProvider = getModelProviderByStandardAssociation(document, false);
-		String systemId = modelProvider != null ? modelProvider.getSystemId(document, document.getNamespaceURI())
-				: null;
-		String key = resolverManager.resolve(document.getDocumentURI(), null, systemId);
-		return grammarURI.equals(key);
+		Collection<String> systemIds = modelProvider != null ? modelProvider.getSystemIds(document)
+				: Collections.singleton(null);
+		Path grammarFile = toPath(grammarURI);
+		for (String systemId : systemIds) {
+			String key = resolverManager.resolve(document.getDocumentURI(), null, systemId);
+			if (key == null) {
+				continue;
+			}
+			if (grammarURI.equals(key)) {
+				return true;
+			}
+			if (grammarFile != null) {
+				Set<Path> files = getGrammarFiles(key);
+				if (files == null || files.contains(grammarFile)) {
+					// the included / imported files of the grammar are unknown or contain the
+					// grammar file
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if the grammars used by the opened documents are known (to
+	 * know which documents depend on a grammar) and false otherwise.
+	 * 
+	 * @return true if the grammars used by the opened documents are known and
+	 *         false otherwise.
+	 */
+	public boolean isGrammarDependenciesTracked() {
+		return getGrammarPool() != null;
+	}
+
+	/**
+	 * Returns the files (root and included / imported) of the grammar of the given
+	 * resolved URI which are known by the grammar pool and the content model cache
+	 * and null if the files are unknown.
+	 * 
+	 * @param key the resolved URI of the grammar.
+	 * @return the files of the grammar of the given resolved URI and null if the
+	 *         files are unknown.
+	 */
+	private Set<Path> getGrammarFiles(String key) {
+		Collection<Path> poolFiles = grammarPool.getGrammarFiles(key);
+		CMDocument cmDocument = cmDocumentCache.get(key);
+		if (poolFiles == null && cmDocument == null) {
+			Path rootFile = toPath(key);
+			if (rootFile != null && !Files.exists(rootFile)) {
+				// a grammar file which doesn't exist includes no file
+				return Collections.emptySet();
+			}
+			return null;
+		}
+		Set<Path> files = new HashSet<>();
+		if (poolFiles != null) {
+			files.addAll(poolFiles);
+		}
+		if (cmDocument != null) {
+			files.addAll(cmDocument.getGrammarFiles());
+		}
+		return files;
+	}
+
+	private static Path toPath(String uri) {
+		if (!URIUtils.isFileResource(uri)) {
+			return null;
+		}
+		try {
+			return Paths.get(new URI(uri));
+		} catch (Exception e) {
+			return null;
+		}
 	}
 
 	/**
@@ -159,17 +263,17 @@ public class ContentModelManager {
 				try {
 				Path file = cacheResolverExtension.getCachedResource(resolvedUri);
 					if (file != null) {
-						cmDocument = modelProvider.createCMDocument(file.toFile().getPath());
+						cmDocument = createCMDocument(file.toFile().getPath(), modelProvider);
 					}
 				} catch (CacheResourceDownloadingException e) {
 					// the DTD/XML Schema is downloading
 					return null;
 				} catch (Exception e) {
 					// other error like network which is not available
-				cmDocument = modelProvider.createCMDocument(resolvedUri);
+				cmDocument = createCMDocument(resolvedUri, modelProvider);
 				}
 			} else {
-			cmDocument = modelProvider.createCMDocument(resolvedUri);
+			cmDocument = createCMDocument(resolvedUri, modelProvider);
 			}
 		// Cache the document
 		if (cmDocument != null) {
@@ -178,6 +282,29 @@ public class ContentModelManager {
 		return cmDocument;
 	}
 
+	/**
+	 * Returns the content model document loaded from the persistent cache if it's
+	 * available and compiled with the given model provider otherwise.
+	 * 
+	 * @param key           the resolved URI or the cached file path of the
+	 *                      grammar.
+	 * @param modelProvider the model provider.
+	 * @return the content model document.
+	 */
+	private CMDocument createCMDocument(String key, ContentModelProvider modelProvider) {
+		if (!persistentCache) {
+			return modelProvider.createCMDocument(key);
+		}
+		CMDocument cmDocument = snapshotCache.load(key, () -> modelProvider.createCMDocument(key));
+		if (cmDocument == null) {
+			cmDocument = modelProvider.createCMDocument(key);
+			if (cmDocument != null && !cmDocument.getGrammarFiles().isEmpty()) {
+				snapshotCache.save(key, cmDocument);
+			}
+		}
+		return cmDocument;
+	}
+
 	private CMDocument getCMDocumentFromCache(String key) {
 		CMDocument document = null;
 		synchronized (cmDocumentCache) {
@@ -186,6 +313,14 @@ public class ContentModelManager {
 				cmDocumentCache.remove(key);
 				return null;
 			}
+			if (document instanceof CMSnapshotDocument) {
+				// Replace the snapshot with the grammar compiled in background when it's done
+				CMDocument compiledDocument = ((CMSnapshotDocument) document).getCompiledDocument();
+				if (compiledDocument != null) {
+					cmDocumentCache.put(key, compiledDocument);
+					document = compiledDocument;
+				}
+			}
 		}
 		return document;
 	}
@@ -260,7 +395,22 @@ public class ContentModelManager {
 	 * @return true if catalogs changed and false otherwise
 	 */
 	public boolean setCatalogs(String[] catalogs) {
-		return catalogResolverExtension.setCatalogs(catalogs);
+		boolean changed = catalogResolverExtension.setCatalogs(catalogs);
+		if (changed) {
+			resolverManager.clearCache();
+			updateGrammarCaches();
+		}
+		return changed;
+	}
+
+	/**
+	 * Use the grammar pool and the content model documents compiled with the
+	 * current XML catalogs.
+	 */
+	private void updateGrammarCaches() {
+		String[] catalogs = catalogResolverExtension.getCatalogs();
+		cmDocumentCache = caches.getCMDocumentCache(catalogs);
+		grammarPool = caches.getGrammarPool(catalogs);
 	}
 
 	/**
@@ -268,6 +418,8 @@ public class ContentModelManager {
 	 */
 	public void refreshCatalogs() {
 		catalogResolverExtension.refreshCatalogs();
+		resolverManager.clearCache();
+		updateGrammarCaches();
 	}
 
 	/**
@@ -277,20 +429,52 @@ public class ContentModelManager {
 	 * @return true if file associations changed and false otherwise
 	 */
 	public boolean setFileAssociations(XMLFileAssociation[] fileAssociations) {
-		return this.fileAssociationResolver.setFileAssociations(fileAssociations);
+		boolean changed = this.fileAssociationResolver.setFileAssociations(fileAssociations);
+		if (changed) {
+			resolverManager.clearCache();
+		}
+		return changed;
 	}
 
 	public void setRootURI(String rootUri) {
 		rootUri = URIUtils.sanitizingUri(rootUri);
 		fileAssociationResolver.setRootUri(rootUri);
 		catalogResolverExtension.setRootUri(rootUri);
+		resolverManager.clearCache();
 	}
 
 	public void setUseCache(boolean useCache) {
 		cacheResolverExtension.setUseCache(useCache);
-		if (!useCache) {
+		if (!useCache && !sharedCaches) {
+			// a grammar pool shared with other sessions is not cleared, it's just not
+			// used by this session (see getGrammarPool())
 			grammarPool.clear();
+		}
+	}
+
+	/**
+	 * Set true if a snapshot of the XML Schema / DTD declarations must be stored on
+	 * the disk to avoid compiling unchanged grammars after a restart and false
+	 * otherwise.
+	 * 
+	 * @param persistentCache true if the persistent cache must be used.
+	 */
+	public void setPersistentCache(boolean persistentCache) {
+		this.persistentCache = persistentCache;
 	}
+
+	/**
+	 * Set the max number of grammars kept in the grammar pool.
+	 * 
+	 * @param grammarPoolSize the max number of grammars.
+	 */
+	public void setGrammarPoolSize(int grammarPoolSize) {
+		if (sharedCaches) {
+			// the size of a grammar pool shared with other sessions is not a setting of
+			// a session
+			return;
+		}
+		grammarPool.setMaxGrammars(grammarPoolSize);
 	}
 
 	public void registerModelProvider(ContentModelProvider modelProvider) {
@@ -10,6 +10,9 @@
  */
 package org.eclipse.lsp4xml.extensions.contentmodel.model;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import org.eclipse.lsp4xml.dom.DOMDocument;
 
 /**
@@ -35,6 +38,17 @@ public interface ContentModelProvider {
 
 	String getSystemId(DOMDocument xmlDocument, String namespaceURI);
 
+	/**
+	 * Returns the system ids of all the grammars declared by the given document
+	 * (ex : the location hints of all the namespaces of xsi:schemaLocation).
+	 * 
+	 * @param xmlDocument the DOM document.
+	 * @return the system ids of all the grammars declared by the given document.
+	 */
+	default Collection<String> getSystemIds(DOMDocument xmlDocument) {
+		return Collections.singleton(getSystemId(xmlDocument, xmlDocument.getNamespaceURI()));
+	}
+
 	CMDocument createCMDocument(String key);
 
 	CMDocument createInternalCMDocument(DOMDocument xmlDocument);
@@ -17,13 +17,21 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * File changed tracker.
  * 
+ * <p>
+ * Files are tracked with the {@link FilesWatcher} when it's possible, so
+ * {@link #isDirty()} doesn't access to the file system. Otherwise the last
+ * modified time of the files is checked.
+ * </p>
+ * 
  * @author Angelo ZERR
  *
  */
@@ -34,20 +42,38 @@ public class FilesChangedTracker {
 	private static class FileChangedTracker {
 
 		private final Path file;
+		private final boolean watched;
+		private long stamp;
 		private FileTime lastModified;
 
 		public FileChangedTracker(Path file) {
 			this.file = file;
+			boolean watched = false;
 			if (Files.exists(file)) {
-				try {
-					lastModified = Files.getLastModifiedTime(file);
-				} catch (IOException e) {
-					LOGGER.log(Level.SEVERE, "Get last modified time failed", e);
+				watched = FilesWatcher.getInstance().watch(file, this);
+				if (!watched) {
+					try {
+						lastModified = Files.getLastModifiedTime(file);
+					} catch (IOException e) {
+						LOGGER.log(Level.SEVERE, "Get last modified time failed", e);
+					}
 				}
 			}
+			this.watched = watched;
+			this.stamp = FilesWatcher.getInstance().getStamp(file);
 		}
 
-		public boolean isDirty() {
+		// the stamp is compared and updated atomically when several validations check
+		// the grammar at the same time.
+		public synchronized boolean isDirty() {
+			long currentStamp = FilesWatcher.getInstance().getStamp(file);
+			if (currentStamp != stamp) {
+				stamp = currentStamp;
+				return true;
+			}
+			if (watched) {
+				return false;
+			}
 			try {
 				if (!Files.exists(file)) {
 					// This case occurs when user delete the XML Schema / DTD file
@@ -86,6 +112,15 @@ public class FilesChangedTracker {
 		}
 	}
 
+	/**
+	 * Returns the tracked files.
+	 * 
+	 * @return the tracked files.
+	 */
+	public Collection<Path> getFiles() {
+		return files.stream().map(tracker -> tracker.file).collect(Collectors.toList());
+	}
+
 	/**
 	 * Returns true if one file has changed and false otherwise.
 	 * 
@@ -0,0 +1,308 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.model;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.lsp4xml.utils.URIUtils;
+
+/**
+ * Files watcher which tracks the changes of XML Schema / DTD files with a
+ * {@link WatchService}.
+ *
+ * <p>
+ * Each watched file has a stamp which changes when the file is created,
+ * modified or deleted. Getting the stamp of a file processes the pending events
+ * of the watch service, it doesn't access to the file system.
+ * </p>
+ *
+ * <p>
+ * A file is watched while an owner (ex : the tracker of a grammar) which
+ * watches it is reachable. When the last owner of a file is garbage collected,
+ * the file is no longer watched and the directory is unregistered from the
+ * watch service when it has no more watched files.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class FilesWatcher {
+
+	private static final Logger LOGGER = Logger.getLogger(FilesWatcher.class.getName());
+
+	private static final FilesWatcher INSTANCE = new FilesWatcher();
+
+	public static FilesWatcher getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * A watched file with its stamp and the number of owners which watch it.
+	 */
+	private static class WatchedFile {
+
+		private final AtomicLong stamp = new AtomicLong();
+
+		private int owners;
+	}
+
+	/**
+	 * A watched directory with its watch key and the number of its watched files.
+	 */
+	private static class WatchedDirectory {
+
+		private final WatchKey key;
+
+		private int files;
+
+		public WatchedDirectory(WatchKey key) {
+			this.key = key;
+		}
+	}
+
+	/**
+	 * Reference to an owner which watches a file, enqueued when the owner is
+	 * garbage collected.
+	 */
+	private static class OwnerReference extends WeakReference<Object> {
+
+		private final Path file;
+
+		public OwnerReference(Object owner, Path file, ReferenceQueue<Object> queue) {
+			super(owner, queue);
+			this.file = file;
+		}
+	}
+
+	private final WatchService watchService;
+
+	private final Map<Path, WatchedDirectory> watchedDirectories;
+
+	private final Map<Path, WatchedFile> watchedFiles;
+
+	private final Set<OwnerReference> owners;
+
+	private final ReferenceQueue<Object> releasedOwners;
+
+	// increased when some events are lost, in this case all files are considered
+	// as changed.
+	private final AtomicLong overflows;
+
+	FilesWatcher() {
+		this.watchService = createWatchService();
+		this.watchedDirectories = new HashMap<>();
+		this.watchedFiles = new ConcurrentHashMap<>();
+		this.owners = ConcurrentHashMap.newKeySet();
+		this.releasedOwners = new ReferenceQueue<>();
+		this.overflows = new AtomicLong();
+	}
+
+	private static WatchService createWatchService() {
+		try {
+			WatchService watchService = FileSystems.getDefault().newWatchService();
+			if (watchService.getClass().getName().endsWith("PollingWatchService")) {
+				// The watch service polls the file system every few seconds (ex : on Mac OS),
+				// changes would be detected too late.
+				watchService.close();
+				return null;
+			}
+			return watchService;
+		} catch (IOException | UnsupportedOperationException e) {
+			LOGGER.log(Level.WARNING, "Create watch service failed", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Watch the given file while the given owner is reachable and returns true if
+	 * the file can be watched and false otherwise.
+	 *
+	 * @param file  the file to watch.
+	 * @param owner the owner which watches the file.
+	 * @return true if the file can be watched and false otherwise.
+	 */
+	public boolean watch(Path file, Object owner) {
+		if (watchService == null) {
+			return false;
+		}
+		Path directory = file.getParent();
+		if (directory == null) {
+			return false;
+		}
+		releaseOwners();
+		synchronized (watchedDirectories) {
+			WatchedFile watchedFile = watchedFiles.get(file);
+			if (watchedFile == null) {
+				WatchedDirectory watchedDirectory = watchedDirectories.get(directory);
+				if (watchedDirectory == null) {
+					try {
+						WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+						watchedDirectory = new WatchedDirectory(key);
+						watchedDirectories.put(directory, watchedDirectory);
+					} catch (IOException | ClosedWatchServiceException e) {
+						LOGGER.log(Level.WARNING, "Watch directory '" + directory + "' failed", e);
+						return false;
+					}
+				}
+				watchedDirectory.files++;
+				watchedFile = new WatchedFile();
+				watchedFiles.put(file, watchedFile);
+			}
+			watchedFile.owners++;
+			owners.add(new OwnerReference(owner, file, releasedOwners));
+			return true;
+		}
+	}
+
+	/**
+	 * Stop watching the given file for one owner. The directory of the file is
+	 * unregistered when it has no more watched files.
+	 *
+	 * @param file the watched file.
+	 */
+	void unwatch(Path file) {
+		synchronized (watchedDirectories) {
+			WatchedFile watchedFile = watchedFiles.get(file);
+			if (watchedFile == null || --watchedFile.owners > 0) {
+				return;
+			}
+			watchedFiles.remove(file);
+			Path directory = file.getParent();
+			WatchedDirectory watchedDirectory = watchedDirectories.get(directory);
+			if (watchedDirectory != null && --watchedDirectory.files == 0) {
+				watchedDirectories.remove(directory);
+				watchedDirectory.key.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the given file is watched and false otherwise.
+	 *
+	 * @param file the file.
+	 * @return true if the given file is watched and false otherwise.
+	 */
+	public boolean isWatched(Path file) {
+		releaseOwners();
+		return watchedFiles.containsKey(file);
+	}
+
+	/**
+	 * Returns true if the given directory is registered in the watch service and
+	 * false otherwise.
+	 *
+	 * @param directory the directory.
+	 * @return true if the given directory is registered in the watch service and
+	 *         false otherwise.
+	 */
+	boolean isWatchedDirectory(Path directory) {
+		synchronized (watchedDirectories) {
+			return watchedDirectories.containsKey(directory);
+		}
+	}
+
+	/**
+	 * Returns the stamp of the given watched file. The stamp changes each time the
+	 * file is created, modified or deleted.
+	 *
+	 * @param file the watched file.
+	 * @return the stamp of the given watched file.
+	 */
+	public long getStamp(Path file) {
+		processEvents();
+		WatchedFile watchedFile = watchedFiles.get(file);
+		return overflows.get() + (watchedFile != null ? watchedFile.stamp.get() : 0);
+	}
+
+	/**
+	 * Notify that the file of the given URI has changed (ex : when it's saved by
+	 * the client) without waiting for the event of the watch service.
+	 *
+	 * @param fileURI the file URI.
+	 */
+	public void fileChanged(String fileURI) {
+		if (!URIUtils.isFileResource(fileURI)) {
+			return;
+		}
+		try {
+			fileChanged(Paths.get(new URI(fileURI)));
+		} catch (Exception e) {
+			LOGGER.log(Level.WARNING, "Invalid file URI '" + fileURI + "'", e);
+		}
+	}
+
+	private void fileChanged(Path file) {
+		// only the changes of the watched files are recorded
+		WatchedFile watchedFile = watchedFiles.get(file);
+		if (watchedFile != null) {
+			watchedFile.stamp.incrementAndGet();
+		}
+	}
+
+	private void releaseOwners() {
+		Reference<?> reference;
+		while ((reference = releasedOwners.poll()) != null) {
+			if (owners.remove(reference)) {
+				unwatch(((OwnerReference) reference).file);
+			}
+		}
+	}
+
+	private void processEvents() {
+		if (watchService == null) {
+			return;
+		}
+		releaseOwners();
+		WatchKey key;
+		while ((key = watchService.poll()) != null) {
+			Path directory = (Path) key.watchable();
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == OVERFLOW) {
+					overflows.incrementAndGet();
+				} else {
+					fileChanged(directory.resolve((Path) event.context()));
+				}
+			}
+			if (!key.reset()) {
+				synchronized (watchedDirectories) {
+					WatchedDirectory watchedDirectory = watchedDirectories.get(directory);
+					if (watchedDirectory != null && watchedDirectory.key == key) {
+						// The directory is deleted
+						watchedDirectories.remove(directory);
+						overflows.incrementAndGet();
+					}
+				}
+			}
+		}
+	}
+}
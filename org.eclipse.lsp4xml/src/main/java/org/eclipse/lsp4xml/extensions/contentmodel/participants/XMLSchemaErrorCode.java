@@ -16,7 +16,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.xerces.xni.XMLLocator;
-import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4xml.commons.BadLocationException;
 import org.eclipse.lsp4xml.dom.DOMDocument;
@@ -182,9 +181,7 @@ public enum XMLSchemaErrorCode implements IXMLErrorCode {
 				int startOffset = attrValueNode.getStart();
 				int endOffset = attrValueNode.getEnd();
 				try {
-					Position startPosition = document.positionAt(startOffset);
-					Position endPosition = document.positionAt(endOffset);
-					return new Range(startPosition, endPosition);
+					return document.rangeAt(startOffset, endOffset);
 				} catch (BadLocationException e) {
 					return null;
 				}
@@ -29,8 +29,12 @@ import org.eclipse.lsp4xml.utils.DOMUtils;
 public class ContentModelDiagnosticsParticipant implements IDiagnosticsParticipant {
 	private final XMLExtensionsRegistry registry;
 
+	// Xerces parsers reused across validations
+	private final LSPSAXParserPool parserPool;
+
 	public ContentModelDiagnosticsParticipant(XMLExtensionsRegistry registry) {
 		this.registry = registry;
+		this.parserPool = new LSPSAXParserPool();
 	}
 
 	@Override
@@ -46,7 +50,7 @@ public class ContentModelDiagnosticsParticipant implements IDiagnosticsParticipa
 		ContentModelManager manager = registry.getComponent(ContentModelManager.class);
 		XMLValidator.doDiagnostics(xmlDocument, entityResolver, diagnostics,
 				manager.getSettings(),
-				manager.getGrammarPool(), manager.getSettings(), monitor);
+				manager.getGrammarPool(), manager.getSettings(), parserPool, monitor);
 	}
 
 }
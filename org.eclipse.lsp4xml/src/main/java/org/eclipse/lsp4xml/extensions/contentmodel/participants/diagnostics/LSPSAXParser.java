@@ -0,0 +1,167 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.impl.XMLEntityManager;
+import org.apache.xerces.impl.XMLErrorReporter;
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.apache.xerces.xni.parser.XMLEntityResolver;
+import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLValidationSettings;
+import org.eclipse.lsp4xml.uriresolver.IExternalSchemaLocationProvider;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+
+/**
+ * Xerces SAX parser used to validate XML files which can be reused for several
+ * validations (see {@link LSPSAXParserPool}).
+ * 
+ * <p>
+ * Xerces resets the parser configuration and its components (scanner,
+ * validators, etc) before each parse. This class restores the features and
+ * properties which are customized by the XML validator for a given DOM
+ * document with {@link #clear()}.
+ * </p>
+ *
+ */
+class LSPSAXParser extends SAXParser {
+
+	private static final String ERROR_REPORTER = Constants.XERCES_PROPERTY_PREFIX + Constants.ERROR_REPORTER_PROPERTY;
+
+	private static final String ENTITY_MANAGER = Constants.XERCES_PROPERTY_PREFIX + Constants.ENTITY_MANAGER_PROPERTY;
+
+	private static final String ENTITY_RESOLVER = Constants.XERCES_PROPERTY_PREFIX
+			+ Constants.ENTITY_RESOLVER_PROPERTY;
+
+	private final LSPXMLParserConfiguration configuration;
+
+	private final String namespaceSchemaVersion;
+
+	private final XMLGrammarPool grammarPool;
+
+	private final boolean disallowDocTypeDecl;
+
+	private final boolean resolveExternalEntities;
+
+	private final XMLErrorReporter defaultErrorReporter;
+
+	private final XMLEntityManager defaultEntityManager;
+
+	private LSPXMLEntityManager dtdEntityManager;
+
+	public LSPSAXParser(String namespaceSchemaVersion, XMLGrammarPool grammarPool,
+			XMLValidationSettings validationSettings) {
+		this(new LSPXMLParserConfiguration(namespaceSchemaVersion, grammarPool, false, validationSettings),
+				namespaceSchemaVersion, grammarPool, validationSettings);
+	}
+
+	private LSPSAXParser(LSPXMLParserConfiguration configuration, String namespaceSchemaVersion,
+			XMLGrammarPool grammarPool, XMLValidationSettings validationSettings) {
+		super(configuration);
+		this.configuration = configuration;
+		this.namespaceSchemaVersion = namespaceSchemaVersion;
+		this.grammarPool = grammarPool;
+		this.disallowDocTypeDecl = isDisallowDocTypeDecl(validationSettings);
+		this.resolveExternalEntities = isResolveExternalEntities(validationSettings);
+		this.defaultErrorReporter = (XMLErrorReporter) configuration.getProperty(ERROR_REPORTER);
+		this.defaultEntityManager = (XMLEntityManager) configuration.getProperty(ENTITY_MANAGER);
+	}
+
+	/**
+	 * Returns true if the parser was created with the given schema version,
+	 * grammar pool and validation settings and false otherwise.
+	 * 
+	 * @param namespaceSchemaVersion the XML Schema version.
+	 * @param grammarPool            the grammar pool.
+	 * @param validationSettings     the validation settings.
+	 * @return true if the parser was created with the given schema version,
+	 *         grammar pool and validation settings and false otherwise.
+	 */
+	public boolean isCompatible(String namespaceSchemaVersion, XMLGrammarPool grammarPool,
+			XMLValidationSettings validationSettings) {
+		return this.grammarPool == grammarPool && this.disallowDocTypeDecl == isDisallowDocTypeDecl(validationSettings)
+				&& this.resolveExternalEntities == isResolveExternalEntities(validationSettings)
+				&& (this.namespaceSchemaVersion == null ? namespaceSchemaVersion == null
+						: this.namespaceSchemaVersion.equals(namespaceSchemaVersion));
+	}
+
+	/**
+	 * Disable only the DTD validation if required.
+	 * 
+	 * @param disableDTDValidation true if DTD validation must be disabled.
+	 */
+	public void setDisableDTDValidation(boolean disableDTDValidation) {
+		configuration.setDisableDTDValidation(disableDTDValidation);
+	}
+
+	/**
+	 * Set the entity resolver to use to resolve DTD, XML Schema, entities.
+	 * 
+	 * @param entityResolver the entity resolver.
+	 */
+	public void setXMLEntityResolver(XMLEntityResolver entityResolver) {
+		configuration.setProperty(ENTITY_RESOLVER, entityResolver);
+	}
+
+	/**
+	 * Set the error reporter to use to report Xerces errors.
+	 * 
+	 * @param reporter the error reporter.
+	 */
+	public void setErrorReporter(XMLErrorReporter reporter) {
+		configuration.setProperty(ERROR_REPORTER, reporter);
+	}
+
+	/**
+	 * Returns the entity manager which reports the DTD not found error and use
+	 * it for the next parse.
+	 * 
+	 * @return the entity manager which reports the DTD not found error.
+	 */
+	public LSPXMLEntityManager useDTDEntityManager() {
+		if (dtdEntityManager == null) {
+			dtdEntityManager = new LSPXMLEntityManager();
+		}
+		dtdEntityManager.reset(configuration);
+		configuration.setProperty(ENTITY_MANAGER, dtdEntityManager);
+		return dtdEntityManager;
+	}
+
+	/**
+	 * Restore the state of the parser like it was created to reuse it for another
+	 * validation.
+	 * 
+	 * @throws SAXNotSupportedException
+	 * @throws SAXNotRecognizedException
+	 */
+	public void clear() throws SAXNotRecognizedException, SAXNotSupportedException {
+		setContentHandler(null);
+		setFeature("http://xml.org/sax/features/validation", false); //$NON-NLS-1$
+		setFeature("http://apache.org/xml/features/validation/schema", false); //$NON-NLS-1$
+		setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", true); //$NON-NLS-1$
+		setProperty(IExternalSchemaLocationProvider.NO_NAMESPACE_SCHEMA_LOCATION, null);
+		configuration.setDisableDTDValidation(false);
+		configuration.setProperty(ENTITY_RESOLVER, null);
+		configuration.setProperty(ERROR_REPORTER, defaultErrorReporter);
+		configuration.setProperty(ENTITY_MANAGER, defaultEntityManager);
+		if (dtdEntityManager != null) {
+			dtdEntityManager.setDocument(null, null);
+		}
+	}
+
+	private static boolean isDisallowDocTypeDecl(XMLValidationSettings validationSettings) {
+		return validationSettings != null ? validationSettings.isDisallowDocTypeDecl() : false;
+	}
+
+	private static boolean isResolveExternalEntities(XMLValidationSettings validationSettings) {
+		return validationSettings != null ? validationSettings.isResolveExternalEntities() : false;
+	}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLValidationSettings;
+import org.xml.sax.SAXException;
+
+/**
+ * Pool of {@link LSPSAXParser} used to validate XML files.
+ * 
+ * <p>
+ * Creating a Xerces parser configuration (scanners, validators, symbol table,
+ * etc) is expensive, so parsers are reused for the validations which use the
+ * same XML Schema version, grammar pool and validation settings.
+ * </p>
+ *
+ */
+class LSPSAXParserPool {
+
+	private static final Logger LOGGER = Logger.getLogger(LSPSAXParserPool.class.getName());
+
+	private static final int MAX_IDLE_PARSERS = 8;
+
+	private final List<LSPSAXParser> idleParsers;
+
+	public LSPSAXParserPool() {
+		this.idleParsers = new ArrayList<>();
+	}
+
+	/**
+	 * Returns an idle parser compatible with the given settings or a new parser if
+	 * there is no idle parser.
+	 * 
+	 * @param namespaceSchemaVersion the XML Schema version.
+	 * @param grammarPool            the grammar pool.
+	 * @param validationSettings     the validation settings.
+	 * @return an idle parser compatible with the given settings or a new parser.
+	 */
+	public LSPSAXParser acquire(String namespaceSchemaVersion, XMLGrammarPool grammarPool,
+			XMLValidationSettings validationSettings) {
+		synchronized (idleParsers) {
+			for (Iterator<LSPSAXParser> iterator = idleParsers.iterator(); iterator.hasNext();) {
+				LSPSAXParser parser = iterator.next();
+				if (parser.isCompatible(namespaceSchemaVersion, grammarPool, validationSettings)) {
+					iterator.remove();
+					return parser;
+				}
+			}
+		}
+		return new LSPSAXParser(namespaceSchemaVersion, grammarPool, validationSettings);
+	}
+
+	/**
+	 * Give back the given parser to the pool.
+	 * 
+	 * @param parser the parser which is not used anymore.
+	 */
+	public void release(LSPSAXParser parser) {
+		try {
+			parser.clear();
+		} catch (SAXException e) {
+			LOGGER.log(Level.WARNING, "Cannot clear the SAX parser", e);
+			return;
+		}
+		synchronized (idleParsers) {
+			if (idleParsers.size() >= MAX_IDLE_PARSERS) {
+				// remove the oldest parser (which is perhaps not compatible with the current
+				// settings)
+				idleParsers.remove(0);
+			}
+			idleParsers.add(parser);
+		}
+	}
+}
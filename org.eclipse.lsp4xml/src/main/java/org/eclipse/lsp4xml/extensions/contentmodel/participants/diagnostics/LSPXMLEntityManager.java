@@ -0,0 +1,73 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+
+import org.apache.xerces.impl.XMLEntityManager;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMDocumentType;
+import org.eclipse.lsp4xml.extensions.contentmodel.participants.DTDErrorCode;
+
+/**
+ * Custom Xerces entity manager to collect the error when the DTD declared in
+ * the DOCTYPE of the validated DOM document doesn't exist.
+ *
+ */
+class LSPXMLEntityManager extends XMLEntityManager {
+
+	private static final String DTD_NOT_FOUND = "Cannot find DTD ''{0}''.\nCreate the DTD file or configure an XML catalog for this DTD.";
+
+	private DOMDocument document;
+
+	private LSPErrorReporterForXML reporter;
+
+	/**
+	 * Set the DOM document which is validated and the reporter to use to report
+	 * the DTD not found error.
+	 * 
+	 * @param document the DOM document and null to stop to report errors.
+	 * @param reporter the reporter and null to stop to report errors.
+	 */
+	public void setDocument(DOMDocument document, LSPErrorReporterForXML reporter) {
+		this.document = document;
+		this.reporter = reporter;
+	}
+
+	@Override
+	public String setupCurrentEntity(String name, XMLInputSource xmlInputSource, boolean literal, boolean isExternal)
+			throws IOException, XNIException {
+		// Catch the setupCurrentEntity method which throws an IOException when DTD is
+		// not found
+		try {
+			return super.setupCurrentEntity(name, xmlInputSource, literal, isExternal);
+		} catch (IOException e) {
+			if (document != null && reporter != null) {
+				// Report the DTD invalid error
+				try {
+					DOMDocumentType docType = document.getDoctype();
+					Range range = new Range(document.positionAt(docType.getSystemIdNode().getStart()),
+							document.positionAt(docType.getSystemIdNode().getEnd()));
+					reporter.addDiagnostic(range, MessageFormat.format(DTD_NOT_FOUND, xmlInputSource.getSystemId()),
+							DiagnosticSeverity.Error, DTDErrorCode.dtd_not_found.getCode());
+				} catch (BadLocationException e1) {
+					// Do nothing
+				}
+			}
+			throw e;
+		}
+	}
+}
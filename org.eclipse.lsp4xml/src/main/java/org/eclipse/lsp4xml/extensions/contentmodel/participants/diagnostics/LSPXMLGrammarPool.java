@@ -16,25 +16,42 @@
  */
 package org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics;
 
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.xerces.impl.dtd.DTDGrammar;
 import org.apache.xerces.impl.xs.SchemaGrammar;
 import org.apache.xerces.xni.grammars.Grammar;
 import org.apache.xerces.xni.grammars.XMLGrammarDescription;
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.eclipse.lsp4xml.commons.metrics.CacheStatistics;
 import org.eclipse.lsp4xml.extensions.contentmodel.model.FilesChangedTracker;
 import org.eclipse.lsp4xml.extensions.dtd.utils.DTDUtils;
 import org.eclipse.lsp4xml.extensions.xsd.utils.XSDUtils;
 
-import com.google.common.base.Objects;
-
 /**
  * LSP XML grammar pool.
  * 
  * <p>
- * This class is a copy/paste of
+ * This class is based on
  * {@link org.apache.xerces.util.XMLGrammarPoolImpl.XMLGrammarPoolImpl} from
- * Xerces adapated to use .lsp4xml cache.
+ * Xerces adapated to use .lsp4xml cache:
  * </p>
+ * <ul>
+ * <li>grammars are stored by expanded system id in a concurrent map, so
+ * validations done in several threads don't wait for each other.</li>
+ * <li>grammars whose XML Schema / DTD files have changed are removed when they
+ * are retrieved.</li>
+ * <li>the number of grammars is bounded, when it's reached, the least recently
+ * used grammar is evicted.</li>
+ * <li>hits, misses and evictions are recorded in {@link CacheStatistics}, the
+ * statistics of the pools of the language server are available in the metrics
+ * report to tune the max number of grammars.</li>
+ * </ul>
  * 
  * @author Jeffrey Rodriguez, IBM
  * @author Andy Clark, IBM
@@ -47,17 +64,45 @@ import com.google.common.base.Objects;
  */
 public class LSPXMLGrammarPool implements XMLGrammarPool {
 
-	private static final int TABLE_SIZE = 11;
+	/**
+	 * Default max number of grammars stored in the pool.
+	 */
+	public static final int DEFAULT_MAX_GRAMMARS = 500;
+
+	/** Grammars by expanded system id. */
+	private final Map<String, Entry> fGrammars;
+
+	private final Object evictionLock = new Object();
+
+	// Increased each time a grammar is stored or retrieved to know the least
+	// recently used grammar.
+	private final AtomicLong clock;
 
-	/** Grammars. */
-	private final Entry[] fGrammars;
+	private final CacheStatistics statistics;
+
+	private volatile int maxGrammars;
 
 	public LSPXMLGrammarPool() {
-		this(TABLE_SIZE);
+		this(DEFAULT_MAX_GRAMMARS);
 	}
 
-	public LSPXMLGrammarPool(int initialCapacity) {
-		fGrammars = new Entry[initialCapacity];
+	public LSPXMLGrammarPool(int maxGrammars) {
+		this(maxGrammars, new CacheStatistics());
+	}
+
+	/**
+	 * Create a grammar pool which records its hits, misses and evictions in the
+	 * given statistics.
+	 * 
+	 * @param maxGrammars the max number of grammars stored in the pool.
+	 * @param statistics  the statistics (ex : the statistics of the metrics
+	 *                    report shared by all grammar pools).
+	 */
+	public LSPXMLGrammarPool(int maxGrammars, CacheStatistics statistics) {
+		fGrammars = new ConcurrentHashMap<>();
+		clock = new AtomicLong();
+		this.statistics = statistics;
+		setMaxGrammars(maxGrammars);
 	}
 
 	@Override
@@ -82,72 +127,61 @@ public class LSPXMLGrammarPool implements XMLGrammarPool {
 	}
 
 	private void putGrammar(Grammar grammar) {
-		synchronized (fGrammars) {
-			XMLGrammarDescription desc = grammar.getGrammarDescription();
-			int hash = hashCode(desc);
-			int index = (hash & 0x7FFFFFFF) % fGrammars.length;
-			for (Entry entry = fGrammars[index]; entry != null; entry = entry.next) {
-				if (entry.hash == hash && equals(entry.desc, desc)) {
-					entry.grammar = grammar;
-					return;
-				}
-			}
-			// create a new entry
-			Entry entry = new Entry(hash, desc, grammar, fGrammars[index]);
-			fGrammars[index] = entry;
+		String key = grammar.getGrammarDescription().getExpandedSystemId();
+		if (key == null) {
+			// the grammar could not be retrieved
+			return;
 		}
+		fGrammars.put(key, new Entry(grammar, clock.incrementAndGet()));
+		evictGrammars();
 	}
 
 	/**
-	 * Returns the grammar associated to the specified grammar description.
-	 * Currently, the root element name is used as the key for DTD grammars and the
-	 * target namespace is used as the key for Schema grammars.
+	 * Returns the grammar associated to the specified grammar description. The
+	 * expanded system id is used as the key for DTD and Schema grammars.
 	 *
 	 * @param desc The Grammar Description.
 	 */
 	private Grammar getGrammar(XMLGrammarDescription desc) {
-		synchronized (fGrammars) {
-			int hash = hashCode(desc);
-			int index = (hash & 0x7FFFFFFF) % fGrammars.length;
-			for (Entry entry = fGrammars[index]; entry != null; entry = entry.next) {
-				if ((entry.hash == hash) && equals(entry.desc, desc)) {
-					if (entry.isDirty()) {
-						removeGrammar(entry.desc);
-						return null;
-					}
-					return entry.grammar;
-				}
-			}
+		String key = desc.getExpandedSystemId();
+		Entry entry = key != null ? fGrammars.get(key) : null;
+		if (entry == null) {
+			statistics.recordMiss();
 			return null;
 		}
+		if (entry.isDirty()) {
+			fGrammars.remove(key, entry);
+			statistics.recordMiss();
+			return null;
+		}
+		entry.lastAccess = clock.incrementAndGet();
+		statistics.recordHit();
+		return entry.grammar;
 	}
 
 	/**
-	 * Removes the grammar associated to the specified grammar description from the
-	 * grammar pool and returns the removed grammar. Currently, the root element
-	 * name is used as the key for DTD grammars and the target namespace is used as
-	 * the key for Schema grammars.
-	 *
-	 * @param desc The Grammar Description.
-	 * @return The removed grammar.
+	 * Evict the least recently used grammars while the pool contains more grammars
+	 * than the max number of grammars.
 	 */
-	private Grammar removeGrammar(XMLGrammarDescription desc) {
-		synchronized (fGrammars) {
-			int hash = hashCode(desc);
-			int index = (hash & 0x7FFFFFFF) % fGrammars.length;
-			for (Entry entry = fGrammars[index], prev = null; entry != null; prev = entry, entry = entry.next) {
-				if ((entry.hash == hash) && equals(entry.desc, desc)) {
-					if (prev != null) {
-						prev.next = entry.next;
-					} else {
-						fGrammars[index] = entry.next;
+	private void evictGrammars() {
+		if (fGrammars.size() <= maxGrammars) {
+			return;
+		}
+		synchronized (evictionLock) {
+			while (fGrammars.size() > maxGrammars) {
+				Map.Entry<String, Entry> lru = null;
+				for (Map.Entry<String, Entry> entry : fGrammars.entrySet()) {
+					if (lru == null || entry.getValue().lastAccess < lru.getValue().lastAccess) {
+						lru = entry;
 					}
-					Grammar tempGrammar = entry.grammar;
-					entry.grammar = null;
-					return tempGrammar;
+				}
+				if (lru == null) {
+					return;
+				}
+				if (fGrammars.remove(lru.getKey(), lru.getValue())) {
+					statistics.recordEviction();
 				}
 			}
-			return null;
 		}
 	}
 
@@ -163,59 +197,97 @@ public class LSPXMLGrammarPool implements XMLGrammarPool {
 
 	@Override
 	public void clear() {
-		for (int i = 0; i < fGrammars.length; i++) {
-			if (fGrammars[i] != null) {
-				fGrammars[i].clear();
-				fGrammars[i] = null;
-			}
+		fGrammars.clear();
+	}
+
+	/**
+	 * Set the max number of grammars stored in the pool and evict the least
+	 * recently used grammars if needed.
+	 * 
+	 * @param maxGrammars the max number of grammars stored in the pool.
+	 */
+	public void setMaxGrammars(int maxGrammars) {
+		if (maxGrammars < 1) {
+			throw new IllegalArgumentException("Max grammars must be greater than 0, but was " + maxGrammars);
 		}
+		this.maxGrammars = maxGrammars;
+		evictGrammars();
 	}
 
 	/**
-	 * This method checks whether two grammars are the same. Currently, we compare
-	 * the root element names for DTD grammars and the target namespaces for Schema
-	 * grammars. The application can override this behaviour and add its own logic.
-	 *
-	 * @param desc1 The grammar description
-	 * @param desc2 The grammar description of the grammar to be compared to
-	 * @return True if the grammars are equal, otherwise false
+	 * Returns the max number of grammars stored in the pool.
+	 * 
+	 * @return the max number of grammars stored in the pool.
+	 */
+	public int getMaxGrammars() {
+		return maxGrammars;
+	}
+
+	/**
+	 * Returns the files (root and included / imported) of the grammar stored with
+	 * the given expanded system id and null if the grammar is not stored.
+	 * 
+	 * @param expandedSystemId the expanded system id of the grammar.
+	 * @return the files of the grammar stored with the given expanded system id
+	 *         and null if the grammar is not stored.
 	 */
-	public boolean equals(XMLGrammarDescription desc1, XMLGrammarDescription desc2) {
-		String systemId1 = desc1.getExpandedSystemId();
-		String systemId2 = desc2.getExpandedSystemId();
-		if (systemId1 != null && systemId2 != null) {
-			return Objects.equal(systemId1, systemId2);
+	public Collection<Path> getGrammarFiles(String expandedSystemId) {
+		Entry entry = expandedSystemId != null ? fGrammars.get(expandedSystemId) : null;
+		if (entry == null) {
+			return null;
 		}
-		return false; // desc1.equals(desc2);
+		return entry.tracker != null ? entry.tracker.getFiles() : Collections.emptyList();
 	}
 
 	/**
-	 * Returns the hash code value for the given grammar description.
-	 *
-	 * @param desc The grammar description
-	 * @return The hash code value
+	 * Returns the number of grammars stored in the pool.
+	 * 
+	 * @return the number of grammars stored in the pool.
 	 */
-	public int hashCode(XMLGrammarDescription desc) {
-		return desc.hashCode();
+	public int size() {
+		return fGrammars.size();
 	}
 
 	/**
-	 * This class is a grammar pool entry. Each entry acts as a node in a linked
-	 * list.
+	 * Returns the number of grammar retrieves which have returned a grammar.
+	 * 
+	 * @return the number of grammar retrieves which have returned a grammar.
 	 */
-	protected static final class Entry {
-		public int hash;
-		public XMLGrammarDescription desc;
-		public Grammar grammar;
-		public Entry next;
+	public long getHitCount() {
+		return statistics.getHitCount();
+	}
+
+	/**
+	 * Returns the number of grammar retrieves which have returned nothing (grammar
+	 * not stored or files of the grammar have changed).
+	 * 
+	 * @return the number of grammar retrieves which have returned nothing.
+	 */
+	public long getMissCount() {
+		return statistics.getMissCount();
+	}
+
+	/**
+	 * Returns the number of grammars evicted because the pool was full.
+	 * 
+	 * @return the number of grammars evicted because the pool was full.
+	 */
+	public long getEvictionCount() {
+		return statistics.getEvictionCount();
+	}
+
+	/**
+	 * This class is a grammar pool entry.
+	 */
+	private static final class Entry {
+		final Grammar grammar;
 		private final FilesChangedTracker tracker;
+		volatile long lastAccess;
 
-		protected Entry(int hash, XMLGrammarDescription desc, Grammar grammar, Entry next) {
-			this.hash = hash;
-			this.desc = desc;
+		Entry(Grammar grammar, long lastAccess) {
 			this.grammar = grammar;
-			this.next = next;
 			this.tracker = create(grammar);
+			this.lastAccess = lastAccess;
 		}
 
 		private static FilesChangedTracker create(Grammar grammar) {
@@ -228,19 +300,8 @@ public class LSPXMLGrammarPool implements XMLGrammarPool {
 			return null;
 		}
 
-		public boolean isDirty() {
+		public synchronized boolean isDirty() {
 			return tracker != null ? tracker.isDirty() : true;
 		}
-
-		// clear this entry; useful to promote garbage collection
-		// since reduces reference count of objects to be destroyed
-		protected void clear() {
-			desc = null;
-			grammar = null;
-			if (next != null) {
-				next.clear();
-				next = null;
-			}
-		}
 	}
 }
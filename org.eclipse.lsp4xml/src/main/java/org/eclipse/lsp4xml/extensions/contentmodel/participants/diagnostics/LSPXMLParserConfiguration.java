@@ -12,6 +12,7 @@ package org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics;
 import org.apache.xerces.impl.Constants;
 import org.apache.xerces.impl.dtd.XMLDTDValidator;
 import org.apache.xerces.impl.xs.XMLSchemaValidator;
+import org.apache.xerces.impl.xs.XSMessageFormatter;
 import org.apache.xerces.parsers.XIncludeAwareParserConfiguration;
 import org.apache.xerces.xni.XNIException;
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
@@ -41,7 +42,7 @@ class LSPXMLParserConfiguration extends XIncludeAwareParserConfiguration {
 
 	private final String namespaceSchemaVersion;
 
-	private final boolean disableDTDValidation;
+	private boolean disableDTDValidation;
 
 	public LSPXMLParserConfiguration(String namespaceSchemaVersion, XMLGrammarPool grammarPool, boolean disableDTDValidation,
 			XMLValidationSettings validationSettings) {
@@ -58,18 +59,45 @@ class LSPXMLParserConfiguration extends XIncludeAwareParserConfiguration {
 		super.setFeature("http://xml.org/sax/features/external-parameter-entities", resolveExternalEntities);
 	}
 
+	/**
+	 * Disable only the DTD validation for the next parse if required.
+	 * 
+	 * @param disableDTDValidation true if DTD validation must be disabled.
+	 */
+	public void setDisableDTDValidation(boolean disableDTDValidation) {
+		this.disableDTDValidation = disableDTDValidation;
+	}
+
 	@Override
 	protected void configurePipeline() {
+		createSchemaValidator();
 		super.configurePipeline();
 		configureSchemaVersion();
 	}
 
 	@Override
 	protected void configureXML11Pipeline() {
+		createSchemaValidator();
 		super.configureXML11Pipeline();
 		configureSchemaVersion();
 	}
 
+	/**
+	 * Create the XML Schema validator like Xerces does, but with a validator which
+	 * can be reused to validate another XML document.
+	 */
+	private void createSchemaValidator() {
+		if (fSchemaValidator == null && getFeature(XMLSCHEMA_VALIDATION)) {
+			fSchemaValidator = new LSPXMLSchemaValidator();
+			setProperty(SCHEMA_VALIDATOR, fSchemaValidator);
+			addCommonComponent(fSchemaValidator);
+			fSchemaValidator.reset(this);
+			if (fErrorReporter.getMessageFormatter(XSMessageFormatter.SCHEMA_DOMAIN) == null) {
+				fErrorReporter.putMessageFormatter(XSMessageFormatter.SCHEMA_DOMAIN, new XSMessageFormatter());
+			}
+		}
+	}
+
 	private void configureSchemaVersion() {
 		if (namespaceSchemaVersion != null) {
 			XMLSchemaValidator validator = (XMLSchemaValidator) super.getProperty(SCHEMA_VALIDATOR);
@@ -120,4 +148,23 @@ class LSPXMLParserConfiguration extends XIncludeAwareParserConfiguration {
 		}
 	}
 
+	/**
+	 * XML Schema validator which forgets the XML Schema of the previous parse.
+	 * 
+	 * <p>
+	 * Xerces retrieves a grammar from the grammar pool with the grammar description
+	 * of the last loaded XML Schema before resetting it. When the validator is
+	 * reused, an XML document bound with xsi:noNamespaceSchemaLocation is validated
+	 * with the XML Schema of the previous XML document.
+	 * </p>
+	 */
+	private static class LSPXMLSchemaValidator extends XMLSchemaValidator {
+
+		@Override
+		public void reset(XMLComponentManager componentManager) throws XMLConfigurationException {
+			super.reset(componentManager);
+			fXSDDescription.reset();
+		}
+	}
+
 }
@@ -10,33 +10,26 @@
  */
 package org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.text.MessageFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CancellationException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.xerces.impl.XMLEntityManager;
 import org.apache.xerces.parsers.SAXParser;
-import org.apache.xerces.xni.XNIException;
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
 import org.apache.xerces.xni.parser.XMLEntityResolver;
-import org.apache.xerces.xni.parser.XMLInputSource;
-import org.apache.xerces.xni.parser.XMLParserConfiguration;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DiagnosticSeverity;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
-import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.commons.CharSequenceReader;
+import org.eclipse.lsp4xml.commons.Rope;
 import org.eclipse.lsp4xml.dom.DOMDocument;
 import org.eclipse.lsp4xml.dom.DOMDocumentType;
 import org.eclipse.lsp4xml.dom.DOMElement;
-import org.eclipse.lsp4xml.extensions.contentmodel.participants.DTDErrorCode;
 import org.eclipse.lsp4xml.extensions.contentmodel.settings.ContentModelSettings;
 import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLValidationSettings;
 import org.eclipse.lsp4xml.services.extensions.diagnostics.LSPContentHandler;
@@ -56,11 +49,25 @@ public class XMLValidator {
 
 	private static final Logger LOGGER = Logger.getLogger(XMLValidator.class.getName());
 
-	private static final String DTD_NOT_FOUND = "Cannot find DTD ''{0}''.\nCreate the DTD file or configure an XML catalog for this DTD.";
-
 	public static void doDiagnostics(DOMDocument document, XMLEntityResolver entityResolver,
 			List<Diagnostic> diagnostics, ContentModelSettings contentModelSettings, XMLGrammarPool grammarPool,
 			ContentModelSettings settings, CancelChecker monitor) {
+		doDiagnostics(document, entityResolver, diagnostics, contentModelSettings, grammarPool, settings, null,
+				monitor);
+	}
+
+	/**
+	 * Validate the given DOM document with a parser coming from the given pool.
+	 * 
+	 * @param parserPool the pool of parsers to use and null to create a new
+	 *                   parser.
+	 */
+	static void doDiagnostics(DOMDocument document, XMLEntityResolver entityResolver, List<Diagnostic> diagnostics,
+			ContentModelSettings contentModelSettings, XMLGrammarPool grammarPool, ContentModelSettings settings,
+			LSPSAXParserPool parserPool, CancelChecker monitor) {
+		LSPSAXParser parser = null;
+		// the parser can be reused only if Xerces has not thrown an unexpected error
+		boolean reusable = false;
 		try {
 			
 			// Configure the XSD schema version
@@ -68,19 +75,23 @@ public class XMLValidator {
 			XMLValidationSettings validationSettings = contentModelSettings != null
 					? contentModelSettings.getValidation()
 					: null;
-			LSPXMLParserConfiguration configuration = new LSPXMLParserConfiguration(namespaceSchemaVersion, grammarPool,
-					isDisableOnlyDTDValidation(document), validationSettings);
+			parser = parserPool != null
+					? parserPool.acquire(namespaceSchemaVersion, grammarPool, validationSettings)
+					: new LSPSAXParser(namespaceSchemaVersion, grammarPool, validationSettings);
+			parser.setDisableDTDValidation(isDisableOnlyDTDValidation(document));
 
 			if (entityResolver != null) {
-				configuration.setProperty("http://apache.org/xml/properties/internal/entity-resolver", entityResolver); //$NON-NLS-1$
+				parser.setXMLEntityResolver(entityResolver);
 			}
 
 			final LSPErrorReporterForXML reporter = new LSPErrorReporterForXML(document, diagnostics);
-			boolean externalDTDValid = checkExternalDTD(document, reporter, configuration);
+			if (validationSettings != null) {
+				reporter.setMaxDiagnostics(validationSettings.getMaxDiagnostics());
+			}
+			boolean externalDTDValid = checkExternalDTD(document, reporter, parser);
 
-			SAXParser parser = new SAXParser(configuration);
 			// Add LSP error reporter to fill LSP diagnostics from Xerces errors
-			parser.setProperty("http://apache.org/xml/properties/internal/error-reporter", reporter);
+			parser.setErrorReporter(reporter);
 			parser.setFeature("http://apache.org/xml/features/continue-after-fatal-error", false); //$NON-NLS-1$
 			parser.setFeature("http://xml.org/sax/features/namespace-prefixes", true /* document.hasNamespaces() */); //$NON-NLS-1$
 			parser.setFeature("http://xml.org/sax/features/namespaces", true /* document.hasNamespaces() */); //$NON-NLS-1$
@@ -110,16 +121,22 @@ public class XMLValidator {
 			String content = document.getText();
 			String uri = document.getDocumentURI();
 			InputSource inputSource = new InputSource();
-			inputSource.setByteStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+			inputSource.setCharacterStream(new CharSequenceReader(content));
 			inputSource.setSystemId(uri);
 			parser.parse(inputSource);
-
+			reusable = true;
 		} catch (IOException | SAXException | CancellationException exception) {
 			// ignore error
+			reusable = true;
 		} catch (CacheResourceDownloadingException e) {
+			reusable = true;
 			throw e;
 		} catch (Exception e) {
 			LOGGER.log(Level.SEVERE, "Unexpected XMLValidator error", e);
+		} finally {
+			if (parserPool != null && parser != null && reusable) {
+				parserPool.release(parser);
+			}
 		}
 	}
 
@@ -152,14 +169,14 @@ public class XMLValidator {
 	 * Returns true if the given document has a valid DTD (or doesn't define a DTD)
 	 * and false otherwise.
 	 * 
-	 * @param document      the DOM document
-	 * @param reporter      the reporter
-	 * @param configuration the configuration
+	 * @param document the DOM document
+	 * @param reporter the reporter
+	 * @param parser   the parser
 	 * @return true if the given document has a valid DTD (or doesn't define a DTD)
 	 *         and false otherwise.
 	 */
 	private static boolean checkExternalDTD(DOMDocument document, LSPErrorReporterForXML reporter,
-			XMLParserConfiguration configuration) {
+			LSPSAXParser parser) {
 		if (!document.hasDTD()) {
 			return true;
 		}
@@ -180,42 +197,17 @@ public class XMLValidator {
 		// Parse only the DOCTYPE of the DOM document
 
 		int end = document.getDoctype().getEnd();
-		String xml = document.getText().substring(0, end);
-		xml += "<root/>";
+		CharSequence xml = Rope.of(document.getText()).subSequence(0, end).replace(end, end, "<root/>");
 		try {
 
 			// Customize the entity manager to collect the error when DTD doesn't exist.
-			XMLEntityManager entityManager = new XMLEntityManager() {
-				@Override
-				public String setupCurrentEntity(String name, XMLInputSource xmlInputSource, boolean literal,
-						boolean isExternal) throws IOException, XNIException {
-					// Catch the setupCurrentEntity method which throws an IOException when DTD is
-					// not found
-					try {
-						return super.setupCurrentEntity(name, xmlInputSource, literal, isExternal);
-					} catch (IOException e) {
-						// Report the DTD invalid error
-						try {
-							Range range = new Range(document.positionAt(docType.getSystemIdNode().getStart()),
-									document.positionAt(docType.getSystemIdNode().getEnd()));
-							reporter.addDiagnostic(range,
-									MessageFormat.format(DTD_NOT_FOUND, xmlInputSource.getSystemId()),
-									DiagnosticSeverity.Error, DTDErrorCode.dtd_not_found.getCode());
-						} catch (BadLocationException e1) {
-							// Do nothing
-						}
-						throw e;
-					}
-				}
-			};
-			entityManager.reset(configuration);
+			LSPXMLEntityManager entityManager = parser.useDTDEntityManager();
+			entityManager.setDocument(document, reporter);
 
-			SAXParser parser = new SAXParser(configuration);
-			parser.setProperty("http://apache.org/xml/properties/internal/entity-manager", entityManager);
 			parser.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", true);
 
 			InputSource inputSource = new InputSource();
-			inputSource.setByteStream(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+			inputSource.setCharacterStream(new CharSequenceReader(xml));
 			inputSource.setSystemId(document.getDocumentURI());
 			parser.parse(inputSource);
 		} catch (SAXException | CancellationException exception) {
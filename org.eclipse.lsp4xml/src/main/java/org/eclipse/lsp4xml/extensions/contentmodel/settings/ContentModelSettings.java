@@ -20,6 +20,10 @@ public class ContentModelSettings {
 
 	private Boolean useCache;
 
+	private Integer grammarPoolSize;
+
+	private Boolean persistentCache;
+
 	private String[] catalogs;
 
 	private XMLFileAssociation[] fileAssociations;
@@ -47,6 +51,48 @@ public class ContentModelSettings {
 		this.useCache = useCache;
 	}
 
+	/**
+	 * Returns the max number of compiled XML Schema / DTD grammars kept in memory
+	 * and null if it's not set.
+	 * 
+	 * @return the max number of compiled XML Schema / DTD grammars kept in memory
+	 *         and null if it's not set.
+	 */
+	public Integer getGrammarPoolSize() {
+		return grammarPoolSize;
+	}
+
+	/**
+	 * Set the max number of compiled XML Schema / DTD grammars kept in memory. When
+	 * it's reached, the least recently used grammar is evicted.
+	 * 
+	 * @param grammarPoolSize the max number of grammars.
+	 */
+	public void setGrammarPoolSize(Integer grammarPoolSize) {
+		this.grammarPoolSize = grammarPoolSize;
+	}
+
+	/**
+	 * Returns true if a snapshot of the XML Schema / DTD declarations must be
+	 * stored on the disk to load unchanged grammars without compiling them after a
+	 * restart and null if it's not set.
+	 * 
+	 * @return true if the persistent cache must be used and null if it's not set.
+	 */
+	public Boolean isPersistentCache() {
+		return persistentCache;
+	}
+
+	/**
+	 * Set true if a snapshot of the XML Schema / DTD declarations must be stored on
+	 * the disk to load unchanged grammars without compiling them after a restart.
+	 * 
+	 * @param persistentCache the persistent cache.
+	 */
+	public void setPersistentCache(Boolean persistentCache) {
+		this.persistentCache = persistentCache;
+	}
+
 	/**
 	 * Register the list of the XML catalogs file path.
 	 * 
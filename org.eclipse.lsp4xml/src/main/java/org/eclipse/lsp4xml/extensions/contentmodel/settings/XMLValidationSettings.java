@@ -20,6 +20,10 @@ import org.eclipse.lsp4xml.utils.StringUtils;
  */
 public class XMLValidationSettings {
 
+	public static final int DEFAULT_DEBOUNCE = 200;
+
+	public static final int DEFAULT_MAX_DIAGNOSTICS = 1000;
+
 	/**
 	 * Schema version.
 	 * 
@@ -64,12 +68,25 @@ public class XMLValidationSettings {
 	 */
 	private String noGrammar;
 
+	/**
+	 * Delay in milliseconds between the last change of a document and its
+	 * validation.
+	 */
+	private int debounce;
+
+	/**
+	 * Max number of diagnostics published for a document.
+	 */
+	private int maxDiagnostics;
+
 	public XMLValidationSettings() {
 		// set defaults
 		setSchema(true);
 		setEnabled(true);
 		setDisallowDocTypeDecl(false);
 		setResolveExternalEntities(false);
+		setDebounce(DEFAULT_DEBOUNCE);
+		setMaxDiagnostics(DEFAULT_MAX_DIAGNOSTICS);
 	}
 
 	/**
@@ -171,6 +188,46 @@ public class XMLValidationSettings {
 		this.resolveExternalEntities = resolveExternalEntities;
 	}
 
+	/**
+	 * Returns the delay in milliseconds between the last change of a document and
+	 * its validation.
+	 * 
+	 * @return the delay in milliseconds between the last change of a document and
+	 *         its validation.
+	 */
+	public int getDebounce() {
+		return debounce;
+	}
+
+	/**
+	 * Set the delay in milliseconds between the last change of a document and its
+	 * validation.
+	 * 
+	 * @param debounce the delay in milliseconds.
+	 */
+	public void setDebounce(int debounce) {
+		this.debounce = debounce;
+	}
+
+	/**
+	 * Returns the max number of diagnostics published for a document.
+	 * 
+	 * @return the max number of diagnostics published for a document.
+	 */
+	public int getMaxDiagnostics() {
+		return maxDiagnostics;
+	}
+
+	/**
+	 * Set the max number of diagnostics published for a document.
+	 * 
+	 * @param maxDiagnostics the max number of diagnostics and a negative value for
+	 *                       no limit.
+	 */
+	public void setMaxDiagnostics(int maxDiagnostics) {
+		this.maxDiagnostics = maxDiagnostics;
+	}
+
 	/**
 	 * Returns the <code>noGrammar</code> severity according the given settings and
 	 * {@link DiagnosticSeverity#Hint} otherwise.
@@ -228,6 +285,8 @@ public class XMLValidationSettings {
 			this.enabled = settings.enabled;
 			this.disallowDocTypeDecl = settings.disallowDocTypeDecl;
 			this.resolveExternalEntities = settings.resolveExternalEntities;
+			this.debounce = settings.debounce;
+			this.maxDiagnostics = settings.maxDiagnostics;
 		}
 		return this;
 	}
@@ -20,6 +20,7 @@ import org.apache.xerces.xni.parser.XMLInputSource;
 import org.eclipse.lsp4xml.uriresolver.CacheResourceDownloadedException;
 import org.eclipse.lsp4xml.uriresolver.CacheResourcesManager;
 import org.eclipse.lsp4xml.uriresolver.URIResolverExtension;
+import org.eclipse.lsp4xml.utils.URIUtils;
 
 /**
  * URI resolver which, on the first access, downloads the XML Schema or DTD from
@@ -32,8 +33,21 @@ public class XMLCacheResolverExtension implements URIResolverExtension {
 
 	private final CacheResourcesManager cacheResourcesManager;
 
+	private boolean useCache;
+
 	public XMLCacheResolverExtension() {
-		this.cacheResourcesManager = new CacheResourcesManager();
+		this(new CacheResourcesManager());
+	}
+
+	/**
+	 * Create the cache resolver with the given cache resources manager which can
+	 * be shared between several resolvers. The use of the cache is a setting of
+	 * the resolver.
+	 * 
+	 * @param cacheResourcesManager the cache resources manager.
+	 */
+	public XMLCacheResolverExtension(CacheResourcesManager cacheResourcesManager) {
+		this.cacheResourcesManager = cacheResourcesManager;
 	}
 
 	@Override
@@ -68,7 +82,7 @@ public class XMLCacheResolverExtension implements URIResolverExtension {
 	 */
 	public Path getCachedResource(String url) throws IOException, CacheResourceDownloadedException {
 		// Cache is used only for resource coming from "http(s)" or "ftp".
-		if (cacheResourcesManager.canUseCache(url)) {
+		if (useCache && URIUtils.isRemoteResource(url)) {
 			// Try to get the downloaded resource. In the case where the resource is
 			// downloading but takes too long, a CacheResourceDownloadingException is
 			// thrown.
@@ -84,7 +98,7 @@ public class XMLCacheResolverExtension implements URIResolverExtension {
 	 *                 otherwise.
 	 */
 	public void setUseCache(boolean useCache) {
-		cacheResourcesManager.setUseCache(useCache);
+		this.useCache = useCache;
 	}
 
 	/**
@@ -95,7 +109,7 @@ public class XMLCacheResolverExtension implements URIResolverExtension {
 	 *         otherwise.
 	 */
 	public boolean isUseCache() {
-		return cacheResourcesManager.isUseCache();
+		return useCache;
 	}
 
 }
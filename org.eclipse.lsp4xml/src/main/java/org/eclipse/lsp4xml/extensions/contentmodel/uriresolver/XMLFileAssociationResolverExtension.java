@@ -19,6 +19,7 @@ import java.util.logging.Logger;
 import org.apache.xerces.impl.XMLEntityManager;
 import org.apache.xerces.util.URI.MalformedURIException;
 import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLFileAssociation;
+import org.eclipse.lsp4xml.settings.PathPatternIndex;
 import org.eclipse.lsp4xml.uriresolver.IExternalSchemaLocationProvider;
 import org.eclipse.lsp4xml.uriresolver.URIResolverExtension;
 
@@ -34,6 +35,9 @@ public class XMLFileAssociationResolverExtension implements URIResolverExtension
 
 	private XMLFileAssociation[] fileAssociations;
 
+	// the compiled file associations, which caches the file association of an URI
+	private volatile PathPatternIndex<XMLFileAssociation> fileAssociationIndex;
+
 	/**
 	 * 
 	 * @param fileAssociations
@@ -43,6 +47,9 @@ public class XMLFileAssociationResolverExtension implements URIResolverExtension
 		XMLFileAssociation[] oldFileAssociations = this.fileAssociations;
 		this.fileAssociations = fileAssociations;
 		expandSystemId();
+		// compile the file associations, it clears the cache of the file association
+		// per URI
+		this.fileAssociationIndex = fileAssociations != null ? new PathPatternIndex<>(fileAssociations) : null;
 		return !Arrays.equals(oldFileAssociations, fileAssociations);
 	}
 
@@ -55,11 +62,11 @@ public class XMLFileAssociationResolverExtension implements URIResolverExtension
 			// ignore XML file association
 			return null;
 		}
-		if (fileAssociations != null) {
-			for (XMLFileAssociation fileAssociation : fileAssociations) {
-				if (fileAssociation.matches(baseLocation)) {
-					return fileAssociation.getSystemId();
-				}
+		PathPatternIndex<XMLFileAssociation> fileAssociationIndex = this.fileAssociationIndex;
+		if (fileAssociationIndex != null) {
+			XMLFileAssociation fileAssociation = fileAssociationIndex.findFirst(baseLocation);
+			if (fileAssociation != null) {
+				return fileAssociation.getSystemId();
 			}
 		}
 		return null;
@@ -67,11 +74,11 @@ public class XMLFileAssociationResolverExtension implements URIResolverExtension
 
 	@Override
 	public Map<String, String> getExternalSchemaLocation(URI fileURI) {
-		if (fileAssociations != null) {
-			for (XMLFileAssociation fileAssociation : fileAssociations) {
-				if (fileAssociation.matches(fileURI)) {
-					return fileAssociation.getExternalSchemaLocation();
-				}
+		PathPatternIndex<XMLFileAssociation> fileAssociationIndex = this.fileAssociationIndex;
+		if (fileAssociationIndex != null) {
+			XMLFileAssociation fileAssociation = fileAssociationIndex.findFirst(fileURI);
+			if (fileAssociation != null) {
+				return fileAssociation.getExternalSchemaLocation();
 			}
 		}
 		return null;
@@ -12,8 +12,10 @@ package org.eclipse.lsp4xml.extensions.dtd.contentmodel;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -89,7 +91,7 @@ public class CMDTDDocument extends XMLDTDLoader implements CMDocument {
 	private final String uri;
 
 	private Map<String, DTDElementInfo> hierarchiesMap;
-	private List<CMElementDeclaration> elements;
+	private volatile List<CMElementDeclaration> elements;
 	private DTDGrammar grammar;
 	private Set<String> hierarchies;
 	private FilesChangedTracker tracker;
@@ -113,16 +115,20 @@ public class CMDTDDocument extends XMLDTDLoader implements CMDocument {
 
 	@Override
 	public Collection<CMElementDeclaration> getElements() {
+		List<CMElementDeclaration> elements = this.elements;
 		if (elements == null) {
-			elements = new ArrayList<>();
+			// the list is published once it is filled, because the declarations can be
+			// collected in background (see CMSnapshotCache)
+			List<CMElementDeclaration> list = new ArrayList<>();
 			int index = grammar.getFirstElementDeclIndex();
 			while (index != -1) {
 				CMDTDElementDeclaration elementDecl = new CMDTDElementDeclaration(this, index);
 				grammar.getElementDecl(index, elementDecl);
-				elements.add(elementDecl);
+				list.add(elementDecl);
 				index = grammar.getNextElementDeclIndex(index);
 			}
-
+			elements = Collections.unmodifiableList(list);
+			this.elements = elements;
 		}
 		return elements;
 	}
@@ -293,4 +299,9 @@ public class CMDTDDocument extends XMLDTDLoader implements CMDocument {
 		return tracker != null ? tracker.isDirty() : null;
 	}
 
+	@Override
+	public Collection<Path> getGrammarFiles() {
+		return tracker != null ? tracker.getFiles() : Collections.emptyList();
+	}
+
 }
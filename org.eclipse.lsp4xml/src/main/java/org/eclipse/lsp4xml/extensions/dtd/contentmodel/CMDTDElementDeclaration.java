@@ -12,6 +12,7 @@ package org.eclipse.lsp4xml.extensions.dtd.contentmodel;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -30,8 +31,8 @@ public class CMDTDElementDeclaration extends XMLElementDecl implements CMElement
 
 	private final int index;
 	private final CMDTDDocument document;
-	private List<CMElementDeclaration> elements;
-	private List<CMAttributeDeclaration> attributes;
+	private volatile List<CMElementDeclaration> elements;
+	private volatile List<CMAttributeDeclaration> attributes;
 	private String documentation;
 
 	public CMDTDElementDeclaration(CMDTDDocument document, int index) {
@@ -51,18 +52,28 @@ public class CMDTDElementDeclaration extends XMLElementDecl implements CMElement
 
 	@Override
 	public Collection<CMAttributeDeclaration> getAttributes() {
+		List<CMAttributeDeclaration> attributes = this.attributes;
 		if (attributes == null) {
-			attributes = new ArrayList<>();
-			document.collectAttributesDeclaration(this, attributes);
+			// the list is published once it is filled, because the declarations can be
+			// collected in background (see CMSnapshotCache)
+			List<CMAttributeDeclaration> list = new ArrayList<>();
+			document.collectAttributesDeclaration(this, list);
+			attributes = Collections.unmodifiableList(list);
+			this.attributes = attributes;
 		}
 		return attributes;
 	}
 
 	@Override
 	public Collection<CMElementDeclaration> getElements() {
+		List<CMElementDeclaration> elements = this.elements;
 		if (elements == null) {
-			elements = new ArrayList<>();
-			document.collectElementsDeclaration(getName(), elements);
+			// the list is published once it is filled, because the declarations can be
+			// collected in background (see CMSnapshotCache)
+			List<CMElementDeclaration> list = new ArrayList<>();
+			document.collectElementsDeclaration(getName(), list);
+			elements = Collections.unmodifiableList(list);
+			this.elements = elements;
 		}
 		return elements;
 	}
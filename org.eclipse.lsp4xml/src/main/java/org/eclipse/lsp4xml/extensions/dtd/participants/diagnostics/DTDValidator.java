@@ -10,9 +10,6 @@
  */
 package org.eclipse.lsp4xml.extensions.dtd.participants.diagnostics;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.apache.xerces.impl.dtd.XMLDTDLoader;
@@ -20,6 +17,7 @@ import org.apache.xerces.xni.parser.XMLEntityResolver;
 import org.apache.xerces.xni.parser.XMLInputSource;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4xml.commons.CharSequenceReader;
 import org.eclipse.lsp4xml.dom.DOMDocument;
 import org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics.LSPErrorReporterForXML;
 
@@ -42,8 +40,7 @@ public class DTDValidator {
 
 			String content = document.getText();
 			String uri = document.getDocumentURI();
-			InputStream inputStream = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
-			XMLInputSource source = new XMLInputSource(null, uri, uri, inputStream, null);
+			XMLInputSource source = new XMLInputSource(null, uri, uri, new CharSequenceReader(content), null);
 			loader.loadGrammar(source);
 		} catch (Exception e) {
 
@@ -0,0 +1,82 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.dtd.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMDocumentType;
+import org.eclipse.lsp4xml.dom.DOMNode;
+import org.eclipse.lsp4xml.dom.DTDAttlistDecl;
+import org.eclipse.lsp4xml.dom.DTDDeclParameter;
+import org.eclipse.lsp4xml.dom.DTDElementDecl;
+
+/**
+ * Index of the DTD origin nodes (child of <!ELEMENT and <!ATTLIST
+ * element-name) by referenced element name.
+ *
+ * <p>
+ * The index is computed once per DOM document (see
+ * {@link DOMDocument#getModel(Class, java.util.function.Function)}) and
+ * used to search references, highlighting and code lens without walking the
+ * whole DTD for each request.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+class DTDReferenceIndex {
+
+	private final Map<String, List<DTDDeclParameter>> originParameters;
+
+	DTDReferenceIndex(DOMDocumentType docType) {
+		this.originParameters = new HashMap<>();
+		if (docType != null && docType.hasChildNodes()) {
+			for (DOMNode origin : docType.getChildren()) {
+				switch (origin.getNodeType()) {
+				case DOMNode.DTD_ELEMENT_DECL_NODE:
+					// <!ELEMENT note(from)> --> here 'from' references the <!ELEMENT from
+					((DTDElementDecl) origin).collectParameters(this::addOriginParameter);
+					break;
+				case DOMNode.DTD_ATT_LIST_NODE:
+					// <!ATTLIST note ... -> here 'note' references the <!ELEMENT note
+					DTDAttlistDecl originAttribute = (DTDAttlistDecl) origin;
+					String elementName = originAttribute.getElementName();
+					if (elementName != null) {
+						originParameters.computeIfAbsent(elementName, k -> new ArrayList<>())
+								.add(originAttribute.getNameParameter());
+					}
+					break;
+				}
+			}
+		}
+	}
+
+	private void addOriginParameter(DTDDeclParameter parameter) {
+		originParameters.computeIfAbsent(parameter.getParameter(), k -> new ArrayList<>()).add(parameter);
+	}
+
+	/**
+	 * Returns the origin parameters which reference the given element name in the
+	 * document order.
+	 *
+	 * @param elementName the referenced element name.
+	 * @return the origin parameters which reference the given element name in the
+	 *         document order.
+	 */
+	public List<DTDDeclParameter> getOriginParameters(String elementName) {
+		List<DTDDeclParameter> parameters = originParameters.get(elementName);
+		return parameters != null ? parameters : Collections.emptyList();
+	}
+}
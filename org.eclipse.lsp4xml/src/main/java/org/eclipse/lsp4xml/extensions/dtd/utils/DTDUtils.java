@@ -20,7 +20,6 @@ import org.apache.xerces.impl.dtd.DTDGrammar;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4xml.dom.DOMDocumentType;
 import org.eclipse.lsp4xml.dom.DOMNode;
-import org.eclipse.lsp4xml.dom.DTDAttlistDecl;
 import org.eclipse.lsp4xml.dom.DTDDeclNode;
 import org.eclipse.lsp4xml.dom.DTDDeclParameter;
 import org.eclipse.lsp4xml.dom.DTDElementDecl;
@@ -87,48 +86,43 @@ public class DTDUtils {
 			return;
 		}
 
-		// Loop for each <!ELEMENT and check for each target DTD nodes if it reference
-		// it.
+		// Search origin nodes which reference the target nodes with the index of the
+		// document
 		DOMDocumentType docType = targetNode.getOwnerDocType();
-		if (docType.hasChildNodes()) {
-			// Loop for <!ELEMENT.
-			NodeList children = docType.getChildNodes();
-			for (int i = 0; i < children.getLength(); i++) {
-				if (cancelChecker != null) {
-					cancelChecker.checkCanceled();
-				}
-				Node origin = children.item(i);
-				for (DTDDeclNode target : targetNodes) {
-					if (target.isDTDElementDecl()) {
-						// target node is <!ELEMENT, check if it is references by the current origin
-						// node
-						DTDElementDecl targetElement = (DTDElementDecl) target;
-						switch (origin.getNodeType()) {
-						case DOMNode.DTD_ELEMENT_DECL_NODE:
-							// check if the current <!ELEMENT origin defines a child which references the
-							// target node <!ELEMENT
-							// <!ELEMENT from > --> here target node is 'from'
-							// <!ELEMENT note(from)> --> here origin node is 'note'
-							// --> here 'note' has a 'from' as child and it should be collected
-							DTDElementDecl originElement = (DTDElementDecl) origin;
-							originElement.collectParameters(targetElement.getNameParameter(), collector);
-							break;
-						case DOMNode.DTD_ATT_LIST_NODE:
-							String name = targetElement.getName();
-							// check if the current <!ATTLIST element-name reference the current <!ELEMENT
-							// element-name
-							// <!ELEMENT note --> here target node is 'note'
-							// <!ATTLIST note ... -> here origin node is 'note'
-							// --> here <!ATTLIST defines 'note' as element name, and it should be collected
-							DTDAttlistDecl originAttribute = (DTDAttlistDecl) origin;
-							if (name.equals(originAttribute.getElementName())) {
-								// <!ATTLIST origin has the same name than <!ELEMENT target
-								collector.accept(originAttribute.getNameParameter(), targetElement.getNameParameter());
-							}
-							break;
-						}
-					}
-				}
+		DTDReferenceIndex index = docType.getOwnerDocument().getModel(DTDReferenceIndex.class,
+				document -> new DTDReferenceIndex(docType));
+		if (targetNodes.size() == 1) {
+			// origin nodes are collected in the document order
+			searchDTDOriginElementDecls(targetNodes.get(0), index, collector, cancelChecker);
+			return;
+		}
+		// Sort references of several target nodes in the document order of the origin
+		// nodes
+		List<DTDDeclParameter[]> references = new ArrayList<>();
+		for (DTDDeclNode target : targetNodes) {
+			searchDTDOriginElementDecls(target, index,
+					(origin, name) -> references.add(new DTDDeclParameter[] { origin, name }), cancelChecker);
+		}
+		references.sort((r1, r2) -> Integer.compare(r1[0].getOwnerNode().getStart(),
+				r2[0].getOwnerNode().getStart()));
+		for (DTDDeclParameter[] reference : references) {
+			collector.accept(reference[0], reference[1]);
+		}
+	}
+
+	private static void searchDTDOriginElementDecls(DTDDeclNode target, DTDReferenceIndex index,
+			BiConsumer<DTDDeclParameter, DTDDeclParameter> collector, CancelChecker cancelChecker) {
+		if (cancelChecker != null) {
+			cancelChecker.checkCanceled();
+		}
+		if (target.isDTDElementDecl()) {
+			// target node is <!ELEMENT, collect the origin nodes which reference it:
+			// - <!ELEMENT note(from)> --> here 'from' references the <!ELEMENT from
+			// - <!ATTLIST note ... -> here 'note' references the <!ELEMENT note
+			DTDElementDecl targetElement = (DTDElementDecl) target;
+			DTDDeclParameter targetName = targetElement.getNameParameter();
+			for (DTDDeclParameter origin : index.getOriginParameters(targetElement.getName())) {
+				collector.accept(origin, targetName);
 			}
 		}
 	}
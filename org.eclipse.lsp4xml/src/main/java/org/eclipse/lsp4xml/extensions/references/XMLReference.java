@@ -21,6 +21,7 @@ import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.lsp4xml.dom.DOMNode;
+import org.eclipse.lsp4xml.xpath.matcher.XPathElementMatcher;
 import org.eclipse.lsp4xml.xpath.matcher.XPathMatcher;
 import org.w3c.dom.NodeList;
 
@@ -52,6 +53,21 @@ public class XMLReference {
 		return matcher.match(node);
 	}
 
+	/**
+	 * Returns the local name of the nodes which can match the "from" expression
+	 * and null if a node with any name can match it.
+	 * 
+	 * @return the local name of the nodes which can match the "from" expression
+	 *         and null if a node with any name can match it.
+	 */
+	String getMatchedName() {
+		if (matcher.isEmpty()) {
+			return null;
+		}
+		XPathElementMatcher lastMatcher = matcher.get(matcher.size() - 1);
+		return lastMatcher.isAny() ? null : lastMatcher.getLocalName();
+	}
+
 	void collect(DOMNode node, Consumer<DOMNode> collector) throws XPathExpressionException {
 		for (XPathExpression expression : tos) {
 			NodeList result = (NodeList) expression.evaluate(node, XPathConstants.NODESET);
@@ -12,13 +12,9 @@ package org.eclipse.lsp4xml.extensions.references;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
 import java.util.function.Predicate;
 
-import javax.xml.xpath.XPathExpressionException;
-
 import org.eclipse.lsp4xml.dom.DOMDocument;
-import org.eclipse.lsp4xml.dom.DOMNode;
 
 /**
  * XML reference list for a given document.
@@ -30,27 +26,27 @@ public class XMLReferences {
 
 	private final List<XMLReference> references;
 
-	XMLReferences(Predicate<DOMDocument> documentPredicate) {
+	private final Runnable onChange;
+
+	XMLReferences(Predicate<DOMDocument> documentPredicate, Runnable onChange) {
 		this.documentPredicate = documentPredicate;
 		this.references = new ArrayList<>();
+		this.onChange = onChange;
 	}
 
 	public XMLReference from(String from) {
 		XMLReference reference = new XMLReference(from);
 		references.add(reference);
+		onChange.run();
 		return reference;
 	}
 
-	boolean canApply(DOMDocument document) {
-		return documentPredicate.test(document);
+	List<XMLReference> getReferences() {
+		return references;
 	}
 
-	void collectNodes(DOMNode node, Consumer<DOMNode> collector) throws XPathExpressionException {
-		for (XMLReference reference : references) {
-			if (reference.match(node)) {
-				reference.collect(node, collector);
-			}
-		}
+	boolean canApply(DOMDocument document) {
+		return documentPredicate.test(document);
 	}
 
 }
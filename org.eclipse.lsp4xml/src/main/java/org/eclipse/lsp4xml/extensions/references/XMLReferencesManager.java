@@ -11,44 +11,160 @@
 package org.eclipse.lsp4xml.extensions.references;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.xml.xpath.XPathExpressionException;
 
 import org.eclipse.lsp4xml.dom.DOMDocument;
 import org.eclipse.lsp4xml.dom.DOMNode;
 
+/**
+ * XML references manager.
+ * 
+ * <p>
+ * The registered references are compiled in a table indexed by the local name
+ * of the last step of their "from" XPath expression, so a node is only tested
+ * with the references which can match its name (and the references which match
+ * any name).
+ * </p>
+ *
+ */
 public class XMLReferencesManager {
 
+	private static final Logger LOGGER = Logger.getLogger(XMLReferencesManager.class.getName());
+
 	private static final XMLReferencesManager INSTANCE = new XMLReferencesManager();
 
 	public static XMLReferencesManager getInstance() {
 		return INSTANCE;
 	}
 
+	/**
+	 * Reference with the references list which owns it.
+	 */
+	private static class CompiledReference {
+
+		private final XMLReferences references;
+
+		private final XMLReference reference;
+
+		CompiledReference(XMLReferences references, XMLReference reference) {
+			this.references = references;
+			this.reference = reference;
+		}
+	}
+
+	/**
+	 * References indexed by the local name of the nodes which can match them.
+	 */
+	private static class CompiledReferences {
+
+		private static final CompiledReference[] EMPTY = new CompiledReference[0];
+
+		private final Map<String, CompiledReference[]> referencesByName;
+
+		private final CompiledReference[] anyNameReferences;
+
+		CompiledReferences(List<XMLReferences> referencesCache) {
+			List<CompiledReference> all = new ArrayList<>();
+			Map<String, List<CompiledReference>> byName = new HashMap<>();
+			for (XMLReferences references : referencesCache) {
+				for (XMLReference reference : references.getReferences()) {
+					all.add(new CompiledReference(references, reference));
+					String name = reference.getMatchedName();
+					if (name != null) {
+						byName.putIfAbsent(name, new ArrayList<>());
+					}
+				}
+			}
+			// each name gets its references and the references which match any name, in
+			// the registration order
+			List<CompiledReference> anyName = new ArrayList<>();
+			for (CompiledReference compiled : all) {
+				String name = compiled.reference.getMatchedName();
+				if (name == null) {
+					anyName.add(compiled);
+					byName.values().forEach(references -> references.add(compiled));
+				} else {
+					byName.get(name).add(compiled);
+				}
+			}
+			this.anyNameReferences = anyName.toArray(EMPTY);
+			this.referencesByName = new HashMap<>();
+			byName.forEach((name, references) -> referencesByName.put(name, references.toArray(EMPTY)));
+		}
+
+		CompiledReference[] getReferences(DOMNode node) {
+			String name = node.getLocalName();
+			if (name == null) {
+				name = node.getNodeName();
+			}
+			CompiledReference[] references = name != null ? referencesByName.get(name) : null;
+			return references != null ? references : anyNameReferences;
+		}
+
+		boolean isEmpty() {
+			return referencesByName.isEmpty() && anyNameReferences.length == 0;
+		}
+	}
+
 	private final List<XMLReferences> referencesCache;
 
+	private volatile CompiledReferences compiledReferences;
+
 	public XMLReferencesManager() {
 		this.referencesCache = new ArrayList<>();
 	}
 
-	public XMLReferences referencesFor(Predicate<DOMDocument> documentPredicate) {
-		XMLReferences references = new XMLReferences(documentPredicate);
+	public synchronized XMLReferences referencesFor(Predicate<DOMDocument> documentPredicate) {
+		XMLReferences references = new XMLReferences(documentPredicate, this::referencesChanged);
 		referencesCache.add(references);
+		referencesChanged();
 		return references;
 	}
 
+	private void referencesChanged() {
+		compiledReferences = null;
+	}
+
+	private CompiledReferences getCompiledReferences() {
+		CompiledReferences compiled = compiledReferences;
+		if (compiled == null) {
+			synchronized (this) {
+				compiled = compiledReferences;
+				if (compiled == null) {
+					compiled = new CompiledReferences(referencesCache);
+					compiledReferences = compiled;
+				}
+			}
+		}
+		return compiled;
+	}
+
+	/**
+	 * Collect the target nodes referenced by the given origin node.
+	 * 
+	 * @param node      the origin node.
+	 * @param collector the collector to collect target nodes.
+	 */
 	public void collect(DOMNode node, Consumer<DOMNode> collector) {
+		CompiledReferences compiled = getCompiledReferences();
+		if (compiled.isEmpty()) {
+			return;
+		}
 		DOMDocument document = node.getOwnerDocument();
-		for (XMLReferences references : referencesCache) {
-			if (references.canApply(document)) {
+		for (CompiledReference compiledReference : compiled.getReferences(node)) {
+			if (compiledReference.references.canApply(document) && compiledReference.reference.match(node)) {
 				try {
-					references.collectNodes(node, collector);
+					compiledReference.reference.collect(node, collector);
 				} catch (XPathExpressionException e) {
-					// TODO!!!
-					e.printStackTrace();
+					LOGGER.log(Level.SEVERE, "Error while collecting XML references", e);
 				}
 			}
 		}
@@ -10,6 +10,9 @@
  */
 package org.eclipse.lsp4xml.extensions.xsd.contentmodel;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import org.apache.xerces.impl.Constants;
 import org.apache.xerces.impl.xs.XSLoaderImpl;
 import org.apache.xerces.impl.xs.models.CMBuilder;
@@ -42,8 +45,6 @@ public class CMXSDContentModelProvider implements ContentModelProvider {
 
 	private XSLoaderImpl loader;
 
-	private CMBuilder cmBuilder;
-
 	public CMXSDContentModelProvider(URIResolverExtensionManager resolverExtensionManager,
 			ContentModelManager modelManager) {
 		this.resolverExtensionManager = resolverExtensionManager;
@@ -81,11 +82,34 @@ public class CMXSDContentModelProvider implements ContentModelProvider {
 		return null;
 	}
 
+	@Override
+	public Collection<String> getSystemIds(DOMDocument xmlDocument) {
+		SchemaLocation schemaLocation = xmlDocument.getSchemaLocation();
+		if (schemaLocation != null) {
+			return schemaLocation.getLocationHints();
+		}
+		NoNamespaceSchemaLocation noNamespaceSchemaLocation = xmlDocument.getNoNamespaceSchemaLocation();
+		if (noNamespaceSchemaLocation != null) {
+			return Collections.singleton(noNamespaceSchemaLocation.getLocation());
+		}
+		return Collections.emptyList();
+	}
+
 	@Override
 	public CMDocument createCMDocument(String key) {
-		XSModel model = getLoader().loadURI(key);
+		String version = XMLValidationSettings.getNamespaceSchemaVersion(modelManager.getSettings());
+		XSLoaderImpl loader = getLoader();
+		XSModel model;
+		// the loader is shared and a grammar can be compiled in background when its
+		// snapshot is loaded (see CMSnapshotCache)
+		synchronized (loader) {
+			loader.setParameter(XML_SCHEMA_VERSION, version);
+			model = loader.loadURI(key);
+		}
 		if (model != null) {
 			// XML Schema can be loaded
+			CMBuilder cmBuilder = new CMBuilder(new CMNodeFactory());
+			cmBuilder.setSchemaVersion(getSchemaVersion(version));
 			return new CMXSDDocument(model, key, cmBuilder);
 		}
 		return null;
@@ -100,10 +124,6 @@ public class CMXSDContentModelProvider implements ContentModelProvider {
 		if (loader == null) {
 			loader = getSynchLoader();
 		}
-		String version = XMLValidationSettings.getNamespaceSchemaVersion(modelManager.getSettings());
-		loader.setParameter(XML_SCHEMA_VERSION, version);
-		cmBuilder = new CMBuilder(new CMNodeFactory());
-		cmBuilder.setSchemaVersion(getSchemaVersion(version));
 		return loader;
 	}
 
@@ -11,14 +11,15 @@
 package org.eclipse.lsp4xml.extensions.xsd.contentmodel;
 
 import java.lang.reflect.Field;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -77,12 +78,12 @@ public class CMXSDDocument implements CMDocument, XSElementDeclHelper {
 
 	private final CMBuilder cmBuilder;
 
-	private Collection<CMElementDeclaration> elements;
+	private volatile Collection<CMElementDeclaration> elements;
 
 	private final FilesChangedTracker tracker;
 	public CMXSDDocument(XSModel model, String uri, CMBuilder cmBuilder) {
 		this.model = model;
-		this.elementMappings = new HashMap<>();
+		this.elementMappings = new ConcurrentHashMap<>();
 		this.uri = uri;
 		this.cmBuilder = cmBuilder;
 		this.tracker = createFilesChangedTracker(model);
@@ -123,13 +124,18 @@ public class CMXSDDocument implements CMDocument, XSElementDeclHelper {
 
 	@Override
 	public Collection<CMElementDeclaration> getElements() {
+		Collection<CMElementDeclaration> elements = this.elements;
 		if (elements == null) {
-			elements = new ArrayList<>();
+			// the list is published once it is filled, because the declarations can be
+			// collected in background (see CMSnapshotCache)
+			List<CMElementDeclaration> list = new ArrayList<>();
 			XSNamedMap map = model.getComponents(XSConstants.ELEMENT_DECLARATION);
 			for (int j = 0; j < map.getLength(); j++) {
 				XSElementDeclaration elementDeclaration = (XSElementDeclaration) map.item(j);
-				collectElement(elementDeclaration, elements);
+				collectElement(elementDeclaration, list);
 			}
+			elements = Collections.unmodifiableList(list);
+			this.elements = elements;
 		}
 		return elements;
 	}
@@ -203,12 +209,8 @@ public class CMXSDDocument implements CMDocument, XSElementDeclHelper {
 	}
 
 	CMElementDeclaration getXSDElement(XSElementDeclaration elementDeclaration) {
-		CMXSDElementDeclaration element = elementMappings.get(elementDeclaration);
-		if (element == null) {
-			element = new CMXSDElementDeclaration(this, elementDeclaration);
-			elementMappings.put(elementDeclaration, element);
-		}
-		return element;
+		return elementMappings.computeIfAbsent(elementDeclaration,
+				declaration -> new CMXSDElementDeclaration(this, declaration));
 	}
 
 	static Collection<String> getEnumerationValues(XSSimpleTypeDefinition typeDefinition) {
@@ -574,6 +576,11 @@ public class CMXSDDocument implements CMDocument, XSElementDeclHelper {
 	public boolean isDirty() {
 		return tracker.isDirty();
 	}
+
+	@Override
+	public Collection<Path> getGrammarFiles() {
+		return tracker.getFiles();
+	}
 	
 	CMBuilder getCMBuilder() {
 		return cmBuilder;
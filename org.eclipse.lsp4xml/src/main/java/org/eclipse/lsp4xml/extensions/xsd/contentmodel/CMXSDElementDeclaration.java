@@ -59,9 +59,9 @@ public class CMXSDElementDeclaration implements CMElementDeclaration {
 
 	private final XSElementDeclaration elementDeclaration;
 
-	private Collection<CMAttributeDeclaration> attributes;
+	private volatile Collection<CMAttributeDeclaration> attributes;
 
-	private Collection<CMElementDeclaration> elements;
+	private volatile Collection<CMElementDeclaration> elements;
 
 	private String documentation;
 
@@ -82,9 +82,14 @@ public class CMXSDElementDeclaration implements CMElementDeclaration {
 
 	@Override
 	public Collection<CMAttributeDeclaration> getAttributes() {
+		Collection<CMAttributeDeclaration> attributes = this.attributes;
 		if (attributes == null) {
-			attributes = new ArrayList<>();
-			collectAttributesDeclaration(elementDeclaration, attributes);
+			// the list is published once it is filled, because the declarations can be
+			// collected in background (see CMSnapshotCache)
+			List<CMAttributeDeclaration> list = new ArrayList<>();
+			collectAttributesDeclaration(elementDeclaration, list);
+			attributes = Collections.unmodifiableList(list);
+			this.attributes = attributes;
 		}
 		return attributes;
 	}
@@ -118,9 +123,14 @@ public class CMXSDElementDeclaration implements CMElementDeclaration {
 
 	@Override
 	public Collection<CMElementDeclaration> getElements() {
+		Collection<CMElementDeclaration> elements = this.elements;
 		if (elements == null) {
-			elements = new ArrayList<>();
-			collectElementsDeclaration(elementDeclaration, elements);
+			// the list is published once it is filled, because the declarations can be
+			// collected in background (see CMSnapshotCache)
+			List<CMElementDeclaration> list = new ArrayList<>();
+			collectElementsDeclaration(elementDeclaration, list);
+			elements = Collections.unmodifiableList(list);
+			this.elements = elements;
 		}
 		return elements;
 	}
@@ -10,11 +10,8 @@
  */
 package org.eclipse.lsp4xml.extensions.xsd.participants.diagnostics;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Field;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.logging.Level;
@@ -33,6 +30,7 @@ import org.apache.xerces.xni.parser.XMLInputSource;
 import org.apache.xerces.xni.parser.XMLParseException;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4xml.commons.CharSequenceReader;
 import org.eclipse.lsp4xml.dom.DOMDocument;
 import org.eclipse.lsp4xml.extensions.contentmodel.settings.ContentModelSettings;
 import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLValidationSettings;
@@ -95,8 +93,7 @@ public class XSDValidator {
 			
 			String content = document.getText();
 			String uri = document.getDocumentURI();
-			InputStream inputStream = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
-			XMLInputSource is = new XMLInputSource(null, uri, uri, inputStream, null);
+			XMLInputSource is = new XMLInputSource(null, uri, uri, new CharSequenceReader(content), null);
 			grammarPreparser.getLoader(XMLGrammarDescription.XML_SCHEMA);
 			grammarPreparser.preparseGrammar(XMLGrammarDescription.XML_SCHEMA, is);
 		} catch (IOException | CancellationException | XMLParseException exception) {
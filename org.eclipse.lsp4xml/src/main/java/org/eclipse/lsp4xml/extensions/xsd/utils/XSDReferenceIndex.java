@@ -0,0 +1,112 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.xsd.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.lsp4xml.dom.DOMAttr;
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMElement;
+import org.eclipse.lsp4xml.dom.DOMNode;
+import org.eclipse.lsp4xml.extensions.xsd.utils.XSDUtils.BindingType;
+
+/**
+ * Index of the XSD origin attributes (ex : xs:element/@type, xs:element/@ref,
+ * xs:extension/@base) of a XML Schema by referenced name.
+ *
+ * <p>
+ * The index is computed once per DOM document (see
+ * {@link DOMDocument#getModel(Class, java.util.function.Function)}) and
+ * used to search references, highlighting, rename and code lens without
+ * walking the whole DOM document for each request.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+class XSDReferenceIndex {
+
+	/**
+	 * Origin attribute with its binding type.
+	 */
+	static class OriginAttr {
+
+		private final DOMAttr attr;
+
+		private final BindingType bindingType;
+
+		OriginAttr(DOMAttr attr, BindingType bindingType) {
+			this.attr = attr;
+			this.bindingType = bindingType;
+		}
+
+		public DOMAttr getAttr() {
+			return attr;
+		}
+
+		public BindingType getBindingType() {
+			return bindingType;
+		}
+	}
+
+	private final Map<String, List<OriginAttr>> originAttrs;
+
+	XSDReferenceIndex(DOMDocument document) {
+		this.originAttrs = new HashMap<>();
+		DOMElement documentElement = document.getDocumentElement();
+		if (documentElement != null) {
+			// <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema"
+			// xmlns:tns="http://camel.apache.org/schema/spring"
+			// targetNamespace="http://camel.apache.org/schema/spring" version="1.0">
+			String targetNamespace = documentElement.getAttribute("targetNamespace");
+			String targetNamespacePrefix = documentElement.getPrefix(targetNamespace);
+			indexOriginAttrs(documentElement.getChildren(), targetNamespacePrefix);
+		}
+	}
+
+	private void indexOriginAttrs(List<DOMNode> nodes, String targetNamespacePrefix) {
+		for (DOMNode node : nodes) {
+			if (node.isElement() && node.hasAttributes()) {
+				for (DOMAttr originAttr : node.getAttributeNodes()) {
+					BindingType bindingType = XSDUtils.getBindingType(originAttr);
+					if (bindingType != BindingType.NONE) {
+						String value = originAttr.getValue();
+						String originName = value != null ? XSDUtils.getOriginName(value, targetNamespacePrefix)
+								: null;
+						if (originName != null) {
+							originAttrs.computeIfAbsent(originName, k -> new ArrayList<>())
+									.add(new OriginAttr(originAttr, bindingType));
+						}
+					}
+				}
+			}
+			if (node.hasChildNodes()) {
+				indexOriginAttrs(node.getChildren(), targetNamespacePrefix);
+			}
+		}
+	}
+
+	/**
+	 * Returns the origin attributes which reference the given name in the
+	 * document order.
+	 *
+	 * @param name the referenced name (without the target namespace prefix).
+	 * @return the origin attributes which reference the given name in the
+	 *         document order.
+	 */
+	public List<OriginAttr> getOriginAttrs(String name) {
+		List<OriginAttr> attrs = originAttrs.get(name);
+		return attrs != null ? attrs : Collections.emptyList();
+	}
+}
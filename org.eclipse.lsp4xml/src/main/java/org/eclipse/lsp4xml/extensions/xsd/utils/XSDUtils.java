@@ -31,7 +31,6 @@ import org.eclipse.lsp4xml.utils.StringUtils;
 import org.eclipse.lsp4xml.utils.URIUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -216,7 +215,7 @@ public class XSDUtils {
 		}
 	}
 
-	private static String getOriginName(String originAttrValue, String targetNamespacePrefix) {
+	static String getOriginName(String originAttrValue, String targetNamespacePrefix) {
 		int index = originAttrValue.indexOf(":");
 		if (index != -1) {
 			String prefix = originAttrValue.substring(0, index);
@@ -263,20 +262,42 @@ public class XSDUtils {
 		// xs:complexType/@name,
 		// xs:simpleType/@name, xs:element/@name, xs:group/@name
 
+		// Collect references for each references nodes from the origin attributes
+		// index of the document
 		DOMDocument document = targetNode.getOwnerDocument();
-		DOMElement documentElement = document.getDocumentElement();
-
-		// <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema"
-		// xmlns:tns="http://camel.apache.org/schema/spring"
-		// targetNamespace="http://camel.apache.org/schema/spring" version="1.0">
-		String targetNamespace = documentElement.getAttribute("targetNamespace"); // ->
-																					// http://camel.apache.org/schema/spring
-		String targetNamespacePrefix = documentElement.getPrefix(targetNamespace); // -> tns
-
-		// Collect references for each references nodes
+		XSDReferenceIndex index = document.getModel(XSDReferenceIndex.class, XSDReferenceIndex::new);
+		if (targetAttrs.size() == 1) {
+			// origin attributes are collected in the document order
+			searchXSOriginAttributes(targetAttrs.get(0), index, collector, cancelChecker);
+			return;
+		}
+		// Sort references of several target attributes in the document order of the
+		// origin attributes
+		List<DOMAttr[]> references = new ArrayList<>();
+		for (DOMAttr targetAttr : targetAttrs) {
+			searchXSOriginAttributes(targetAttr, index,
+					(originAttr, attr) -> references.add(new DOMAttr[] { originAttr, attr }), cancelChecker);
+		}
+		references.sort((r1, r2) -> Integer.compare(r1[0].getStart(), r2[0].getStart()));
+		for (DOMAttr[] reference : references) {
+			collector.accept(reference[0], reference[1]);
+		}
+	}
 
-		NodeList nodes = documentElement.getChildNodes();
-		searchXSOriginAttributes(nodes, targetAttrs, targetNamespacePrefix, collector, cancelChecker);
+	private static void searchXSOriginAttributes(DOMAttr targetAttr, XSDReferenceIndex index,
+			BiConsumer<DOMAttr, DOMAttr> collector, CancelChecker cancelChecker) {
+		if (cancelChecker != null) {
+			cancelChecker.checkCanceled();
+		}
+		Element targetElement = targetAttr.getOwnerElement();
+		for (XSDReferenceIndex.OriginAttr originAttr : index.getOriginAttrs(targetAttr.getValue())) {
+			DOMAttr attr = originAttr.getAttr();
+			if (isBounded(attr.getOwnerElement(), originAttr.getBindingType(), targetElement)) {
+				// node is a xs:complexType, xs:simpleType element, xsl:element, xs:group which
+				// matches the binding type of the originAttr
+				collector.accept(attr, targetAttr);
+			}
+		}
 	}
 
 	/**
@@ -336,44 +357,6 @@ public class XSDUtils {
 		}
 	}
 
-	private static void searchXSOriginAttributes(NodeList nodes, List<DOMAttr> targetAttrs,
-			String targetNamespacePrefix, BiConsumer<DOMAttr, DOMAttr> collector, CancelChecker cancelChecker) {
-		for (int i = 0; i < nodes.getLength(); i++) {
-			if (cancelChecker != null) {
-				cancelChecker.checkCanceled();
-			}
-			Node node = nodes.item(i);
-			if (node.getNodeType() == Node.ELEMENT_NODE) {
-				DOMElement originElement = (DOMElement) node;
-				NamedNodeMap originAttributes = originElement.getAttributes();
-				if (originAttributes != null) {
-					for (int j = 0; j < originAttributes.getLength(); j++) {
-						DOMAttr originAttr = (DOMAttr) originAttributes.item(j);
-						BindingType originBnding = XSDUtils.getBindingType(originAttr);
-						if (originBnding != BindingType.NONE) {
-							String originName = getOriginName(originAttr.getValue(), targetNamespacePrefix);
-							for (DOMAttr targetAttr : targetAttrs) {
-								Element targetElement = targetAttr.getOwnerElement();
-								if (isBounded(originAttr.getOwnerElement(), originBnding, targetElement)) {
-									// node is a xs:complexType, xs:simpleType element, xsl:element, xs:group which
-									// matches the binding type of the originAttr
-									if (targetAttr != null && (Objects.equal(originName, targetAttr.getValue()))) {
-										collector.accept(originAttr, targetAttr);
-									}
-								}
-							}
-						}
-					}
-				}
-			}
-			if (node.hasChildNodes()) {
-				searchXSOriginAttributes(node.getChildNodes(), targetAttrs, targetNamespacePrefix, collector,
-						cancelChecker);
-			}
-		}
-
-	}
-
 	public static boolean isXSComplexType(Element element) {
 		return "complexType".equals(element.getLocalName());
 	}
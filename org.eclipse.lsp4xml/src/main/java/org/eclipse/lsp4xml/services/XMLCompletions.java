@@ -85,7 +85,8 @@ public class XMLCompletions {
 			return completionResponse;
 		}
 
-		Scanner scanner = XMLScanner.createScanner(text, node.getStart(), isInsideDTDContent(node, xmlDocument));
+		Scanner scanner = isInsideDTDContent(node, xmlDocument) ? XMLScanner.createScanner(text, node.getStart(), true)
+				: xmlDocument.createScanner(node.getStart());
 		String currentTag = "";
 		TokenType token = scanner.scan();
 		while (token != TokenType.EOS && scanner.getTokenOffset() <= offset) {
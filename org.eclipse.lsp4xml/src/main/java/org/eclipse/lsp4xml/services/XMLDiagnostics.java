@@ -49,10 +49,25 @@ class XMLDiagnostics {
 			}
 			
 			doExtensionsDiagnostics(xmlDocument, diagnostics, monitor);
+			limitDiagnostics(diagnostics, validationSettings);
 		}
 		return diagnostics;
 	}
 
+	/**
+	 * Remove the diagnostics which exceed the max number of diagnostics.
+	 * 
+	 * @param diagnostics        the diagnostics
+	 * @param validationSettings the validation settings
+	 */
+	private static void limitDiagnostics(List<Diagnostic> diagnostics, XMLValidationSettings validationSettings) {
+		int maxDiagnostics = validationSettings != null ? validationSettings.getMaxDiagnostics()
+				: XMLValidationSettings.DEFAULT_MAX_DIAGNOSTICS;
+		if (maxDiagnostics >= 0 && diagnostics.size() > maxDiagnostics) {
+			diagnostics.subList(maxDiagnostics, diagnostics.size()).clear();
+		}
+	}
+
 	/**
 	 * Do basic validation to check the no XML valid.
 	 * 
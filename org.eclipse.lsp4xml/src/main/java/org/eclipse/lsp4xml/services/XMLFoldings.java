@@ -26,10 +26,10 @@ import org.eclipse.lsp4j.FoldingRange;
 import org.eclipse.lsp4j.FoldingRangeKind;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4xml.commons.BadLocationException;
-import org.eclipse.lsp4xml.commons.TextDocument;
+import org.eclipse.lsp4xml.commons.LineIndex;
+import org.eclipse.lsp4xml.dom.DOMDocument;
 import org.eclipse.lsp4xml.dom.parser.Scanner;
 import org.eclipse.lsp4xml.dom.parser.TokenType;
-import org.eclipse.lsp4xml.dom.parser.XMLScanner;
 import org.eclipse.lsp4xml.services.extensions.XMLExtensionsRegistry;
 import org.eclipse.lsp4xml.settings.XMLFoldingSettings;
 
@@ -59,9 +59,11 @@ class XMLFoldings {
 		}
 	}
 
-	public List<FoldingRange> getFoldingRanges(TextDocument document, XMLFoldingSettings context,
+	public List<FoldingRange> getFoldingRanges(DOMDocument xmlDocument, XMLFoldingSettings context,
 			CancelChecker cancelChecker) {
-		Scanner scanner = XMLScanner.createScanner(document.getText());
+		// replay the tokens recorded by the parser instead of scanning the text again
+		Scanner scanner = xmlDocument.getTokens().createScanner(xmlDocument.getText(), 0);
+		LineIndex lineIndex = xmlDocument.getLineIndex();
 		TokenType token = scanner.scan();
 		List<FoldingRange> ranges = new ArrayList<>();
 
@@ -75,7 +77,7 @@ class XMLFoldings {
 				switch (token) {
 				case StartTag: {
 					String tagName = scanner.getTokenText();
-					int startLine = document.positionAt(scanner.getTokenOffset()).getLine();
+					int startLine = lineIndex.getLineNumberOfOffset(scanner.getTokenOffset());
 					stack.add(new TagInfo(startLine, tagName));
 					lastTagName = tagName;
 					break;
@@ -97,8 +99,8 @@ class XMLFoldings {
 					}
 					if (i >= 0) {
 						TagInfo stackElement = stack.get(i);
-						stack = stack.subList(0, i); // stack.length = i;
-						int line = document.positionAt(scanner.getTokenOffset()).getLine();
+						stack.subList(i, stack.size()).clear(); // stack.length = i;
+						int line = lineIndex.getLineNumberOfOffset(scanner.getTokenOffset());
 						int startLine = stackElement.startLine;
 						int endLine = line - 1;
 						if (endLine > startLine && prevStart != startLine) {
@@ -108,7 +110,7 @@ class XMLFoldings {
 					break;
 				}
 				case Comment: {
-					int startLine = document.positionAt(scanner.getTokenOffset()).getLine();
+					int startLine = lineIndex.getLineNumberOfOffset(scanner.getTokenOffset());
 					String text = scanner.getTokenText();
 					Matcher m = REGION_PATTERN.matcher(text);
 					if (m.find()) {
@@ -121,7 +123,7 @@ class XMLFoldings {
 							}
 							if (i >= 0) {
 								TagInfo stackElement = stack.get(i);
-								stack = stack.subList(0, i); // stack.length = i;
+								stack.subList(i, stack.size()).clear(); // stack.length = i;
 								int endLine = startLine;
 								startLine = stackElement.startLine;
 								if (endLine > startLine && prevStart != startLine) {
@@ -132,8 +134,7 @@ class XMLFoldings {
 							}
 						}
 					} else {
-						int endLine = document.positionAt(scanner.getTokenOffset() + scanner.getTokenLength())
-								.getLine();
+						int endLine = lineIndex.getLineNumberOfOffset(scanner.getTokenEnd());
 						if (startLine < endLine) {
 							FoldingRange range = new FoldingRange(startLine, endLine);
 							range.setKind(FoldingRangeKind.Comment);
@@ -154,10 +155,6 @@ class XMLFoldings {
 			}
 		} catch (BadLocationException e) {
 			LOGGER.log(Level.SEVERE, "Foldings received a BadLocation while scanning the document", e);
-		} catch (StackOverflowError e) {
-			// This exception occurs with large file, why?
-			// For the moment we catch it.
-			LOGGER.log(Level.SEVERE, "Foldings received a StackOverflowError while scanning the document", e);
 		}
 		return ranges;
 	}
@@ -415,7 +415,7 @@ class XMLFormatter {
 				xmlBuilder.indent(level);
 
 				if (node.isText()) {
-					xmlBuilder.addContent(((DOMText) node).getData().trim());
+					xmlBuilder.addContent(((DOMText) node).getDataSequence().trim().toString());
 				} else if (node.isComment()) {
 					DOMComment comment = (DOMComment) node;
 					xmlBuilder.startComment(comment);
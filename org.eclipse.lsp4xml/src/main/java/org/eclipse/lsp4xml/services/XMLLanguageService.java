@@ -211,7 +211,7 @@ public class XMLLanguageService extends XMLExtensionsRegistry {
 
 	public List<FoldingRange> getFoldingRanges(DOMDocument xmlDocument, XMLFoldingSettings context,
 			CancelChecker cancelChecker) {
-		return foldings.getFoldingRanges(xmlDocument.getTextDocument(), context, cancelChecker);
+		return foldings.getFoldingRanges(xmlDocument, context, cancelChecker);
 	}
 
 	public WorkspaceEdit doRename(DOMDocument xmlDocument, Position position, String newText) {
@@ -0,0 +1,133 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.services;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4xml.commons.CharSequenceReader;
+import org.eclipse.lsp4xml.commons.TextDocument;
+import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLValidationSettings;
+import org.eclipse.lsp4xml.services.extensions.diagnostics.LSPContentHandler;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Syntax validation of a large XML document.
+ *
+ * <p>
+ * The text of the document is read by a streaming SAX parser which reports the
+ * well-formedness errors. No DOM document is built, the grammars (XML Schema,
+ * DTD) and the external entities are not loaded.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class XMLStreamingValidator {
+
+	private static final Logger LOGGER = Logger.getLogger(XMLStreamingValidator.class.getName());
+
+	private static final String XML_DIAGNOSTIC_SOURCE = "xml";
+
+	private static final String LOAD_EXTERNAL_DTD_FEATURE = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+
+	private XMLStreamingValidator() {
+	}
+
+	/**
+	 * Returns the syntax diagnostics of the given document.
+	 *
+	 * @param document           the text document.
+	 * @param validationSettings the validation settings.
+	 * @param monitor            the cancel checker.
+	 * @return the syntax diagnostics of the given document.
+	 */
+	public static List<Diagnostic> doDiagnostics(TextDocument document, XMLValidationSettings validationSettings,
+			CancelChecker monitor) {
+		List<Diagnostic> diagnostics = new ArrayList<>();
+		if (validationSettings != null && !validationSettings.isEnabled()) {
+			return diagnostics;
+		}
+		int maxDiagnostics = validationSettings != null ? validationSettings.getMaxDiagnostics()
+				: XMLValidationSettings.DEFAULT_MAX_DIAGNOSTICS;
+		try {
+			SAXParserFactory factory = SAXParserFactory.newInstance();
+			factory.setNamespaceAware(true);
+			factory.setValidating(false);
+			XMLReader reader = factory.newSAXParser().getXMLReader();
+			try {
+				reader.setFeature(LOAD_EXTERNAL_DTD_FEATURE, false);
+			} catch (SAXException e) {
+				// the parser doesn't support the feature, external entities are ignored
+				// by the entity resolver
+			}
+			// external entities are not loaded
+			reader.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
+			if (monitor != null) {
+				reader.setContentHandler(new LSPContentHandler(monitor));
+			}
+			reader.setErrorHandler(new ErrorHandler() {
+
+				@Override
+				public void warning(SAXParseException exception) throws SAXException {
+					addDiagnostic(exception, DiagnosticSeverity.Warning, diagnostics, maxDiagnostics);
+				}
+
+				@Override
+				public void error(SAXParseException exception) throws SAXException {
+					addDiagnostic(exception, DiagnosticSeverity.Error, diagnostics, maxDiagnostics);
+				}
+
+				@Override
+				public void fatalError(SAXParseException exception) throws SAXException {
+					addDiagnostic(exception, DiagnosticSeverity.Error, diagnostics, maxDiagnostics);
+					throw exception;
+				}
+			});
+			InputSource inputSource = new InputSource(new CharSequenceReader(document.getTextSequence()));
+			inputSource.setSystemId(document.getUri());
+			reader.parse(inputSource);
+		} catch (IOException | SAXException e) {
+			// the fatal error is reported in the diagnostics
+		} catch (ParserConfigurationException e) {
+			LOGGER.log(Level.SEVERE, "Error while creating the SAX parser", e);
+		}
+		return diagnostics;
+	}
+
+	private static void addDiagnostic(SAXParseException exception, DiagnosticSeverity severity,
+			List<Diagnostic> diagnostics, int maxDiagnostics) {
+		if (maxDiagnostics >= 0 && diagnostics.size() >= maxDiagnostics) {
+			return;
+		}
+		// SAX lines and columns start at 1, the column is after the character of the
+		// error
+		int line = Math.max(exception.getLineNumber() - 1, 0);
+		int character = Math.max(exception.getColumnNumber() - 1, 0);
+		Range range = new Range(new Position(line, character), new Position(line, character));
+		diagnostics.add(new Diagnostic(range, exception.getMessage(), severity, XML_DIAGNOSTIC_SOURCE));
+	}
+}
@@ -19,7 +19,6 @@ import java.util.logging.Logger;
 
 import org.eclipse.lsp4j.DocumentSymbol;
 import org.eclipse.lsp4j.Location;
-import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.SymbolKind;
@@ -185,8 +184,6 @@ class XMLSymbolsProvider {
 	}
 
 	private static Range getSymbolRange(DOMNode node, boolean useAttlistElementName) throws BadLocationException {
-		Position start;
-		Position end;
 		DOMDocument xmlDocument = node.getOwnerDocument();
 
 		if (node.isDTDAttListDecl() && !useAttlistElementName) {
@@ -194,14 +191,10 @@ class XMLSymbolsProvider {
 			DTDDeclParameter attributeNameDecl = attlistDecl.attributeName;
 
 			if (attributeNameDecl != null) {
-				start = xmlDocument.positionAt(attributeNameDecl.getStart());
-				end = xmlDocument.positionAt(attributeNameDecl.getEnd());
-				return new Range(start, end);
+				return xmlDocument.rangeAt(attributeNameDecl.getStart(), attributeNameDecl.getEnd());
 			}
 		}
-		start = xmlDocument.positionAt(node.getStart());
-		end = xmlDocument.positionAt(node.getEnd());
-		return new Range(start, end);
+		return xmlDocument.rangeAt(node.getStart(), node.getEnd());
 	}
 
 	private static SymbolKind getSymbolKind(DOMNode node) {
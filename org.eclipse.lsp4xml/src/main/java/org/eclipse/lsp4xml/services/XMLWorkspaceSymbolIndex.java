@@ -0,0 +1,562 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.services;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.dom.DOMAttr;
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMElement;
+import org.eclipse.lsp4xml.dom.DOMNode;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.eclipse.lsp4xml.dom.DTDDeclParameter;
+import org.eclipse.lsp4xml.dom.DTDElementDecl;
+import org.eclipse.lsp4xml.utils.DOMUtils;
+import org.eclipse.lsp4xml.utils.URIUtils;
+
+/**
+ * Index of the symbols of the XML, XML Schema and DTD files of the workspace
+ * used to answer the workspace symbol requests.
+ *
+ * <p>
+ * The index stores:
+ * <ul>
+ * <li>the element names of XML files (only the first element of each name is
+ * indexed for a given file).</li>
+ * <li>the names of the global <code>xs:element</code>,
+ * <code>xs:complexType</code> and <code>xs:simpleType</code> declarations of
+ * XML Schema files.</li>
+ * <li>the names of the DTD <code>&lt;!ELEMENT</code> declarations.</li>
+ * </ul>
+ * Names are interned in a table shared by all files, each file keeps its
+ * symbols in primitive arrays and each name has the list of the files which
+ * declare it. A search matches each distinct name once and then only visits
+ * the files of the matching names.
+ * </p>
+ *
+ * <p>
+ * Files are (re)indexed in a background thread when the workspace is opened and
+ * when they are created, changed or deleted.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class XMLWorkspaceSymbolIndex {
+
+	private static final Logger LOGGER = Logger.getLogger(XMLWorkspaceSymbolIndex.class.getName());
+
+	public static final int DEFAULT_MAX_RESULTS = 1000;
+
+	private static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
+
+	private static final String XML_EXTENSION = ".xml";
+
+	private static final Set<String> XSD_GLOBAL_DECLARATIONS = new HashSet<>(
+			Arrays.asList("element", "complexType", "simpleType"));
+
+	// match levels of a name, the lowest is the best
+	private static final byte NO_MATCH = 0;
+	private static final byte PREFIX_MATCH = 1;
+	private static final byte CONTAINS_MATCH = 2;
+	private static final byte FUZZY_MATCH = 3;
+
+	/**
+	 * Symbols of an indexed file.
+	 */
+	private static class FileSymbols {
+
+		private final String uri;
+
+		// id of the symbol name in the names table
+		private final int[] names;
+
+		// sorted ids of the distinct names of the file
+		private final int[] distinctNames;
+
+		// symbol kind value
+		private final byte[] kinds;
+
+		// start line, start character, end line, end character of each symbol
+		private final int[] ranges;
+
+		// true when the file is removed or re-indexed
+		private boolean removed;
+
+		FileSymbols(String uri, int[] names, byte[] kinds, int[] ranges) {
+			this.uri = uri;
+			this.names = names;
+			this.distinctNames = IntStream.of(names).sorted().distinct().toArray();
+			this.kinds = kinds;
+			this.ranges = ranges;
+		}
+
+		SymbolInformation getSymbol(int index, String name) {
+			int offset = index * 4;
+			Range range = new Range(new Position(ranges[offset], ranges[offset + 1]),
+					new Position(ranges[offset + 2], ranges[offset + 3]));
+			return new SymbolInformation(name, SymbolKind.forValue(kinds[index]), new Location(uri, range));
+		}
+	}
+
+	/**
+	 * Collects the symbols of a file while it is indexed.
+	 */
+	private class FileSymbolsBuilder {
+
+		private final DOMDocument document;
+
+		private int size;
+
+		private int[] names = new int[16];
+
+		private byte[] kinds = new byte[16];
+
+		private int[] ranges = new int[64];
+
+		FileSymbolsBuilder(DOMDocument document) {
+			this.document = document;
+		}
+
+		void add(String name, SymbolKind kind, int start, int end) throws BadLocationException {
+			if (name == null || name.isEmpty()) {
+				return;
+			}
+			if (size == names.length) {
+				names = Arrays.copyOf(names, size * 2);
+				kinds = Arrays.copyOf(kinds, size * 2);
+				ranges = Arrays.copyOf(ranges, size * 8);
+			}
+			Position startPosition = document.positionAt(start);
+			Position endPosition = document.positionAt(end);
+			names[size] = intern(name);
+			kinds[size] = (byte) kind.getValue();
+			int offset = size * 4;
+			ranges[offset] = startPosition.getLine();
+			ranges[offset + 1] = startPosition.getCharacter();
+			ranges[offset + 2] = endPosition.getLine();
+			ranges[offset + 3] = endPosition.getCharacter();
+			size++;
+		}
+
+		FileSymbols build(String uri) {
+			return new FileSymbols(uri, Arrays.copyOf(names, size), Arrays.copyOf(kinds, size),
+					Arrays.copyOf(ranges, size * 4));
+		}
+	}
+
+	private final Map<Path, FileSymbols> files;
+
+	// names table, names are never removed
+	private final Map<String, Integer> nameIds;
+	private String[] names;
+	private String[] lowerCaseNames;
+	private int nameCount;
+
+	// files which declare each name, removed files are purged when their count
+	// is too high
+	private FileSymbols[][] postings;
+	private int[] postingSizes;
+	private int[] removedPostings;
+
+	private final ExecutorService executor;
+
+	public XMLWorkspaceSymbolIndex() {
+		this.files = new HashMap<>();
+		this.nameIds = new HashMap<>();
+		clear();
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "lsp4xml-symbol-index");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+	}
+
+	/**
+	 * Index in background the files of the given workspace root URIs.
+	 *
+	 * @param rootURIs the workspace root URIs.
+	 */
+	public void indexWorkspace(Collection<String> rootURIs) {
+		for (String rootURI : rootURIs) {
+			Path root = toPath(rootURI);
+			if (root != null) {
+				executor.execute(() -> indexDirectory(root));
+			}
+		}
+	}
+
+	/**
+	 * Index in background the file of the given URI which has been created or
+	 * changed.
+	 *
+	 * @param fileURI the file URI.
+	 */
+	public void fileChanged(String fileURI) {
+		Path file = toPath(fileURI);
+		if (file != null && isIndexable(file)) {
+			executor.execute(() -> indexFile(file));
+		}
+	}
+
+	/**
+	 * Remove from the index the file of the given URI which has been deleted.
+	 *
+	 * @param fileURI the file URI.
+	 */
+	public void fileDeleted(String fileURI) {
+		Path file = toPath(fileURI);
+		if (file != null) {
+			executor.execute(() -> removeFiles(file));
+		}
+	}
+
+	/**
+	 * Returns the symbols which match the given query.
+	 *
+	 * <p>
+	 * A symbol matches when its name (or its local name) starts with the query,
+	 * contains the query or contains the characters of the query in the same
+	 * order. The comparison is case insensitive and symbols which start with the
+	 * query are returned first.
+	 * </p>
+	 *
+	 * @param query         the query.
+	 * @param maxResults    the max number of symbols to return.
+	 * @param cancelChecker the cancel checker.
+	 * @return the symbols which match the given query.
+	 */
+	public synchronized List<SymbolInformation> search(String query, int maxResults,
+			CancelChecker cancelChecker) {
+		String pattern = query != null ? query.toLowerCase(Locale.ENGLISH) : "";
+		// collect the matching names by match level
+		int[][] matchingNames = new int[FUZZY_MATCH][16];
+		int[] matchingNameCounts = new int[FUZZY_MATCH];
+		for (int nameId = 0; nameId < nameCount; nameId++) {
+			if (postingSizes[nameId] == removedPostings[nameId]) {
+				// no file declares the name
+				continue;
+			}
+			byte match = match(lowerCaseNames[nameId], pattern);
+			if (match != NO_MATCH) {
+				int level = match - 1;
+				int count = matchingNameCounts[level];
+				if (count == matchingNames[level].length) {
+					matchingNames[level] = Arrays.copyOf(matchingNames[level], count * 2);
+				}
+				matchingNames[level][count] = nameId;
+				matchingNameCounts[level]++;
+			}
+		}
+		// collect the symbols of the matching names, best match level first
+		List<SymbolInformation> symbols = new ArrayList<>();
+		for (int level = 0; level < FUZZY_MATCH; level++) {
+			for (int i = 0; i < matchingNameCounts[level]; i++) {
+				if (cancelChecker != null) {
+					cancelChecker.checkCanceled();
+				}
+				int nameId = matchingNames[level][i];
+				FileSymbols[] nameFiles = postings[nameId];
+				for (int j = 0; j < postingSizes[nameId]; j++) {
+					FileSymbols file = nameFiles[j];
+					if (file.removed) {
+						continue;
+					}
+					int[] fileNames = file.names;
+					for (int index = 0; index < fileNames.length; index++) {
+						if (fileNames[index] == nameId) {
+							symbols.add(file.getSymbol(index, names[nameId]));
+							if (symbols.size() >= maxResults) {
+								return symbols;
+							}
+						}
+					}
+				}
+			}
+		}
+		return symbols;
+	}
+
+	/**
+	 * Returns the number of indexed files.
+	 *
+	 * @return the number of indexed files.
+	 */
+	public synchronized int getFileCount() {
+		return files.size();
+	}
+
+	/**
+	 * Shutdown the background indexing and release the index.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+		synchronized (this) {
+			clear();
+		}
+	}
+
+	private void clear() {
+		files.clear();
+		nameIds.clear();
+		names = new String[256];
+		lowerCaseNames = new String[256];
+		nameCount = 0;
+		postings = new FileSymbols[256][];
+		postingSizes = new int[256];
+		removedPostings = new int[256];
+	}
+
+	/**
+	 * Index the given file in the current thread.
+	 *
+	 * @param file the file to index.
+	 */
+	void indexFile(Path file) {
+		try {
+			if (!Files.isRegularFile(file) || Files.size(file) > MAX_FILE_SIZE) {
+				removeFiles(file);
+				return;
+			}
+			String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			String uri = file.toUri().toString();
+			DOMDocument document = DOMParser.getInstance().parse(text, uri, null);
+			putFile(file, collectSymbols(document, uri));
+		} catch (Exception e) {
+			LOGGER.log(Level.WARNING, "Error while indexing symbols of '" + file + "'.", e);
+			removeFiles(file);
+		}
+	}
+
+	private synchronized void putFile(Path file, FileSymbols symbols) {
+		FileSymbols oldSymbols = files.put(file, symbols);
+		if (oldSymbols != null) {
+			removePostings(oldSymbols);
+		}
+		for (int nameId : symbols.distinctNames) {
+			int size = postingSizes[nameId];
+			if (postings[nameId] == null) {
+				postings[nameId] = new FileSymbols[4];
+			} else if (size == postings[nameId].length) {
+				purgePostings(nameId);
+				size = postingSizes[nameId];
+				if (size * 2 > postings[nameId].length) {
+					postings[nameId] = Arrays.copyOf(postings[nameId], postings[nameId].length * 2);
+				}
+			}
+			postings[nameId][size] = symbols;
+			postingSizes[nameId]++;
+		}
+	}
+
+	private synchronized void removeFiles(Path file) {
+		// the path can be a folder
+		Iterator<Map.Entry<Path, FileSymbols>> entries = files.entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<Path, FileSymbols> entry = entries.next();
+			if (entry.getKey().startsWith(file)) {
+				entries.remove();
+				removePostings(entry.getValue());
+			}
+		}
+	}
+
+	private void removePostings(FileSymbols symbols) {
+		symbols.removed = true;
+		for (int nameId : symbols.distinctNames) {
+			removedPostings[nameId]++;
+			if (removedPostings[nameId] * 2 > postingSizes[nameId]) {
+				purgePostings(nameId);
+			}
+		}
+	}
+
+	private void purgePostings(int nameId) {
+		FileSymbols[] nameFiles = postings[nameId];
+		int size = 0;
+		for (int i = 0; i < postingSizes[nameId]; i++) {
+			if (!nameFiles[i].removed) {
+				nameFiles[size++] = nameFiles[i];
+			}
+		}
+		Arrays.fill(nameFiles, size, postingSizes[nameId], null);
+		postingSizes[nameId] = size;
+		removedPostings[nameId] = 0;
+	}
+
+	private void indexDirectory(Path root) {
+		try {
+			Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+					Path name = dir.getFileName();
+					if (!dir.equals(root) && name != null
+							&& (name.toString().startsWith(".") || "node_modules".equals(name.toString()))) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+					return Thread.currentThread().isInterrupted() ? FileVisitResult.TERMINATE
+							: FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					if (attrs.isRegularFile() && isIndexable(file)) {
+						indexFile(file);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Error while indexing symbols of '" + root + "'.", e);
+		}
+	}
+
+	private FileSymbols collectSymbols(DOMDocument document, String uri) throws BadLocationException {
+		FileSymbolsBuilder symbols = new FileSymbolsBuilder(document);
+		boolean isXSD = DOMUtils.isXSD(document);
+		DOMElement documentElement = document.getDocumentElement();
+		Set<String> elementNames = new HashSet<>();
+		// visit the nodes in the document order to index the first element of each name
+		List<DOMNode> nodes = new ArrayList<>(document.getChildren());
+		Collections.reverse(nodes);
+		while (!nodes.isEmpty()) {
+			DOMNode node = nodes.remove(nodes.size() - 1);
+			if (node.isElement()) {
+				DOMElement element = (DOMElement) node;
+				if (isXSD) {
+					if (element.getParentNode() == documentElement
+							&& XSD_GLOBAL_DECLARATIONS.contains(element.getLocalName())) {
+						DOMAttr nameAttr = element.getAttributeNode("name");
+						DOMNode value = nameAttr != null ? nameAttr.getNodeAttrValue() : null;
+						if (value != null) {
+							SymbolKind kind = "element".equals(element.getLocalName()) ? SymbolKind.Property
+									: SymbolKind.Class;
+							int delimiter = DOMAttr.isQuoted(nameAttr.getOriginalValue()) ? 1 : 0;
+							symbols.add(nameAttr.getValue(), kind, value.getStart() + delimiter,
+									value.getEnd() - delimiter);
+						}
+					}
+				} else {
+					String tagName = element.getTagName();
+					if (tagName != null && elementNames.add(tagName)) {
+						int start = element.getStart() + 1;
+						symbols.add(tagName, SymbolKind.Field, start, start + tagName.length());
+					}
+				}
+			} else if (node.isDTDElementDecl()) {
+				DTDDeclParameter name = ((DTDElementDecl) node).getNameParameter();
+				if (name != null) {
+					symbols.add(name.getParameter(), SymbolKind.Property, name.getStart(), name.getEnd());
+				}
+			}
+			if (node.hasChildNodes()) {
+				List<DOMNode> children = node.getChildren();
+				for (int i = children.size() - 1; i >= 0; i--) {
+					nodes.add(children.get(i));
+				}
+			}
+		}
+		return symbols.build(uri);
+	}
+
+	private synchronized int intern(String name) {
+		Integer id = nameIds.get(name);
+		if (id != null) {
+			return id;
+		}
+		if (nameCount == names.length) {
+			names = Arrays.copyOf(names, nameCount * 2);
+			lowerCaseNames = Arrays.copyOf(lowerCaseNames, nameCount * 2);
+			postings = Arrays.copyOf(postings, nameCount * 2);
+			postingSizes = Arrays.copyOf(postingSizes, nameCount * 2);
+			removedPostings = Arrays.copyOf(removedPostings, nameCount * 2);
+		}
+		names[nameCount] = name;
+		lowerCaseNames[nameCount] = name.toLowerCase(Locale.ENGLISH);
+		nameIds.put(name, nameCount);
+		return nameCount++;
+	}
+
+	private static byte match(String name, String pattern) {
+		if (pattern.isEmpty() || name.startsWith(pattern)) {
+			return PREFIX_MATCH;
+		}
+		int colon = name.indexOf(':');
+		if (colon != -1 && name.startsWith(pattern, colon + 1)) {
+			return PREFIX_MATCH;
+		}
+		if (name.contains(pattern)) {
+			return CONTAINS_MATCH;
+		}
+		int index = 0;
+		for (int i = 0; i < name.length() && index < pattern.length(); i++) {
+			if (name.charAt(i) == pattern.charAt(index)) {
+				index++;
+			}
+		}
+		return index == pattern.length() ? FUZZY_MATCH : NO_MATCH;
+	}
+
+	private static boolean isIndexable(Path file) {
+		String fileName = file.getFileName() != null ? file.getFileName().toString().toLowerCase(Locale.ENGLISH)
+				: "";
+		return fileName.endsWith(XML_EXTENSION) || DOMUtils.isXSD(fileName) || DOMUtils.isDTD(fileName);
+	}
+
+	private static Path toPath(String fileURI) {
+		if (!URIUtils.isFileResource(fileURI)) {
+			return null;
+		}
+		try {
+			return Paths.get(new URI(fileURI));
+		} catch (Exception e) {
+			LOGGER.log(Level.WARNING, "Invalid file URI '" + fileURI + "'", e);
+			return null;
+		}
+	}
+}
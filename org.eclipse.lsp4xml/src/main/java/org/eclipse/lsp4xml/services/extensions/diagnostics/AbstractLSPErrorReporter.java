@@ -10,9 +10,12 @@
  */
 package org.eclipse.lsp4xml.services.extensions.diagnostics;
 
+import static org.eclipse.lsp4xml.utils.XMLPositionUtility.createRange;
 import static org.eclipse.lsp4xml.utils.XMLPositionUtility.toLSPPosition;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.xerces.impl.XMLErrorReporter;
 import org.apache.xerces.impl.msg.XMLMessageFormatter;
@@ -40,12 +43,19 @@ public abstract class AbstractLSPErrorReporter extends XMLErrorReporter {
 	private final DOMDocument xmlDocument;
 	private final List<Diagnostic> diagnostics;
 
+	// Diagnostics already reported, used to ignore duplicate diagnostics without
+	// scanning the diagnostics list.
+	private Set<Diagnostic> reportedDiagnostics;
+
+	private int maxDiagnostics;
+
 	private final String source;
 
 	public AbstractLSPErrorReporter(String source, DOMDocument xmlDocument, List<Diagnostic> diagnostics) {
 		this.source = source;
 		this.xmlDocument = xmlDocument;
 		this.diagnostics = diagnostics;
+		this.maxDiagnostics = Integer.MAX_VALUE;
 		XMLMessageFormatter xmft = new XMLMessageFormatter();
 		super.putMessageFormatter(XMLMessageFormatter.XML_DOMAIN, xmft);
 		super.putMessageFormatter(XMLMessageFormatter.XMLNS_DOMAIN, xmft);
@@ -77,27 +87,34 @@ public abstract class AbstractLSPErrorReporter extends XMLErrorReporter {
 			message = str.toString();
 		}
 
-		Range adjustedRange = internalToLSPRange(location, key, arguments, xmlDocument);
-
-		if (adjustedRange == null) {
-			return null;
-		}
-
-		if (!addDiagnostic(adjustedRange, message, toLSPSeverity(severity), key)) {
-			return null;
+		boolean reported = false;
+		if (diagnostics.size() < maxDiagnostics) {
+			// the range is computed only when the max number of diagnostics is not
+			// reached
+			Range adjustedRange = internalToLSPRange(location, key, arguments, xmlDocument);
+			reported = adjustedRange != null && addDiagnostic(adjustedRange, message, toLSPSeverity(severity), key);
 		}
 
+		// a fatal error stops the parse even if it's not reported
 		if (severity == SEVERITY_FATAL_ERROR && !fContinueAfterFatalError) {
 			XMLParseException parseException = (exception != null) ? new XMLParseException(location, message, exception)
 					: new XMLParseException(location, message);
 			throw parseException;
 		}
-		return message;
+		return reported ? message : null;
 	}
 
 	public boolean addDiagnostic(Range adjustedRange, String message, DiagnosticSeverity severity, String key) {
+		if (diagnostics.size() >= maxDiagnostics) {
+			// the max number of diagnostics is reached
+			return false;
+		}
+		if (reportedDiagnostics == null) {
+			// the list can contain diagnostics reported before by another participant
+			reportedDiagnostics = new HashSet<>(diagnostics);
+		}
 		Diagnostic d = new Diagnostic(adjustedRange, message, severity, source, key);
-		if (diagnostics.contains(d)) {
+		if (!reportedDiagnostics.add(d)) {
 			return false;
 		}
 		// Fill diagnostic
@@ -105,6 +122,17 @@ public abstract class AbstractLSPErrorReporter extends XMLErrorReporter {
 		return true;
 	}
 
+	/**
+	 * Set the max number of diagnostics of the document, the next errors are
+	 * ignored when it's reached.
+	 * 
+	 * @param maxDiagnostics the max number of diagnostics and a negative value for
+	 *                       no limit.
+	 */
+	public void setMaxDiagnostics(int maxDiagnostics) {
+		this.maxDiagnostics = maxDiagnostics < 0 ? Integer.MAX_VALUE : maxDiagnostics;
+	}
+
 	/**
 	 * Returns the LSP diagnostic severity according the SAX severity.
 	 * 
@@ -131,11 +159,11 @@ public abstract class AbstractLSPErrorReporter extends XMLErrorReporter {
 	 */
 	private Range internalToLSPRange(XMLLocator location, String key, Object[] arguments, DOMDocument document) {
 		if (location == null) {
-			Position start = toLSPPosition(0, location, document.getTextDocument());
-			Position end = toLSPPosition(0, location, document.getTextDocument());
-			return new Range(start, end);
+			return createRange(0, 0, document);
 		}
 
+		// the ranges of the error codes are converted from the DOM offsets with
+		// DOMDocument#rangeAt (see XMLPositionUtility#createRange)
 		Range range = toLSPRange(location, key, arguments, document);
 		if (range != null) {
 			return range;
@@ -0,0 +1,201 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.settings;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.lsp4xml.utils.OSUtils;
+
+/**
+ * Index of path patterns which returns the first pattern (in the given order)
+ * which matches an URI.
+ *
+ * <p>
+ * The patterns are indexed by the file extension of their last literal
+ * characters (ex : "xsd" for "**&#47;*.xsd"), so only the patterns which can
+ * match the file extension of an URI and the patterns without extension are
+ * tested. The URI is converted to a path once, and the literal end of a pattern
+ * is compared before testing its glob. The result is cached per URI, the index
+ * must be created again when the patterns change.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ * @param <T> the path pattern matcher type.
+ */
+public class PathPatternIndex<T extends PathPatternMatcher> {
+
+	private static final int MAX_CACHED_URIS = 10_000;
+
+	private static final String GLOB_SPECIAL_CHARS = "*?[]{}\\/";
+
+	/**
+	 * Indexed pattern.
+	 */
+	private static class IndexedPattern<T extends PathPatternMatcher> {
+
+		private final int order;
+
+		private final T matcher;
+
+		// the literal end of the pattern that a matching path must end with
+		private final String literalEnd;
+
+		IndexedPattern(int order, T matcher, String literalEnd) {
+			this.order = order;
+			this.matcher = matcher;
+			this.literalEnd = literalEnd;
+		}
+
+		boolean matches(Path path, String pathString) {
+			if (!literalEnd.isEmpty() && !pathString.regionMatches(OSUtils.isWindows,
+					pathString.length() - literalEnd.length(), literalEnd, 0, literalEnd.length())) {
+				return false;
+			}
+			try {
+				return matcher.matches(path);
+			} catch (Exception e) {
+				// Invalid glob
+				return false;
+			}
+		}
+	}
+
+	private final Map<String, List<IndexedPattern<T>>> patternsByExtension;
+
+	private final List<IndexedPattern<T>> otherPatterns;
+
+	private final Map<String, Optional<T>> cache;
+
+	public PathPatternIndex(T[] matchers) {
+		this.patternsByExtension = new HashMap<>();
+		this.otherPatterns = new ArrayList<>();
+		this.cache = new ConcurrentHashMap<>();
+		if (matchers != null) {
+			for (int i = 0; i < matchers.length; i++) {
+				T matcher = matchers[i];
+				String pattern = matcher.getPattern();
+				if (pattern == null || pattern.isEmpty()) {
+					continue;
+				}
+				String literalEnd = getLiteralEnd(matcher.getGlob());
+				IndexedPattern<T> indexedPattern = new IndexedPattern<>(i, matcher, literalEnd);
+				String extension = getExtension(literalEnd);
+				if (extension != null) {
+					patternsByExtension.computeIfAbsent(extension, k -> new ArrayList<>()).add(indexedPattern);
+				} else {
+					otherPatterns.add(indexedPattern);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the literal characters of the end of the given glob (after the last
+	 * special character or '/').
+	 */
+	private static String getLiteralEnd(String glob) {
+		int start = glob.length();
+		while (start > 0 && GLOB_SPECIAL_CHARS.indexOf(glob.charAt(start - 1)) == -1) {
+			start--;
+		}
+		return glob.substring(start);
+	}
+
+	private static String getExtension(String fileName) {
+		int index = fileName.lastIndexOf('.');
+		if (index == -1 || index == fileName.length() - 1) {
+			return null;
+		}
+		String extension = fileName.substring(index + 1);
+		return OSUtils.isWindows ? extension.toLowerCase(Locale.ENGLISH) : extension;
+	}
+
+	/**
+	 * Returns the first matcher which matches the given URI and null otherwise.
+	 *
+	 * @param uri the URI.
+	 * @return the first matcher which matches the given URI and null otherwise.
+	 */
+	public T findFirst(String uri) {
+		if (uri == null) {
+			return null;
+		}
+		Optional<T> result = cache.get(uri);
+		if (result == null) {
+			result = Optional.ofNullable(doFindFirst(uri));
+			if (cache.size() >= MAX_CACHED_URIS) {
+				cache.clear();
+			}
+			cache.put(uri, result);
+		}
+		return result.orElse(null);
+	}
+
+	/**
+	 * Returns the first matcher which matches the given URI and null otherwise.
+	 *
+	 * @param uri the URI.
+	 * @return the first matcher which matches the given URI and null otherwise.
+	 */
+	public T findFirst(URI uri) {
+		return uri != null ? findFirst(uri.toString()) : null;
+	}
+
+	private T doFindFirst(String uri) {
+		if (patternsByExtension.isEmpty() && otherPatterns.isEmpty()) {
+			return null;
+		}
+		Path path;
+		try {
+			path = Paths.get(new URI(uri));
+		} catch (Exception e) {
+			return null;
+		}
+		String pathString = path.toString();
+		Path fileName = path.getFileName();
+		String extension = fileName != null ? getExtension(fileName.toString()) : null;
+		List<IndexedPattern<T>> extensionPatterns = extension != null ? patternsByExtension.get(extension) : null;
+		IndexedPattern<T> first = findFirst(extensionPatterns, path, pathString, Integer.MAX_VALUE);
+		// a pattern without extension which is before the first matching pattern
+		// with extension
+		IndexedPattern<T> other = findFirst(otherPatterns, path, pathString,
+				first != null ? first.order : Integer.MAX_VALUE);
+		if (other != null) {
+			return other.matcher;
+		}
+		return first != null ? first.matcher : null;
+	}
+
+	private static <T extends PathPatternMatcher> IndexedPattern<T> findFirst(List<IndexedPattern<T>> patterns,
+			Path path, String pathString, int maxOrder) {
+		if (patterns == null) {
+			return null;
+		}
+		for (IndexedPattern<T> pattern : patterns) {
+			if (pattern.order >= maxOrder) {
+				return null;
+			}
+			if (pattern.matches(path, pathString)) {
+				return pattern;
+			}
+		}
+		return null;
+	}
+}
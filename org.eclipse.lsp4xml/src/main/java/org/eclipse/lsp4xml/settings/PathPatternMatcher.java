@@ -11,6 +11,7 @@ package org.eclipse.lsp4xml.settings;
 
 import java.net.URI;
 import java.nio.file.FileSystems;
+import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.Objects;
@@ -49,23 +50,44 @@ public class PathPatternMatcher {
 		if (pattern.length() < 1) {
 			return false;
 		}
-		if (pathMatcher == null) {
-			char c = pattern.charAt(0);
-			String glob = pattern;
-			if (c != '*' && c != '?' && c != '/') {
-				// in case of pattern like this pattern="myFile*.xml", we must add '**/' before
-				glob = "**/" + glob;
-			}
-			pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
-		}
 		try {
-			return pathMatcher.matches(Paths.get(uri));
+			return matches(Paths.get(uri));
 		} catch (Exception e) {
 			// e.printStackTrace();
 		}
 		return false;
 	}
 
+	/**
+	 * Returns true if the given path matches the pattern and false otherwise.
+	 * 
+	 * @param path the path.
+	 * @return true if the given path matches the pattern and false otherwise.
+	 */
+	public boolean matches(Path path) {
+		if (pattern == null || pattern.length() < 1) {
+			return false;
+		}
+		if (pathMatcher == null) {
+			pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + getGlob());
+		}
+		return pathMatcher.matches(path);
+	}
+
+	/**
+	 * Returns the glob of the pattern.
+	 * 
+	 * @return the glob of the pattern.
+	 */
+	public String getGlob() {
+		char c = pattern.charAt(0);
+		if (c != '*' && c != '?' && c != '/') {
+			// in case of pattern like this pattern="myFile*.xml", we must add '**/' before
+			return "**/" + pattern;
+		}
+		return pattern;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if(this == obj) {
@@ -21,6 +21,8 @@ public class ServerSettings {
 
 	private String workDir;
 
+	private Boolean metrics;
+
 	/**
 	 * @return the workDir
 	 */
@@ -35,6 +37,20 @@ public class ServerSettings {
 		this.workDir = workDir;
 	}
 
+	/**
+	 * Returns true if the metrics of the requests must be recorded, false if they
+	 * must not be recorded and null if the setting is not defined.
+	 * 
+	 * @return true if the metrics of the requests must be recorded.
+	 */
+	public Boolean getMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(Boolean metrics) {
+		this.metrics = metrics;
+	}
+
 	/**
 	 * Returns a normalized workDir that was defined in the client preferences.
 	 * 
@@ -24,6 +24,7 @@ public class SharedSettings {
 	private final XMLSymbolSettings symbolSettings;
 	private final XMLCodeLensSettings codeLensSettings;
 	private final XMLHoverSettings hoverSettings;
+	private final XMLLargeFileSettings largeFileSettings;
 
 	public SharedSettings() {
 		this.completionSettings = new XMLCompletionSettings();
@@ -33,6 +34,7 @@ public class SharedSettings {
 		this.symbolSettings = new XMLSymbolSettings();
 		this.codeLensSettings = new XMLCodeLensSettings();
 		this.hoverSettings = new XMLHoverSettings();
+		this.largeFileSettings = new XMLLargeFileSettings();
 	}
 
 	public XMLCompletionSettings getCompletionSettings() {
@@ -63,4 +65,8 @@ public class SharedSettings {
 		return hoverSettings;
 	}
 
+	public XMLLargeFileSettings getLargeFileSettings() {
+		return largeFileSettings;
+	}
+
 }
\ No newline at end of file
@@ -45,6 +45,8 @@ public class XMLGeneralClientSettings {
 
 	private XMLCodeLensSettings codeLens;
 
+	private XMLLargeFileSettings largeFile;
+
 	public void setLogs(LogsSettings logs) {
 		this.logs = logs;
 	}
@@ -79,6 +81,24 @@ public class XMLGeneralClientSettings {
 		this.codeLens = codeLens;
 	}
 
+	/**
+	 * Returns the large file settings.
+	 * 
+	 * @return the large file settings.
+	 */
+	public XMLLargeFileSettings getLargeFile() {
+		return largeFile;
+	}
+
+	/**
+	 * Set the large file settings.
+	 * 
+	 * @param largeFile
+	 */
+	public void setLargeFile(XMLLargeFileSettings largeFile) {
+		this.largeFile = largeFile;
+	}
+
 	public void setFormat(XMLFormattingOptions format) {
 		this.format = format;
 	}
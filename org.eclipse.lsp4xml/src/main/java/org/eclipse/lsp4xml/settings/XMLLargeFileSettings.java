@@ -0,0 +1,81 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.settings;
+
+/**
+ * XML large file settings ("xml.largeFile").
+ *
+ * <p>
+ * A document which has more characters than the threshold is not parsed in a
+ * whole DOM document: completion, hover, etc parse only a window around the
+ * position of the request, the validation checks only the syntax with a
+ * streaming parser, and document symbols, folding, code lens, document links,
+ * formatting and the requests which need the whole document (rename,
+ * references and document highlight) are disabled.
+ * </p>
+ *
+ * @author Angelo ZERR
+ *
+ */
+public class XMLLargeFileSettings {
+
+	public static final int DEFAULT_THRESHOLD = 10 * 1024 * 1024;
+
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+
+	private int threshold = DEFAULT_THRESHOLD;
+
+	private int windowSize = DEFAULT_WINDOW_SIZE;
+
+	/**
+	 * Returns the number of characters from which a document is a large file and
+	 * a negative value or 0 if the large file mode is disabled.
+	 *
+	 * @return the number of characters from which a document is a large file.
+	 */
+	public int getThreshold() {
+		return threshold;
+	}
+
+	public void setThreshold(int threshold) {
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Returns the number of characters around the position of a request which are
+	 * parsed for a large file.
+	 *
+	 * @return the number of characters which are parsed for a large file.
+	 */
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	public void setWindowSize(int windowSize) {
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Returns true if a document with the given number of characters is a large
+	 * file and false otherwise.
+	 *
+	 * @param length the number of characters of the document.
+	 * @return true if a document with the given number of characters is a large
+	 *         file.
+	 */
+	public boolean isLargeFile(int length) {
+		return threshold > 0 && length > threshold;
+	}
+
+	public void merge(XMLLargeFileSettings settings) {
+		this.threshold = settings.getThreshold();
+		this.windowSize = settings.getWindowSize() > 0 ? settings.getWindowSize() : DEFAULT_WINDOW_SIZE;
+	}
+}
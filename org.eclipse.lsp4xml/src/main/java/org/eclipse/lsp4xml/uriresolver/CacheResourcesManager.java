@@ -31,6 +31,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.eclipse.lsp4xml.commons.ServerExecutors;
 import org.eclipse.lsp4xml.utils.FilesUtils;
 import org.eclipse.lsp4xml.utils.URIUtils;
 
@@ -173,7 +174,7 @@ public class CacheResourcesManager {
 				}
 			}
 			return resourceCachePath;
-		});
+		}, ServerExecutors.getInstance().getIOExecutor());
 	}
 
 	public static Path getResourceCachePath(String resourceURI) throws IOException {
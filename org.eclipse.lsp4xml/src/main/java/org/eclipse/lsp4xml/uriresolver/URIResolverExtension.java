@@ -32,6 +32,23 @@ public interface URIResolverExtension extends XMLEntityResolver {
 	 */
 	public String resolve(String baseLocation, String publicId, String systemId);
 
+	/**
+	 * Returns true if the result of {@link #resolve(String, String, String)} for
+	 * the given arguments depends only on the arguments and on the settings of the
+	 * resolver and false otherwise (ex : the result depends on the content of the
+	 * document). When it's true, the result can be cached by the
+	 * {@link URIResolverExtensionManager} until the settings of a resolver change.
+	 * 
+	 * @param baseLocation - the location of the resource that contains the uri
+	 * @param publicId     - an optional public identifier (i.e. namespace name), or
+	 *                     null if none
+	 * @param systemId     - an absolute or relative URI, or null if none
+	 * @return true if the result of the resolve can be cached and false otherwise.
+	 */
+	default boolean isCacheable(String baseLocation, String publicId, String systemId) {
+		return true;
+	}
+
 	@Override
 	default XMLInputSource resolveEntity(XMLResourceIdentifier resourceIdentifier) throws XNIException, IOException {
 		return null;
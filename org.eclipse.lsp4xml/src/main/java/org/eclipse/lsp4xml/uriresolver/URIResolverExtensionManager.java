@@ -15,6 +15,9 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.xerces.impl.XMLEntityManager;
 import org.apache.xerces.util.URI.MalformedURIException;
@@ -28,13 +31,63 @@ import org.apache.xerces.xni.parser.XMLInputSource;
  */
 public class URIResolverExtensionManager implements URIResolverExtension, IExternalSchemaLocationProvider {
 
+	/**
+	 * Max number of resolved URIs stored in the cache.
+	 */
+	private static final int MAX_RESOLVED_URIS = 10_000;
+
+	/**
+	 * Key of a resolved URI.
+	 */
+	private static class ResolveKey {
+
+		private final String baseLocation;
+
+		private final String publicId;
+
+		private final String systemId;
+
+		private final int hashCode;
+
+		ResolveKey(String baseLocation, String publicId, String systemId) {
+			this.baseLocation = baseLocation;
+			this.publicId = publicId;
+			this.systemId = systemId;
+			this.hashCode = Objects.hash(baseLocation, publicId, systemId);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ResolveKey)) {
+				return false;
+			}
+			ResolveKey other = (ResolveKey) obj;
+			return hashCode == other.hashCode && Objects.equals(baseLocation, other.baseLocation)
+					&& Objects.equals(publicId, other.publicId) && Objects.equals(systemId, other.systemId);
+		}
+	}
+
 	private final List<URIResolverExtension> resolvers;
 
 	private final URIResolverExtension defaultURIResolverExtension;
 
+	// Resolved URIs by (base location, public id, system id). The map is replaced
+	// when the cache is cleared, so a resolve which is computed with the old
+	// settings of the resolvers is stored in the old map.
+	private volatile Map<ResolveKey, Optional<String>> resolvedURIs;
+
 	public URIResolverExtensionManager() {
 		resolvers = new ArrayList<>();
 		this.defaultURIResolverExtension = new DefaultURIResolverExtension();
+		this.resolvedURIs = new ConcurrentHashMap<>();
 	}
 
 	class DefaultURIResolverExtension implements URIResolverExtension {
@@ -74,6 +127,7 @@ public class URIResolverExtensionManager implements URIResolverExtension, IExter
 	 */
 	public void registerResolver(URIResolverExtension resolver) {
 		resolvers.add(resolver);
+		clearCache();
 	}
 
 	/**
@@ -82,11 +136,47 @@ public class URIResolverExtensionManager implements URIResolverExtension, IExter
 	 * @param resolver the URI resolver to unregister.
 	 */
 	public void unregisterResolver(URIResolverExtension resolver) {
-		resolvers.add(resolver);
+		resolvers.remove(resolver);
+		clearCache();
+	}
+
+	/**
+	 * Clear the cache of the resolved URIs. This method must be called when the
+	 * settings of a resolver change (ex : catalogs, file associations, root URI).
+	 */
+	public void clearCache() {
+		resolvedURIs = new ConcurrentHashMap<>();
 	}
 
 	@Override
 	public String resolve(String baseLocation, String publicId, String systemId) {
+		Map<ResolveKey, Optional<String>> resolvedURIs = this.resolvedURIs;
+		ResolveKey key = new ResolveKey(baseLocation, publicId, systemId);
+		Optional<String> resolved = resolvedURIs.get(key);
+		if (resolved != null) {
+			return resolved.orElse(null);
+		}
+		String resolvedURI = doResolve(baseLocation, publicId, systemId);
+		if (isCacheable(baseLocation, publicId, systemId)) {
+			if (resolvedURIs.size() >= MAX_RESOLVED_URIS) {
+				resolvedURIs.clear();
+			}
+			resolvedURIs.put(key, Optional.ofNullable(resolvedURI));
+		}
+		return resolvedURI;
+	}
+
+	@Override
+	public boolean isCacheable(String baseLocation, String publicId, String systemId) {
+		for (URIResolverExtension resolver : resolvers) {
+			if (!resolver.isCacheable(baseLocation, publicId, systemId)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String doResolve(String baseLocation, String publicId, String systemId) {
 		for (URIResolverExtension resolver : resolvers) {
 			String resolved = resolver.resolve(baseLocation, publicId, systemId);
 			if (resolved != null && !resolved.isEmpty()) {
@@ -35,7 +35,6 @@ import org.eclipse.lsp4xml.dom.DTDDeclParameter;
 import org.eclipse.lsp4xml.dom.DTDElementDecl;
 import org.eclipse.lsp4xml.dom.parser.Scanner;
 import org.eclipse.lsp4xml.dom.parser.TokenType;
-import org.eclipse.lsp4xml.dom.parser.XMLScanner;
 
 /**
  * XML position utility.
@@ -423,7 +422,7 @@ public class XMLPositionUtility {
 		if (element != null) {
 			for (DOMNode node : element.getChildren()) {
 				if (node.isCharacterData() && ((DOMCharacterData) node).hasMultiLine()) {
-					String content = ((DOMCharacterData) node).getData();
+					CharSequence content = ((DOMCharacterData) node).getDataSequence();
 					int start = node.getStart();
 					Integer end = null;
 					for (int i = 0; i < content.length(); i++) {
@@ -519,7 +518,7 @@ public class XMLPositionUtility {
 
 	public static Range createRange(int startOffset, int endOffset, DOMDocument document) {
 		try {
-			return new Range(document.positionAt(startOffset), document.positionAt(endOffset));
+			return document.rangeAt(startOffset, endOffset);
 		} catch (BadLocationException e) {
 			return null;
 		}
@@ -585,16 +584,7 @@ public class XMLPositionUtility {
 			return null;
 		}
 
-		int startOffset = child.getStart();
-		int endOffset = child.getEnd();
-
-		try {
-			Position startPosition = document.positionAt(startOffset);
-			Position endPosition = document.positionAt(endOffset);
-			return new Range(startPosition, endPosition);
-		} catch (BadLocationException e) {
-			return null;
-		}
+		return createRange(child.getStart(), child.getEnd(), document);
 	}
 
 	public static Range selectContent(int offset, DOMDocument document) {
@@ -655,14 +645,7 @@ public class XMLPositionUtility {
 				startOffset += StringUtils.getFrontWhitespaceLength(text);
 				endOffset -= StringUtils.getTrailingWhitespaceLength(text);
 			}
-			
-			try {
-				Position startPosition = document.positionAt(startOffset);
-				Position endPosition = document.positionAt(endOffset);
-				return new Range(startPosition, endPosition);
-			} catch (BadLocationException e) {
-				return null;
-			}
+			return createRange(startOffset, endOffset, document);
 		}
 
 		return null;
@@ -816,7 +799,7 @@ public class XMLPositionUtility {
 
 	public static Range getTagNameRange(TokenType tokenType, int startOffset, DOMDocument xmlDocument) {
 
-		Scanner scanner = XMLScanner.createScanner(xmlDocument.getText(), startOffset);
+		Scanner scanner = xmlDocument.createScanner(startOffset);
 
 		TokenType token = scanner.scan();
 		while (token != TokenType.EOS && token != tokenType) {
@@ -824,8 +807,7 @@ public class XMLPositionUtility {
 		}
 		if (token != TokenType.EOS) {
 			try {
-				return new Range(xmlDocument.positionAt(scanner.getTokenOffset()),
-						xmlDocument.positionAt(scanner.getTokenEnd()));
+				return xmlDocument.rangeAt(scanner.getTokenOffset(), scanner.getTokenEnd());
 			} catch (BadLocationException e) {
 				LOGGER.log(Level.SEVERE,
 						"While creating Range in XMLHighlighting the Scanner's Offset was a BadLocation", e);
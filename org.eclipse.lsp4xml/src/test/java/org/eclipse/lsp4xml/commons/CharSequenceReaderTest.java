@@ -0,0 +1,67 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link CharSequenceReader} tests
+ *
+ */
+public class CharSequenceReaderTest {
+
+	@Test
+	public void readString() throws IOException {
+		Assert.assertEquals("<root>é</root>", read(new CharSequenceReader("<root>é</root>"), 4));
+		Assert.assertEquals("root", read(new CharSequenceReader("<root/>", 1, 5), 3));
+		Assert.assertEquals("", read(new CharSequenceReader(""), 3));
+	}
+
+	@Test
+	public void readRope() throws IOException {
+		StringBuilder expected = new StringBuilder();
+		Rope rope = Rope.EMPTY;
+		for (int i = 0; i < 1000; i++) {
+			String text = "<a" + i + "/>";
+			expected.insert(0, text);
+			rope = rope.replace(0, 0, text);
+		}
+		Assert.assertEquals(expected.toString(), read(new CharSequenceReader(rope), 1000));
+		Assert.assertEquals(expected.substring(10, 5000),
+				read(new CharSequenceReader(rope.subSequence(10, 5000)), 333));
+		Assert.assertEquals(expected.substring(10, 5000), read(new CharSequenceReader(rope, 10, 5000), 7));
+	}
+
+	@Test
+	public void markAndReset() throws IOException {
+		CharSequenceReader reader = new CharSequenceReader("abcdef");
+		Assert.assertEquals('a', reader.read());
+		reader.mark(0);
+		Assert.assertEquals(2, reader.skip(2));
+		Assert.assertEquals('d', reader.read());
+		reader.reset();
+		Assert.assertEquals("bcdef", read(reader, 2));
+		Assert.assertEquals(-1, reader.read());
+	}
+
+	private static String read(Reader reader, int bufferSize) throws IOException {
+		StringBuilder result = new StringBuilder();
+		char[] buffer = new char[bufferSize];
+		int count;
+		while ((count = reader.read(buffer, 0, buffer.length)) != -1) {
+			result.append(buffer, 0, count);
+		}
+		return result.toString();
+	}
+}
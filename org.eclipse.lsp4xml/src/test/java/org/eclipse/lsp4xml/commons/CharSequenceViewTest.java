@@ -0,0 +1,64 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMElement;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.eclipse.lsp4xml.dom.DOMProcessingInstruction;
+import org.eclipse.lsp4xml.dom.DOMText;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link CharSequenceView} tests
+ *
+ */
+public class CharSequenceViewTest {
+
+	@Test
+	public void view() {
+		CharSequenceView view = new CharSequenceView("<a> foo bar </a>", 3, 12);
+		Assert.assertEquals(9, view.length());
+		Assert.assertEquals(' ', view.charAt(0));
+		Assert.assertEquals(" foo bar ", view.toString());
+		Assert.assertEquals("foo bar", view.trim().toString());
+		Assert.assertEquals("bar", view.subSequence(5, 8).toString());
+		Assert.assertEquals(5, view.indexOf("bar"));
+		Assert.assertEquals(-1, view.indexOf("</a>"));
+		Assert.assertTrue(view.contentEquals(" foo bar "));
+		Assert.assertFalse(view.contentEquals(" foo bar"));
+		Assert.assertFalse(view.isWhitespace());
+		Assert.assertTrue(new CharSequenceView("<a> \r\n </a>", 3, 7).isWhitespace());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void outOfBounds() {
+		new CharSequenceView("<a> foo </a>", 3, 8).charAt(5);
+	}
+
+	@Test
+	public void textData() {
+		DOMDocument document = DOMParser.getInstance().parse("<a>\r\n  foo\r\n</a><?pi  bar ?>", "test.xml", null);
+		DOMElement a = document.getDocumentElement();
+		DOMText text = (DOMText) a.getFirstChild();
+		Assert.assertEquals("\r\n  foo\r\n", text.getData());
+		Assert.assertEquals(9, text.getLength());
+		Assert.assertTrue(text.hasData());
+		Assert.assertTrue(text.hasMultiLine());
+		Assert.assertTrue(text.startsWithNewLine());
+		Assert.assertTrue(text.endsWithNewLine());
+		Assert.assertFalse(text.isWhitespace());
+
+		DOMProcessingInstruction pi = (DOMProcessingInstruction) document.getChild(1);
+		Assert.assertEquals("bar", pi.getData());
+		Assert.assertEquals(3, pi.getLength());
+	}
+}
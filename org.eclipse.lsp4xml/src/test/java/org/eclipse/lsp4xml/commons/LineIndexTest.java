@@ -0,0 +1,147 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.util.Random;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link LineIndex}.
+ *
+ */
+public class LineIndexTest {
+
+	private static final char[] CHARS = { 'a', 'b', '\r', '\n' };
+
+	@Test
+	public void positionAt() throws BadLocationException {
+		LineIndex index = LineIndex.of("ab\r\ncd\ne\rf");
+		Assert.assertEquals(4, index.getLineCount());
+		Assert.assertEquals(new Position(0, 0), index.positionAt(0));
+		Assert.assertEquals(new Position(0, 3), index.positionAt(3));
+		Assert.assertEquals(new Position(1, 0), index.positionAt(4));
+		Assert.assertEquals(new Position(2, 1), index.positionAt(8));
+		Assert.assertEquals(new Position(3, 1), index.positionAt(10));
+		Assert.assertEquals(9, index.offsetAt(new Position(3, 0)));
+		Assert.assertEquals(10, index.offsetAt(new Position(4, 0)));
+	}
+
+	@Test(expected = BadLocationException.class)
+	public void positionAtOutOfText() throws BadLocationException {
+		LineIndex.of("ab").positionAt(3);
+	}
+
+	@Test
+	public void positionsAt() throws BadLocationException {
+		LineIndex index = LineIndex.of("a\nb\nc\nd\ne");
+		Position[] positions = index.positionsAt(0, 2, 3, 8, 4, 1);
+		Assert.assertEquals(new Position(0, 0), positions[0]);
+		Assert.assertEquals(new Position(1, 0), positions[1]);
+		Assert.assertEquals(new Position(1, 1), positions[2]);
+		Assert.assertEquals(new Position(4, 0), positions[3]);
+		Assert.assertEquals(new Position(2, 0), positions[4]);
+		Assert.assertEquals(new Position(0, 1), positions[5]);
+		Assert.assertEquals(new Range(new Position(1, 1), new Position(4, 0)), index.rangeAt(3, 8));
+	}
+
+	@Test
+	public void sameAsListLineTracker() throws BadLocationException {
+		Random random = new Random(0);
+		for (int i = 0; i < 500; i++) {
+			String text = randomText(random, random.nextInt(20));
+			assertSameAsListLineTracker(text, LineIndex.of(text));
+		}
+	}
+
+	@Test
+	public void rope() throws BadLocationException {
+		Random random = new Random(0);
+		for (int i = 0; i < 500; i++) {
+			String text = randomText(random, random.nextInt(20));
+			Rope rope = Rope.EMPTY;
+			for (int j = 0; j < text.length(); j++) {
+				rope = rope.replace(j, j, text.substring(j, j + 1));
+			}
+			assertSameAsListLineTracker(text, LineIndex.of(rope));
+		}
+	}
+
+	@Test
+	public void update() throws BadLocationException {
+		Random random = new Random(0);
+		for (int i = 0; i < 2000; i++) {
+			String text = randomText(random, random.nextInt(20));
+			LineIndex index = LineIndex.of(text);
+			int start = random.nextInt(text.length() + 1);
+			int oldEnd = start + random.nextInt(text.length() - start + 1);
+			String inserted = randomText(random, random.nextInt(5));
+			String newText = text.substring(0, start) + inserted + text.substring(oldEnd);
+			LineIndex newIndex = index.update(newText,
+					new ChangedRegion(start, oldEnd, start + inserted.length()));
+			assertSameAsListLineTracker(newText, newIndex);
+		}
+	}
+
+	private static void assertSameAsListLineTracker(String text, LineIndex index) throws BadLocationException {
+		ListLineTracker tracker = new ListLineTracker();
+		tracker.set(text);
+		String message = "Text '" + text.replace("\r", "\\r").replace("\n", "\\n") + "'";
+		int[] offsets = new int[text.length() + 1];
+		for (int offset = 0; offset <= text.length(); offset++) {
+			Position expected = tracker.getPositionAt(offset);
+			Assert.assertEquals(message, expected, index.positionAt(offset));
+			Assert.assertEquals(message, offsetAt(tracker, expected), offsetAt(index, expected));
+			offsets[offset] = offset;
+		}
+		Position[] positions = index.positionsAt(offsets);
+		for (int offset = 0; offset <= text.length(); offset++) {
+			Assert.assertEquals(message, tracker.getPositionAt(offset), positions[offset]);
+		}
+		// end of lines
+		for (int line = 0; line <= index.getLineCount() + 1; line++) {
+			Position position = new Position(line, 0);
+			Assert.assertEquals(message, offsetAt(tracker, position), offsetAt(index, position));
+		}
+		// line ends and delimiters
+		for (int line = 0; line < index.getLineCount(); line++) {
+			Line expected = tracker.getLineInformation(line);
+			Assert.assertEquals(message, expected.offset + expected.length, index.getLineEnd(line));
+			Assert.assertEquals(message, tracker.getLineDelimiter(line), index.getLineDelimiter(line));
+		}
+	}
+
+	private static Integer offsetAt(ListLineTracker tracker, Position position) {
+		try {
+			return tracker.getOffsetAt(position);
+		} catch (BadLocationException e) {
+			return null;
+		}
+	}
+
+	private static Integer offsetAt(LineIndex index, Position position) {
+		try {
+			return index.offsetAt(position);
+		} catch (BadLocationException e) {
+			return null;
+		}
+	}
+
+	private static String randomText(Random random, int length) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			text.append(CHARS[random.nextInt(CHARS.length)]);
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Rope tests
+ *
+ */
+public class RopeTest {
+
+	@Test
+	public void replace() {
+		Rope rope = Rope.of("abcdef");
+		rope = rope.replace(2, 4, "XYZ");
+		Assert.assertEquals("abXYZef", rope.toString());
+		Assert.assertEquals(7, rope.length());
+		Assert.assertEquals('Z', rope.charAt(4));
+		Assert.assertEquals("bXY", rope.subSequence(1, 4).toString());
+
+		rope = rope.replace(0, 0, "<");
+		rope = rope.replace(rope.length(), rope.length(), ">");
+		Assert.assertEquals("<abXYZef>", rope.toString());
+
+		rope = rope.replace(0, rope.length(), "");
+		Assert.assertEquals("", rope.toString());
+		Assert.assertEquals(0, rope.length());
+	}
+
+	@Test
+	public void replaceLikeStringBuilder() {
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			expected.append((char) ('a' + (i % 26)));
+		}
+		Rope rope = Rope.of(expected.toString());
+		Random random = new Random(0);
+		for (int i = 0; i < 5000; i++) {
+			int start = random.nextInt(expected.length() + 1);
+			int end = Math.min(expected.length(), start + random.nextInt(3));
+			String text = random.nextBoolean() ? "" : String.valueOf(i);
+			expected.replace(start, end, text);
+			rope = rope.replace(start, end, text);
+		}
+		Assert.assertEquals(expected.toString(), rope.toString());
+		Assert.assertTrue("Rope must be balanced, depth=" + rope.depth(), rope.depth() <= 48);
+		for (int i = 0; i < expected.length(); i += 97) {
+			Assert.assertEquals(expected.charAt(i), rope.charAt(i));
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void badReplace() {
+		Rope.of("abc").replace(2, 4, "");
+	}
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link ServerExecutors}.
+ *
+ */
+public class ServerExecutorsTest {
+
+	@Test
+	public void platformMode() throws Exception {
+		ServerExecutors executors = new ServerExecutors("platform", 2);
+		Assert.assertFalse(executors.isVirtualThreads());
+		Assert.assertSame(executors.getCPUExecutor(), executors.getRequestExecutor());
+		Assert.assertNotSame(executors.getCPUExecutor(), executors.getIOExecutor());
+
+		// the CPU executor is bounded
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		CountDownLatch latch = new CountDownLatch(1);
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[10];
+		for (int i = 0; i < tasks.length; i++) {
+			tasks[i] = CompletableFuture.runAsync(() -> {
+				threads.add(Thread.currentThread().getName());
+				try {
+					latch.await(1, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}, executors.getCPUExecutor());
+		}
+		// blocking I/O is not waiting for the CPU executor
+		String ioThread = CompletableFuture
+				.supplyAsync(() -> Thread.currentThread().getName(), executors.getIOExecutor())
+				.get(1, TimeUnit.SECONDS);
+		Assert.assertEquals("lsp4xml-io-1", ioThread);
+		latch.countDown();
+		CompletableFuture.allOf(tasks).join();
+		Assert.assertEquals(2, threads.size());
+		Assert.assertTrue(threads.stream().allMatch(name -> name.startsWith("lsp4xml-cpu-")));
+	}
+
+	@Test
+	public void virtualMode() {
+		ServerExecutors executors = new ServerExecutors(ServerExecutors.VIRTUAL_MODE, 2);
+		Assert.assertEquals(isVirtualThreadsSupported(), executors.isVirtualThreads());
+		if (executors.isVirtualThreads()) {
+			Assert.assertNotSame(executors.getCPUExecutor(), executors.getRequestExecutor());
+		} else {
+			// fallback to platform threads
+			Assert.assertSame(executors.getCPUExecutor(), executors.getRequestExecutor());
+		}
+	}
+
+	private static boolean isVirtualThreadsSupported() {
+		try {
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+}
@@ -10,7 +10,11 @@
  */
 package org.eclipse.lsp4xml.commons;
 
+import java.util.Arrays;
+
 import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -252,4 +256,26 @@ public class TextDocumentTest {
 		Assert.assertNotNull(ex);
 	}
 
+	@Test
+	public void testUpdateInc() throws BadLocationException {
+		TextDocument document = new TextDocument("abcd\nefgh", "");
+		document.setIncremental(true);
+
+		// Insert text
+		document.update(Arrays.asList(new TextDocumentContentChangeEvent(
+				new Range(new Position(1, 2), new Position(1, 2)), 0, "XY\nZ")));
+		Assert.assertEquals("abcd\nefXY\nZgh", document.getTextSequence().toString());
+		Assert.assertEquals(2, document.positionAt(document.getText().length()).getLine());
+
+		// Delete text
+		document.update(Arrays.asList(new TextDocumentContentChangeEvent(
+				new Range(new Position(0, 1), new Position(1, 1)), 5, "")));
+		Assert.assertEquals("afXY\nZgh", document.getText());
+		Assert.assertEquals("Zgh", document.lineText(1));
+
+		// Replace the whole content
+		document.update(Arrays.asList(new TextDocumentContentChangeEvent("new")));
+		Assert.assertEquals("new", document.getText());
+	}
+
 }
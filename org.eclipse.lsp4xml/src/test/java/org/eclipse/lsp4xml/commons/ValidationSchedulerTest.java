@@ -0,0 +1,104 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4xml.commons.ValidationScheduler.Priority;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link ValidationScheduler} tests
+ *
+ */
+public class ValidationSchedulerTest {
+
+	private final ValidationScheduler scheduler = new ValidationScheduler(1);
+
+	@After
+	public void shutdown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void debounce() throws InterruptedException {
+		List<Integer> validations = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(1);
+		for (int i = 0; i < 30; i++) {
+			int version = i;
+			scheduler.schedule("file:///a.xml", () -> {
+				validations.add(version);
+				done.countDown();
+			}, Priority.HIGH, 100);
+		}
+		Assert.assertEquals(1, scheduler.getPendingCount());
+		Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+		Thread.sleep(200);
+		Assert.assertEquals(Collections.singletonList(29), validations);
+		Assert.assertEquals(0, scheduler.getPendingCount());
+	}
+
+	@Test
+	public void priority() throws InterruptedException {
+		List<String> validations = new CopyOnWriteArrayList<>();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(3);
+		// Block the single worker
+		scheduler.schedule("file:///busy.xml", () -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, Priority.HIGH, 0);
+		Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		scheduler.schedule("file:///a.xml", () -> {
+			validations.add("a");
+			done.countDown();
+		}, Priority.LOW, 0);
+		scheduler.schedule("file:///b.xml", () -> {
+			validations.add("b");
+			done.countDown();
+		}, Priority.LOW, 0);
+		scheduler.schedule("file:///c.xml", () -> {
+			validations.add("c");
+			done.countDown();
+		}, Priority.HIGH, 0);
+		// the revalidation doesn't replace the pending validation of the edited
+		// document
+		scheduler.schedule("file:///c.xml", () -> {
+			validations.add("c-low");
+			done.countDown();
+		}, Priority.LOW, 0);
+
+		release.countDown();
+		Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList("c", "a", "b"), validations);
+	}
+
+	@Test
+	public void cancel() throws InterruptedException {
+		List<String> validations = new CopyOnWriteArrayList<>();
+		scheduler.schedule("file:///a.xml", () -> validations.add("a"), Priority.HIGH, 50);
+		scheduler.cancel("file:///a.xml");
+		Thread.sleep(150);
+		Assert.assertTrue(validations.isEmpty());
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.commons.metrics;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4xml.commons.metrics.RequestMetrics.Request;
+import org.eclipse.lsp4xml.commons.metrics.RequestMetricsReport.Cache;
+import org.eclipse.lsp4xml.commons.metrics.RequestMetricsReport.Endpoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link RequestMetrics}.
+ *
+ */
+public class RequestMetricsTest {
+
+	@Test
+	public void disabled() {
+		RequestMetrics metrics = new RequestMetrics(false);
+		Assert.assertNull(metrics.begin("textDocument/hover", "test.xml"));
+		Assert.assertTrue(metrics.getReport().getEndpoints().isEmpty());
+	}
+
+	@Test
+	public void recordRequests() {
+		RequestMetrics metrics = new RequestMetrics(true);
+		for (int i = 0; i < 10; i++) {
+			Request request = metrics.begin("textDocument/hover", "test.xml");
+			Object result = request.wrap((String s) -> s.length()).apply("abcd");
+			request.end(result, null);
+		}
+		Request failed = metrics.begin("textDocument/hover", "failed.xml");
+		failed.end(null, new CompletionException(new IllegalStateException()));
+		Request cancelled = metrics.begin("textDocument/hover", "cancelled.xml");
+		cancelled.end(null, new CancellationException());
+		Request completion = metrics.begin("textDocument/completion", "test.xml");
+		CompletableFuture.completedFuture("").whenComplete(completion::end);
+
+		RequestMetricsReport report = metrics.getReport();
+		Assert.assertTrue(report.isEnabled());
+		Assert.assertEquals(2, report.getEndpoints().size());
+		Endpoint completionEndpoint = report.getEndpoints().get(0);
+		Assert.assertEquals("textDocument/completion", completionEndpoint.getName());
+		Assert.assertEquals(1, completionEndpoint.getCount());
+
+		Endpoint hoverEndpoint = report.getEndpoints().get(1);
+		Assert.assertEquals("textDocument/hover", hoverEndpoint.getName());
+		Assert.assertEquals(11, hoverEndpoint.getCount());
+		Assert.assertEquals(1, hoverEndpoint.getFailed());
+		Assert.assertEquals(1, hoverEndpoint.getCancelled());
+		Assert.assertTrue(hoverEndpoint.getP50() <= hoverEndpoint.getP99());
+		Assert.assertTrue(hoverEndpoint.getP99() <= hoverEndpoint.getMax());
+		Assert.assertEquals(12, report.getSlowestRequests().size());
+
+		metrics.reset();
+		Assert.assertTrue(metrics.getReport().getEndpoints().isEmpty());
+		Assert.assertTrue(metrics.getReport().getSlowestRequests().isEmpty());
+	}
+
+	@Test
+	public void cacheStatistics() {
+		RequestMetrics metrics = new RequestMetrics(false);
+		CacheStatistics statistics = metrics.getCacheStatistics("grammarPool");
+		Assert.assertSame(statistics, metrics.getCacheStatistics("grammarPool"));
+		statistics.recordHit();
+		statistics.recordHit();
+		statistics.recordMiss();
+		statistics.recordEviction();
+
+		// cache statistics are reported even if request metrics are disabled
+		List<Cache> caches = metrics.getReport().getCaches();
+		Assert.assertEquals(1, caches.size());
+		Assert.assertEquals("grammarPool", caches.get(0).getName());
+		Assert.assertEquals(2, caches.get(0).getHitCount());
+		Assert.assertEquals(1, caches.get(0).getMissCount());
+		Assert.assertEquals(1, caches.get(0).getEvictionCount());
+
+		metrics.reset();
+		Assert.assertEquals(0, metrics.getReport().getCaches().get(0).getHitCount());
+	}
+
+	@Test
+	public void histogramBuckets() {
+		for (long micros = 0; micros < 100_000; micros++) {
+			int bucket = LatencyHistogram.getBucket(micros);
+			Assert.assertTrue(LatencyHistogram.getLowerBound(bucket) <= micros);
+			Assert.assertTrue(micros < LatencyHistogram.getLowerBound(bucket + 1));
+		}
+	}
+
+	@Test
+	public void histogramPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+		}
+		Assert.assertEquals(100, histogram.getCount());
+		// percentiles are known with a precision of 25%
+		Assert.assertEquals(50, histogram.getPercentile(50), 50 * 0.25);
+		Assert.assertEquals(99, histogram.getPercentile(99), 99 * 0.25);
+		Assert.assertEquals(100, histogram.getMax(), 0);
+	}
+}
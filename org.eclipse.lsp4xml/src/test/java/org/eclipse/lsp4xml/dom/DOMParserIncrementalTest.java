@@ -0,0 +1,292 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.dom;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.commons.ChangedRegion;
+import org.eclipse.lsp4xml.commons.TextDocument;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DOMParser#reparse(DOMDocument, TextDocument, ChangedRegion, boolean, org.eclipse.lsp4j.jsonrpc.CancelChecker)}.
+ *
+ */
+public class DOMParserIncrementalTest {
+
+	private static final String XML = "<?xml version=\"1.0\"?>\n" + //
+			"<root xmlns=\"http://foo\">\n" + //
+			"  <a attr=\"value\">text</a>\n" + //
+			"  <!-- comment -->\n" + //
+			"  <b>\n" + //
+			"    <c>content</c>\n" + //
+			"    <d />\n" + //
+			"    <![CDATA[ data ]]>\n" + //
+			"  </b>\n" + //
+			"  <e x='1' y=\"2\">after</e>\n" + //
+			"</root>";
+
+	@Test
+	public void insertInLeafElement() throws BadLocationException {
+		TextDocument document = new TextDocument(XML, "test.xml");
+		document.setIncremental(true);
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+
+		int offset = XML.indexOf("content");
+		DOMDocument updated = reparse(xmlDocument, document, offset, 0, "new ");
+		Assert.assertNotSame(xmlDocument, updated);
+		assertSameDOM(DOMParser.getInstance().parse(document, null), updated);
+
+		DOMElement c = (DOMElement) updated.findNodeAt(offset + 1).getParentNode();
+		Assert.assertEquals("c", c.getTagName());
+		Assert.assertEquals("new content", c.getFirstChild().getTextContent());
+		DOMElement e = (DOMElement) updated.findNodeAt(document.getText().indexOf("after") + 4).getParentNode();
+		Assert.assertEquals("e", e.getTagName());
+		Assert.assertEquals("2", e.getAttribute("y"));
+	}
+
+	@Test
+	public void resetModels() throws BadLocationException {
+		TextDocument document = new TextDocument(XML, "test.xml");
+		document.setIncremental(true);
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+		String model = xmlDocument.getModel(String.class, DOMDocument::getText);
+		Assert.assertSame(model, xmlDocument.getModel(String.class, d -> "not computed"));
+
+		DOMDocument updated = reparse(xmlDocument, document, XML.indexOf("content"), 0, "new ");
+		Assert.assertNotSame(xmlDocument, updated);
+		// the model is computed again for the updated DOM document
+		Assert.assertEquals(document.getText(), updated.getModel(String.class, DOMDocument::getText));
+	}
+
+	@Test
+	public void keepPreviousDocument() throws BadLocationException {
+		TextDocument document = new TextDocument(XML, "test.xml");
+		document.setIncremental(true);
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+		String previous = xmlDocument.toString();
+		DOMElement b = (DOMElement) xmlDocument.findNodeAt(XML.indexOf("<b>") + 1);
+		DOMElement e = (DOMElement) xmlDocument.findNodeAt(XML.indexOf("<e") + 1);
+		int eStart = e.getStart();
+		int yStart = e.getAttributeNode("y").getStart();
+		Position position = xmlDocument.positionAt(eStart);
+
+		// the previous DOM document is still used by a request while the new DOM
+		// document is built
+		DOMDocument updated = reparse(xmlDocument, document, XML.indexOf("content"), 0, "new\n ");
+		Assert.assertNotNull(updated);
+		Assert.assertNotSame(xmlDocument, updated);
+		assertSameDOM(DOMParser.getInstance().parse(document, null), updated);
+
+		Assert.assertEquals(previous, xmlDocument.toString());
+		Assert.assertSame(b, xmlDocument.findNodeAt(XML.indexOf("<b>") + 1));
+		Assert.assertSame(xmlDocument, b.getOwnerDocument());
+		Assert.assertEquals(eStart, e.getStart());
+		Assert.assertEquals(yStart, e.getAttributeNode("y").getStart());
+		Assert.assertEquals(position, xmlDocument.positionAt(eStart));
+
+		DOMElement updatedE = (DOMElement) updated.findNodeAt(eStart + 5 + 1);
+		Assert.assertNotSame(e, updatedE);
+		Assert.assertEquals("e", updatedE.getTagName());
+		Assert.assertEquals(eStart + 5, updatedE.getStart());
+		Assert.assertSame(updated, updatedE.getOwnerDocument());
+		Assert.assertEquals(position.getLine() + 1, updated.positionAt(updatedE.getStart()).getLine());
+	}
+
+	@Test
+	public void keepPreviousValues() throws BadLocationException {
+		TextDocument document = new TextDocument(XML, "test.xml");
+		document.setIncremental(true);
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+		DOMElement a = (DOMElement) xmlDocument.findNodeAt(XML.indexOf("<a") + 1);
+		DOMElement e = (DOMElement) xmlDocument.findNodeAt(XML.indexOf("<e") + 1);
+		int line = xmlDocument.positionAt(e.getStart()).getLine();
+
+		// the values of the previous DOM document are read from the text which was
+		// parsed and not from the updated text document
+		DOMDocument updated = reparse(xmlDocument, document, XML.indexOf("<a"), 0, "<z zz='0'/>\n ");
+		Assert.assertNotNull(updated);
+		Assert.assertEquals(XML, xmlDocument.getText());
+		Assert.assertEquals("value", a.getAttribute("attr"));
+		Assert.assertEquals("\"value\"", a.getAttributeNode("attr").getOriginalValue());
+		Assert.assertEquals("text", a.getFirstChild().getTextContent());
+		Assert.assertEquals("1", e.getAttribute("x"));
+		Assert.assertEquals("2", e.getAttribute("y"));
+		Assert.assertEquals("  <e x='1' y=\"2\">after</e>", xmlDocument.lineText(line));
+
+		DOMElement updatedE = (DOMElement) updated.findNodeAt(document.getText().indexOf("<e") + 1);
+		Assert.assertEquals("2", updatedE.getAttribute("y"));
+		Assert.assertEquals("  <e x='1' y=\"2\">after</e>", updated.lineText(line + 1));
+	}
+
+	@Test
+	public void doctype() throws BadLocationException {
+		String xml = "<?xml version=\"1.0\"?>\n" + //
+				"<!DOCTYPE root [\n" + //
+				"  <!ELEMENT root (a)>\n" + //
+				"  <!ATTLIST a attr CDATA #IMPLIED>\n" + //
+				"]>\n" + //
+				"<root>\n" + //
+				"  <a attr=\"value\">text</a>\n" + //
+				"</root>";
+		TextDocument document = new TextDocument(xml, "test.xml");
+		document.setIncremental(true);
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+		DOMDocumentType doctype = xmlDocument.getDoctype();
+
+		DOMDocument updated = reparse(xmlDocument, document, xml.indexOf("text"), 0, "new ");
+		Assert.assertNotNull(updated);
+		assertSameDOM(DOMParser.getInstance().parse(document, null), updated);
+		Assert.assertNotSame(doctype, updated.getDoctype());
+		Assert.assertSame(updated, updated.getDoctype().getOwnerDocument());
+		Assert.assertSame(xmlDocument, doctype.getOwnerDocument());
+		Assert.assertEquals(doctype.getInternalSubset(), updated.getDoctype().getInternalSubset());
+		DTDAttlistDecl attlist = (DTDAttlistDecl) updated.findDTDAttrList("a").iterator().next();
+		Assert.assertEquals("attr", attlist.getAttributeName());
+		Assert.assertSame(updated, attlist.attributeName.getOwnerDocument());
+	}
+
+	@Test
+	public void insertElement() throws BadLocationException {
+		TextDocument document = new TextDocument(XML, "test.xml");
+		document.setIncremental(true);
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+
+		DOMDocument updated = reparse(xmlDocument, document, XML.indexOf("<d />"), 0, "<f>\n<g/></f>");
+		Assert.assertNotNull(updated);
+		assertSameDOM(DOMParser.getInstance().parse(document, null), updated);
+	}
+
+	@Test
+	public void changeStructure() throws BadLocationException {
+		TextDocument document = new TextDocument(XML, "test.xml");
+		document.setIncremental(true);
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+
+		// '</root>' closes an element which is outside of '<c>'
+		DOMDocument updated = reparse(xmlDocument, document, XML.indexOf("content"), 0, "</root>");
+		Assert.assertNull(updated);
+	}
+
+	@Test
+	public void randomChanges() throws BadLocationException {
+		TextDocument document = new TextDocument(XML, "test.xml");
+		document.setIncremental(true);
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+		String[] texts = { "", "a", " ", "\n", "<", ">", "/", "=", "\"", "<x>", "</x>", "<y/>", "<!-- -->" };
+		Random random = new Random(0);
+		for (int i = 0; i < 2000; i++) {
+			int length = document.getText().length();
+			int offset = random.nextInt(length + 1);
+			int replaced = Math.min(length - offset, random.nextInt(3));
+			String text = texts[random.nextInt(texts.length)];
+			DOMDocument updated = reparse(xmlDocument, document, offset, replaced, text);
+			DOMDocument expected = DOMParser.getInstance().parse(document, null);
+			if (updated != null) {
+				assertSameDOM(expected, updated);
+			}
+			xmlDocument = expected;
+		}
+	}
+
+	@Test
+	public void randomChangesFromUpdatedDocuments() throws BadLocationException {
+		TextDocument document = new TextDocument(XML, "test.xml");
+		document.setIncremental(true);
+		DOMDocument xmlDocument = DOMParser.getInstance().parse(document, null);
+		String[] texts = { "", "a", " ", "\n", "<", ">", "/", "=", "\"", "<x>", "</x>", "<y/>", "<!-- -->" };
+		Random random = new Random(0);
+		for (int i = 0; i < 2000; i++) {
+			int length = document.getText().length();
+			int offset = random.nextInt(length + 1);
+			int replaced = Math.min(length - offset, random.nextInt(3));
+			String text = texts[random.nextInt(texts.length)];
+			String previous = i % 3 == 0 ? xmlDocument.toString() : null;
+			DOMDocument updated = reparse(xmlDocument, document, offset, replaced, text);
+			if (previous != null) {
+				// the nodes shared with the updated DOM document are not modified
+				Assert.assertEquals(previous, xmlDocument.toString());
+			}
+			if (updated != null) {
+				// the shared nodes are not accessed before the next change for some
+				// changes
+				if (i % 2 == 0) {
+					assertSameDOM(DOMParser.getInstance().parse(document, null), updated);
+				}
+				xmlDocument = updated;
+			} else {
+				xmlDocument = DOMParser.getInstance().parse(document, null);
+			}
+		}
+		assertSameDOM(DOMParser.getInstance().parse(document, null), xmlDocument);
+	}
+
+	private static DOMDocument reparse(DOMDocument xmlDocument, TextDocument document, int offset, int length,
+			String text) throws BadLocationException {
+		Range range = new Range(document.positionAt(offset), document.positionAt(offset + length));
+		List<TextDocumentContentChangeEvent> changes = Arrays
+				.asList(new TextDocumentContentChangeEvent(range, length, text));
+		document.update(changes);
+		ChangedRegion changed = ChangedRegion.union(null, offset, length, text);
+		return DOMParser.getInstance().reparse(xmlDocument, document, changed, true, null);
+	}
+
+	private static void assertSameDOM(DOMDocument expected, DOMDocument actual) {
+		Assert.assertEquals(expected.toString(), actual.toString());
+		assertSameNode(expected, actual);
+	}
+
+	private static void assertSameNode(DOMNode expected, DOMNode actual) {
+		Assert.assertEquals(expected.getNodeType(), actual.getNodeType());
+		Assert.assertEquals(expected.getStart(), actual.getStart());
+		Assert.assertEquals(expected.getEnd(), actual.getEnd());
+		if (expected.isElement()) {
+			DOMElement expectedElement = (DOMElement) expected;
+			DOMElement actualElement = (DOMElement) actual;
+			Assert.assertEquals(expectedElement.startTagOpenOffset, actualElement.startTagOpenOffset);
+			Assert.assertEquals(expectedElement.startTagCloseOffset, actualElement.startTagCloseOffset);
+			Assert.assertEquals(expectedElement.endTagOpenOffset, actualElement.endTagOpenOffset);
+			Assert.assertEquals(expectedElement.endTagCloseOffset, actualElement.endTagCloseOffset);
+			Assert.assertEquals(expectedElement.isSelfClosed(), actualElement.isSelfClosed());
+		}
+		if (expected.isComment()) {
+			Assert.assertEquals(((DOMComment) expected).startContent, ((DOMComment) actual).startContent);
+			Assert.assertEquals(((DOMComment) expected).endContent, ((DOMComment) actual).endContent);
+		}
+		List<DOMAttr> expectedAttributes = expected.getAttributeNodes();
+		List<DOMAttr> actualAttributes = actual.getAttributeNodes();
+		Assert.assertEquals(expectedAttributes == null, actualAttributes == null);
+		if (expectedAttributes != null) {
+			Assert.assertEquals(expectedAttributes.size(), actualAttributes.size());
+			for (int i = 0; i < expectedAttributes.size(); i++) {
+				DOMAttr expectedAttr = expectedAttributes.get(i);
+				DOMAttr actualAttr = actualAttributes.get(i);
+				Assert.assertEquals(expectedAttr.getName(), actualAttr.getName());
+				Assert.assertEquals(expectedAttr.getStart(), actualAttr.getStart());
+				Assert.assertEquals(expectedAttr.getEnd(), actualAttr.getEnd());
+				Assert.assertEquals(expectedAttr.getValue(), actualAttr.getValue());
+			}
+		}
+		List<DOMNode> expectedChildren = expected.getChildren();
+		List<DOMNode> actualChildren = actual.getChildren();
+		Assert.assertEquals(expectedChildren.size(), actualChildren.size());
+		for (int i = 0; i < expectedChildren.size(); i++) {
+			Assert.assertSame(actual, actualChildren.get(i).parent);
+			assertSameNode(expectedChildren.get(i), actualChildren.get(i));
+		}
+	}
+}
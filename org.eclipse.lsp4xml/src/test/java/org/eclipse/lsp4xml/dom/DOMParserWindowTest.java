@@ -0,0 +1,147 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.dom;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4xml.commons.BadLocationException;
+import org.eclipse.lsp4xml.commons.Rope;
+import org.eclipse.lsp4xml.commons.TextDocument;
+import org.eclipse.lsp4xml.services.XMLStreamingValidator;
+import org.eclipse.lsp4xml.settings.XMLLargeFileSettings;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for
+ * {@link DOMParser#parseWindow(TextDocument, int, int, org.eclipse.lsp4xml.uriresolver.URIResolverExtensionManager, org.eclipse.lsp4j.jsonrpc.CancelChecker)}
+ * and the large file mode.
+ *
+ */
+public class DOMParserWindowTest {
+
+	private static TextDocument createLargeDocument(int count) {
+		StringBuilder xml = new StringBuilder();
+		xml.append("<?xml version=\"1.0\"?>\n");
+		xml.append("<root xmlns=\"http://foo\">\n");
+		for (int i = 0; i < count; i++) {
+			xml.append("  <item id=\"").append(i).append("\">\n");
+			xml.append("    <name>item").append(i).append("</name>\n");
+			xml.append("  </item>\n");
+		}
+		xml.append("</root>");
+		return new TextDocument(xml.toString(), "large.xml");
+	}
+
+	@Test
+	public void window() {
+		TextDocument document = createLargeDocument(10000);
+		String text = document.getText();
+		int offset = text.indexOf("item5000</name>");
+		DOMDocument xmlDocument = DOMParser.getInstance().parseWindow(document, offset, 1024, null, null);
+
+		DOMElement root = xmlDocument.getDocumentElement();
+		Assert.assertNotNull(root);
+		Assert.assertEquals("root", root.getTagName());
+		Assert.assertEquals("http://foo", root.getAttribute("xmlns"));
+		Assert.assertEquals(text.length(), root.getEnd());
+
+		DOMNode node = xmlDocument.findNodeAt(offset);
+		Assert.assertTrue(node.isElement());
+		Assert.assertEquals("name", node.getNodeName());
+		Assert.assertEquals("item", node.getParentNode().getNodeName());
+		Assert.assertEquals("5000", ((DOMElement) node.getParentNode()).getAttribute("id"));
+
+		// only the window is parsed
+		Assert.assertTrue(root.getChildren().size() < 100);
+		for (DOMNode child : root.getChildren()) {
+			Assert.assertTrue(child.getStart() >= offset - 1024);
+		}
+	}
+
+	@Test
+	public void windowUnmatchedEndTags() {
+		TextDocument document = createLargeDocument(1000);
+		String text = document.getText();
+		// the window starts inside an item, the end tag of this item must be ignored
+		int offset = text.indexOf("item500</name>");
+		DOMDocument xmlDocument = DOMParser.getInstance().parseWindow(document, offset, 32, null, null);
+		DOMElement root = xmlDocument.getDocumentElement();
+		for (DOMNode child : root.getChildren()) {
+			Assert.assertNotNull(child.getNodeName());
+			if (child.isElement()) {
+				Assert.assertNotEquals("root", child.getNodeName());
+			}
+		}
+		DOMNode node = xmlDocument.findNodeAt(offset);
+		Assert.assertEquals("name", node.getNodeName());
+	}
+
+	@Test
+	public void windowWithoutMaterializedText() throws BadLocationException {
+		TextDocument document = createLargeDocument(10000);
+		document.setIncremental(true);
+		String text = document.getText();
+		int offset = text.indexOf("item5000</name>");
+		Position position = document.positionAt(offset);
+		document.update(Collections.singletonList(
+				new TextDocumentContentChangeEvent(new Range(position, position), 0, "new")));
+		Assert.assertTrue(document.getTextSequence() instanceof Rope);
+
+		DOMDocument xmlDocument = DOMParser.getInstance().parseWindow(document, offset, 1024, null, null);
+		DOMNode node = xmlDocument.findNodeAt(offset);
+		Assert.assertEquals("name", node.getNodeName());
+		Assert.assertEquals("newitem5000", node.getFirstChild().getNodeValue());
+		Assert.assertEquals("5000", ((DOMElement) node.getParentNode()).getAttribute("id"));
+		Assert.assertEquals(position.getLine(), xmlDocument.positionAt(offset).getLine());
+		// the text of the document has not been materialized
+		Assert.assertTrue(document.getTextSequence() instanceof Rope);
+
+		// the text is materialized once for the DOM document and the text document
+		Assert.assertSame(xmlDocument.getText(), document.getText());
+	}
+
+	@Test
+	public void headOnly() {
+		TextDocument document = createLargeDocument(100);
+		DOMDocument xmlDocument = DOMParser.getInstance().parseWindow(document, 0, 0, null, null);
+		DOMElement root = xmlDocument.getDocumentElement();
+		Assert.assertNotNull(root);
+		Assert.assertEquals("root", root.getTagName());
+		Assert.assertFalse(root.hasChildNodes());
+	}
+
+	@Test
+	public void isLargeFile() {
+		XMLLargeFileSettings settings = new XMLLargeFileSettings();
+		Assert.assertFalse(settings.isLargeFile(XMLLargeFileSettings.DEFAULT_THRESHOLD));
+		Assert.assertTrue(settings.isLargeFile(XMLLargeFileSettings.DEFAULT_THRESHOLD + 1));
+		settings.setThreshold(0);
+		Assert.assertFalse(settings.isLargeFile(Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void streamingValidation() {
+		List<Diagnostic> diagnostics = XMLStreamingValidator
+				.doDiagnostics(createLargeDocument(100), null, null);
+		Assert.assertTrue(diagnostics.isEmpty());
+
+		diagnostics = XMLStreamingValidator
+				.doDiagnostics(new TextDocument("<root>\n  <a>\n</root>", "invalid.xml"), null, null);
+		Assert.assertEquals(1, diagnostics.size());
+		Assert.assertEquals(2, diagnostics.get(0).getRange().getStart().getLine());
+		Assert.assertEquals("xml", diagnostics.get(0).getSource());
+	}
+}
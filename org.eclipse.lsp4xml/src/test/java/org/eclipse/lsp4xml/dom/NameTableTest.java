@@ -0,0 +1,74 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.dom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link NameTable}.
+ *
+ */
+public class NameTableTest {
+
+	@Test
+	public void sameInstance() {
+		String text = "<a b='1'><a b='2'/></a>";
+		NameTable names = new NameTable();
+		String a = names.get(text, 1, 2);
+		Assert.assertEquals("a", a);
+		Assert.assertSame(a, names.get(text, 10, 11));
+		Assert.assertSame(a, names.get(text, 21, 22));
+		Assert.assertEquals("b", names.get(text, 3, 4));
+	}
+
+	@Test
+	public void grow() {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			text.append("<e").append(i).append("/>");
+		}
+		String s = text.toString();
+		NameTable names = new NameTable();
+		String[] first = new String[1000];
+		int offset = 0;
+		for (int i = 0; i < 1000; i++) {
+			int length = String.valueOf(i).length() + 1;
+			first[i] = names.get(s, offset + 1, offset + 1 + length);
+			offset += length + 3;
+		}
+		offset = 0;
+		for (int i = 0; i < 1000; i++) {
+			int length = String.valueOf(i).length() + 1;
+			Assert.assertEquals("e" + i, first[i]);
+			Assert.assertSame(first[i], names.get(s, offset + 1, offset + 1 + length));
+			offset += length + 3;
+		}
+	}
+
+	@Test
+	public void parsedNames() {
+		DOMDocument document = DOMParser.getInstance().parse("<root><item id='1' /><item id=\"2\"></item></root>",
+				"test.xml", null);
+		DOMElement first = (DOMElement) document.getDocumentElement().getFirstChild();
+		DOMElement second = (DOMElement) document.getDocumentElement().getLastChild();
+		Assert.assertSame(first.getTagName(), second.getTagName());
+		DOMAttr firstId = first.getAttributeNode("id");
+		DOMAttr secondId = second.getAttributeNode("id");
+		Assert.assertSame(firstId.getName(), secondId.getName());
+		Assert.assertEquals("'1'", firstId.getOriginalValue());
+		Assert.assertEquals("1", firstId.getValue());
+		Assert.assertEquals("2", secondId.getValue());
+		Assert.assertTrue(secondId.isValueEquals("2"));
+		Assert.assertEquals(27, secondId.getStart());
+		Assert.assertEquals(33, secondId.getEnd());
+		Assert.assertEquals(30, secondId.getNodeAttrValue().getStart());
+	}
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.dom.parser;
+
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link TokenArray}.
+ *
+ */
+public class TokenArrayTest {
+
+	private static final String XML = "<?xml version=\"1.0\"?>\n" + //
+			"<!DOCTYPE note [\n" + //
+			"  <!ELEMENT note (#PCDATA)>\n" + //
+			"]>\n" + //
+			"<note a=\"b\" c='d'>\n" + //
+			"  <!-- comment -->\n" + //
+			"  <to>Tove</to>\n" + //
+			"  <![CDATA[ <data> ]]>\n" + //
+			"  <from />\n" + //
+			"</note>";
+
+	@Test
+	public void scan() {
+		TokenArray tokens = TokenArray.scan(XML);
+		Scanner scanner = XMLScanner.createScanner(XML);
+		int i = 0;
+		TokenType token = scanner.scan();
+		while (token != TokenType.EOS) {
+			assertToken(scanner, tokens, i++);
+			token = scanner.scan();
+		}
+		assertToken(scanner, tokens, i++);
+		Assert.assertEquals(i, tokens.size());
+	}
+
+	@Test
+	public void replayFromOffset() {
+		TokenArray tokens = TokenArray.scan(XML);
+		for (String tag : new String[] { "<note a", "<!--", "<to>", "</to>", "<![CDATA[", "<from", "</note>" }) {
+			int offset = XML.indexOf(tag);
+			assertSameTokens(XMLScanner.createScanner(XML, offset), tokens.createScanner(XML, offset));
+		}
+		// the scanner state at the given offset is not 'WithinContent'
+		Assert.assertNull(tokens.createScanner(XML, XML.indexOf("a=")));
+		Assert.assertNull(tokens.createScanner(XML, XML.indexOf("<!ELEMENT")));
+		// the offset is not the start of a token
+		Assert.assertNull(tokens.createScanner(XML, XML.indexOf("ove")));
+	}
+
+	@Test
+	public void tokensRecordedByParser() {
+		DOMDocument document = DOMParser.getInstance().parse(XML, "test.xml", null);
+		TokenArray tokens = document.getTokens();
+		TokenArray expected = TokenArray.scan(XML);
+		Assert.assertEquals(expected.size(), tokens.size());
+		for (int i = 0; i < tokens.size(); i++) {
+			Assert.assertEquals(expected.getTokenType(i), tokens.getTokenType(i));
+			Assert.assertEquals(expected.getTokenOffset(i), tokens.getTokenOffset(i));
+			Assert.assertEquals(expected.getTokenLength(i), tokens.getTokenLength(i));
+			Assert.assertEquals(expected.getScannerState(i), tokens.getScannerState(i));
+		}
+		Assert.assertSame(tokens, document.getTokens());
+	}
+
+	private static void assertToken(Scanner scanner, TokenArray tokens, int index) {
+		Assert.assertEquals(scanner.getTokenType(), tokens.getTokenType(index));
+		Assert.assertEquals(scanner.getTokenOffset(), tokens.getTokenOffset(index));
+		Assert.assertEquals(scanner.getTokenEnd(), tokens.getTokenEnd(index));
+		Assert.assertEquals(scanner.getScannerState(), tokens.getScannerState(index));
+	}
+
+	private static void assertSameTokens(Scanner expected, Scanner actual) {
+		Assert.assertNotNull(actual);
+		TokenType token = expected.scan();
+		while (true) {
+			Assert.assertEquals(token, actual.scan());
+			Assert.assertEquals(expected.getTokenOffset(), actual.getTokenOffset());
+			Assert.assertEquals(expected.getTokenEnd(), actual.getTokenEnd());
+			Assert.assertEquals(expected.getTokenText(), actual.getTokenText());
+			Assert.assertEquals(expected.getScannerState(), actual.getScannerState());
+			if (token == TokenType.EOS) {
+				break;
+			}
+			token = expected.scan();
+		}
+		// EOS is returned after the end of the text
+		Assert.assertEquals(TokenType.EOS, actual.scan());
+	}
+}
@@ -845,6 +845,33 @@ public class XMLScannerTest {
 		assertOffsetAndToken(20, TokenType.EndTagClose);
 	}
 
+	@Test
+	public void testNonASCIIElementAndAttribute() {
+		scanner = XMLScanner.createScanner("<\u00e9t\u00e9 \u00e0b=\"1\"></\u00e9t\u00e9>");
+		assertOffsetAndToken(0, TokenType.StartTagOpen);
+		assertOffsetAndToken(1, TokenType.StartTag, "\u00e9t\u00e9");
+		assertOffsetAndToken(4, TokenType.Whitespace);
+		assertOffsetAndToken(5, TokenType.AttributeName, "\u00e0b");
+		assertOffsetAndToken(7, TokenType.DelimiterAssign);
+		assertOffsetAndToken(8, TokenType.AttributeValue, "\"1\"");
+		assertOffsetAndToken(11, TokenType.StartTagClose);
+		assertOffsetAndToken(12, TokenType.EndTagOpen);
+		assertOffsetAndToken(14, TokenType.EndTag, "\u00e9t\u00e9");
+		assertOffsetAndToken(17, TokenType.EndTagClose);
+	}
+
+	@Test
+	public void testCommentWithMinus() {
+		scanner = XMLScanner.createScanner("<a><!-- - -- ---></a>");
+		assertOffsetAndToken(0, TokenType.StartTagOpen);
+		assertOffsetAndToken(1, TokenType.StartTag);
+		assertOffsetAndToken(2, TokenType.StartTagClose);
+		assertOffsetAndToken(3, TokenType.StartCommentTag);
+		assertOffsetAndToken(7, TokenType.Comment, " - -- -");
+		assertOffsetAndToken(14, TokenType.EndCommentTag);
+		assertOffsetAndToken(17, TokenType.EndTagOpen);
+	}
+
   //----------Tools-------------------------------------------------------
 
 
@@ -10,6 +10,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 
+import org.eclipse.lsp4xml.extensions.contentmodel.model.FilesWatcher;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 
@@ -19,6 +20,7 @@ import com.google.common.io.RecursiveDeleteOption;
 public class BaseFileTempTest {
 
 	private static final Path tempDirPath = Paths.get("target/temp/");
+	private static final long WATCH_TIMEOUT = 10000;
 	protected static final URI tempDirUri = tempDirPath.toAbsolutePath().toUri();
 
 	@BeforeClass
@@ -64,6 +66,33 @@ public class BaseFileTempTest {
 		} catch (InterruptedException e) {
 			Thread.currentThread().interrupt();
 		}
+		Path file = Paths.get(URI.create("file://" + fileName));
+		long stamp = FilesWatcher.getInstance().getStamp(file);
 		createFile(fileName, contents);
+		// The file watcher which tracks XML Schema / DTD receives the change
+		// asynchronously, wait for it.
+		waitForChange(file, stamp);
+	}
+
+	/**
+	 * Wait until the file watcher receives a change of the given file when it's
+	 * watched.
+	 * 
+	 * @param file  the file.
+	 * @param stamp the stamp of the file before the change.
+	 */
+	protected static void waitForChange(Path file, long stamp) {
+		if (!FilesWatcher.getInstance().isWatched(file)) {
+			return;
+		}
+		long timeout = System.currentTimeMillis() + WATCH_TIMEOUT;
+		while (FilesWatcher.getInstance().getStamp(file) == stamp && System.currentTimeMillis() < timeout) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
 	}
 }
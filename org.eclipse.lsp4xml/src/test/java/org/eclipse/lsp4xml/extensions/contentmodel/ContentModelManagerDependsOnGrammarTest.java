@@ -9,6 +9,9 @@
 *******************************************************************************/
 package org.eclipse.lsp4xml.extensions.contentmodel;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import org.eclipse.lsp4xml.commons.TextDocument;
 import org.eclipse.lsp4xml.dom.DOMDocument;
 import org.eclipse.lsp4xml.dom.DOMParser;
@@ -146,6 +149,43 @@ public class ContentModelManagerDependsOnGrammarTest {
 		Assert.assertTrue(modelManager.dependsOnGrammar(d, "file:///home/nikolas/nested/testXSD.xsd")); // bad path
 	}
 
+	@Test
+	public void dependsOnIncludedGrammar() {
+		Path xsdDir = Paths.get("src/test/resources/xsd").toAbsolutePath();
+		String text = "<Root \r\n" + //
+				"  xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" + //
+				"  xsi:noNamespaceSchemaLocation=\"SchemaA.xsd\">";
+		String uri = xsdDir.resolve("SchemaAB.xml").toUri().toString();
+		DOMDocument d = DOMParser.getInstance().parse(text, uri, null);
+		String schemaC = xsdDir.resolve("SchemaC.xsd").toUri().toString();
+		String tag = xsdDir.resolve("tag.xsd").toUri().toString();
+		// SchemaA.xsd includes SchemaB.xsd which includes SchemaC.xsd, it's known
+		// only when the grammar is loaded, before the document depends on any file
+		Assert.assertTrue(modelManager.dependsOnGrammar(d, schemaC));
+		Assert.assertNotNull(modelManager.findCMDocument(d, null));
+		Assert.assertTrue(modelManager.dependsOnGrammar(d, xsdDir.resolve("SchemaA.xsd").toUri().toString()));
+		Assert.assertTrue(modelManager.dependsOnGrammar(d, schemaC));
+		Assert.assertFalse(modelManager.dependsOnGrammar(d, tag));
+	}
+
+	@Test
+	public void dependsOnGrammarOfSecondaryNamespace() {
+		Path xsdDir = Paths.get("src/test/resources/xsd").toAbsolutePath();
+		String text = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\" \r\n" + //
+				"  xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" + //
+				"  xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 testXSD.xsd http://other SchemaA.xsd\">";
+		String uri = xsdDir.resolve("SchemaAB.xml").toUri().toString();
+		DOMDocument d = DOMParser.getInstance().parse(text, uri, null);
+		String schemaC = xsdDir.resolve("SchemaC.xsd").toUri().toString();
+		String tag = xsdDir.resolve("tag.xsd").toUri().toString();
+		Assert.assertTrue(modelManager.dependsOnGrammar(d, xsdDir.resolve("SchemaA.xsd").toUri().toString()));
+		// SchemaA.xsd is not loaded, the included files are unknown
+		Assert.assertTrue(modelManager.dependsOnGrammar(d, schemaC));
+		Assert.assertNotNull(modelManager.findCMDocument(d, "http://other"));
+		Assert.assertTrue(modelManager.dependsOnGrammar(d, schemaC));
+		Assert.assertFalse(modelManager.dependsOnGrammar(d, tag));
+	}
+
 	@Test
 	public void testNoNamespaceSchemaLocationAndShemaLocationBoth() {
 		String text = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\" \r\n" + //
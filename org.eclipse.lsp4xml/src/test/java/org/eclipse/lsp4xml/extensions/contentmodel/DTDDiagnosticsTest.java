@@ -16,6 +16,8 @@ import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4xml.XMLAssert;
 import org.eclipse.lsp4xml.extensions.contentmodel.participants.DTDErrorCode;
 import org.eclipse.lsp4xml.extensions.contentmodel.participants.XMLSyntaxErrorCode;
+import org.eclipse.lsp4xml.extensions.contentmodel.settings.ContentModelSettings;
+import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLValidationSettings;
 import org.junit.Test;
 
 /**
@@ -393,6 +395,26 @@ public class DTDDiagnosticsTest {
 				d(5, 23, 5, 30, XMLSyntaxErrorCode.ETagRequired));
 	}
 	
+	@Test
+	public void maxDiagnostics() throws Exception {
+		String xml = "<?xml version=\"1.0\"?>\r\n" + //
+				"<!DOCTYPE note [\r\n" + //
+				"<!ELEMENT note ANY>\r\n" + //
+				"]>\r\n" + //
+				"<note>\r\n" + //
+				"	<to></to>\r\n" + // <- error
+				"	<from></from>\r\n" + // <- error
+				"	<body></body>\r\n" + // <- error (not reported)
+				"</note>";
+		ContentModelSettings settings = new ContentModelSettings();
+		settings.setUseCache(false);
+		XMLValidationSettings validation = new XMLValidationSettings();
+		validation.setMaxDiagnostics(2);
+		settings.setValidation(validation);
+		XMLAssert.testDiagnosticsFor(xml, null, null, null, true, settings,
+				d(5, 2, 4, DTDErrorCode.MSG_ELEMENT_NOT_DECLARED), d(6, 2, 6, DTDErrorCode.MSG_ELEMENT_NOT_DECLARED));
+	}
+
 	private static void testDiagnosticsFor(String xml, Diagnostic... expected) {
 		XMLAssert.testDiagnosticsFor(xml, "src/test/resources/catalogs/catalog.xml", expected);
 	}
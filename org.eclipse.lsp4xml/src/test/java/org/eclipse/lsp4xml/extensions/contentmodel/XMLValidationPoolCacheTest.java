@@ -11,6 +11,7 @@
 package org.eclipse.lsp4xml.extensions.contentmodel;
 
 import static org.eclipse.lsp4xml.XMLAssert.d;
+import static org.eclipse.lsp4xml.XMLAssert.r;
 
 import java.io.IOException;
 
@@ -18,6 +19,7 @@ import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4xml.XMLAssert;
 import org.eclipse.lsp4xml.extensions.contentmodel.participants.DTDErrorCode;
 import org.eclipse.lsp4xml.extensions.contentmodel.participants.XMLSchemaErrorCode;
+import org.eclipse.lsp4xml.extensions.contentmodel.participants.XMLSyntaxErrorCode;
 import org.eclipse.lsp4xml.extensions.contentmodel.settings.ContentModelSettings;
 import org.eclipse.lsp4xml.services.XMLLanguageService;
 import org.junit.Test;
@@ -240,6 +242,44 @@ public class XMLValidationPoolCacheTest extends BaseFileTempTest {
 		testDiagnosticsFor(xmlLanguageService, xml, d);
 	}
 
+	@Test
+	public void reuseParsers() throws IOException {
+		// The same language service reuses the Xerces parsers, validation of a document
+		// must not be impacted by the previous validated documents
+		XMLLanguageService xmlLanguageService = new XMLLanguageService();
+
+		String dtdNotFound = "<?xml version=\"1.0\" standalone=\"no\" ?>\r\n" + //
+				"<!DOCTYPE inEQUAL_PMT SYSTEM \"inEQUAL_PMT.dtd\">\r\n" + // <- error DTD not found
+				"<inEQUAL_PMT>\r\n" + //
+				"   <Proceeds>10000.00</Proceed>\r\n" + // <- error, it misses 's' for </Proceed>
+				"</inEQUAL_PMT>";
+		Diagnostic dtdNotFoundError = d(1, 29, 1, 46, DTDErrorCode.dtd_not_found);
+		Diagnostic etagRequired = d(3, 23, 3, 30, XMLSyntaxErrorCode.ETagRequired);
+		testDiagnosticsFor(xmlLanguageService, dtdNotFound, dtdNotFoundError, etagRequired);
+
+		String schema = "<money xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:noNamespaceSchemaLocation=\"src/test/resources/xsd/money.xsd\" currency=\"euros\"> </money>";
+		Diagnostic schemaError = d(0, 143, 0, 144, XMLSchemaErrorCode.cvc_complex_type_2_1);
+		testDiagnosticsFor(xmlLanguageService, schema, schemaError);
+
+		// DOCTYPE which declares only entities, DTD validation is disabled
+		String entities = "<?xml version=\"1.0\"?>\r\n" + //
+				"<!DOCTYPE money [\r\n" + //
+				"  <!ENTITY currency \"euros\">\r\n" + //
+				"]>\r\n" + //
+				"<money>&currency;</money>";
+		testDiagnosticsFor(xmlLanguageService, entities);
+
+		// XML without grammar must not be validated with the previous XML Schema
+		String noGrammar = "<money currency=\"euros\"> </money>";
+		Diagnostic noGrammarHint = new Diagnostic(r(0, 1, 0, 6), "");
+		noGrammarHint.setCode("XML");
+		testDiagnosticsFor(xmlLanguageService, noGrammar, noGrammarHint);
+
+		testDiagnosticsFor(xmlLanguageService, schema, schemaError);
+		testDiagnosticsFor(xmlLanguageService, dtdNotFound, dtdNotFoundError, etagRequired);
+		testDiagnosticsFor(xmlLanguageService, noGrammar, noGrammarHint);
+	}
+
 	private static void testDiagnosticsFor(XMLLanguageService xmlLanguageService, String xml, Diagnostic... expected) {
 		String catalogPath = "src/test/resources/catalogs/catalog.xml";
 		ContentModelSettings settings = new ContentModelSettings();
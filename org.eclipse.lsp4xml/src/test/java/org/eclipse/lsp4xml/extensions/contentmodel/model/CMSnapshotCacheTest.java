@@ -0,0 +1,117 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.eclipse.lsp4xml.AbstractCacheBasedTest;
+import org.eclipse.lsp4xml.extensions.xsd.contentmodel.CMXSDContentModelProvider;
+import org.eclipse.lsp4xml.uriresolver.URIResolverExtensionManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link CMSnapshotCache}.
+ *
+ */
+public class CMSnapshotCacheTest extends AbstractCacheBasedTest {
+
+	private static final String XSD = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" targetNamespace=\"http://snapshot\" elementFormDefault=\"qualified\">\r\n"
+			+ "  <xs:element name=\"root\">\r\n" //
+			+ "    <xs:annotation><xs:documentation>The root</xs:documentation></xs:annotation>\r\n" //
+			+ "    <xs:complexType>\r\n" //
+			+ "      <xs:sequence>\r\n" //
+			+ "        <xs:element name=\"item\" maxOccurs=\"unbounded\">\r\n" //
+			+ "          <xs:complexType>\r\n" //
+			+ "            <xs:attribute name=\"kind\" use=\"required\">\r\n" //
+			+ "              <xs:simpleType>\r\n" //
+			+ "                <xs:restriction base=\"xs:string\">\r\n" //
+			+ "                  <xs:enumeration value=\"a\" />\r\n" //
+			+ "                  <xs:enumeration value=\"b\" />\r\n" //
+			+ "                </xs:restriction>\r\n" //
+			+ "              </xs:simpleType>\r\n" //
+			+ "            </xs:attribute>\r\n" //
+			+ "          </xs:complexType>\r\n" //
+			+ "        </xs:element>\r\n" //
+			+ "      </xs:sequence>\r\n" //
+			+ "    </xs:complexType>\r\n" //
+			+ "  </xs:element>\r\n" //
+			+ "</xs:schema>";
+
+	@Test
+	public void saveAndLoad() throws IOException {
+		Path xsdFile = createFile("snapshot.xsd", XSD);
+		String key = xsdFile.toUri().toString();
+		CMXSDContentModelProvider provider = createProvider();
+		CMDocument compiledDocument = provider.createCMDocument(key);
+
+		CMSnapshotCache cache = new CMSnapshotCache();
+		Assert.assertNull("No snapshot before saving", cache.load(key, () -> compiledDocument));
+		cache.save(key, compiledDocument);
+		cache.flush().join();
+
+		CMSnapshotDocument snapshot = cache.load(key, () -> provider.createCMDocument(key));
+		Assert.assertNotNull(snapshot);
+		Assert.assertTrue(snapshot.hasNamespace("http://snapshot"));
+		Assert.assertFalse(snapshot.hasNamespace("http://other"));
+		Assert.assertEquals(Arrays.asList(xsdFile), snapshot.getGrammarFiles());
+
+		Assert.assertEquals(1, snapshot.getElements().size());
+		CMElementDeclaration root = snapshot.getElements().iterator().next();
+		Assert.assertEquals("root", root.getName());
+		Assert.assertEquals("http://snapshot", root.getNamespace());
+		Assert.assertEquals("The root", root.getDocumentation());
+
+		CMElementDeclaration item = root.findCMElement("item", "http://snapshot");
+		Assert.assertNotNull(item);
+		Assert.assertTrue(item.isEmpty());
+		CMAttributeDeclaration kind = item.findCMAttribute("kind");
+		Assert.assertNotNull(kind);
+		Assert.assertTrue(kind.isRequired());
+		Assert.assertEquals(Arrays.asList("a", "b"), kind.getEnumerationValues().stream().collect(Collectors.toList()));
+
+		// the grammar is compiled in background
+		cache.flush().join();
+		Assert.assertNotNull(snapshot.getCompiledDocument());
+		Assert.assertFalse(snapshot.getCompiledDocument() instanceof CMSnapshotDocument);
+	}
+
+	@Test
+	public void ignoreSnapshotOfChangedGrammar() throws IOException {
+		Path xsdFile = createFile("changed.xsd", XSD);
+		String key = xsdFile.toUri().toString();
+		CMXSDContentModelProvider provider = createProvider();
+
+		CMSnapshotCache cache = new CMSnapshotCache();
+		cache.save(key, provider.createCMDocument(key));
+		cache.flush().join();
+		Assert.assertNotNull(cache.load(key, () -> null));
+
+		Files.write(xsdFile, XSD.replace("item", "entry").getBytes());
+		Assert.assertNull("Snapshot is ignored when the content hash changed", cache.load(key, () -> null));
+	}
+
+	private static CMXSDContentModelProvider createProvider() {
+		URIResolverExtensionManager resolverManager = new URIResolverExtensionManager();
+		return new CMXSDContentModelProvider(resolverManager, new ContentModelManager(resolverManager));
+	}
+
+	private static Path createFile(String name, String content) throws IOException {
+		Path dir = TEST_WORK_DIRECTORY.resolve("xsd");
+		Files.createDirectories(dir);
+		Path file = dir.resolve(name).toAbsolutePath();
+		Files.write(file, content.getBytes());
+		return file;
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.model;
+
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.eclipse.lsp4xml.services.XMLLanguageService;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link ContentModelCaches} shared between several language
+ * services.
+ *
+ */
+public class ContentModelCachesTest {
+
+	private static final String XML = "<root xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\r\n"
+			+ "  xsi:noNamespaceSchemaLocation=\"xsd/choice.xsd\" />";
+
+	@Test
+	public void sharedCaches() {
+		ContentModelCaches caches = new ContentModelCaches(true);
+		ContentModelManager first = createContentModelManager(caches);
+		ContentModelManager second = createContentModelManager(caches);
+		Assert.assertNotSame(first, second);
+		Assert.assertSame(first.getGrammarPool(), second.getGrammarPool());
+
+		// the content model document compiled by a session is used by the other
+		// session
+		DOMDocument document = createDocument();
+		CMDocument cmDocument = first.findCMDocument(document, null);
+		Assert.assertNotNull(cmDocument);
+		Assert.assertSame(cmDocument, second.findCMDocument(createDocument(), null));
+
+		// settings of a session don't change the shared caches
+		first.setGrammarPoolSize(1);
+		first.setUseCache(false);
+		Assert.assertNull(first.getGrammarPool());
+		Assert.assertSame(caches.getGrammarPool(), second.getGrammarPool());
+		Assert.assertEquals(1, caches.getCMDocumentCache().size());
+	}
+
+	@Test
+	public void sharedCachesByCatalogs() {
+		ContentModelCaches caches = new ContentModelCaches(true);
+		ContentModelManager first = createContentModelManager(caches);
+		ContentModelManager second = createContentModelManager(caches);
+		ContentModelManager third = createContentModelManager(caches);
+
+		// the grammars compiled with other XML catalogs are not shared
+		first.setCatalogs(new String[] { "src/test/resources/catalogs/catalog.xml" });
+		Assert.assertNotSame(first.getGrammarPool(), second.getGrammarPool());
+		Assert.assertNotSame(first.findCMDocument(createDocument(), null),
+				second.findCMDocument(createDocument(), null));
+
+		// the grammars compiled with the same XML catalogs are shared
+		third.setCatalogs(new String[] { "src/test/resources/catalogs/catalog.xml" });
+		Assert.assertSame(first.getGrammarPool(), third.getGrammarPool());
+
+		// without XML catalog, the default caches are used
+		first.setCatalogs(new String[0]);
+		Assert.assertSame(caches.getGrammarPool(), first.getGrammarPool());
+		Assert.assertSame(second.getGrammarPool(), first.getGrammarPool());
+	}
+
+	@Test
+	public void notSharedCaches() {
+		ContentModelManager first = createContentModelManager(null);
+		ContentModelManager second = createContentModelManager(null);
+		Assert.assertNotSame(first.getGrammarPool(), second.getGrammarPool());
+		CMDocument cmDocument = first.findCMDocument(createDocument(), null);
+		Assert.assertNotNull(cmDocument);
+		Assert.assertNotSame(cmDocument, second.findCMDocument(createDocument(), null));
+	}
+
+	private static ContentModelManager createContentModelManager(ContentModelCaches caches) {
+		XMLLanguageService languageService = new XMLLanguageService();
+		if (caches != null) {
+			languageService.registerComponent(caches);
+		}
+		languageService.initializeIfNeeded();
+		return languageService.getComponent(ContentModelManager.class);
+	}
+
+	private static DOMDocument createDocument() {
+		return DOMParser.getInstance().parse(XML, "src/test/resources/test.xml", null);
+	}
+}
@@ -10,6 +10,9 @@
 package org.eclipse.lsp4xml.extensions.contentmodel.model;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import org.eclipse.lsp4xml.extensions.contentmodel.BaseFileTempTest;
 import org.junit.Assert;
@@ -37,4 +40,35 @@ public class FilesChangedTrackerTest extends BaseFileTempTest {
 		Assert.assertFalse("NO Dirty after file modification on isDirty second call", tracker.isDirty());
 
 	}
+
+	@Test
+	public void trackDeletedFile() throws IOException {
+		FilesChangedTracker tracker = new FilesChangedTracker();
+		String fileURI = tempDirUri.getPath() + "/deleted.xml";
+		createFile(fileURI, "<root />");
+		tracker.addFileURI("file://" + fileURI);
+
+		Assert.assertFalse("No dirty after file creation", tracker.isDirty());
+
+		Path file = Paths.get(fileURI);
+		long stamp = FilesWatcher.getInstance().getStamp(file);
+		Files.delete(file);
+		// the file watcher receives the deletion asynchronously
+		waitForChange(file, stamp);
+		Assert.assertTrue("Dirty after file deletion", tracker.isDirty());
+	}
+
+	@Test
+	public void trackSavedFile() throws IOException {
+		FilesChangedTracker tracker = new FilesChangedTracker();
+		String fileURI = tempDirUri.getPath() + "/saved.xml";
+		createFile(fileURI, "<root />");
+		tracker.addFileURI("file://" + fileURI);
+
+		Assert.assertFalse("No dirty after file creation", tracker.isDirty());
+
+		FilesWatcher.getInstance().fileChanged("file://" + fileURI);
+		Assert.assertTrue("Dirty after file save on isDirty first call", tracker.isDirty());
+		Assert.assertFalse("NO Dirty after file save on isDirty second call", tracker.isDirty());
+	}
 }
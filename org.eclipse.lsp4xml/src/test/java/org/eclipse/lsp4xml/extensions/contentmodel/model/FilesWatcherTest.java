@@ -0,0 +1,68 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.eclipse.lsp4xml.extensions.contentmodel.BaseFileTempTest;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Test for {@link FilesWatcher}
+ *
+ */
+public class FilesWatcherTest extends BaseFileTempTest {
+
+	@Test
+	public void unwatchLastFile() throws IOException {
+		FilesWatcher watcher = new FilesWatcher();
+		Path directory = Paths.get(tempDirUri).resolve("unwatch");
+		Files.createDirectories(directory);
+		Path a = directory.resolve("a.xsd");
+		Path b = directory.resolve("b.xsd");
+		Object owner = new Object();
+		Assume.assumeTrue("Watch service is not available", watcher.watch(a, owner));
+		watcher.watch(a, owner);
+		watcher.watch(b, owner);
+		Assert.assertTrue(watcher.isWatchedDirectory(directory));
+
+		watcher.unwatch(a);
+		Assert.assertTrue(watcher.isWatched(a));
+		watcher.unwatch(a);
+		Assert.assertFalse(watcher.isWatched(a));
+		Assert.assertTrue(watcher.isWatchedDirectory(directory));
+
+		watcher.unwatch(b);
+		Assert.assertFalse(watcher.isWatched(b));
+		Assert.assertFalse(watcher.isWatchedDirectory(directory));
+	}
+
+	@Test
+	public void recordOnlyWatchedFiles() throws IOException {
+		FilesWatcher watcher = new FilesWatcher();
+		Path watched = Paths.get(tempDirUri).resolve("watched.xsd");
+		Path notWatched = Paths.get(tempDirUri).resolve("not-watched.xsd");
+		Object owner = new Object();
+		Assume.assumeTrue("Watch service is not available", watcher.watch(watched, owner));
+
+		long watchedStamp = watcher.getStamp(watched);
+		long notWatchedStamp = watcher.getStamp(notWatched);
+		watcher.fileChanged(watched.toUri().toString());
+		watcher.fileChanged(notWatched.toUri().toString());
+		Assert.assertNotEquals(watchedStamp, watcher.getStamp(watched));
+		Assert.assertEquals(notWatchedStamp, watcher.getStamp(notWatched));
+		Assert.assertFalse(watcher.isWatched(notWatched));
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.xerces.impl.XMLErrorReporter;
+import org.apache.xerces.impl.msg.XMLMessageFormatter;
+import org.apache.xerces.xni.parser.XMLParseException;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link LSPErrorReporterForXML}.
+ *
+ */
+public class LSPErrorReporterForXMLTest {
+
+	private static final String KEY = "MarkupNotRecognizedInContent";
+
+	@Test
+	public void fatalErrorWhenMaxDiagnosticsIsReached() {
+		List<Diagnostic> diagnostics = new ArrayList<>();
+		LSPErrorReporterForXML reporter = createReporter(diagnostics);
+		reporter.setMaxDiagnostics(1);
+
+		Assert.assertNotNull(reporter.reportError(null, XMLMessageFormatter.XML_DOMAIN, KEY, null,
+				XMLErrorReporter.SEVERITY_ERROR, null));
+		Assert.assertEquals(1, diagnostics.size());
+
+		// the fatal error is not reported but the parse must stop
+		try {
+			reporter.reportError(null, XMLMessageFormatter.XML_DOMAIN, KEY, null,
+					XMLErrorReporter.SEVERITY_FATAL_ERROR, null);
+			Assert.fail("Fatal error must throw XMLParseException");
+		} catch (XMLParseException e) {
+			// expected
+		}
+		Assert.assertEquals(1, diagnostics.size());
+	}
+
+	@Test
+	public void fatalErrorWhenDiagnosticIsDuplicated() {
+		List<Diagnostic> diagnostics = new ArrayList<>();
+		LSPErrorReporterForXML reporter = createReporter(diagnostics);
+		for (int i = 0; i < 2; i++) {
+			try {
+				reporter.reportError(null, XMLMessageFormatter.XML_DOMAIN, KEY, null,
+						XMLErrorReporter.SEVERITY_FATAL_ERROR, null);
+				Assert.fail("Fatal error must throw XMLParseException");
+			} catch (XMLParseException e) {
+				// expected
+			}
+		}
+		Assert.assertEquals(1, diagnostics.size());
+	}
+
+	private static LSPErrorReporterForXML createReporter(List<Diagnostic> diagnostics) {
+		DOMDocument document = DOMParser.getInstance().parse("<a>", "test.xml", null);
+		return new LSPErrorReporterForXML(document, diagnostics);
+	}
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.contentmodel.participants.diagnostics;
+
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.XSDDescription;
+import org.apache.xerces.util.SymbolTable;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link LSPXMLGrammarPool}.
+ *
+ */
+public class LSPXMLGrammarPoolTest {
+
+	@Test
+	public void retrieveGrammar() {
+		LSPXMLGrammarPool pool = new LSPXMLGrammarPool();
+		SchemaGrammar a = createGrammar("file:///a.xsd");
+		pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] { a });
+
+		Assert.assertSame(a, pool.retrieveGrammar(createDescription("file:///a.xsd")));
+		Assert.assertNull(pool.retrieveGrammar(createDescription("file:///b.xsd")));
+		Assert.assertNull(pool.retrieveGrammar(createDescription(null)));
+		Assert.assertEquals(1, pool.getHitCount());
+		Assert.assertEquals(2, pool.getMissCount());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedGrammar() {
+		LSPXMLGrammarPool pool = new LSPXMLGrammarPool(2);
+		SchemaGrammar a = createGrammar("file:///a.xsd");
+		SchemaGrammar b = createGrammar("file:///b.xsd");
+		SchemaGrammar c = createGrammar("file:///c.xsd");
+		pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] { a, b });
+		// 'a' is used after 'b'
+		Assert.assertSame(a, pool.retrieveGrammar(createDescription("file:///a.xsd")));
+
+		pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] { c });
+		Assert.assertEquals(2, pool.size());
+		Assert.assertEquals(1, pool.getEvictionCount());
+		Assert.assertSame(a, pool.retrieveGrammar(createDescription("file:///a.xsd")));
+		Assert.assertNull(pool.retrieveGrammar(createDescription("file:///b.xsd")));
+		Assert.assertSame(c, pool.retrieveGrammar(createDescription("file:///c.xsd")));
+
+		pool.setMaxGrammars(1);
+		Assert.assertEquals(1, pool.size());
+		Assert.assertEquals(2, pool.getEvictionCount());
+		Assert.assertSame(c, pool.retrieveGrammar(createDescription("file:///c.xsd")));
+	}
+
+	private static SchemaGrammar createGrammar(String systemId) {
+		return new SchemaGrammar(null, createDescription(systemId), new SymbolTable());
+	}
+
+	private static XSDDescription createDescription(String systemId) {
+		XSDDescription description = new XSDDescription();
+		description.setExpandedSystemId(systemId);
+		return description;
+	}
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.extensions.references;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.xpath.XPathExpressionException;
+
+import org.eclipse.lsp4xml.dom.DOMDocument;
+import org.eclipse.lsp4xml.dom.DOMNode;
+import org.eclipse.lsp4xml.dom.DOMParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link XMLReferencesManager}.
+ *
+ */
+public class XMLReferencesManagerTest {
+
+	private static final String WEB_XML = "<web-app>\n" + //
+			"  <servlet>\n" + //
+			"    <servlet-name>A</servlet-name>\n" + //
+			"  </servlet>\n" + //
+			"  <servlet>\n" + //
+			"    <servlet-name>B</servlet-name>\n" + //
+			"  </servlet>\n" + //
+			"  <servlet-mapping>\n" + //
+			"    <servlet-name>B</servlet-name>\n" + //
+			"  </servlet-mapping>\n" + //
+			"</web-app>";
+
+	@Test
+	public void collectFromNode() throws XPathExpressionException {
+		XMLReferencesManager manager = createManager();
+		DOMDocument document = DOMParser.getInstance().parse(WEB_XML, "web.xml", null);
+
+		DOMNode origin = document.findNodeAt(WEB_XML.lastIndexOf("<servlet-name>") + 1);
+		List<String> targets = new ArrayList<>();
+		manager.collect(origin, target -> targets.add(target.getNodeValue()));
+		Assert.assertEquals(2, targets.size());
+		Assert.assertEquals("A", targets.get(0));
+		Assert.assertEquals("B", targets.get(1));
+
+		// servlet-name of servlet is not an origin node
+		targets.clear();
+		manager.collect(document.findNodeAt(WEB_XML.indexOf("<servlet-name>") + 1),
+				target -> targets.add(target.getNodeValue()));
+		Assert.assertTrue(targets.isEmpty());
+	}
+
+	@Test
+	public void collectFromOtherDocument() throws XPathExpressionException {
+		XMLReferencesManager manager = createManager();
+		DOMDocument document = DOMParser.getInstance().parse(WEB_XML, "other.xml", null);
+
+		// references are not applied to other documents
+		DOMNode origin = document.findNodeAt(WEB_XML.lastIndexOf("<servlet-name>") + 1);
+		List<DOMNode> targets = new ArrayList<>();
+		manager.collect(origin, targets::add);
+		Assert.assertTrue(targets.isEmpty());
+	}
+
+	@Test
+	public void referencesAddedAfterCollect() throws XPathExpressionException {
+		XMLReferencesManager manager = createManager();
+		DOMDocument document = DOMParser.getInstance().parse(WEB_XML, "web.xml", null);
+		DOMNode servlet = document.findNodeAt(WEB_XML.indexOf("<servlet>") + 1);
+
+		List<DOMNode> targets = new ArrayList<>();
+		manager.collect(servlet, targets::add);
+		Assert.assertTrue(targets.isEmpty());
+
+		manager.referencesFor(d -> true).from("//servlet").to("//servlet-mapping");
+		manager.collect(servlet, targets::add);
+		Assert.assertEquals(1, targets.size());
+		Assert.assertEquals("servlet-mapping", targets.get(0).getNodeName());
+	}
+
+	private static XMLReferencesManager createManager() throws XPathExpressionException {
+		XMLReferencesManager manager = new XMLReferencesManager();
+		manager.referencesFor(document -> document.getDocumentURI().endsWith("web.xml")) //
+				.from("//servlet-mapping/servlet-name") //
+				.to("//servlet/servlet-name/text()");
+		return manager;
+	}
+}
@@ -22,28 +22,45 @@ import org.eclipse.lsp4xml.commons.TextDocument;
 
 /**
  * This utility class is used to check the performance of
- * {@link TextDocument#update(List)}, updating the large nasa.xml file
- * 
+ * {@link TextDocument#update(List)}, updating the large nasa.xml file.
+ *
+ * <p>
+ * Each iteration simulates a burst of keystrokes (one update per typed
+ * character) followed by one {@link TextDocument#getText()} like the DOM parser
+ * does. Updates are applied on a rope, so they don't copy the text, and the
+ * text is materialized only once per burst.
+ * </p>
+ *
  * @author Angelo ZERR
  *
  */
 public class TextDocumentUpdatePerformance {
 
+	private static final int KEYSTROKES = 100;
+
 	public static void main(String[] args) {
 		InputStream in = TextDocumentUpdatePerformance.class.getResourceAsStream("/xml/nasa.xml");
 		String text = convertStreamToString(in);
 		TextDocument document = new TextDocument(text, "nasa.xml");
 		document.setIncremental(true);
-		// Continuously parses the large nasa.xml file with the DOM parser.
+		// Continuously updates the large nasa.xml file.
 		while (true) {
-			long start = System.currentTimeMillis();
-			// Insert a space
-			List<TextDocumentContentChangeEvent> changes = new ArrayList<>();
-			TextDocumentContentChangeEvent change = new TextDocumentContentChangeEvent(
-					new Range(new Position(14, 13), new Position(14, 13)), 0, " ");
-			changes.add(change);
-			document.update(changes);
-			System.err.println("Update 'nasa.xml' text document in " + (System.currentTimeMillis() - start) + " ms.");
+			long start = System.nanoTime();
+			for (int i = 0; i < KEYSTROKES; i++) {
+				// Insert a space
+				List<TextDocumentContentChangeEvent> changes = new ArrayList<>();
+				TextDocumentContentChangeEvent change = new TextDocumentContentChangeEvent(
+						new Range(new Position(14, 13), new Position(14, 13)), 0, " ");
+				changes.add(change);
+				document.update(changes);
+			}
+			long updateTime = System.nanoTime() - start;
+			start = System.nanoTime();
+			document.getText();
+			long materializeTime = System.nanoTime() - start;
+			System.err.println("Update 'nasa.xml' text document " + KEYSTROKES + " times in " + updateTime / 1000
+					+ " us (" + updateTime / KEYSTROKES / 1000 + " us per update), materialize text in "
+					+ materializeTime / 1000 + " us.");
 		}
 
 	}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.services;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.eclipse.lsp4xml.extensions.contentmodel.BaseFileTempTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link XMLWorkspaceSymbolIndex}.
+ *
+ */
+public class XMLWorkspaceSymbolIndexTest extends BaseFileTempTest {
+
+	@Test
+	public void searchElements() throws IOException {
+		XMLWorkspaceSymbolIndex index = new XMLWorkspaceSymbolIndex();
+		Path file = createTempFile("beans.xml", "<beans>\n" + //
+				"  <bean />\n" + //
+				"  <bean />\n" + //
+				"  <alias />\n" + //
+				"</beans>");
+		index.indexFile(file);
+
+		List<SymbolInformation> symbols = index.search("bean", 100, null);
+		Assert.assertEquals(2, symbols.size());
+		assertSymbol(symbols, "beans", SymbolKind.Field, file, r(0, 1, 0, 6));
+		assertSymbol(symbols, "bean", SymbolKind.Field, file, r(1, 3, 1, 7));
+
+		// contains and fuzzy match, prefix match is returned first
+		Assert.assertEquals("alias", index.search("a", 100, null).get(0).getName());
+		Assert.assertEquals(2, index.search("EA", 100, null).size());
+		Assert.assertEquals(1, index.search("als", 100, null).size());
+		Assert.assertEquals(0, index.search("xyz", 100, null).size());
+		Assert.assertEquals(1, index.search("", 1, null).size());
+	}
+
+	@Test
+	public void searchXSDDeclarations() throws IOException {
+		XMLWorkspaceSymbolIndex index = new XMLWorkspaceSymbolIndex();
+		Path file = createTempFile("resources.xsd", "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">\n" + //
+				"  <xs:element name=\"resources\" type=\"resourcesType\" />\n" + //
+				"  <xs:complexType name=\"resourcesType\">\n" + //
+				"    <xs:sequence><xs:element name=\"resource\" /></xs:sequence>\n" + //
+				"  </xs:complexType>\n" + //
+				"  <xs:simpleType name=\"resourceName\"><xs:restriction base=\"xs:string\" /></xs:simpleType>\n" + //
+				"</xs:schema>");
+		index.indexFile(file);
+
+		List<SymbolInformation> symbols = index.search("resource", 100, null);
+		Assert.assertEquals(3, symbols.size());
+		assertSymbol(symbols, "resources", SymbolKind.Property, file, r(1, 20, 1, 29));
+		assertSymbol(symbols, "resourcesType", SymbolKind.Class, file, r(2, 24, 2, 37));
+		assertSymbol(symbols, "resourceName", SymbolKind.Class, file, r(5, 23, 5, 35));
+		// element names of a XML Schema are not indexed
+		Assert.assertEquals(0, index.search("xs:sequence", 100, null).size());
+	}
+
+	@Test
+	public void searchDTDElements() throws IOException {
+		XMLWorkspaceSymbolIndex index = new XMLWorkspaceSymbolIndex();
+		Path file = createTempFile("note.dtd", "<!ELEMENT note (to,from)>\n" + //
+				"<!ELEMENT to (#PCDATA)>\n" + //
+				"<!ELEMENT from (#PCDATA)>");
+		index.indexFile(file);
+
+		List<SymbolInformation> symbols = index.search("no", 100, null);
+		Assert.assertEquals(1, symbols.size());
+		assertSymbol(symbols, "note", SymbolKind.Property, file, r(0, 10, 0, 14));
+	}
+
+	@Test
+	public void updateAndDeleteFile() throws Exception {
+		XMLWorkspaceSymbolIndex index = new XMLWorkspaceSymbolIndex();
+		Path file = createTempFile("update.xml", "<foo />");
+		index.indexWorkspace(Collections.singletonList(file.getParent().toUri().toString()));
+		waitFor(() -> index.search("foo", 100, null).size() == 1);
+
+		createTempFile("update.xml", "<bar />");
+		index.fileChanged(file.toUri().toString());
+		waitFor(() -> index.search("bar", 100, null).size() == 1);
+		Assert.assertEquals(0, index.search("foo", 100, null).size());
+
+		index.fileDeleted(file.toUri().toString());
+		waitFor(() -> index.search("bar", 100, null).isEmpty());
+		index.shutdown();
+	}
+
+	private static Path createTempFile(String fileName, String contents) throws IOException {
+		String path = Paths.get(tempDirUri).resolve(fileName).toString();
+		createFile(path, contents);
+		return Paths.get(path);
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+			Thread.sleep(20);
+		}
+		Assert.assertTrue(condition.getAsBoolean());
+	}
+
+	private static void assertSymbol(List<SymbolInformation> symbols, String name, SymbolKind kind, Path file,
+			Range range) {
+		List<SymbolInformation> matches = symbols.stream().filter(symbol -> name.equals(symbol.getName()))
+				.collect(Collectors.toList());
+		Assert.assertEquals("Symbol '" + name + "'", 1, matches.size());
+		SymbolInformation symbol = matches.get(0);
+		Assert.assertEquals(kind, symbol.getKind());
+		Assert.assertEquals(new Location(file.toUri().toString(), range), symbol.getLocation());
+	}
+
+	private static Range r(int startLine, int startCharacter, int endLine, int endCharacter) {
+		return new Range(new Position(startLine, startCharacter), new Position(endLine, endCharacter));
+	}
+}
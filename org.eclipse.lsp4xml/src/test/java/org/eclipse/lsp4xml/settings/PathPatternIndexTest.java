@@ -0,0 +1,70 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.settings;
+
+import java.io.File;
+
+import org.eclipse.lsp4xml.extensions.contentmodel.settings.XMLFileAssociation;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link PathPatternIndex}.
+ *
+ */
+public class PathPatternIndexTest {
+
+	private static final String[] PATTERNS = { "**/pom.xml", "**/*.xsd", "**/src/**", "**/*.{xml,xsl}", "**/*.xml",
+			"**/build*.xml", "*.xml", "**/*Test?.xml", "**/.project", "**/*.XML", "**/[ab].xml", "" };
+
+	private static final String[] FILES = { "/project/pom.xml", "/project/types.xsd", "/project/src/foo.txt",
+			"/project/build.xml", "/project/buildTest1.xml", "/project/.project", "/project/UPPER.XML",
+			"/project/a.xml", "/project/doc.xsl", "/project/noextension", "/project/dir.xml/file" };
+
+	@Test
+	public void sameResultAsLinearScan() {
+		XMLFileAssociation[] associations = createAssociations(PATTERNS);
+		PathPatternIndex<XMLFileAssociation> index = new PathPatternIndex<>(associations);
+		for (String file : FILES) {
+			String uri = new File(file).toURI().toString();
+			XMLFileAssociation expected = null;
+			for (XMLFileAssociation association : associations) {
+				if (association.matches(uri)) {
+					expected = association;
+					break;
+				}
+			}
+			Assert.assertSame(uri, expected, index.findFirst(uri));
+			// from the cache
+			Assert.assertSame(uri, expected, index.findFirst(uri));
+		}
+	}
+
+	@Test
+	public void firstMatchingPatternWins() {
+		XMLFileAssociation[] associations = createAssociations("**/src/**", "**/*.xml", "**/pom.xml");
+		PathPatternIndex<XMLFileAssociation> index = new PathPatternIndex<>(associations);
+		// pattern without extension is before the pattern with extension
+		Assert.assertSame(associations[0], index.findFirst(new File("/project/src/pom.xml").toURI()));
+		Assert.assertSame(associations[1], index.findFirst(new File("/project/pom.xml").toURI()));
+		Assert.assertNull(index.findFirst(new File("/project/pom.txt").toURI()));
+		Assert.assertNull(index.findFirst("not an uri"));
+	}
+
+	private static XMLFileAssociation[] createAssociations(String... patterns) {
+		XMLFileAssociation[] associations = new XMLFileAssociation[patterns.length];
+		for (int i = 0; i < patterns.length; i++) {
+			associations[i] = new XMLFileAssociation();
+			associations[i].setPattern(patterns[i]);
+			associations[i].setSystemId("file:///" + i + ".xsd");
+		}
+		return associations;
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+* Copyright (c) 2019 Red Hat Inc. and others.
+* All rights reserved. This program and the accompanying materials
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v20.html
+*
+* Contributors:
+*     Red Hat Inc. - initial API and implementation
+*******************************************************************************/
+package org.eclipse.lsp4xml.uriresolver;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the cache of resolved URIs of {@link URIResolverExtensionManager}.
+ *
+ */
+public class URIResolverExtensionManagerTest {
+
+	/**
+	 * Resolver which counts the resolves and resolves the "volatile" namespace
+	 * without cache.
+	 */
+	private static class CountingResolver implements URIResolverExtension {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		private String resolved = "file:///resolved.xsd";
+
+		@Override
+		public String resolve(String baseLocation, String publicId, String systemId) {
+			count.incrementAndGet();
+			return "ns".equals(publicId) || "volatile".equals(publicId) ? resolved : null;
+		}
+
+		@Override
+		public boolean isCacheable(String baseLocation, String publicId, String systemId) {
+			return !"volatile".equals(publicId);
+		}
+	}
+
+	@Test
+	public void cacheResolvedURIs() {
+		URIResolverExtensionManager manager = new URIResolverExtensionManager();
+		CountingResolver resolver = new CountingResolver();
+		manager.registerResolver(resolver);
+
+		Assert.assertEquals("file:///resolved.xsd", manager.resolve("file:///test.xml", "ns", null));
+		Assert.assertEquals("file:///resolved.xsd", manager.resolve("file:///test.xml", "ns", null));
+		Assert.assertEquals(1, resolver.count.get());
+
+		// resolution done by the default resolver is cached too
+		Assert.assertEquals("file:///foo.xsd", manager.resolve("file:///test.xml", null, "foo.xsd"));
+		Assert.assertEquals("file:///foo.xsd", manager.resolve("file:///test.xml", null, "foo.xsd"));
+		Assert.assertEquals(2, resolver.count.get());
+
+		// settings of the resolver changed
+		resolver.resolved = "file:///changed.xsd";
+		Assert.assertEquals("file:///resolved.xsd", manager.resolve("file:///test.xml", "ns", null));
+		manager.clearCache();
+		Assert.assertEquals("file:///changed.xsd", manager.resolve("file:///test.xml", "ns", null));
+		Assert.assertEquals(3, resolver.count.get());
+	}
+
+	@Test
+	public void notCacheable() {
+		URIResolverExtensionManager manager = new URIResolverExtensionManager();
+		CountingResolver resolver = new CountingResolver();
+		manager.registerResolver(resolver);
+
+		manager.resolve("file:///test.xml", "volatile", null);
+		manager.resolve("file:///test.xml", "volatile", null);
+		Assert.assertEquals(2, resolver.count.get());
+	}
+
+	@Test
+	public void unregisterResolver() {
+		URIResolverExtensionManager manager = new URIResolverExtensionManager();
+		CountingResolver resolver = new CountingResolver();
+		manager.registerResolver(resolver);
+		Assert.assertEquals("file:///resolved.xsd", manager.resolve("file:///test.xml", "ns", null));
+
+		manager.unregisterResolver(resolver);
+		Assert.assertNull(manager.resolve("file:///test.xml", "ns", null));
+		Assert.assertEquals(1, resolver.count.get());
+	}
+}